@@ -0,0 +1,38 @@
+package org.example.benchmarks;
+
+import org.example.ExecutiveOverviewReportGenerator;
+import org.example.data.ExecutiveOverviewData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full document rendering of the single-project executive overview from an in-memory row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutiveRenderingBenchmark {
+
+    private ExecutiveOverviewData project;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        project = new SyntheticReportData(42).executiveOverviews(1).get(0);
+    }
+
+    @Benchmark
+    public void executiveReport() throws IOException {
+        ExecutiveOverviewReportGenerator.renderReport(project, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void emptyExecutiveReport() throws IOException {
+        ExecutiveOverviewReportGenerator.renderReport(null, OutputStream.nullOutputStream());
+    }
+}
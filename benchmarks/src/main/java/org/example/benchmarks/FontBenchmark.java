@@ -0,0 +1,60 @@
+package org.example.benchmarks;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+import org.example.ReportFonts;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the font work done for every report: parsing the TrueType file, creating the
+ * per-document font and embedding its subset into a minimal document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FontBenchmark {
+
+    private byte[] fontBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        try (InputStream in = ReportFonts.class.getResourceAsStream("/fonts/DejaVuSans.ttf")) {
+            fontBytes = in.readAllBytes();
+        }
+        ReportFonts.getFontProgram();
+    }
+
+    @Benchmark
+    public FontProgram parseFontProgram() throws IOException {
+        // Bypass the iText font cache to measure a cold parse
+        return FontProgramFactory.createFont(fontBytes, false);
+    }
+
+    @Benchmark
+    public PdfFont createDocumentFont() throws IOException {
+        return ReportFonts.createFont();
+    }
+
+    @Benchmark
+    public void documentWithFontSubset() throws IOException {
+        PdfFont font = ReportFonts.createFont();
+        try (PdfDocument pdf = new PdfDocument(new PdfWriter(OutputStream.nullOutputStream()));
+             Document document = new Document(pdf)) {
+            document.setFont(font);
+            document.add(new Paragraph("Zażółć gęślą jaźń"));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.benchmarks;
+
+import org.example.EmployeePerformanceReportGenerator;
+import org.example.ProjectProgressReportGenerator;
+import org.example.data.EmployeePerformanceData;
+import org.example.data.ProjectProgressData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of reports too large for repeated timed iterations; every measurement is a single run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class LargeReportRenderingBenchmark {
+
+    @Param({"10000"})
+    private int size;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private List<EmployeePerformanceData> employees;
+    private List<ProjectProgressData> projects;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticReportData data = new SyntheticReportData(42);
+        employees = data.employees(size);
+        projects = data.projects(size);
+    }
+
+    @Benchmark
+    public void employeeReport() throws IOException {
+        EmployeePerformanceReportGenerator.renderReport(employees, true, OutputStream.nullOutputStream(), parallel);
+    }
+
+    @Benchmark
+    public void projectReport() throws IOException {
+        ProjectProgressReportGenerator.renderReport(projects, true, OutputStream.nullOutputStream(), parallel);
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.benchmarks;
+
+import java.util.Arrays;
+
+/**
+ * Collects latencies of one load level and reports percentiles and a power-of-two histogram.
+ * Every sample is kept, so percentiles are exact; a load level records at most a few hundred
+ * thousand requests. Not thread-safe: each load thread records into its own instance and the
+ * instances are merged afterwards.
+ */
+public class LatencyHistogram {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private boolean sorted;
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos The latency in nanoseconds
+     */
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        sorted = false;
+    }
+
+    /**
+     * Adds all samples of another histogram.
+     *
+     * @param other The histogram to add
+     */
+    public void add(LatencyHistogram other) {
+        if (count + other.count > samples.length) {
+            samples = Arrays.copyOf(samples, Math.max(samples.length * 2, count + other.count));
+        }
+        System.arraycopy(other.samples, 0, samples, count, other.count);
+        count += other.count;
+        sorted = false;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets a percentile of the recorded latencies.
+     *
+     * @param percentile The percentile, 0 to 100
+     * @return The latency in milliseconds, 0 if nothing was recorded
+     */
+    public double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        sort();
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return samples[Math.max(0, Math.min(count - 1, index))] / 1e6;
+    }
+
+    public double maxMillis() {
+        return percentileMillis(100);
+    }
+
+    /**
+     * Formats the histogram with one line per power-of-two millisecond bucket.
+     *
+     * @return The histogram, with the share of requests and a bar per bucket
+     */
+    public String format() {
+        if (count == 0) {
+            return "";
+        }
+        sort();
+        StringBuilder sb = new StringBuilder();
+        long upperMillis = 1;
+        int from = 0;
+        while (from < count) {
+            int to = from;
+            while (to < count && samples[to] < upperMillis * 1_000_000) {
+                to++;
+            }
+            if (to > from) {
+                double share = (to - from) * 100.0 / count;
+                sb.append(String.format("  %8s ms %6.2f%% %s%n", "<" + upperMillis, share, "#".repeat((int) Math.ceil(share / 2))));
+            }
+            from = to;
+            upperMillis *= 2;
+        }
+        return sb.toString();
+    }
+
+    private void sort() {
+        if (!sorted) {
+            Arrays.sort(samples, 0, count);
+            sorted = true;
+        }
+    }
+}
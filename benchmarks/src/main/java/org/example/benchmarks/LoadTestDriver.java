@@ -0,0 +1,384 @@
+package org.example.benchmarks;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.OperatingSystemMXBean;
+import org.example.DatabaseConnector;
+import org.example.ReportRequest;
+import org.example.ReportType;
+import org.example.cache.ReportCache;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test of report generation: simulated users request a mix of employee, project and executive
+ * reports against the configured database, one load level after another.
+ * <p>
+ * Usage: {@code java -Dpz.db.url=... -cp target/benchmarks.jar org.example.benchmarks.LoadTestDriver
+ * [--users 1,2,4,8,16] [--duration 30] [--warmup 10] [--mix 60,30,10] [--max-selection 20]
+ * [--think 0] [--seed 42] [--cache] [--out capacity.csv]}
+ * <p>
+ * Each user generates a report, waits the think time (milliseconds) and starts the next one, so the
+ * offered load grows with the number of users. For every level the driver prints throughput, latency
+ * percentiles and histogram, the time spent opening database connections, GC pauses and the CPU
+ * used by this process, then writes the capacity curve as CSV. When throughput stops growing while
+ * CPU is not saturated, the database is the limit. The report cache is off unless {@code --cache} is given.
+ * Fill the database with {@link SyntheticDatabaseGenerator} first.
+ */
+public class LoadTestDriver {
+
+    private static final ReportType[] TYPES = {ReportType.EMPLOYEE_PERFORMANCE, ReportType.PROJECT_PROGRESS,
+            ReportType.EXECUTIVE_OVERVIEW};
+
+    // GC action of the notifications for a whole concurrent cycle, as opposed to a pause
+    private static final String GC_CYCLE_ACTION = "end of GC cycle";
+
+    private final List<Integer> userIds;
+    private final List<Integer> projectIds;
+    private final int[] mix;
+    private final int maxSelection;
+    private final long thinkMillis;
+
+    private final AtomicLong gcPauses = new AtomicLong();
+    private final AtomicLong gcPauseMillis = new AtomicLong();
+    private final AtomicLong gcMaxPauseMillis = new AtomicLong();
+
+    public LoadTestDriver(List<Integer> userIds, List<Integer> projectIds, int[] mix, int maxSelection, long thinkMillis) {
+        this.userIds = userIds;
+        this.projectIds = projectIds;
+        this.mix = mix;
+        this.maxSelection = maxSelection;
+        this.thinkMillis = thinkMillis;
+        listenForGcPauses();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] levels = {1, 2, 4, 8, 16};
+        int duration = 30;
+        int warmup = 10;
+        int[] mix = {60, 30, 10};
+        int maxSelection = 20;
+        long think = 0;
+        long seed = 42;
+        boolean cache = false;
+        String out = "capacity-" + new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date()) + ".csv";
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--users" -> levels = parseInts(args[++i]);
+                case "--duration" -> duration = Integer.parseInt(args[++i]);
+                case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                case "--mix" -> mix = parseInts(args[++i]);
+                case "--max-selection" -> maxSelection = Integer.parseInt(args[++i]);
+                case "--think" -> think = Long.parseLong(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--cache" -> cache = true;
+                case "--out" -> out = args[++i];
+                default -> {
+                    System.err.println("Użycie: LoadTestDriver [--users 1,2,4] [--duration S] [--warmup S] "
+                            + "[--mix prac,proj,zarz] [--max-selection N] [--think MS] [--seed N] [--cache] [--out plik.csv]");
+                    System.exit(1);
+                }
+            }
+        }
+        if (mix.length != TYPES.length) {
+            throw new IllegalArgumentException("Mix musi mieć " + TYPES.length + " wagi");
+        }
+        if (!cache) {
+            System.setProperty("pz.cache.enabled", "false");
+        }
+
+        List<Integer> userIds;
+        List<Integer> projectIds;
+        try (Connection conn = DatabaseConnector.getConnection()) {
+            userIds = readIds(conn, "SELECT id FROM Users");
+            projectIds = readIds(conn, "SELECT id FROM Projects");
+        }
+        if (userIds.isEmpty() || projectIds.isEmpty()) {
+            throw new IllegalStateException("Baza nie zawiera użytkowników lub projektów");
+        }
+        System.out.printf("Użytkownicy w bazie: %d, projekty: %d, cache: %s%n", userIds.size(), projectIds.size(),
+                ReportCache.shared().isEnabled() ? "tak" : "nie");
+
+        LoadTestDriver driver = new LoadTestDriver(userIds, projectIds, mix, maxSelection, think);
+        if (warmup > 0) {
+            System.out.printf("Rozgrzewka %d s...%n", warmup);
+            driver.runLevel(levels[levels.length - 1], warmup, seed - 1);
+        }
+
+        List<LevelResult> results = new ArrayList<>();
+        for (int level : levels) {
+            LevelResult result = driver.runLevel(level, duration, seed + level);
+            results.add(result);
+            result.print();
+        }
+
+        printCapacityCurve(results);
+        writeCsv(Path.of(out), results);
+        System.out.println("Krzywa wydajności zapisana jako: " + Path.of(out).toAbsolutePath());
+    }
+
+    /**
+     * Runs one load level.
+     *
+     * @param concurrency Number of simulated users
+     * @param seconds Duration of the level
+     * @param seed Seed of the request choices
+     * @return The measurements of the level
+     * @throws InterruptedException If interrupted while waiting for the users
+     */
+    public LevelResult runLevel(int concurrency, int seconds, long seed) throws InterruptedException {
+        OperatingSystemMXBean os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        long connectionsBefore = DatabaseConnector.getConnectionCount();
+        long connectionWaitBefore = DatabaseConnector.getConnectionWaitNanos();
+        long gcPausesBefore = gcPauses.get();
+        long gcPauseMillisBefore = gcPauseMillis.get();
+        gcMaxPauseMillis.set(0);
+        long cpuBefore = os.getProcessCpuTime();
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+
+        LongAdder errors = new LongAdder();
+        List<Map<ReportType, LatencyHistogram>> perThread = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Map<ReportType, LatencyHistogram> histograms = new EnumMap<>(ReportType.class);
+            for (ReportType type : TYPES) {
+                histograms.put(type, new LatencyHistogram());
+            }
+            perThread.add(histograms);
+            Random random = new Random(seed * 31 + i);
+            Thread thread = new Thread(() -> simulateUser(random, end, histograms, errors), "load-user-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        LevelResult result = new LevelResult(concurrency, elapsed);
+        for (Map<ReportType, LatencyHistogram> histograms : perThread) {
+            for (Map.Entry<ReportType, LatencyHistogram> entry : histograms.entrySet()) {
+                result.byType.get(entry.getKey()).add(entry.getValue());
+                result.all.add(entry.getValue());
+            }
+        }
+        result.errors = errors.sum();
+        result.connections = DatabaseConnector.getConnectionCount() - connectionsBefore;
+        result.connectionWaitNanos = DatabaseConnector.getConnectionWaitNanos() - connectionWaitBefore;
+        result.gcPauses = gcPauses.get() - gcPausesBefore;
+        result.gcPauseMillis = gcPauseMillis.get() - gcPauseMillisBefore;
+        result.gcMaxPauseMillis = gcMaxPauseMillis.get();
+        result.cpuPercent = (os.getProcessCpuTime() - cpuBefore) * 100.0 / elapsed / Runtime.getRuntime().availableProcessors();
+        return result;
+    }
+
+    private void simulateUser(Random random, long end, Map<ReportType, LatencyHistogram> histograms, LongAdder errors) {
+        while (System.nanoTime() < end) {
+            ReportType type = pickType(random);
+            ReportRequest request = createRequest(type, random);
+            long start = System.nanoTime();
+            try {
+                ReportCache.shared().generate(request, OutputStream.nullOutputStream());
+                histograms.get(type).record(System.nanoTime() - start);
+            } catch (SQLException | IOException | RuntimeException e) {
+                errors.increment();
+                System.err.println("Błąd raportu " + type + ": " + e.getMessage());
+            }
+
+            if (thinkMillis > 0) {
+                try {
+                    Thread.sleep(thinkMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private ReportType pickType(Random random) {
+        int total = 0;
+        for (int weight : mix) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < mix.length; i++) {
+            roll -= mix[i];
+            if (roll < 0) {
+                return TYPES[i];
+            }
+        }
+        return TYPES[0];
+    }
+
+    private ReportRequest createRequest(ReportType type, Random random) {
+        switch (type) {
+            case EMPLOYEE_PERFORMANCE:
+                return ReportRequest.employeePerformance(pickIds(userIds, random), null, null);
+            case PROJECT_PROGRESS:
+                return ReportRequest.projectProgress(pickIds(projectIds, random), null, null);
+            default:
+                return ReportRequest.executiveOverview(projectIds.get(random.nextInt(projectIds.size())),
+                        null, null, false, false, null, null);
+        }
+    }
+
+    // Most requests are for a few entities, some for a larger selection
+    private List<Integer> pickIds(List<Integer> ids, Random random) {
+        int size = 1 + (int) (Math.min(maxSelection, ids.size()) * Math.pow(random.nextDouble(), 3));
+        List<Integer> picked = new ArrayList<>(size);
+        int from = random.nextInt(ids.size());
+        for (int i = 0; i < size; i++) {
+            picked.add(ids.get((from + i) % ids.size()));
+        }
+        return picked;
+    }
+
+    private void listenForGcPauses() {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!(gc instanceof NotificationEmitter emitter)) {
+                continue;
+            }
+            emitter.addNotificationListener((notification, handback) -> {
+                if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                    return;
+                }
+                GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                // ZGC and Shenandoah also report their concurrent cycles, which run beside the report
+                // threads; their pauses come as separate notifications. The G1 Concurrent GC
+                // notifications are the remark and cleanup pauses, so they count.
+                if (GC_CYCLE_ACTION.equals(info.getGcAction())) {
+                    return;
+                }
+                long pause = info.getGcInfo().getDuration();
+                gcPauses.incrementAndGet();
+                gcPauseMillis.addAndGet(pause);
+                gcMaxPauseMillis.accumulateAndGet(pause, Math::max);
+            }, null, null);
+        }
+    }
+
+    private static List<Integer> readIds(Connection conn, String query) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    private static int[] parseInts(String value) {
+        String[] parts = value.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.parseInt(parts[i].trim());
+        }
+        return result;
+    }
+
+    private static void printCapacityCurve(List<LevelResult> results) {
+        System.out.println();
+        System.out.println("Krzywa wydajności:");
+        System.out.printf("%8s %10s %10s %10s %10s %12s %8s%n", "Użytk.", "Żądania/s", "p50 ms", "p99 ms", "CPU %",
+                "Poł. ms/żąd", "Uwagi");
+        double bestThroughput = 0;
+        for (LevelResult result : results) {
+            double throughput = result.throughput();
+            // Less than 10% more throughput from a higher level means the system is saturated
+            String note = bestThroughput > 0 && throughput < bestThroughput * 1.1 ? "nasycenie" : "";
+            System.out.printf("%8d %10.2f %10.1f %10.1f %10.1f %12.2f %8s%n", result.concurrency, throughput,
+                    result.all.percentileMillis(50), result.all.percentileMillis(99), result.cpuPercent,
+                    result.connectionWaitPerRequestMillis(), note);
+            bestThroughput = Math.max(bestThroughput, throughput);
+        }
+    }
+
+    private static void writeCsv(Path file, List<LevelResult> results) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file))) {
+            writer.println("users,requests,errors,throughput_per_s,p50_ms,p90_ms,p99_ms,max_ms,"
+                    + "connections,connection_wait_avg_ms,connection_wait_per_request_ms,"
+                    + "gc_pauses,gc_pause_total_ms,gc_pause_max_ms,cpu_percent");
+            for (LevelResult r : results) {
+                writer.println(String.format(Locale.ROOT, "%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%.3f,%.3f,%d,%d,%d,%.1f",
+                        r.concurrency, r.all.getCount(), r.errors, r.throughput(),
+                        r.all.percentileMillis(50), r.all.percentileMillis(90), r.all.percentileMillis(99), r.all.maxMillis(),
+                        r.connections, r.connections == 0 ? 0 : r.connectionWaitNanos / 1e6 / r.connections,
+                        r.connectionWaitPerRequestMillis(), r.gcPauses, r.gcPauseMillis, r.gcMaxPauseMillis, r.cpuPercent));
+            }
+        }
+    }
+
+    /**
+     * Measurements of one load level.
+     */
+    public static class LevelResult {
+        private final int concurrency;
+        private final long elapsedNanos;
+        private final LatencyHistogram all = new LatencyHistogram();
+        private final Map<ReportType, LatencyHistogram> byType = new EnumMap<>(ReportType.class);
+        private long errors;
+        private long connections;
+        private long connectionWaitNanos;
+        private long gcPauses;
+        private long gcPauseMillis;
+        private long gcMaxPauseMillis;
+        private double cpuPercent;
+
+        LevelResult(int concurrency, long elapsedNanos) {
+            this.concurrency = concurrency;
+            this.elapsedNanos = elapsedNanos;
+            for (ReportType type : TYPES) {
+                byType.put(type, new LatencyHistogram());
+            }
+        }
+
+        public double throughput() {
+            return all.getCount() * 1e9 / elapsedNanos;
+        }
+
+        public double connectionWaitPerRequestMillis() {
+            return all.getCount() == 0 ? 0 : connectionWaitNanos / 1e6 / all.getCount();
+        }
+
+        void print() {
+            System.out.printf("%nUżytkownicy: %d, żądania: %d, błędy: %d, przepustowość: %.2f/s, CPU: %.1f%%%n",
+                    concurrency, all.getCount(), errors, throughput(), cpuPercent);
+            System.out.printf("  opóźnienie ms: p50 %.1f, p90 %.1f, p99 %.1f, max %.1f%n", all.percentileMillis(50),
+                    all.percentileMillis(90), all.percentileMillis(99), all.maxMillis());
+            for (Map.Entry<ReportType, LatencyHistogram> entry : byType.entrySet()) {
+                LatencyHistogram histogram = entry.getValue();
+                System.out.printf("  %-22s %6d żądań, p50 %.1f ms, p99 %.1f ms%n", entry.getKey(), histogram.getCount(),
+                        histogram.percentileMillis(50), histogram.percentileMillis(99));
+            }
+            System.out.printf("  połączenia: %d, oczekiwanie %.2f ms/żądanie%n", connections, connectionWaitPerRequestMillis());
+            System.out.printf("  pauzy GC: %d, łącznie %d ms, najdłuższa %d ms%n", gcPauses, gcPauseMillis, gcMaxPauseMillis);
+            System.out.print(all.format());
+        }
+    }
+}
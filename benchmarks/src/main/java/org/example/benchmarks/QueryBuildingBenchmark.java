@@ -0,0 +1,36 @@
+package org.example.benchmarks;
+
+import org.example.data.JdbcReportDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the report SQL for IN lists of different lengths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBuildingBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int idCount;
+
+    @Benchmark
+    public String employeeQuery() {
+        return JdbcReportDataSource.buildEmployeeQuery(idCount, 10.0, 90.0);
+    }
+
+    @Benchmark
+    public String projectQuery() {
+        return JdbcReportDataSource.buildProjectQuery(idCount, "wTrakcie", 5);
+    }
+
+    @Benchmark
+    public String executiveQuery() {
+        return JdbcReportDataSource.buildExecutiveQuery("wTrakcie", 5, true, false, 10.0, null);
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.benchmarks;
+
+import org.example.EmployeePerformanceReportGenerator;
+import org.example.ExecutiveOverviewReportGenerator;
+import org.example.ProjectProgressReportGenerator;
+import org.example.data.EmployeePerformanceData;
+import org.example.data.ExecutiveOverviewData;
+import org.example.data.InMemoryReportDataSource;
+import org.example.data.ProjectProgressData;
+import org.example.data.ReportDataSources;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * The public generate methods of the report generators, reading from an in-memory data source.
+ * Unlike {@link ReportRenderingBenchmark} this includes selecting and filtering the rows, so it
+ * shows what a report costs without the database. The report cache is disabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dpz.cache.enabled=false")
+public class ReportGenerationBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int size;
+
+    private List<Integer> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticReportData data = new SyntheticReportData(42);
+        InMemoryReportDataSource dataSource = new InMemoryReportDataSource();
+        for (EmployeePerformanceData employee : data.employees(size)) {
+            dataSource.addEmployee(employee);
+        }
+        for (ProjectProgressData project : data.projects(size)) {
+            dataSource.addProject(project);
+        }
+        for (ExecutiveOverviewData overview : data.executiveOverviews(size)) {
+            dataSource.addExecutiveOverview(overview);
+        }
+        ReportDataSources.setDefault(dataSource);
+        ids = IntStream.rangeClosed(1, size).boxed().toList();
+    }
+
+    @Benchmark
+    public void employeeReport() throws SQLException, IOException {
+        EmployeePerformanceReportGenerator.generateMultipleEmployeeReport(ids, OutputStream.nullOutputStream(), 10.0, 90.0);
+    }
+
+    @Benchmark
+    public void projectReport() throws SQLException, IOException {
+        ProjectProgressReportGenerator.generateMultipleFilteredReport(ids, OutputStream.nullOutputStream(), null, null);
+    }
+
+    @Benchmark
+    public void executiveReport() throws SQLException, IOException {
+        ExecutiveOverviewReportGenerator.generateFilteredReport(size, OutputStream.nullOutputStream(),
+                null, null, false, false, null, null);
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.benchmarks;
+
+import org.example.EmployeePerformanceReportGenerator;
+import org.example.ProjectProgressReportGenerator;
+import org.example.data.EmployeePerformanceData;
+import org.example.data.ProjectProgressData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full document rendering of the multi-entity reports from in-memory rows, without the database.
+ * Sampling mode gives latency percentiles next to throughput. Reports of 10,000 entities are
+ * measured in {@link LargeReportRenderingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportRenderingBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int size;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private List<EmployeePerformanceData> employees;
+    private List<ProjectProgressData> projects;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticReportData data = new SyntheticReportData(42);
+        employees = data.employees(size);
+        projects = data.projects(size);
+    }
+
+    @Benchmark
+    public void employeeReport() throws IOException {
+        EmployeePerformanceReportGenerator.renderReport(employees, size > 1, OutputStream.nullOutputStream(), parallel);
+    }
+
+    @Benchmark
+    public void projectReport() throws IOException {
+        ProjectProgressReportGenerator.renderReport(projects, size > 1, OutputStream.nullOutputStream(), parallel);
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files, e.g. from the previous and the current release.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar org.example.benchmarks.ResultsComparison old.json new.json}
+ * <p>
+ * Prints one line per benchmark, parameter set and mode with both scores, the relative change
+ * and the change of allocated bytes per operation when the GC profiler was used.
+ */
+public class ResultsComparison {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Użycie: ResultsComparison <stary.json> <nowy.json>");
+            System.exit(1);
+        }
+
+        Map<String, JsonObject> before = read(Path.of(args[0]));
+        Map<String, JsonObject> after = read(Path.of(args[1]));
+
+        System.out.printf("%-90s %14s %14s %9s %12s%n", "Benchmark", "Przed", "Po", "Zmiana", "Alokacje");
+        for (Map.Entry<String, JsonObject> entry : after.entrySet()) {
+            JsonObject newResult = entry.getValue();
+            JsonObject oldResult = before.get(entry.getKey());
+            double newScore = score(newResult);
+            String unit = newResult.getAsJsonObject("primaryMetric").get("scoreUnit").getAsString();
+
+            if (oldResult == null) {
+                System.out.printf("%-90s %14s %14.3f %9s %12s  %s%n", entry.getKey(), "-", newScore, "nowy", "", unit);
+                continue;
+            }
+
+            double oldScore = score(oldResult);
+            double change = oldScore == 0 ? 0 : (newScore - oldScore) * 100.0 / oldScore;
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %12s  %s%n", entry.getKey(), oldScore, newScore, change,
+                    allocationChange(oldResult, newResult), unit);
+        }
+
+        for (String key : before.keySet()) {
+            if (!after.containsKey(key)) {
+                System.out.printf("%-90s  usunięty%n", key);
+            }
+        }
+    }
+
+    private static Map<String, JsonObject> read(Path file) throws IOException {
+        Map<String, JsonObject> results = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            JsonArray array = JsonParser.parseReader(reader).getAsJsonArray();
+            for (JsonElement element : array) {
+                JsonObject result = element.getAsJsonObject();
+                results.put(key(result), result);
+            }
+        }
+        return results;
+    }
+
+    private static String key(JsonObject result) {
+        StringBuilder key = new StringBuilder(result.get("benchmark").getAsString()
+                .replace("org.example.benchmarks.", ""));
+        if (result.has("params")) {
+            Map<String, String> params = new TreeMap<>();
+            for (Map.Entry<String, JsonElement> param : result.getAsJsonObject("params").entrySet()) {
+                params.put(param.getKey(), param.getValue().getAsString());
+            }
+            key.append(params);
+        }
+        return key.append(" ").append(result.get("mode").getAsString()).toString();
+    }
+
+    private static double score(JsonObject result) {
+        return result.getAsJsonObject("primaryMetric").get("score").getAsDouble();
+    }
+
+    private static String allocationChange(JsonObject oldResult, JsonObject newResult) {
+        Double oldBytes = allocation(oldResult);
+        Double newBytes = allocation(newResult);
+        if (oldBytes == null || newBytes == null || oldBytes == 0) {
+            return "";
+        }
+        return String.format("%+.1f%%", (newBytes - oldBytes) * 100.0 / oldBytes);
+    }
+
+    private static Double allocation(JsonObject result) {
+        JsonObject secondary = result.getAsJsonObject("secondaryMetrics");
+        if (secondary == null || !secondary.has(ALLOCATION_METRIC)) {
+            return null;
+        }
+        return secondary.getAsJsonObject(ALLOCATION_METRIC).get("score").getAsDouble();
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.benchmarks;
+
+import org.example.data.EmployeePerformanceData;
+import org.example.data.ExecutiveOverviewData;
+import org.example.data.JdbcReportDataSource;
+import org.example.data.ProjectProgressData;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a result set row to the report DTOs.
+ * The rows come from a map-backed ResultSet, so the numbers show the mapping itself,
+ * not the cost of the MySQL driver decoding the row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    private ResultSet employeeRow;
+    private ResultSet projectRow;
+    private ResultSet executiveRow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Object> employee = new HashMap<>();
+        employee.put("user_id", 7);
+        employee.put("employee", "Adam Lewandowski");
+        employee.put("team_leader", "Piotr Wiśniewski");
+        employee.put("total_tasks", 12);
+        employee.put("completed", 8);
+        employee.put("canceled", 1);
+        employee.put("overdue_tasks", 2);
+        employee.put("completed_tasks_titles", "Wywiady z klientem (2024-05-10)\nDokumentacja wymagań (2024-05-12)");
+        employee.put("pending_tasks_titles", "Diagram ERD (wTrakcie, 2024-05-14)");
+        employee.put("completion_rate", 66.6667);
+        employeeRow = mapResultSet(employee);
+
+        Map<String, Object> project = new HashMap<>();
+        project.put("project_id", 1);
+        project.put("manager_id", 1);
+        project.put("project", "System ERP");
+        project.put("manager", "Jan Kowalski");
+        project.put("status", "wTrakcie");
+        project.put("overall_progress", 30);
+        project.put("total_milestones", 2);
+        project.put("milestone_names", "Analiza wymagań, Projekt systemu");
+        project.put("total_tasks", 4);
+        project.put("task_titles", "Wywiady z klientem, Dokumentacja wymagań, Diagram ERD, Mockupy UI");
+        project.put("completed_tasks", 2);
+        project.put("canceled_tasks", 0);
+        project.put("avg_milestone_progress", "90.0000");
+        project.put("involved_teams", "Development, Marketing");
+        project.put("team_leaders", "Piotr Wiśniewski (Development); Katarzyna Wójcik (Marketing)");
+        projectRow = mapResultSet(project);
+
+        Map<String, Object> executive = new HashMap<>();
+        executive.put("project_id", 1);
+        executive.put("manager_id", 1);
+        executive.put("project", "System ERP");
+        executive.put("project_status", "wTrakcie");
+        executive.put("project_progress", 30);
+        executive.put("project_manager", "Jan Kowalski");
+        executive.put("teams_involved", 2);
+        executive.put("employees_assigned", 9);
+        executive.put("milestones", 2);
+        executive.put("total_tasks", 4);
+        executive.put("tasks_done", 2);
+        executive.put("tasks_canceled", 0);
+        executive.put("task_completion_rate", "50.00");
+        executive.put("avg_milestone_progress", "90.00");
+        executive.put("overdue_milestones", 1);
+        executive.put("overdue_tasks", 2);
+        executive.put("involved_teams", "Development, Marketing");
+        executive.put("team_leaders", "Piotr Wiśniewski (Development); Katarzyna Wójcik (Marketing)");
+        executive.put("task_titles", "Wywiady z klientem, Dokumentacja wymagań, Diagram ERD, Mockupy UI");
+        executiveRow = mapResultSet(executive);
+    }
+
+    @Benchmark
+    public EmployeePerformanceData employeeRow() throws SQLException {
+        return JdbcReportDataSource.mapEmployeeRow(employeeRow);
+    }
+
+    @Benchmark
+    public ProjectProgressData projectRow() throws SQLException {
+        return JdbcReportDataSource.mapProjectRow(projectRow);
+    }
+
+    @Benchmark
+    public ExecutiveOverviewData executiveRow() throws SQLException {
+        return JdbcReportDataSource.mapExecutiveRow(executiveRow);
+    }
+
+    /**
+     * Creates a ResultSet positioned on a single row, supporting the getters used by the mappers.
+     */
+    static ResultSet mapResultSet(Map<String, Object> row) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    Object value = args != null && args.length == 1 && args[0] instanceof String ? row.get(args[0]) : null;
+                    switch (method.getName()) {
+                        case "getString":
+                            return value != null ? value.toString() : null;
+                        case "getInt":
+                            return value != null ? ((Number) value).intValue() : 0;
+                        case "getLong":
+                            return value != null ? ((Number) value).longValue() : 0L;
+                        case "getDouble":
+                            return value != null ? ((Number) value).doubleValue() : 0.0;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
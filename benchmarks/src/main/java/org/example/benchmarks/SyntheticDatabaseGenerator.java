@@ -0,0 +1,476 @@
+package org.example.benchmarks;
+
+import org.example.DatabaseConnector;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Fills a pzdb schema loaded from database.sql with a large, reproducible data set.
+ * <p>
+ * Usage: {@code java -Dpz.db.url=... -cp target/benchmarks.jar org.example.benchmarks.SyntheticDatabaseGenerator
+ * [--users 100000] [--projects 10000] [--tasks 10000000] [--seed 42] [--batch 1000] [--date 2025-06-01] [--compact]}
+ * <p>
+ * New rows are appended after the existing ones. Every team gets a team leader, projects are managed by
+ * project managers and tasks are assigned by the leader of the assignee's team, so the privilege triggers
+ * accept every row; the notification and change tracking triggers run as for normal inserts. Rows are
+ * written with multi-row INSERT statements, parents always before their children.
+ * <p>
+ * The same seed and date always give the same data. Task statuses depend on the date: tasks past
+ * their deadline are mostly done, later ones mostly open.
+ */
+public class SyntheticDatabaseGenerator {
+
+    private static final String[] FIRST_NAMES = {"Jan", "Anna", "Piotr", "Katarzyna", "Marek", "Ewa", "Łukasz", "Zofia",
+            "Tomasz", "Magdalena", "Paweł", "Agnieszka", "Michał", "Joanna", "Krzysztof", "Monika"};
+    private static final String[] LAST_NAMES = {"Kowalski", "Nowak", "Wiśniewski", "Wójcik", "Kowalczyk", "Dąbrowska",
+            "Mazur", "Lewandowski", "Zieliński", "Szymańska", "Woźniak", "Kozłowski", "Jankowska", "Krawczyk"};
+    private static final String[] TEAM_NAMES = {"Development", "Marketing", "Sales", "HR", "Support", "Design",
+            "Testing", "Operations", "Finance", "Research"};
+    private static final String[] TASK_WORDS = {"Analiza", "Implementacja", "Testy", "Dokumentacja", "Wdrożenie",
+            "Przegląd", "Raport", "Migracja", "Optymalizacja", "Konfiguracja"};
+    private static final String[] MILESTONE_WORDS = {"Analiza wymagań", "Projekt systemu", "Prototyp", "Implementacja",
+            "Testy akceptacyjne", "Wdrożenie", "Szkolenia", "Utrzymanie"};
+    private static final int COMMIT_ROWS = 20000;
+    private static final String PASSWORD_HASH = "$2a$10$syntheticsyntheticsyntheticsyntheticsyntheticsynth";
+
+    private final Connection conn;
+    private final Random random;
+    private final LocalDate today;
+    private final int batchSize;
+
+    private final Map<Integer, int[]> teamMembers = new HashMap<>();
+    private final List<Integer> teamIds = new ArrayList<>();
+    private final Map<Integer, Integer> teamLeaders = new HashMap<>();
+    private final List<Integer> managers = new ArrayList<>();
+
+    private long taskCount;
+    private long assignmentCount;
+    private long uncommittedRows;
+
+    public SyntheticDatabaseGenerator(Connection conn, long seed, LocalDate today, int batchSize) {
+        this.conn = conn;
+        this.random = new Random(seed);
+        this.today = today;
+        this.batchSize = batchSize;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        int users = 1000;
+        Integer projects = null;
+        Long tasks = null;
+        long seed = 42;
+        int batchSize = 1000;
+        LocalDate date = LocalDate.now();
+        boolean compact = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--users" -> users = Integer.parseInt(args[++i]);
+                case "--projects" -> projects = Integer.parseInt(args[++i]);
+                case "--tasks" -> tasks = Long.parseLong(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--batch" -> batchSize = Integer.parseInt(args[++i]);
+                case "--date" -> date = LocalDate.parse(args[++i]);
+                case "--compact" -> compact = true;
+                default -> {
+                    System.err.println("Użycie: SyntheticDatabaseGenerator [--users N] [--projects N] [--tasks N] "
+                            + "[--seed N] [--batch N] [--date RRRR-MM-DD] [--compact]");
+                    System.exit(1);
+                }
+            }
+        }
+
+        System.out.printf("Generowanie danych: seed %d, data %s%n", seed, date);
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseConnector.getConnection()) {
+            SyntheticDatabaseGenerator generator = new SyntheticDatabaseGenerator(conn, seed, date, batchSize);
+            generator.generate(users, projects != null ? projects : Math.max(1, users / 10),
+                    tasks != null ? tasks : users * 20L);
+            if (compact) {
+                System.out.println("Kompaktowanie dziennika zmian...");
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("CALL CompactDataChanges()");
+                }
+            }
+        }
+        System.out.printf("Zakończono w %.1f s%n", (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Generates teams, users, projects with their teams and milestones, tasks, assignments and notifications.
+     *
+     * @param users Number of users to add
+     * @param projects Number of projects to add
+     * @param tasks Number of tasks to add
+     * @throws SQLException If a database error occurs
+     */
+    public void generate(int users, int projects, long tasks) throws SQLException {
+        int teams = Math.max(1, users / 25);
+        int managerCount = Math.max(1, users / 50);
+        if (users < teams + managerCount) {
+            throw new IllegalArgumentException("Za mało użytkowników: potrzeba co najmniej " + (teams + managerCount));
+        }
+
+        Map<String, Integer> roles = readRoles();
+        // Commit every few statements: a commit per statement makes the log flush the bottleneck
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            generateUsers(users, teams, managerCount, roles);
+            System.out.printf("Zespoły: %d, użytkownicy: %d%n", teams, users);
+            generateProjects(projects, tasks);
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        System.out.printf("Projekty: %d, zadania: %d, przypisania: %d%n", projects, taskCount, assignmentCount);
+    }
+
+    private Map<String, Integer> readRoles() throws SQLException {
+        Map<String, Integer> roles = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, name FROM Roles ORDER BY id")) {
+            while (rs.next()) {
+                roles.putIfAbsent(rs.getString("name"), rs.getInt("id"));
+            }
+        }
+        for (String role : new String[]{"projektManager", "teamLider", "pracownik"}) {
+            if (!roles.containsKey(role)) {
+                throw new IllegalStateException("Brak roli " + role + " w tabeli Roles");
+            }
+        }
+        return roles;
+    }
+
+    private int nextId(String table) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private void generateUsers(int users, int teams, int managerCount, Map<String, Integer> roles) throws SQLException {
+        BatchInserter teamInserter = new BatchInserter("Teams", "id", "name");
+        int teamId = nextId("Teams");
+        for (int i = 0; i < teams; i++) {
+            teamIds.add(teamId + i);
+            teamInserter.add(teamId + i, TEAM_NAMES[i % TEAM_NAMES.length] + " " + (i / TEAM_NAMES.length + 1));
+        }
+        teamInserter.close();
+
+        // The first user of every team leads it, the next ones are the project managers
+        List<List<Integer>> members = new ArrayList<>();
+        for (int i = 0; i < teams; i++) {
+            members.add(new ArrayList<>());
+        }
+
+        BatchInserter userInserter = new BatchInserter("Users", "id", "team_id", "role_id", "first_name", "last_name",
+                "hire_date", "login", "password_hash", "created_at");
+        int userId = nextId("Users");
+        for (int i = 0; i < users; i++, userId++) {
+            int team = i < teams ? i : random.nextInt(teams);
+            String role;
+            if (i < teams) {
+                role = "teamLider";
+                teamLeaders.put(teamIds.get(team), userId);
+            } else if (i < teams + managerCount) {
+                role = "projektManager";
+                managers.add(userId);
+            } else {
+                role = "pracownik";
+            }
+            members.get(team).add(userId);
+
+            LocalDate hireDate = today.minusDays(random.nextInt(3650));
+            userInserter.add(userId, teamIds.get(team), roles.get(role), pick(FIRST_NAMES), pick(LAST_NAMES),
+                    hireDate, "syn" + userId, PASSWORD_HASH, hireDate.atTime(9, 0));
+        }
+        userInserter.close();
+
+        for (int i = 0; i < teams; i++) {
+            teamMembers.put(teamIds.get(i), members.get(i).stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    private void generateProjects(int projects, long tasks) throws SQLException {
+        BatchInserter projectInserter = new BatchInserter("Projects", "id", "manager_id", "name", "progress", "status",
+                "start_date", "end_date");
+        BatchInserter projectTeamInserter = new BatchInserter("ProjectTeams", "project_id", "team_id")
+                .dependsOn(projectInserter);
+        BatchInserter milestoneInserter = new BatchInserter("Milestones", "id", "project_id", "name", "progress",
+                "description", "deadline").dependsOn(projectInserter);
+        BatchInserter taskInserter = new BatchInserter("Tasks", "id", "milestone_id", "title", "description", "priority",
+                "status", "progress", "created_at", "deadline", "canceled_by").dependsOn(milestoneInserter);
+        BatchInserter assignmentInserter = new BatchInserter("TaskAssignments", "task_id", "assigned_by", "user_id",
+                "assigned_at").dependsOn(taskInserter);
+        BatchInserter notificationInserter = new BatchInserter("Notifications", "task_id", "user_id", "type", "message",
+                "is_read", "created_at").dependsOn(assignmentInserter);
+
+        // Project sizes vary, but add up to exactly the requested number of tasks
+        double[] weights = new double[projects];
+        double remainingWeight = 0;
+        for (int i = 0; i < projects; i++) {
+            weights[i] = 0.2 + random.nextDouble() * random.nextDouble() * 4;
+            remainingWeight += weights[i];
+        }
+
+        int projectId = nextId("Projects");
+        int milestoneId = nextId("Milestones");
+        int taskId = nextId("Tasks");
+        long remainingTasks = tasks;
+        int reportEvery = Math.max(1, projects / 20);
+        long start = System.nanoTime();
+
+        for (int p = 0; p < projects; p++, projectId++) {
+            int projectTasks = (int) Math.round(remainingTasks * weights[p] / remainingWeight);
+            remainingTasks -= projectTasks;
+            remainingWeight -= weights[p];
+
+            LocalDate startDate = today.minusDays(random.nextInt(720) - 90);
+            LocalDate endDate = startDate.plusDays(60 + random.nextInt(480));
+            String status;
+            if (startDate.isAfter(today)) {
+                status = "planowany";
+            } else if (endDate.isBefore(today)) {
+                status = random.nextInt(10) == 0 ? "anulowany" : "zakonczony";
+            } else {
+                status = "wTrakcie";
+            }
+
+            List<Integer> projectTeams = pickTeams(1 + random.nextInt(3));
+            int milestones = 3 + random.nextInt(6);
+            int[] tasksPerMilestone = new int[milestones];
+            for (int i = 0; i < projectTasks; i++) {
+                tasksPerMilestone[random.nextInt(milestones)]++;
+            }
+
+            // Tasks are generated first, the milestone and project progress follow from their statuses
+            List<Object[]> milestoneRows = new ArrayList<>();
+            List<Object[]> taskRows = new ArrayList<>();
+            List<Object[]> assignmentRows = new ArrayList<>();
+            List<Object[]> notificationRows = new ArrayList<>();
+            int projectDone = 0;
+            long span = Math.max(1, endDate.toEpochDay() - startDate.toEpochDay());
+
+            for (int m = 0; m < milestones; m++, milestoneId++) {
+                LocalDate deadline = startDate.plusDays(span * (m + 1) / milestones);
+                int done = 0;
+                for (int t = 0; t < tasksPerMilestone[m]; t++, taskId++) {
+                    if (addTask(taskId, milestoneId, deadline, projectTeams, taskRows, assignmentRows, notificationRows)) {
+                        done++;
+                    }
+                }
+                projectDone += done;
+                int progress = tasksPerMilestone[m] == 0 ? 0 : done * 100 / tasksPerMilestone[m];
+                milestoneRows.add(new Object[]{milestoneId, projectId,
+                        "Etap " + (m + 1) + ": " + MILESTONE_WORDS[m % MILESTONE_WORDS.length], progress,
+                        "Etap projektu " + projectId, deadline});
+            }
+
+            int projectProgress = projectTasks == 0 ? 0 : projectDone * 100 / projectTasks;
+            projectInserter.add(projectId, managers.get(random.nextInt(managers.size())), "Projekt " + projectId,
+                    projectProgress, status, startDate, endDate);
+            for (int team : projectTeams) {
+                projectTeamInserter.add(projectId, team);
+            }
+            for (Object[] row : milestoneRows) {
+                milestoneInserter.add(row);
+            }
+            for (Object[] row : taskRows) {
+                taskInserter.add(row);
+            }
+            for (Object[] row : assignmentRows) {
+                assignmentInserter.add(row);
+            }
+            for (Object[] row : notificationRows) {
+                notificationInserter.add(row);
+            }
+
+            taskCount += taskRows.size();
+            assignmentCount += assignmentRows.size();
+            if ((p + 1) % reportEvery == 0) {
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("  projekty %d/%d, zadania %d (%.0f/s)%n", p + 1, projects, taskCount, taskCount / seconds);
+            }
+        }
+
+        projectTeamInserter.close();
+        notificationInserter.close();
+    }
+
+    /**
+     * Creates one task with its assignments and notifications.
+     *
+     * @return True if the task is done
+     */
+    private boolean addTask(int taskId, int milestoneId, LocalDate milestoneDeadline, List<Integer> projectTeams,
+                            List<Object[]> taskRows, List<Object[]> assignmentRows, List<Object[]> notificationRows) {
+        LocalDate deadline = milestoneDeadline.minusDays(random.nextInt(21));
+        LocalDateTime createdAt = deadline.minusDays(5 + random.nextInt(56)).atTime(8 + random.nextInt(10), random.nextInt(60));
+        boolean overdue = deadline.isBefore(today);
+
+        int team = projectTeams.get(random.nextInt(projectTeams.size()));
+        int roll = random.nextInt(100);
+        String status;
+        int progress;
+        Integer canceledBy = null;
+        if (roll < (overdue ? 75 : 20)) {
+            status = "zrobione";
+            progress = 100;
+        } else if (roll < (overdue ? 85 : 23)) {
+            // Only team leaders and the president may cancel tasks
+            status = "anulowane";
+            progress = random.nextInt(50);
+            canceledBy = teamLeaders.get(team);
+        } else if (roll < (overdue ? 95 : 58)) {
+            status = "wTrakcie";
+            progress = 10 + random.nextInt(80);
+        } else {
+            status = "doZrobienia";
+            progress = 0;
+        }
+
+        String title = pick(TASK_WORDS) + " modułu " + random.nextInt(1000);
+        String priority = roll % 10 < 3 ? "niski" : roll % 10 < 8 ? "sredni" : "wysoki";
+        taskRows.add(new Object[]{taskId, milestoneId, title, "Zadanie " + taskId, priority, status, progress,
+                createdAt, deadline, canceledBy});
+
+        // Most tasks have one assignee, some two; busy people get more work than others
+        int[] members = teamMembers.get(team);
+        int assignees = Math.min(members.length, random.nextInt(100) < 85 ? 1 : 2);
+        int first = (int) (members.length * Math.pow(random.nextDouble(), 1.5));
+        for (int i = 0; i < assignees; i++) {
+            int userId = members[i == 0 ? first : (first + 1 + random.nextInt(members.length - 1)) % members.length];
+            LocalDateTime assignedAt = createdAt.plusHours(random.nextInt(48));
+            assignmentRows.add(new Object[]{taskId, teamLeaders.get(team), userId, assignedAt});
+
+            if (random.nextInt(100) < 40) {
+                notificationRows.add(new Object[]{taskId, userId, "zadaniePrzypisane",
+                        "Przypisano zadanie \"" + title + "\"", overdue, assignedAt});
+            }
+            if ("zrobione".equals(status) && random.nextInt(100) < 10) {
+                notificationRows.add(new Object[]{taskId, userId, "aktualizacjaZadania",
+                        "Zadanie \"" + title + "\" zostało ukończone", overdue, deadline.atTime(16, 0)});
+            }
+        }
+        return "zrobione".equals(status);
+    }
+
+    private List<Integer> pickTeams(int count) {
+        List<Integer> picked = new ArrayList<>();
+        while (picked.size() < Math.min(count, teamIds.size())) {
+            int team = teamIds.get(random.nextInt(teamIds.size()));
+            if (!picked.contains(team)) {
+                picked.add(team);
+            }
+        }
+        return picked;
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Collects rows of one table and writes them with multi-row INSERT statements.
+     * Tables the rows refer to are flushed first, so foreign keys and triggers always see the parent rows.
+     * {@link #close()} writes the remaining rows, of this table and of its parents, and closes the statements.
+     */
+    private class BatchInserter {
+        private final String table;
+        private final String[] columns;
+        private final int rowsPerStatement;
+        private final List<Object[]> rows = new ArrayList<>();
+        private final List<BatchInserter> parents = new ArrayList<>();
+        private PreparedStatement fullStatement;
+
+        BatchInserter(String table, String... columns) {
+            this.table = table;
+            this.columns = columns;
+            // Stay well below the limit of 65535 placeholders per statement
+            this.rowsPerStatement = Math.max(1, Math.min(batchSize, 60000 / columns.length));
+        }
+
+        BatchInserter dependsOn(BatchInserter parent) {
+            parents.add(parent);
+            return this;
+        }
+
+        void add(Object... values) throws SQLException {
+            rows.add(values);
+            if (rows.size() >= rowsPerStatement) {
+                flush();
+            }
+        }
+
+        void flush() throws SQLException {
+            for (BatchInserter parent : parents) {
+                parent.flush();
+            }
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            if (rows.size() == rowsPerStatement) {
+                if (fullStatement == null) {
+                    fullStatement = conn.prepareStatement(insertSql(rowsPerStatement));
+                }
+                execute(fullStatement);
+            } else {
+                try (PreparedStatement stmt = conn.prepareStatement(insertSql(rows.size()))) {
+                    execute(stmt);
+                }
+            }
+            rows.clear();
+        }
+
+        void close() throws SQLException {
+            flush();
+            for (BatchInserter parent : parents) {
+                parent.close();
+            }
+            if (fullStatement != null) {
+                fullStatement.close();
+                fullStatement = null;
+            }
+        }
+
+        private void execute(PreparedStatement stmt) throws SQLException {
+            int index = 1;
+            for (Object[] row : rows) {
+                for (Object value : row) {
+                    stmt.setObject(index++, value);
+                }
+            }
+            stmt.executeUpdate();
+
+            uncommittedRows += rows.size();
+            if (uncommittedRows >= COMMIT_ROWS) {
+                conn.commit();
+                uncommittedRows = 0;
+            }
+        }
+
+        private String insertSql(int rowCount) {
+            String row = "(" + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+            return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES "
+                    + String.join(", ", Collections.nCopies(rowCount, row));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.benchmarks;
+
+import org.example.data.EmployeePerformanceData;
+import org.example.data.ExecutiveOverviewData;
+import org.example.data.ProjectProgressData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded in-memory report rows for the benchmarks, shaped like the rows of the report views.
+ * The same seed always gives the same rows, so results of different runs are comparable.
+ */
+public class SyntheticReportData {
+
+    private static final String[] FIRST_NAMES = {"Jan", "Anna", "Piotr", "Katarzyna", "Marek", "Ewa", "Łukasz", "Zofia"};
+    private static final String[] LAST_NAMES = {"Kowalski", "Nowak", "Wiśniewski", "Wójcik", "Kowalczyk", "Dąbrowska", "Mazur"};
+    private static final String[] TASK_WORDS = {"Analiza", "Implementacja", "Testy", "Dokumentacja", "Wdrożenie", "Przegląd", "Raport"};
+    private static final String[] STATUSES = {"planowany", "wTrakcie", "zakonczony", "anulowany"};
+    private static final String[] TEAMS = {"Development", "Marketing", "Sales", "HR", "Support", "Design", "Testing"};
+
+    private final Random random;
+
+    public SyntheticReportData(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Creates employee performance rows.
+     *
+     * @param count Number of employees
+     * @return The rows, with user IDs 1..count
+     */
+    public List<EmployeePerformanceData> employees(int count) {
+        List<EmployeePerformanceData> rows = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            int total = random.nextInt(40);
+            int completed = total == 0 ? 0 : random.nextInt(total + 1);
+            int canceled = total - completed == 0 ? 0 : random.nextInt(Math.min(3, total - completed) + 1);
+            rows.add(new EmployeePerformanceData(
+                    i,
+                    name(),
+                    random.nextInt(10) == 0 ? null : name(),
+                    total,
+                    completed,
+                    canceled,
+                    total - completed - canceled == 0 ? 0 : random.nextInt(total - completed - canceled + 1),
+                    taskList(completed, '\n', true),
+                    taskList(total - completed, '\n', false),
+                    total == 0 ? 0 : completed * 100.0 / total));
+        }
+        return rows;
+    }
+
+    /**
+     * Creates project progress rows.
+     *
+     * @param count Number of projects
+     * @return The rows, with project IDs 1..count
+     */
+    public List<ProjectProgressData> projects(int count) {
+        List<ProjectProgressData> rows = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            int milestones = 1 + random.nextInt(8);
+            int tasks = milestones * random.nextInt(12);
+            int completed = tasks == 0 ? 0 : random.nextInt(tasks + 1);
+            rows.add(new ProjectProgressData(
+                    i,
+                    1 + random.nextInt(20),
+                    "Projekt " + i,
+                    name(),
+                    STATUSES[random.nextInt(STATUSES.length)],
+                    String.valueOf(random.nextInt(101)),
+                    String.valueOf(milestones),
+                    wordList(milestones, "Etap"),
+                    String.valueOf(tasks),
+                    taskList(tasks, ',', false),
+                    String.valueOf(completed),
+                    String.valueOf(random.nextInt(3)),
+                    String.format("%.4f", random.nextDouble() * 100),
+                    teamList(),
+                    name() + " (" + TEAMS[random.nextInt(TEAMS.length)] + ")"));
+        }
+        return rows;
+    }
+
+    /**
+     * Creates executive overview rows.
+     *
+     * @param count Number of projects
+     * @return The rows, with project IDs 1..count
+     */
+    public List<ExecutiveOverviewData> executiveOverviews(int count) {
+        List<ExecutiveOverviewData> rows = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            int tasks = random.nextInt(80);
+            int done = tasks == 0 ? 0 : random.nextInt(tasks + 1);
+            rows.add(new ExecutiveOverviewData(
+                    i,
+                    1 + random.nextInt(20),
+                    "Projekt " + i,
+                    STATUSES[random.nextInt(STATUSES.length)],
+                    String.valueOf(random.nextInt(101)),
+                    name(),
+                    String.valueOf(1 + random.nextInt(4)),
+                    String.valueOf(random.nextInt(30)),
+                    String.valueOf(1 + random.nextInt(8)),
+                    String.valueOf(tasks),
+                    String.valueOf(done),
+                    String.valueOf(random.nextInt(3)),
+                    tasks == 0 ? null : String.format("%.2f", done * 100.0 / tasks),
+                    String.format("%.2f", random.nextDouble() * 100),
+                    String.valueOf(random.nextInt(3)),
+                    String.valueOf(random.nextInt(6)),
+                    teamList(),
+                    name() + " (" + TEAMS[random.nextInt(TEAMS.length)] + ")",
+                    taskList(tasks, ',', false)));
+        }
+        return rows;
+    }
+
+    private String name() {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    private String taskList(int count, char separator, boolean done) {
+        if (count == 0) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(separator);
+                if (separator == ',') {
+                    sb.append(' ');
+                }
+            }
+            sb.append(TASK_WORDS[random.nextInt(TASK_WORDS.length)]).append(" modułu ").append(random.nextInt(500));
+            sb.append(done ? " (2024-05-1" : " (wTrakcie, 2024-05-1").append(random.nextInt(10)).append(')');
+        }
+        return sb.toString();
+    }
+
+    private String wordList(int count, String prefix) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            if (i > 1) {
+                sb.append(", ");
+            }
+            sb.append(prefix).append(' ').append(i);
+        }
+        return sb.toString();
+    }
+
+    private String teamList() {
+        int count = 1 + random.nextInt(3);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(TEAMS[random.nextInt(TEAMS.length)]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.benchmarks;
+
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.UnitValue;
+import org.example.ReportFonts;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the key/value info tables used by every report section, before any layout.
+ * 6 rows match the employee section, 16 the executive overview.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableConstructionBenchmark {
+
+    @Param({"6", "16", "100"})
+    private int rows;
+
+    private PdfFont font;
+    private String[][] cells;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        font = ReportFonts.createFont();
+        cells = new String[rows][];
+        for (int i = 0; i < rows; i++) {
+            cells[i] = new String[]{"Pole " + i, "Wartość pola numer " + i};
+        }
+    }
+
+    @Benchmark
+    public Table infoTable() {
+        Table infoTable = new Table(UnitValue.createPercentArray(new float[]{1, 2}))
+                .useAllAvailableWidth()
+                .setMarginBottom(20);
+
+        for (int j = 0; j < cells.length; j++) {
+            Cell key = new Cell().add(new Paragraph(cells[j][0]).setFont(font)).setBold();
+            Cell value = new Cell().add(new Paragraph(cells[j][1]).setFont(font));
+            if (j % 2 == 0) {
+                key.setBackgroundColor(ColorConstants.LIGHT_GRAY);
+                value.setBackgroundColor(ColorConstants.LIGHT_GRAY);
+            }
+            infoTable.addCell(key);
+            infoTable.addCell(value);
+        }
+        return infoTable;
+    }
+}
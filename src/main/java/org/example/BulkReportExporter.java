@@ -0,0 +1,244 @@
+package org.example;
+
+import org.example.data.EmployeePerformanceData;
+import org.example.data.ProjectProgressData;
+import org.example.data.ReportDataSources;
+import org.example.data.RowHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exports one PDF per entity into a ZIP archive.
+ * <p>
+ * Rows are streamed from the report data source and every entity is rendered on the shared render
+ * pool. Finished PDFs are written to the archive in row order while only a fixed number of them
+ * is kept in memory, so memory use does not depend on the number of entities.
+ * <p>
+ * If an export fails, the archive is left without its central directory; callers writing to a
+ * file should delete it.
+ */
+public class BulkReportExporter {
+
+    /**
+     * Exports a separate employee performance report for every employee.
+     *
+     * @param userIds The IDs of the employees, or null for all employees
+     * @param minPerformance Minimum completion rate, or null
+     * @param maxPerformance Maximum completion rate, or null
+     * @param out The stream receiving the ZIP archive; left open
+     * @return The number of exported reports
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static int exportEmployees(List<Integer> userIds, Double minPerformance, Double maxPerformance,
+                                      OutputStream out) throws SQLException, IOException {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+
+        try (ZipPipeline<EmployeePerformanceData> pipeline = new ZipPipeline<>(ReportType.EMPLOYEE_PERFORMANCE, out,
+                     (document, font, employee, index) -> {
+                         EmployeePerformanceReportGenerator.addTitle(document, false, timestamp);
+                         EmployeePerformanceReportGenerator.addEmployeeSection(document, font, employee, false);
+                     },
+                     employee -> "Raport_Wydajności_" + employee.getEmployee() + "_" + employee.getUserId())) {
+
+            ReportDataSources.getDefault().forEachEmployee(userIds, minPerformance, maxPerformance, pipeline);
+            pipeline.finish();
+            return pipeline.getCount();
+        }
+    }
+
+    /**
+     * Exports a separate project progress report for every project.
+     *
+     * @param projectIds The IDs of the projects, or null for all projects
+     * @param projectStatus Filter by project status, or null
+     * @param managerId Filter by manager ID, or null
+     * @param out The stream receiving the ZIP archive; left open
+     * @return The number of exported reports
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static int exportProjects(List<Integer> projectIds, String projectStatus, Integer managerId,
+                                     OutputStream out) throws SQLException, IOException {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+
+        try (ZipPipeline<ProjectProgressData> pipeline = new ZipPipeline<>(ReportType.PROJECT_PROGRESS, out,
+                     (document, font, project, index) -> {
+                         ProjectProgressReportGenerator.addTitle(document, false, timestamp);
+                         ProjectProgressReportGenerator.addProjectSection(document, font, project, false);
+                     },
+                     project -> "Raport_postepu_projektu_" + project.getProject() + "_" + project.getProjectId())) {
+
+            ReportDataSources.getDefault().forEachProject(projectIds, projectStatus, managerId, pipeline);
+            pipeline.finish();
+            return pipeline.getCount();
+        }
+    }
+
+    /**
+     * Receives rows, renders them on the render pool and writes the finished PDFs to the archive
+     * in arrival order. At most {@code window} PDFs are in flight at any time.
+     */
+    private static class ZipPipeline<T> implements RowHandler<T>, AutoCloseable {
+        private final ReportType type;
+        private final ZipOutputStream zip;
+        private final ParallelSectionRenderer.SectionWriter<T> sectionWriter;
+        private final Function<T, String> entryName;
+        private final ReportBufferPool buffers;
+        private final Deque<Entry> pending = new ArrayDeque<>();
+        private final Set<String> usedNames = new HashSet<>();
+        private final int window;
+        private int count;
+        private boolean finished;
+
+        ZipPipeline(ReportType type, OutputStream out, ParallelSectionRenderer.SectionWriter<T> sectionWriter,
+                    Function<T, String> entryName) {
+            this.type = type;
+            this.zip = new ZipOutputStream(new NonClosingOutputStream(out));
+            this.sectionWriter = sectionWriter;
+            this.entryName = entryName;
+            this.window = ParallelSectionRenderer.getWorkers() * 2;
+            this.buffers = ReportBufferPool.shared();
+        }
+
+        @Override
+        public void accept(T row) throws IOException {
+            if (pending.size() >= window) {
+                writeNext();
+            }
+            try {
+                // Only wait for a buffer when holding none, other reports share the pool
+                ReportBuffer buffer;
+                while ((buffer = pending.isEmpty() ? buffers.acquire() : buffers.tryAcquire()) == null) {
+                    writeNext();
+                }
+                pending.add(new Entry(entryName.apply(row), ParallelSectionRenderer.submit(type, row, count, sectionWriter, buffer)));
+                count++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Przerwano eksport raportów", e);
+            }
+        }
+
+        void finish() throws IOException {
+            while (!pending.isEmpty()) {
+                writeNext();
+            }
+            zip.finish();
+            finished = true;
+        }
+
+        private void writeNext() throws IOException {
+            Entry entry = pending.peek();
+            ReportBuffer pdf;
+            try {
+                pdf = entry.future.get();
+                pending.poll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Przerwano eksport raportów", e);
+            } catch (ExecutionException e) {
+                throw ParallelSectionRenderer.unwrap(e);
+            }
+
+            try {
+                // PDF streams are already compressed, store them as they are
+                CRC32 crc = new CRC32();
+                crc.update(pdf.asByteBuffer());
+
+                ZipEntry zipEntry = new ZipEntry(uniqueName(entry.name));
+                zipEntry.setMethod(ZipEntry.STORED);
+                zipEntry.setSize(pdf.size());
+                zipEntry.setCompressedSize(pdf.size());
+                zipEntry.setCrc(crc.getValue());
+
+                zip.putNextEntry(zipEntry);
+                pdf.writeTo(zip);
+                zip.closeEntry();
+            } finally {
+                pdf.release();
+            }
+        }
+
+        private String uniqueName(String name) {
+            String base = name.replaceAll("[\\\\/:*?\"<>|\\s]+", "_");
+            String candidate = base + ".pdf";
+            for (int i = 2; !usedNames.add(candidate); i++) {
+                candidate = base + "_" + i + ".pdf";
+            }
+            return candidate;
+        }
+
+        int getCount() {
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (Entry entry : pending) {
+                ParallelSectionRenderer.discard(entry.future);
+            }
+            // After a failure the central directory is not written: the caller's stream then holds
+            // an archive ZIP readers reject, rather than a valid one missing reports
+            if (finished) {
+                zip.close();
+            }
+        }
+
+        private static class Entry {
+            private final String name;
+            private final Future<ReportBuffer> future;
+
+            Entry(String name, Future<ReportBuffer> future) {
+                this.name = name;
+                this.future = future;
+            }
+        }
+    }
+
+    /**
+     * Keeps the caller's stream open when the archive is closed.
+     */
+    private static class NonClosingOutputStream extends OutputStream {
+        private final OutputStream out;
+
+        NonClosingOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+}
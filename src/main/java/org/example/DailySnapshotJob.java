@@ -0,0 +1,133 @@
+package org.example;
+
+import org.example.data.DailySnapshots;
+import org.example.metrics.Histogram;
+import org.example.metrics.ReportMetrics;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Job writing the daily project and user snapshots read by {@link TrendReportGenerator}.
+ * <p>
+ * The snapshot records the state at the time the job runs, so it runs once a day shortly before
+ * midnight, at {@code -Dpz.snapshot.time} (default 23:50, local time). The report server and the
+ * desktop application start it with {@link #start()} unless {@code -Dpz.snapshot.enabled=false};
+ * as the desktop application writes snapshots only while it is open, the job can also be run
+ * from cron through {@link #main(String[])}. Snapshots already written for the day are kept, so
+ * several running instances do not conflict. A day that was missed cannot be recorded afterwards
+ * and stays a gap in the history.
+ * <p>
+ * After the snapshot the job compacts the DataChanges log with the CompactDataChanges procedure,
+ * which keeps only the newest change of every project and user. Without it the log, filled by
+ * the triggers on every write, would grow without bound.
+ */
+public class DailySnapshotJob {
+
+    private static final LocalTime RUN_AT = LocalTime.parse(System.getProperty("pz.snapshot.time", "23:50"));
+
+    private static ScheduledExecutorService scheduler;
+
+    /**
+     * Schedules the job to run every day at the configured time on a background thread.
+     * Calling it again has no effect, as does {@code -Dpz.snapshot.enabled=false}.
+     */
+    public static synchronized void start() {
+        if (!Boolean.parseBoolean(System.getProperty("pz.snapshot.enabled", "true"))) {
+            return;
+        }
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "daily-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduleNext();
+        System.out.println("Dzienne migawki będą zapisywane o " + RUN_AT);
+    }
+
+    /**
+     * Stops the scheduled job. A snapshot being written is finished.
+     */
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Writes today's snapshot now and compacts the DataChanges log.
+     *
+     * @return The number of project rows and of user rows written
+     * @throws SQLException If a database error occurs
+     */
+    public static int[] runNow() throws SQLException {
+        LocalDate today = LocalDate.now();
+        long start = System.nanoTime();
+        int[] written;
+        try (Connection conn = DatabaseConnector.getConnection()) {
+            written = DailySnapshots.write(conn, today);
+        }
+        ReportMetrics.histogram("pz_snapshot_seconds", "Czas zapisu dziennych migawek", Histogram.TIME_BOUNDS)
+                .recordNanos(System.nanoTime() - start);
+        System.out.println("Migawka z dnia " + today + ": " + written[0] + " projektów, " + written[1] + " pracowników");
+        compactDataChanges();
+        return written;
+    }
+
+    // Only the newest change of every entity is read, by the version token and the delta sync.
+    // A failure leaves the log longer until the next day and does not fail the written snapshot.
+    private static void compactDataChanges() {
+        try (Connection conn = DatabaseConnector.getConnection();
+             Statement stmt = conn.createStatement()) {
+            int removed = stmt.executeUpdate("CALL CompactDataChanges()");
+            System.out.println("Dziennik zmian skompaktowany, usunięto wpisów: " + removed);
+        } catch (SQLException e) {
+            System.err.println("Nie udało się skompaktować dziennika zmian: " + e.getMessage());
+        }
+    }
+
+    // The delay is computed for every run, so changes of the clock shift only one run
+    private static synchronized void scheduleNext() {
+        if (scheduler == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().atTime(RUN_AT);
+        if (!next.isAfter(now)) {
+            next = next.plusDays(1);
+        }
+        // Any failure must still schedule the next run; the executor would swallow it silently
+        scheduler.schedule(() -> {
+            try {
+                runNow();
+            } catch (Exception e) {
+                System.err.println("Nie udało się zapisać dziennej migawki: " + e.getMessage());
+                e.printStackTrace();
+            } finally {
+                scheduleNext();
+            }
+        }, Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes today's snapshot once, for running the job from cron.
+     *
+     * @param args Not used
+     * @throws SQLException If a database error occurs
+     */
+    public static void main(String[] args) throws SQLException {
+        runNow();
+    }
+}
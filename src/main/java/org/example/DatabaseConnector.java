@@ -1,16 +1,249 @@
 package org.example;
 
+import org.example.metrics.SlowQueryLog;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Opens the database connections of the application.
+ * <p>
+ * Writes use {@link #getConnection()}, which goes to the primary database. Report queries and
+ * the lists of the report dialogs only read, so they use {@link #getReadConnection()}, which goes
+ * to a read replica when {@code -Dpz.db.replica.url} is set, so heavy reports do not compete with
+ * the writes and triggers of the primary. The replica is used only while it is at most
+ * {@code -Dpz.db.replica.maxLagSeconds} (default 30) behind the primary; reads return to the
+ * primary while it lags more or cannot be reached.
+ * <p>
+ * The lag is checked on a background thread at most every {@code -Dpz.db.replica.checkSeconds}
+ * (default 5), and only while reads are made; reads never wait for a check, they use the result
+ * of the last one. Until the first check has finished, reads go to the primary. Replica
+ * connections are opened per read like those of the primary, there is no connection pool.
+ */
 public class DatabaseConnector {
 
-    private static final String DB_URL = "jdbc:mysql://mysql-pz-programowanie-zespolowe.j.aivencloud.com:23083/pzdb?ssl-mode=REQUIRED";
-    private static final String DB_USER = "avnadmin";
-    private static final String DB_PASS = "AVNS_xldj6Pywht7u1kl_kgh";
+    // Connection settings can be overridden with -Dpz.db.url / -Dpz.db.user / -Dpz.db.password,
+    // e.g. to point the application at a local MySQL instance loaded with database.sql
+    private static final String DB_URL = System.getProperty("pz.db.url",
+            "jdbc:mysql://mysql-pz-programowanie-zespolowe.j.aivencloud.com:23083/pzdb?ssl-mode=REQUIRED");
+    private static final String DB_USER = System.getProperty("pz.db.user", "avnadmin");
+    private static final String DB_PASS = System.getProperty("pz.db.password", "AVNS_xldj6Pywht7u1kl_kgh");
+
+    // Read replica, e.g. a second local MySQL instance: -Dpz.db.replica.url, with the user and
+    // password of the primary unless -Dpz.db.replica.user / -Dpz.db.replica.password are given
+    private static final String REPLICA_URL = System.getProperty("pz.db.replica.url", "");
+    private static final String REPLICA_USER = System.getProperty("pz.db.replica.user", DB_USER);
+    private static final String REPLICA_PASS = System.getProperty("pz.db.replica.password", DB_PASS);
+
+    // Staleness bound of the replica; a negative value trusts the replica without checking
+    private static final long MAX_LAG_SECONDS = Long.getLong("pz.db.replica.maxLagSeconds", 30);
+    // How long a lag measurement is used before the replica is checked again
+    private static final long CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(Long.getLong("pz.db.replica.checkSeconds", 5));
+
+    // Every report opens its own connection, so the time to get one is part of each request's latency
+    private static final LongAdder connectionCount = new LongAdder();
+    private static final LongAdder connectionWaitNanos = new LongAdder();
+
+    private static final LongAdder replicaReads = new LongAdder();
+    private static final LongAdder primaryReads = new LongAdder();
+
+    // Result of the last replica check, replaced as a whole; null until the first check finished
+    private static volatile ReplicaState replicaState;
+    // Set while a check is scheduled or running, so that only one runs at a time
+    private static final AtomicBoolean checking = new AtomicBoolean();
+
+    private static final ExecutorService replicaChecker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record ReplicaState(boolean usable, long lagSeconds, long checkedAt) {
+    }
 
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASS);
+        return open(DB_URL, DB_USER, DB_PASS);
+    }
+
+    /**
+     * Opens a connection for queries that only read, on the replica if one is configured and
+     * recent enough, otherwise on the primary.
+     *
+     * @return A connection for reading
+     * @throws SQLException If neither database can be reached
+     */
+    public static Connection getReadConnection() throws SQLException {
+        if (!REPLICA_URL.isEmpty() && isReplicaUsable()) {
+            try {
+                Connection connection = open(REPLICA_URL, REPLICA_USER, REPLICA_PASS);
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                System.err.println("Replika bazy danych niedostępna, odczyt z bazy głównej: " + e.getMessage());
+                markReplicaUnusable();
+            }
+        }
+        primaryReads.increment();
+        return getConnection();
+    }
+
+    /**
+     * Gets the number of read connections opened on the replica.
+     *
+     * @return The number of reads routed to the replica
+     */
+    public static long getReplicaReadCount() {
+        return replicaReads.sum();
+    }
+
+    /**
+     * Gets the number of read connections opened on the primary, because no replica is configured,
+     * it lagged too much or it could not be reached.
+     *
+     * @return The number of reads routed to the primary
+     */
+    public static long getPrimaryReadCount() {
+        return primaryReads.sum();
+    }
+
+    /**
+     * Gets the lag of the replica at its last check.
+     *
+     * @return The lag in seconds, or -1 if no replica is configured or it could not be checked
+     */
+    public static long getReplicaLagSeconds() {
+        ReplicaState state = replicaState;
+        return state != null ? state.lagSeconds() : -1;
+    }
+
+    /**
+     * Gets the number of connection attempts since the start of the application.
+     *
+     * @return The number of connections opened, on the primary and on the replica
+     */
+    public static long getConnectionCount() {
+        return connectionCount.sum();
+    }
+
+    /**
+     * Gets the total time spent waiting for connections since the start of the application.
+     *
+     * @return The wait time in nanoseconds
+     */
+    public static long getConnectionWaitNanos() {
+        return connectionWaitNanos.sum();
+    }
+
+    private static Connection open(String url, String user, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection;
+        try {
+            connection = DriverManager.getConnection(url, user, password);
+        } finally {
+            connectionWaitNanos.add(System.nanoTime() - start);
+            connectionCount.increment();
+        }
+        // Statements are timed for the slow-query log unless it is disabled
+        return SlowQueryLog.isEnabled() ? SlowQueryLog.wrap(connection) : connection;
+    }
+
+    // Never waits: starts a check in the background when the last one is too old
+    private static boolean isReplicaUsable() {
+        if (MAX_LAG_SECONDS < 0) {
+            return true;
+        }
+        ReplicaState state = replicaState;
+        if ((state == null || System.nanoTime() - state.checkedAt() >= CHECK_INTERVAL_NANOS)
+                && checking.compareAndSet(false, true)) {
+            try {
+                replicaChecker.execute(DatabaseConnector::checkReplica);
+            } catch (RuntimeException e) {
+                checking.set(false);
+                throw e;
+            }
+        }
+        return state != null && state.usable();
+    }
+
+    private static void checkReplica() {
+        try {
+            ReplicaState previous = replicaState;
+            long lag;
+            try {
+                lag = measureReplicaLag();
+            } catch (SQLException e) {
+                System.err.println("Nie można sprawdzić opóźnienia repliki: " + e.getMessage());
+                replicaState = new ReplicaState(false, -1, System.nanoTime());
+                return;
+            }
+            boolean usable = lag <= MAX_LAG_SECONDS;
+            replicaState = new ReplicaState(usable, lag, System.nanoTime());
+            // Only changes are reported; a failed check has reported its error already
+            if (previous == null || usable != previous.usable()) {
+                System.out.println(usable
+                        ? "Raporty czytane z repliki bazy danych (opóźnienie " + lag + " s)"
+                        : "Raporty czytane z bazy głównej, replika opóźniona o " + lag
+                          + " s przy limicie " + MAX_LAG_SECONDS + " s");
+            }
+        } finally {
+            checking.set(false);
+        }
+    }
+
+    private static void markReplicaUnusable() {
+        replicaState = new ReplicaState(false, -1, System.nanoTime());
+    }
+
+    /**
+     * Measures how far the replica is behind, from the DataChanges log the triggers fill on every
+     * write. This works with any kind of replication and needs no replication privileges.
+     * <p>
+     * When the primary has changes the replica does not have yet, the lag is taken as the age of
+     * the newest change the replica has. That row is never removed by CompactDataChanges, as no
+     * newer row of its entity exists on the replica, whereas the oldest change missing from the
+     * replica may have been removed on the primary in favour of a newer one of the same entity,
+     * which would understate the lag. The age of the newest replicated change is an upper bound:
+     * after a quiet period the replica counts as lagging until it has the first new change.
+     *
+     * @return The lag in seconds, 0 if the replica has every change
+     * @throws SQLException If either database cannot be queried
+     */
+    private static long measureReplicaLag() throws SQLException {
+        long replicaVersion = 0;
+        long replicaChangedAt = -1;
+        try (Connection replica = open(REPLICA_URL, REPLICA_USER, REPLICA_PASS);
+             PreparedStatement stmt = replica.prepareStatement(
+                     "SELECT version, UNIX_TIMESTAMP(changed_at) FROM DataChanges ORDER BY version DESC LIMIT 1");
+             ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                replicaVersion = rs.getLong(1);
+                replicaChangedAt = rs.getLong(2);
+            }
+        }
+        // Epoch seconds on both sides, so the time zones of the servers do not matter
+        try (Connection primary = getConnection();
+             PreparedStatement stmt = primary.prepareStatement(
+                     "SELECT UNIX_TIMESTAMP(), MIN(UNIX_TIMESTAMP(changed_at)) FROM DataChanges WHERE version > ?")) {
+            stmt.setLong(1, replicaVersion);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                long now = rs.getLong(1);
+                long oldestMissing = rs.getLong(2);
+                if (rs.wasNull()) {
+                    return 0;
+                }
+                // A replica without any change yet has no newer bound than the primary's log
+                long since = replicaChangedAt >= 0 ? replicaChangedAt : oldestMissing;
+                return Math.max(now - since, 0);
+            }
+        }
     }
 }
@@ -1,23 +1,35 @@
 package org.example;
 
-import com.itextpdf.io.font.FontProgram;
-import com.itextpdf.io.font.FontProgramFactory;
-import com.itextpdf.io.font.PdfEncodings;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.font.PdfFont;
-import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.*;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
+import org.example.aggregate.DistributionStatistics;
+import org.example.cache.ReportCache;
+import org.example.cache.SectionKeys;
+import org.example.data.ChangeTracker;
+import org.example.data.EmployeePerformanceData;
+import org.example.data.ReportDataSource;
+import org.example.data.ReportDataSources;
+import org.example.metrics.CountingOutputStream;
+import org.example.metrics.ReportGeneratedEvent;
+import org.example.metrics.ReportMetrics;
+import org.example.metrics.ReportSectionRenderedEvent;
+import org.example.metrics.ReportUsage;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.sql.*;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
 
@@ -33,6 +45,25 @@ public class EmployeePerformanceReportGenerator {
     }
 
     public static void generateMultipleEmployeeReport(List<Integer> userIds, String customFileName, File selectedDirectory, Double minPerformance, Double maxPerformance) throws SQLException, IOException {
+        generateMultipleEmployeeReport(userIds, customFileName, selectedDirectory, minPerformance, maxPerformance, null, null);
+    }
+
+    /**
+     * Generates an employee performance report counting only the tasks created in a period, and saves it to a file.
+     *
+     * @param userIds The IDs of the employees
+     * @param customFileName Custom file name for the report
+     * @param selectedDirectory Directory to save the report
+     * @param minPerformance Minimum completion rate, or null
+     * @param maxPerformance Maximum completion rate, or null
+     * @param from First day of the period, or null
+     * @param to Last day of the period (inclusive), or null; without both dates all tasks count
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static void generateMultipleEmployeeReport(List<Integer> userIds, String customFileName, File selectedDirectory,
+                                                      Double minPerformance, Double maxPerformance,
+                                                      LocalDate from, LocalDate to) throws SQLException, IOException {
         String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
         String fileName = (customFileName != null && !customFileName.isEmpty()) 
                 ? customFileName + ".pdf" 
@@ -42,157 +73,361 @@ public class EmployeePerformanceReportGenerator {
                 ? new File(selectedDirectory, fileName) 
                 : new File(System.getProperty("user.home"), "Documents/" + fileName);
 
-        InputStream fontStream = EmployeePerformanceReportGenerator.class.getResourceAsStream("/fonts/DejaVuSans.ttf");
-        FontProgram fontProgram = FontProgramFactory.createFont(fontStream.readAllBytes());
-        PdfFont font = PdfFontFactory.createFont(fontProgram, PdfEncodings.IDENTITY_H, PdfFontFactory.EmbeddingStrategy.PREFER_EMBEDDED);
-
-        StringBuilder queryBuilder = new StringBuilder("""
-        SELECT
-            e.user_id,
-            e.employee,
-            u.team_leader_name AS team_leader,
-            e.total_tasks,
-            e.completed,
-            e.canceled,
-            e.completed_tasks_titles,
-            e.pending_tasks_titles,
-            e.completion_rate
-        FROM vw_EmployeePerformance e
-        LEFT JOIN vw_UserCompleteDetails u ON e.user_id = u.user_id
-        WHERE e.user_id = ?
-        """);
-
-        // Add performance range filters if provided
-        if (minPerformance != null || maxPerformance != null) {
-            if (minPerformance != null) {
-                queryBuilder.append(" AND e.completion_rate >= ?");
-            }
-            if (maxPerformance != null) {
-                queryBuilder.append(" AND e.completion_rate <= ?");
-            }
+        try (OutputStream out = new FileOutputStream(file)) {
+            generateMultipleEmployeeReport(userIds, out, minPerformance, maxPerformance, from, to);
         }
 
-        String query = queryBuilder.toString();
+        System.out.println("Raport zapisany jako: " + file.getAbsolutePath());
+    }
 
-        try (Connection conn = DatabaseConnector.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query);
-             PdfWriter writer = new PdfWriter(file);
-             PdfDocument pdf = new PdfDocument(writer);
-             Document document = new Document(pdf)) {
+    /**
+     * Generates an employee performance report into the given channel.
+     * The channel is left open.
+     *
+     * @param userIds The IDs of the employees
+     * @param channel The channel receiving the PDF bytes
+     * @param minPerformance Minimum completion rate, or null
+     * @param maxPerformance Maximum completion rate, or null
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static void generateMultipleEmployeeReport(List<Integer> userIds, WritableByteChannel channel, Double minPerformance, Double maxPerformance) throws SQLException, IOException {
+        OutputStream out = Channels.newOutputStream(channel);
+        generateMultipleEmployeeReport(userIds, out, minPerformance, maxPerformance);
+        out.flush();
+    }
 
-            document.setFont(font);
+    /**
+     * Generates an employee performance report into the given stream.
+     * The stream is left open, so the caller decides where the bytes end up.
+     * Large selections are rendered in parallel, see {@link ParallelSectionRenderer#shouldRenderInParallel(int)}.
+     *
+     * @param userIds The IDs of the employees
+     * @param out The stream receiving the PDF bytes
+     * @param minPerformance Minimum completion rate, or null
+     * @param maxPerformance Maximum completion rate, or null
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static void generateMultipleEmployeeReport(List<Integer> userIds, OutputStream out, Double minPerformance, Double maxPerformance) throws SQLException, IOException {
+        generateMultipleEmployeeReport(userIds, out, minPerformance, maxPerformance, ParallelSectionRenderer.shouldRenderInParallel(userIds.size()));
+    }
 
-            // Add title and timestamp
-            document.add(new Paragraph(userIds.size() > 1 ? "RAPORT WYDAJNOŚCI PRACOWNIKÓW" : "RAPORT WYDAJNOŚCI PRACOWNIKA")
-                    .setFontSize(20)
-                    .setBold()
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(10));
+    /**
+     * Generates an employee performance report counting only the tasks created in a period.
+     * The stream is left open.
+     *
+     * @param userIds The IDs of the employees
+     * @param out The stream receiving the PDF bytes
+     * @param minPerformance Minimum completion rate in the period, or null
+     * @param maxPerformance Maximum completion rate in the period, or null
+     * @param from First day of the period, or null
+     * @param to Last day of the period (inclusive), or null; without both dates all tasks count
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static void generateMultipleEmployeeReport(List<Integer> userIds, OutputStream out, Double minPerformance, Double maxPerformance,
+                                                      LocalDate from, LocalDate to) throws SQLException, IOException {
+        generateMultipleEmployeeReport(userIds, out, minPerformance, maxPerformance, from, to,
+                ParallelSectionRenderer.shouldRenderInParallel(userIds.size()));
+    }
 
-            document.add(new Paragraph("Wygenerowano: " + timestamp)
-                    .setFontSize(10)
-                    .setItalic()
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(20));
+    /**
+     * Generates an employee performance report into the given stream.
+     * In parallel mode every employee is laid out on a worker thread and the sections are merged in selection order.
+     * Large reports reuse the sections of employees whose data has not changed since they were last rendered.
+     *
+     * @param userIds The IDs of the employees
+     * @param out The stream receiving the PDF bytes
+     * @param minPerformance Minimum completion rate, or null
+     * @param maxPerformance Maximum completion rate, or null
+     * @param parallel Whether to render the employees in parallel
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static void generateMultipleEmployeeReport(List<Integer> userIds, OutputStream out, Double minPerformance, Double maxPerformance,
+                                                      boolean parallel) throws SQLException, IOException {
+        generateMultipleEmployeeReport(userIds, out, minPerformance, maxPerformance, null, null, parallel);
+    }
 
-            boolean hasData = false;
+    /**
+     * Generates an employee performance report counting only the tasks created in a period.
+     * The rows of all employees come from one range query over the created_at index.
+     *
+     * @param userIds The IDs of the employees
+     * @param out The stream receiving the PDF bytes
+     * @param minPerformance Minimum completion rate in the period, or null
+     * @param maxPerformance Maximum completion rate in the period, or null
+     * @param from First day of the period, or null
+     * @param to Last day of the period (inclusive), or null; without both dates all tasks count
+     * @param parallel Whether to render the employees in parallel
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static void generateMultipleEmployeeReport(List<Integer> userIds, OutputStream out, Double minPerformance, Double maxPerformance,
+                                                      LocalDate from, LocalDate to, boolean parallel) throws SQLException, IOException {
+        boolean period = from != null || to != null;
+        ReportGeneratedEvent event = new ReportGeneratedEvent();
+        event.begin();
+        event.filterShape = ReportMetrics.filterShape("ids", from != null, "from", to != null, "to",
+                minPerformance != null, "min", maxPerformance != null, "max");
+        event.requestedEntities = userIds.size();
+        boolean multiple = userIds.size() > 1;
+
+        try (ReportUsage usage = ReportUsage.start()) {
+            ReportDataSource dataSource = ReportDataSources.getDefault();
+            List<EmployeePerformanceData> employees = period
+                    ? dataSource.fetchEmployeesInPeriod(userIds, from, to, minPerformance, maxPerformance)
+                    : dataSource.fetchEmployees(userIds, minPerformance, maxPerformance);
+
+            SectionKeys sectionKeys = null;
+            ReportCache cache = ReportCache.shared();
+            if (cache.isEnabled() && employees.size() >= ParallelSectionRenderer.PARALLEL_THRESHOLD) {
+                // Sections of a period show different figures than the all-time ones, so they get their own layout name
+                List<Integer> fetchedIds = employees.stream().map(EmployeePerformanceData::getUserId).toList();
+                sectionKeys = SectionKeys.create(cache, ChangeTracker.Entity.USER,
+                        dataSource.entityVersions(ChangeTracker.Entity.USER, fetchedIds),
+                        period ? "employee_" + from + "_" + to : "employee");
+            }
 
-            // Process each employee
-            for (int i = 0; i < userIds.size(); i++) {
-                int userId = userIds.get(i);
-                int paramIndex = 1;
+            renderReport(employees, multiple, out, parallel, sectionKeys, formatPeriod(from, to), event, usage);
+        }
+    }
 
-                // Set user ID parameter
-                stmt.setInt(paramIndex++, userId);
+    /**
+     * Lays out a performance report of already fetched employees into the given stream.
+     * The stream is left open.
+     *
+     * @param employees The rows to render, in output order
+     * @param multiple Whether the report was requested for more than one employee
+     * @param out The stream receiving the PDF bytes
+     * @param parallel Whether to render the employees in parallel
+     * @throws IOException If an I/O error occurs
+     */
+    public static void renderReport(List<EmployeePerformanceData> employees, boolean multiple, OutputStream out, boolean parallel) throws IOException {
+        ReportGeneratedEvent event = new ReportGeneratedEvent();
+        event.begin();
+        event.requestedEntities = employees.size();
+        try (ReportUsage usage = ReportUsage.start()) {
+            renderReport(employees, multiple, out, parallel, null, null, event, usage);
+        }
+    }
 
-                // Set performance range parameters if provided
-                if (minPerformance != null) {
-                    stmt.setDouble(paramIndex++, minPerformance);
-                }
-                if (maxPerformance != null) {
-                    stmt.setDouble(paramIndex++, maxPerformance);
+    private static void renderReport(List<EmployeePerformanceData> employees, boolean multiple, OutputStream out, boolean parallel,
+                                     SectionKeys sectionKeys, String period, ReportGeneratedEvent event, ReportUsage usage) throws IOException {
+        long start = System.nanoTime();
+        CountingOutputStream counted = new CountingOutputStream(out);
+        // One pass over the rows; the per-employee sections do not need it
+        DistributionStatistics statistics = employees.size() > 1 ? DistributionStatistics.ofEmployees(employees) : null;
+        int pages = layOut(employees, multiple, counted, parallel, sectionKeys, period, statistics);
+        ReportMetrics.recordRender(ReportType.EMPLOYEE_PERFORMANCE, System.nanoTime() - start, employees.size(), counted.getCount(), pages);
+        usage.finish(ReportType.EMPLOYEE_PERFORMANCE, event.filterShape, employees.size(), counted.getCount());
+
+        if (event.shouldCommit()) {
+            event.report = ReportType.EMPLOYEE_PERFORMANCE.getKey();
+            event.entities = employees.size();
+            event.pages = pages;
+            event.bytes = counted.getCount();
+            event.parallel = (parallel || sectionKeys != null) && employees.size() > 1;
+            event.cpuTime = usage.getCpuNanos();
+            event.allocated = usage.getAllocatedBytes();
+            event.commit();
+        }
+    }
+
+    private static int layOut(List<EmployeePerformanceData> employees, boolean multiple, CountingOutputStream out, boolean parallel,
+                              SectionKeys sectionKeys, String period, DistributionStatistics statistics) throws IOException {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+
+        if ((parallel || sectionKeys != null) && employees.size() > 1) {
+            // The first section carries the title, generation time and statistics, so it is never taken from the cache
+            return ParallelSectionRenderer.render(ReportType.EMPLOYEE_PERFORMANCE, employees, (document, font, employee, index) -> {
+                if (index == 0) {
+                    addTitle(document, multiple, timestamp, period);
+                    addStatistics(document, statistics);
                 }
+                addEmployeeSection(document, font, employee, multiple);
+            }, sectionKeys == null ? null : ReportCache.shared(),
+               sectionKeys == null ? null : (employee, index) -> index == 0 ? null : sectionKeys.keyFor(employee.getUserId()), out);
+        }
+
+        PdfFont font = ReportFonts.createFont();
+
+        try (PdfWriter writer = new PdfWriter(out);
+             PdfDocument pdf = new PdfDocument(writer);
+             Document document = new Document(pdf)) {
+
+            writer.setCloseStream(false);
+            document.setFont(font);
 
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        hasData = true;
-
-                        // Add a page break before each employee (except the first one)
-                        if (i > 0) {
-                            document.add(new AreaBreak());
-                        }
-
-                        // Create a Div to keep all employee content together
-                        Div employeeDiv = new Div();
-                        employeeDiv.setKeepTogether(true);
-
-                        // Add employee header if multiple employees
-                        if (userIds.size() > 1) {
-                            employeeDiv.add(new Paragraph("Pracownik: " + rs.getString("employee"))
-                                    .setFontSize(16)
-                                    .setBold()
-                                    .setMarginTop(0)
-                                    .setMarginBottom(10));
-                        }
-
-                        // Create employee info table
-                        Table infoTable = new Table(UnitValue.createPercentArray(new float[]{1, 2}))
-                                .useAllAvailableWidth()
-                                .setMarginBottom(20);
-
-                        String[][] rows = {
-                                {"Pracownik", rs.getString("employee")},
-                                {"Lider zespołu", rs.getString("team_leader") != null ? rs.getString("team_leader") : "Brak"},
-                                {"Liczba zadań", String.valueOf(rs.getInt("total_tasks"))},
-                                {"Ukończone", String.valueOf(rs.getInt("completed"))},
-                                {"Anulowane", String.valueOf(rs.getInt("canceled"))},
-                                {"Współczynnik ukończenia", String.format("%.2f%%", rs.getDouble("completion_rate"))}
-                        };
-
-                        for (int j = 0; j < rows.length; j++) {
-                            Cell key = new Cell().add(new Paragraph(rows[j][0]).setFont(font)).setBold();
-                            Cell value = new Cell().add(new Paragraph(rows[j][1]).setFont(font));
-                            if (j % 2 == 0) {
-                                key.setBackgroundColor(ColorConstants.LIGHT_GRAY);
-                                value.setBackgroundColor(ColorConstants.LIGHT_GRAY);
-                            }
-                            infoTable.addCell(key);
-                            infoTable.addCell(value);
-                        }
-
-                        employeeDiv.add(infoTable);
-
-                        // Add completed tasks section
-                        employeeDiv.add(new Paragraph("Zadania ukończone:")
-                                .setFontSize(12).setBold().setMarginBottom(4));
-
-                        String completedTasks = rs.getString("completed_tasks_titles");
-                        employeeDiv.add(new Paragraph(completedTasks != null && !completedTasks.isBlank() ? completedTasks : "Brak")
-                                .setMarginBottom(15).setFont(font));
-
-                        // Add pending tasks section
-                        employeeDiv.add(new Paragraph("Zadania oczekujące:")
-                                .setFontSize(12).setBold().setMarginBottom(4));
-
-                        String pendingTasks = rs.getString("pending_tasks_titles");
-                        employeeDiv.add(new Paragraph(pendingTasks != null && !pendingTasks.isBlank() ? pendingTasks : "Brak")
-                                .setFont(font));
-
-                        // Add the complete employee div to the document
-                        document.add(employeeDiv);
-                    }
+            addTitle(document, multiple, timestamp, period);
+            addStatistics(document, statistics);
+
+            // Process each employee
+            for (int i = 0; i < employees.size(); i++) {
+                // Add a page break before each employee (except the first one)
+                if (i > 0) {
+                    document.add(new AreaBreak());
+                }
+                ReportSectionRenderedEvent sectionEvent = new ReportSectionRenderedEvent();
+                sectionEvent.begin();
+                long written = out.getCount();
+                addEmployeeSection(document, font, employees.get(i), multiple);
+                if (sectionEvent.shouldCommit()) {
+                    // iText flushes finished pages as it goes, so this is only roughly the size of the section
+                    sectionEvent.report = ReportType.EMPLOYEE_PERFORMANCE.getKey();
+                    sectionEvent.index = i;
+                    sectionEvent.bytes = out.getCount() - written;
+                    sectionEvent.commit();
                 }
             }
 
-            if (!hasData) {
+            if (employees.isEmpty()) {
                 // Create a Div to keep the message together
                 Div messageDiv = new Div();
                 messageDiv.setKeepTogether(true);
                 messageDiv.add(new Paragraph("Brak danych dla wybranych użytkowników.").setFont(font));
                 document.add(messageDiv);
             }
+            return pdf.getNumberOfPages();
         }
+    }
 
-        System.out.println("Raport zapisany jako: " + file.getAbsolutePath());
+    /**
+     * Adds the report title and generation time.
+     *
+     * @param document The document to add to
+     * @param multiple Whether the report covers more than one employee
+     * @param timestamp The generation time
+     */
+    public static void addTitle(Document document, boolean multiple, String timestamp) {
+        addTitle(document, multiple, timestamp, null);
+    }
+
+    /**
+     * Adds the report title, the period of the counted tasks and the generation time.
+     *
+     * @param document The document to add to
+     * @param multiple Whether the report covers more than one employee
+     * @param timestamp The generation time
+     * @param period The period, e.g. "2024-01-01 – 2024-03-31", or null for all tasks
+     */
+    public static void addTitle(Document document, boolean multiple, String timestamp, String period) {
+        document.add(new Paragraph(multiple ? "RAPORT WYDAJNOŚCI PRACOWNIKÓW" : "RAPORT WYDAJNOŚCI PRACOWNIKA")
+                .setFontSize(20)
+                .setBold()
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginBottom(10));
+
+        if (period != null) {
+            document.add(new Paragraph("Zadania utworzone w okresie: " + period)
+                    .setFontSize(12)
+                    .setTextAlignment(TextAlignment.CENTER)
+                    .setMarginBottom(4));
+        }
+
+        document.add(new Paragraph("Wygenerowano: " + timestamp)
+                .setFontSize(10)
+                .setItalic()
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginBottom(20));
+    }
+
+    /**
+     * Adds the statistics of all employees of the report, followed by a page break.
+     *
+     * @param document The document to add to
+     * @param statistics The statistics, or null for a report of a single employee
+     */
+    public static void addStatistics(Document document, DistributionStatistics statistics) {
+        if (statistics != null && statistics.getOverall().getCount() > 0) {
+            StatisticsSection.addStatistics(document, statistics, "Pracownicy", "Lider zespołu");
+            document.add(new AreaBreak());
+        }
+    }
+
+    /**
+     * Describes a period for the report title.
+     *
+     * @param from First day of the period, or null
+     * @param to Last day of the period, or null
+     * @return E.g. "2024-01-01 – 2024-03-31", "od 2024-01-01", or null if neither date is set
+     */
+    static String formatPeriod(LocalDate from, LocalDate to) {
+        if (from != null && to != null) {
+            return from + " – " + to;
+        }
+        if (from != null) {
+            return "od " + from;
+        }
+        if (to != null) {
+            return "do " + to;
+        }
+        return null;
+    }
+
+    /**
+     * Adds the section of a single employee.
+     *
+     * @param document The document to add to
+     * @param font The document font
+     * @param employee The employee data
+     * @param multiple Whether the report covers more than one employee
+     */
+    public static void addEmployeeSection(Document document, PdfFont font, EmployeePerformanceData employee, boolean multiple) {
+        // Create a Div to keep all employee content together
+        Div employeeDiv = new Div();
+        employeeDiv.setKeepTogether(true);
+
+        // Add employee header if multiple employees
+        if (multiple) {
+            employeeDiv.add(new Paragraph("Pracownik: " + employee.getEmployee())
+                    .setFontSize(16)
+                    .setBold()
+                    .setMarginTop(0)
+                    .setMarginBottom(10));
+        }
+
+        // Create employee info table
+        Table infoTable = new Table(UnitValue.createPercentArray(new float[]{1, 2}))
+                .useAllAvailableWidth()
+                .setMarginBottom(20);
+
+        String[][] rows = {
+                {"Pracownik", employee.getEmployee()},
+                {"Lider zespołu", employee.getTeamLeader()},
+                {"Liczba zadań", String.valueOf(employee.getTotalTasks())},
+                {"Ukończone", String.valueOf(employee.getCompleted())},
+                {"Anulowane", String.valueOf(employee.getCanceled())},
+                {"Współczynnik ukończenia", String.format("%.2f%%", employee.getCompletionRate())}
+        };
+
+        for (int j = 0; j < rows.length; j++) {
+            Cell key = new Cell().add(new Paragraph(rows[j][0]).setFont(font)).setBold();
+            Cell value = new Cell().add(new Paragraph(rows[j][1]).setFont(font));
+            if (j % 2 == 0) {
+                key.setBackgroundColor(ColorConstants.LIGHT_GRAY);
+                value.setBackgroundColor(ColorConstants.LIGHT_GRAY);
+            }
+            infoTable.addCell(key);
+            infoTable.addCell(value);
+        }
+
+        employeeDiv.add(infoTable);
+
+        // Add completed tasks section
+        employeeDiv.add(new Paragraph("Zadania ukończone:")
+                .setFontSize(12).setBold().setMarginBottom(4));
+        employeeDiv.add(new Paragraph(employee.getCompletedTasksTitles())
+                .setMarginBottom(15).setFont(font));
+
+        // Add pending tasks section
+        employeeDiv.add(new Paragraph("Zadania oczekujące:")
+                .setFontSize(12).setBold().setMarginBottom(4));
+        employeeDiv.add(new Paragraph(employee.getPendingTasksTitles())
+                .setFont(font));
+
+        // Add the complete employee div to the document
+        document.add(employeeDiv);
     }
 }
@@ -162,7 +162,7 @@ public class EmployeeReportUI extends Application {
 
     private Map<String, Integer> loadEmployeesByRole(Integer roleId) {
         Map<String, Integer> map = new LinkedHashMap<>();
-        try (Connection conn = DatabaseConnector.getConnection()) {
+        try (Connection conn = DatabaseConnector.getReadConnection()) {
             String sql = "SELECT u.id, CONCAT(u.first_name, ' ', u.last_name) AS name, r.name AS role, r.id AS role_id " +
                          "FROM Users u JOIN Roles r ON u.role_id = r.id";
 
@@ -192,7 +192,7 @@ public class EmployeeReportUI extends Application {
 
     private Map<String, Integer> loadProjects() {
         Map<String, Integer> map = new LinkedHashMap<>();
-        try (Connection conn = DatabaseConnector.getConnection();
+        try (Connection conn = DatabaseConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement("SELECT id, name FROM Projects");
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) map.put(rs.getString("name"), rs.getInt("id"));
@@ -204,7 +204,7 @@ public class EmployeeReportUI extends Application {
 
     private List<String> loadProjectStatuses() {
         List<String> statuses = new ArrayList<>();
-        try (Connection conn = DatabaseConnector.getConnection();
+        try (Connection conn = DatabaseConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement("SELECT DISTINCT status FROM Projects");
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
@@ -218,7 +218,7 @@ public class EmployeeReportUI extends Application {
 
     private Map<String, Integer> loadProjectManagers() {
         Map<String, Integer> managers = new LinkedHashMap<>();
-        try (Connection conn = DatabaseConnector.getConnection();
+        try (Connection conn = DatabaseConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(
                  "SELECT u.id, CONCAT(u.first_name, ' ', u.last_name) AS name " +
                  "FROM Users u " +
@@ -292,7 +292,7 @@ public class EmployeeReportUI extends Application {
 
         // Load project statuses in advance to reduce database queries
         Map<Integer, String> projectStatuses = new HashMap<>();
-        try (Connection conn = DatabaseConnector.getConnection();
+        try (Connection conn = DatabaseConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement("SELECT id, status FROM Projects")) {
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
@@ -456,7 +456,7 @@ public class EmployeeReportUI extends Application {
                 // Check if the project matches the selected status
                 boolean matchesStatus = "Wszystkie".equals(selectedStatus);
                 if (!matchesStatus) {
-                    try (Connection conn = DatabaseConnector.getConnection();
+                    try (Connection conn = DatabaseConnector.getReadConnection();
                          PreparedStatement stmt = conn.prepareStatement(
                              "SELECT status FROM Projects WHERE id = ?")) {
                         stmt.setInt(1, projects.get(projectName));
@@ -536,7 +536,7 @@ public class EmployeeReportUI extends Application {
 
     private Map<String, Integer> loadRoles() {
         Map<String, Integer> roles = new LinkedHashMap<>();
-        try (Connection conn = DatabaseConnector.getConnection();
+        try (Connection conn = DatabaseConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement("SELECT id, name FROM Roles");
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
@@ -555,7 +555,7 @@ public class EmployeeReportUI extends Application {
      */
     private Map<Integer, Double> loadEmployeePerformanceData() {
         Map<Integer, Double> performanceMap = new HashMap<>();
-        try (Connection conn = DatabaseConnector.getConnection();
+        try (Connection conn = DatabaseConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(
                  "SELECT user_id, completion_rate FROM vw_EmployeePerformance");
              ResultSet rs = stmt.executeQuery()) {
@@ -714,7 +714,7 @@ public class EmployeeReportUI extends Application {
 
                 // Get the role ID for this item from the database
                 Integer itemRoleId = null;
-                try (Connection conn = DatabaseConnector.getConnection();
+                try (Connection conn = DatabaseConnector.getReadConnection();
                      PreparedStatement stmt = conn.prepareStatement("SELECT id FROM Roles WHERE name = ?")) {
                     stmt.setString(1, itemRole);
                     try (ResultSet rs = stmt.executeQuery()) {
@@ -1,44 +1,35 @@
 package org.example;
 
-import com.itextpdf.io.font.FontProgram;
-import com.itextpdf.io.font.FontProgramFactory;
-import com.itextpdf.io.font.PdfEncodings;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.font.PdfFont;
-import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.*;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
+import org.example.aggregate.DistributionStatistics;
+import org.example.data.ExecutiveOverviewData;
+import org.example.data.ReportDataSources;
+import org.example.metrics.CountingOutputStream;
+import org.example.metrics.ReportGeneratedEvent;
+import org.example.metrics.ReportMetrics;
+import org.example.metrics.ReportSectionRenderedEvent;
+import org.example.metrics.ReportUsage;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.sql.*;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.Optional;
+import java.util.List;
 
 public class ExecutiveOverviewReportGenerator {
 
-    // Cache for the font to avoid loading it multiple times
-    private static PdfFont cachedFont;
-
-    // Static initialization of the font
-    static {
-        try {
-            InputStream fontStream = ExecutiveOverviewReportGenerator.class.getResourceAsStream("/fonts/DejaVuSans.ttf");
-            if (fontStream != null) {
-                FontProgram fontProgram = FontProgramFactory.createFont(fontStream.readAllBytes());
-                cachedFont = PdfFontFactory.createFont(fontProgram, PdfEncodings.IDENTITY_H, PdfFontFactory.EmbeddingStrategy.PREFER_EMBEDDED);
-            }
-        } catch (IOException e) {
-            System.err.println("Error loading font: " + e.getMessage());
-        }
-    }
-
     /**
      * Generates an executive overview report for a project.
      * 
@@ -67,104 +58,6 @@ public class ExecutiveOverviewReportGenerator {
      * @throws SQLException If a database error occurs
      * @throws IOException If an I/O error occurs
      */
-
-    /**
-     * ProjectData DTO class to store project information
-     */
-    private static class ProjectData {
-        private String project;
-        private String projectStatus;
-        private String projectProgress;
-        private String projectManager;
-        private String teamsInvolved;
-        private String employeesAssigned;
-        private String milestones;
-        private String totalTasks;
-        private String tasksDone;
-        private String tasksCanceled;
-        private String taskCompletionRate;
-        private String avgMilestoneProgress;
-        private String overdueMilestones;
-        private String overdueTasks;
-        private String involvedTeams;
-        private String teamLeaders;
-        private String taskTitles;
-
-        // Check if the project data is empty
-        public boolean isEmpty() {
-            return project == null || project.isEmpty();
-        }
-
-        // Get methods with null handling
-        public String getProject() {
-            return project != null ? project : "";
-        }
-
-        public String getProjectStatus() {
-            return projectStatus != null ? projectStatus : "";
-        }
-
-        public String getProjectProgress() {
-            return projectProgress != null ? projectProgress : "0";
-        }
-
-        public String getProjectManager() {
-            return projectManager != null ? projectManager : "";
-        }
-
-        public String getTeamsInvolved() {
-            return teamsInvolved != null ? teamsInvolved : "0";
-        }
-
-        public String getEmployeesAssigned() {
-            return employeesAssigned != null ? employeesAssigned : "0";
-        }
-
-        public String getMilestones() {
-            return milestones != null ? milestones : "0";
-        }
-
-        public String getTotalTasks() {
-            return totalTasks != null ? totalTasks : "0";
-        }
-
-        public String getTasksDone() {
-            return tasksDone != null ? tasksDone : "0";
-        }
-
-        public String getTasksCanceled() {
-            return tasksCanceled != null ? tasksCanceled : "0";
-        }
-
-        public String getTaskCompletionRate() {
-            return taskCompletionRate != null ? taskCompletionRate : "0";
-        }
-
-        public String getAvgMilestoneProgress() {
-            return avgMilestoneProgress != null ? avgMilestoneProgress : "0";
-        }
-
-        public String getOverdueMilestones() {
-            return overdueMilestones != null ? overdueMilestones : "0";
-        }
-
-        public String getOverdueTasks() {
-            return overdueTasks != null ? overdueTasks : "0";
-        }
-
-        public String getInvolvedTeams() {
-            return involvedTeams != null ? involvedTeams : "Brak";
-        }
-
-        public String getTeamLeaders() {
-            return teamLeaders != null ? teamLeaders : "Brak";
-        }
-
-        public String getTaskTitles() {
-            return taskTitles != null ? taskTitles : "Brak";
-        }
-    }
-
     public static void generateFilteredReport(int projectId, String customFileName, File selectedDirectory,
                                             String projectStatus, Integer managerId,
                                             boolean showOverdueTasks, boolean showOverdueMilestones,
@@ -178,225 +71,492 @@ public class ExecutiveOverviewReportGenerator {
                 ? new File(selectedDirectory, fileName) 
                 : new File(System.getProperty("user.home"), "Documents/" + fileName);
 
-        // Use cached font or load it if not available
-        PdfFont font = cachedFont;
-        if (font == null) {
-            try (InputStream fontStream = ExecutiveOverviewReportGenerator.class.getResourceAsStream("/fonts/DejaVuSans.ttf")) {
-                if (fontStream != null) {
-                    FontProgram fontProgram = FontProgramFactory.createFont(fontStream.readAllBytes());
-                    font = PdfFontFactory.createFont(fontProgram, PdfEncodings.IDENTITY_H, PdfFontFactory.EmbeddingStrategy.PREFER_EMBEDDED);
-                    cachedFont = font;
-                }
-            }
+        try (OutputStream out = new FileOutputStream(file)) {
+            generateFilteredReport(projectId, out, projectStatus, managerId,
+                    showOverdueTasks, showOverdueMilestones, minCompletionRate, maxCompletionRate);
         }
 
-        // Create a single optimized SQL query using the vw_ExecutiveOverview view
-        StringBuilder queryBuilder = new StringBuilder(
-            "SELECT v.*, p.manager_id FROM vw_ExecutiveOverview v JOIN Projects p ON v.project_id = p.id WHERE v.project_id = ?"
-        );
+        System.out.println("Raport zapisany jako: " + file.getAbsolutePath());
+    }
 
-        // Add dynamic WHERE conditions
-        if (projectStatus != null && !projectStatus.isEmpty()) {
-            queryBuilder.append(" AND v.project_status = ?");
-        } else {
-            queryBuilder.append(" AND (? IS NULL OR v.project_status = ?)");
-        }
+    /**
+     * Generates an executive overview report into the given channel.
+     * The channel is left open.
+     *
+     * @param projectId The ID of the project
+     * @param channel The channel receiving the PDF bytes
+     * @param projectStatus Filter by project status
+     * @param managerId Filter by manager ID
+     * @param showOverdueTasks Show only projects with overdue tasks
+     * @param showOverdueMilestones Show only projects with overdue milestones
+     * @param minCompletionRate Minimum task completion rate
+     * @param maxCompletionRate Maximum task completion rate
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static void generateFilteredReport(int projectId, WritableByteChannel channel,
+                                            String projectStatus, Integer managerId,
+                                            boolean showOverdueTasks, boolean showOverdueMilestones,
+                                            Double minCompletionRate, Double maxCompletionRate) throws SQLException, IOException {
+        OutputStream out = Channels.newOutputStream(channel);
+        generateFilteredReport(projectId, out, projectStatus, managerId,
+                showOverdueTasks, showOverdueMilestones, minCompletionRate, maxCompletionRate);
+        out.flush();
+    }
 
-        if (managerId != null) {
-            queryBuilder.append(" AND p.manager_id = ?");
-        } else {
-            queryBuilder.append(" AND (? IS NULL OR p.manager_id = ?)");
+    /**
+     * Generates an executive overview report into the given stream.
+     * The stream is left open, so the caller decides where the bytes end up.
+     *
+     * @param projectId The ID of the project
+     * @param out The stream receiving the PDF bytes
+     * @param projectStatus Filter by project status
+     * @param managerId Filter by manager ID
+     * @param showOverdueTasks Show only projects with overdue tasks
+     * @param showOverdueMilestones Show only projects with overdue milestones
+     * @param minCompletionRate Minimum task completion rate
+     * @param maxCompletionRate Maximum task completion rate
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static void generateFilteredReport(int projectId, OutputStream out,
+                                            String projectStatus, Integer managerId,
+                                            boolean showOverdueTasks, boolean showOverdueMilestones,
+                                            Double minCompletionRate, Double maxCompletionRate) throws SQLException, IOException {
+        ReportGeneratedEvent event = new ReportGeneratedEvent();
+        event.begin();
+        event.filterShape = ReportMetrics.filterShape("id", projectStatus != null && !projectStatus.isEmpty(), "status",
+                managerId != null, "manager", showOverdueTasks, "overdueTasks",
+                showOverdueMilestones, "overdueMilestones", minCompletionRate != null, "min",
+                maxCompletionRate != null, "max");
+        event.requestedEntities = 1;
+
+        try (ReportUsage usage = ReportUsage.start()) {
+            ExecutiveOverviewData projectData = ReportDataSources.getDefault().fetchExecutiveOverview(projectId, projectStatus, managerId,
+                    showOverdueTasks, showOverdueMilestones, minCompletionRate, maxCompletionRate);
+
+            renderReport(projectData, out, event, usage);
         }
+    }
 
-        if (showOverdueTasks) {
-            queryBuilder.append(" AND v.overdue_tasks > 0");
-        } else {
-            queryBuilder.append(" AND (v.overdue_tasks > 0 OR ? = FALSE)");
-        }
+    /**
+     * Generates one executive report for several projects: a portfolio summary followed by a page per project.
+     * All projects are read with a single query.
+     *
+     * @param projectIds The IDs of the projects
+     * @param customFileName Custom file name for the report
+     * @param selectedDirectory Directory to save the report
+     * @param projectStatus Filter by project status
+     * @param managerId Filter by manager ID
+     * @param showOverdueTasks Show only projects with overdue tasks
+     * @param showOverdueMilestones Show only projects with overdue milestones
+     * @param minCompletionRate Minimum task completion rate
+     * @param maxCompletionRate Maximum task completion rate
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static void generateMultipleFilteredReport(List<Integer> projectIds, String customFileName, File selectedDirectory,
+                                                    String projectStatus, Integer managerId,
+                                                    boolean showOverdueTasks, boolean showOverdueMilestones,
+                                                    Double minCompletionRate, Double maxCompletionRate) throws SQLException, IOException {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+        String fileName = (customFileName != null && !customFileName.isEmpty())
+                ? customFileName + ".pdf"
+                : "Raport_zarzadczy_" + timestamp + ".pdf";
 
-        if (showOverdueMilestones) {
-            queryBuilder.append(" AND v.overdue_milestones > 0");
-        } else {
-            queryBuilder.append(" AND (v.overdue_milestones > 0 OR ? = FALSE)");
-        }
+        File file = (selectedDirectory != null)
+                ? new File(selectedDirectory, fileName)
+                : new File(System.getProperty("user.home"), "Documents/" + fileName);
 
-        if (minCompletionRate != null || maxCompletionRate != null) {
-            if (minCompletionRate != null) {
-                queryBuilder.append(" AND v.task_completion_rate >= ?");
-            }
-            if (maxCompletionRate != null) {
-                queryBuilder.append(" AND v.task_completion_rate <= ?");
-            }
-        } else {
-            queryBuilder.append(" AND v.task_completion_rate BETWEEN ? AND ?");
+        try (OutputStream out = new FileOutputStream(file)) {
+            generateMultipleFilteredReport(projectIds, out, projectStatus, managerId,
+                    showOverdueTasks, showOverdueMilestones, minCompletionRate, maxCompletionRate);
         }
 
-        // Execute the query and get the project data
-        ProjectData projectData = new ProjectData();
+        System.out.println("Raport zapisany jako: " + file.getAbsolutePath());
+    }
 
-        try (Connection conn = DatabaseConnector.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(queryBuilder.toString())) {
+    /**
+     * Generates one executive report for several projects into the given stream.
+     * The stream is left open. Large selections are rendered in parallel,
+     * see {@link ParallelSectionRenderer#shouldRenderInParallel(int)}.
+     *
+     * @param projectIds The IDs of the projects
+     * @param out The stream receiving the PDF bytes
+     * @param projectStatus Filter by project status
+     * @param managerId Filter by manager ID
+     * @param showOverdueTasks Show only projects with overdue tasks
+     * @param showOverdueMilestones Show only projects with overdue milestones
+     * @param minCompletionRate Minimum task completion rate
+     * @param maxCompletionRate Maximum task completion rate
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static void generateMultipleFilteredReport(List<Integer> projectIds, OutputStream out,
+                                                    String projectStatus, Integer managerId,
+                                                    boolean showOverdueTasks, boolean showOverdueMilestones,
+                                                    Double minCompletionRate, Double maxCompletionRate) throws SQLException, IOException {
+        generateMultipleFilteredReport(projectIds, out, projectStatus, managerId, showOverdueTasks, showOverdueMilestones,
+                minCompletionRate, maxCompletionRate, ParallelSectionRenderer.shouldRenderInParallel(projectIds.size()));
+    }
 
-            int paramIndex = 1;
+    /**
+     * Generates one executive report for several projects into the given stream.
+     * In parallel mode every project page is laid out on a worker thread and the pages are merged in selection order.
+     *
+     * @param projectIds The IDs of the projects
+     * @param out The stream receiving the PDF bytes
+     * @param projectStatus Filter by project status
+     * @param managerId Filter by manager ID
+     * @param showOverdueTasks Show only projects with overdue tasks
+     * @param showOverdueMilestones Show only projects with overdue milestones
+     * @param minCompletionRate Minimum task completion rate
+     * @param maxCompletionRate Maximum task completion rate
+     * @param parallel Whether to render the projects in parallel
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static void generateMultipleFilteredReport(List<Integer> projectIds, OutputStream out,
+                                                    String projectStatus, Integer managerId,
+                                                    boolean showOverdueTasks, boolean showOverdueMilestones,
+                                                    Double minCompletionRate, Double maxCompletionRate,
+                                                    boolean parallel) throws SQLException, IOException {
+        ReportGeneratedEvent event = new ReportGeneratedEvent();
+        event.begin();
+        event.filterShape = ReportMetrics.filterShape("ids", projectStatus != null && !projectStatus.isEmpty(), "status",
+                managerId != null, "manager", showOverdueTasks, "overdueTasks",
+                showOverdueMilestones, "overdueMilestones", minCompletionRate != null, "min",
+                maxCompletionRate != null, "max");
+        event.requestedEntities = projectIds.size();
+
+        try (ReportUsage usage = ReportUsage.start()) {
+            List<ExecutiveOverviewData> projects = ReportDataSources.getDefault().fetchExecutiveOverviews(projectIds,
+                    projectStatus, managerId, showOverdueTasks, showOverdueMilestones, minCompletionRate, maxCompletionRate);
+
+            renderPortfolioReport(projects, out, parallel, event, usage);
+        }
+    }
 
-            // Set project ID
-            stmt.setInt(paramIndex++, projectId);
+    /**
+     * Lays out a portfolio report of already fetched projects into the given stream.
+     * The stream is left open.
+     *
+     * @param projects The overview rows to render, in output order
+     * @param out The stream receiving the PDF bytes
+     * @param parallel Whether to render the projects in parallel
+     * @throws IOException If an I/O error occurs
+     */
+    public static void renderPortfolioReport(List<ExecutiveOverviewData> projects, OutputStream out, boolean parallel) throws IOException {
+        ReportGeneratedEvent event = new ReportGeneratedEvent();
+        event.begin();
+        event.requestedEntities = projects.size();
+        try (ReportUsage usage = ReportUsage.start()) {
+            renderPortfolioReport(projects, out, parallel, event, usage);
+        }
+    }
 
-            // Set project status
-            if (projectStatus != null && !projectStatus.isEmpty()) {
-                stmt.setString(paramIndex++, projectStatus);
-            } else {
-                stmt.setNull(paramIndex++, Types.VARCHAR);
-                stmt.setString(paramIndex++, "");  // Dummy value, won't be used
-            }
+    private static void renderPortfolioReport(List<ExecutiveOverviewData> projects, OutputStream out, boolean parallel,
+                                              ReportGeneratedEvent event, ReportUsage usage) throws IOException {
+        long start = System.nanoTime();
+        CountingOutputStream counted = new CountingOutputStream(out);
+        // One pass over the rows; the per-project sections do not need it
+        DistributionStatistics statistics = projects.size() > 1 ? DistributionStatistics.ofProjects(projects) : null;
+        int pages = layOut(projects, counted, parallel, statistics);
+        ReportMetrics.recordRender(ReportType.EXECUTIVE_OVERVIEW, System.nanoTime() - start, projects.size(), counted.getCount(), pages);
+        usage.finish(ReportType.EXECUTIVE_OVERVIEW, event.filterShape, projects.size(), counted.getCount());
+
+        if (event.shouldCommit()) {
+            event.report = ReportType.EXECUTIVE_OVERVIEW.getKey();
+            event.entities = projects.size();
+            event.pages = pages;
+            event.bytes = counted.getCount();
+            event.parallel = parallel && projects.size() > 1;
+            event.cpuTime = usage.getCpuNanos();
+            event.allocated = usage.getAllocatedBytes();
+            event.commit();
+        }
+    }
 
-            // Set manager ID
-            if (managerId != null) {
-                stmt.setInt(paramIndex++, managerId);
-            } else {
-                stmt.setNull(paramIndex++, Types.INTEGER);
-                stmt.setInt(paramIndex++, 0);  // Dummy value, won't be used
-            }
+    /**
+     * Lays out the executive overview of a project into the given stream.
+     * The stream is left open.
+     *
+     * @param projectData The overview data, or null if no project matched the filters
+     * @param out The stream receiving the PDF bytes
+     * @throws IOException If an I/O error occurs
+     */
+    public static void renderReport(ExecutiveOverviewData projectData, OutputStream out) throws IOException {
+        ReportGeneratedEvent event = new ReportGeneratedEvent();
+        event.begin();
+        event.requestedEntities = 1;
+        try (ReportUsage usage = ReportUsage.start()) {
+            renderReport(projectData, out, event, usage);
+        }
+    }
 
-            // Set overdue tasks flag
-            if (!showOverdueTasks) {
-                stmt.setBoolean(paramIndex++, showOverdueTasks);
-            }
+    private static void renderReport(ExecutiveOverviewData projectData, OutputStream out, ReportGeneratedEvent event,
+                                     ReportUsage usage) throws IOException {
+        long start = System.nanoTime();
+        CountingOutputStream counted = new CountingOutputStream(out);
+        int pages = layOut(projectData, counted);
+        int entities = projectData == null || projectData.isEmpty() ? 0 : 1;
+        ReportMetrics.recordRender(ReportType.EXECUTIVE_OVERVIEW, System.nanoTime() - start, entities, counted.getCount(), pages);
+        usage.finish(ReportType.EXECUTIVE_OVERVIEW, event.filterShape, entities, counted.getCount());
+
+        if (event.shouldCommit()) {
+            event.report = ReportType.EXECUTIVE_OVERVIEW.getKey();
+            event.entities = entities;
+            event.pages = pages;
+            event.bytes = counted.getCount();
+            event.cpuTime = usage.getCpuNanos();
+            event.allocated = usage.getAllocatedBytes();
+            event.commit();
+        }
+    }
 
-            // Set overdue milestones flag
-            if (!showOverdueMilestones) {
-                stmt.setBoolean(paramIndex++, showOverdueMilestones);
-            }
+    private static int layOut(ExecutiveOverviewData projectData, OutputStream out) throws IOException {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
 
-            // Set completion rate range
-            if (minCompletionRate != null || maxCompletionRate != null) {
-                if (minCompletionRate != null) {
-                    stmt.setDouble(paramIndex++, minCompletionRate);
-                }
-                if (maxCompletionRate != null) {
-                    stmt.setDouble(paramIndex++, maxCompletionRate);
-                }
-            } else {
-                stmt.setDouble(paramIndex++, 0);
-                stmt.setDouble(paramIndex++, 100);
-            }
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    // Map ResultSet to ProjectData DTO
-                    projectData.project = rs.getString("project");
-                    projectData.projectStatus = rs.getString("project_status");
-                    projectData.projectProgress = rs.getString("project_progress");
-                    projectData.projectManager = rs.getString("project_manager");
-                    projectData.teamsInvolved = rs.getString("teams_involved");
-                    projectData.employeesAssigned = rs.getString("employees_assigned");
-                    projectData.milestones = rs.getString("milestones");
-                    projectData.totalTasks = rs.getString("total_tasks");
-                    projectData.tasksDone = rs.getString("tasks_done");
-                    projectData.tasksCanceled = rs.getString("tasks_canceled");
-
-                    // Handle NULL values for task_completion_rate and avg_milestone_progress
-                    String taskCompletionRate = rs.getString("task_completion_rate");
-                    projectData.taskCompletionRate = (taskCompletionRate != null) ? taskCompletionRate : "0";
-
-                    String avgMilestoneProgress = rs.getString("avg_milestone_progress");
-                    projectData.avgMilestoneProgress = (avgMilestoneProgress != null) ? avgMilestoneProgress : "0";
-
-                    projectData.overdueMilestones = rs.getString("overdue_milestones");
-                    projectData.overdueTasks = rs.getString("overdue_tasks");
-                    projectData.involvedTeams = rs.getString("involved_teams");
-                    projectData.teamLeaders = rs.getString("team_leaders");
-                    projectData.taskTitles = rs.getString("task_titles");
-                }
-            }
-        }
+        PdfFont font = ReportFonts.createFont();
 
         // Check if project data is empty
-        if (projectData.isEmpty()) {
-            try (PdfWriter writer = new PdfWriter(file);
+        if (projectData == null || projectData.isEmpty()) {
+            try (PdfWriter writer = new PdfWriter(out);
                  PdfDocument pdf = new PdfDocument(writer);
                  Document document = new Document(pdf)) {
 
-                if (font != null) {
-                    document.setFont(font);
-                }
+                writer.setCloseStream(false);
+                document.setFont(font);
 
                 // Create a Div to keep the message together
                 Div messageDiv = new Div();
                 messageDiv.setKeepTogether(true);
                 messageDiv.add(new Paragraph("Brak danych dla wybranego projektu."));
                 document.add(messageDiv);
+                return pdf.getNumberOfPages();
             }
-            System.out.println("Raport zapisany jako: " + file.getAbsolutePath());
-            return;
         }
 
         // Generate the PDF report with the collected data
-        try (PdfWriter writer = new PdfWriter(file);
+        try (PdfWriter writer = new PdfWriter(out);
              PdfDocument pdf = new PdfDocument(writer);
              Document document = new Document(pdf)) {
 
-            if (font != null) {
-                document.setFont(font);
-            }
+            writer.setCloseStream(false);
+            document.setFont(font);
 
-            // Add title and timestamp outside the keepTogether div
-            document.add(new Paragraph("RAPORT ZARZĄDCZY PROJEKTU")
-                    .setFontSize(20).setBold()
-                    .setTextAlignment(TextAlignment.CENTER).setMarginBottom(10));
-
-            document.add(new Paragraph("Wygenerowano: " + timestamp)
-                    .setFontSize(10).setItalic()
-                    .setTextAlignment(TextAlignment.CENTER).setMarginBottom(20));
-
-            // Create a Div to keep all report content together
-            Div reportDiv = new Div();
-            reportDiv.setKeepTogether(true);
-
-            Table infoTable = new Table(UnitValue.createPercentArray(new float[]{1, 2}))
-                    .useAllAvailableWidth().setMarginBottom(20);
-
-            // Define table rows with data from our ProjectData object
-            String[][] rows = {
-                    {"Projekt", projectData.getProject()},
-                    {"Status", projectData.getProjectStatus()},
-                    {"Postęp projektu", projectData.getProjectProgress() + "%"},
-                    {"Menedżer projektu", projectData.getProjectManager()},
-                    {"Liczba zespołów", projectData.getTeamsInvolved()},
-                    {"Liczba pracowników", projectData.getEmployeesAssigned()},
-                    {"Liczba kamieni milowych", projectData.getMilestones()},
-                    {"Liczba zadań", projectData.getTotalTasks()},
-                    {"Zadania zakończone", projectData.getTasksDone()},
-                    {"Zadania anulowane", projectData.getTasksCanceled()},
-                    {"% ukończonych zadań", projectData.getTaskCompletionRate() + "%"},
-                    {"Średni postęp kamieni", projectData.getAvgMilestoneProgress() + "%"},
-                    {"Opóźnione kamienie milowe", projectData.getOverdueMilestones()},
-                    {"Opóźnione zadania", projectData.getOverdueTasks()},
-                    {"Zespoły", projectData.getInvolvedTeams()},
-                    {"Liderzy zespołów", projectData.getTeamLeaders()}
-            };
-
-            for (int i = 0; i < rows.length; i++) {
-                Cell key = new Cell().add(new Paragraph(rows[i][0])).setBold();
-                Cell value = new Cell().add(new Paragraph(rows[i][1]));
-                if (i % 2 == 0) {
-                    key.setBackgroundColor(ColorConstants.LIGHT_GRAY);
-                    value.setBackgroundColor(ColorConstants.LIGHT_GRAY);
+            addTitle(document, false, timestamp);
+            addProjectSection(document, projectData, false);
+            return pdf.getNumberOfPages();
+        }
+    }
+
+    private static int layOut(List<ExecutiveOverviewData> projects, CountingOutputStream out, boolean parallel,
+                              DistributionStatistics statistics) throws IOException {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+
+        if (parallel && projects.size() > 1) {
+            // The first section also carries the portfolio summary and statistics, which need every project
+            return ParallelSectionRenderer.render(ReportType.EXECUTIVE_OVERVIEW, projects, (document, font, project, index) -> {
+                if (index == 0) {
+                    addTitle(document, true, timestamp);
+                    addPortfolioSummary(document, projects);
+                    addStatistics(document, statistics);
+                    document.add(new AreaBreak());
+                }
+                addProjectSection(document, project, true);
+            }, out);
+        }
+
+        PdfFont font = ReportFonts.createFont();
+
+        try (PdfWriter writer = new PdfWriter(out);
+             PdfDocument pdf = new PdfDocument(writer);
+             Document document = new Document(pdf)) {
+
+            writer.setCloseStream(false);
+            document.setFont(font);
+
+            addTitle(document, true, timestamp);
+            addPortfolioSummary(document, projects);
+            addStatistics(document, statistics);
+
+            for (int i = 0; i < projects.size(); i++) {
+                document.add(new AreaBreak());
+                ReportSectionRenderedEvent sectionEvent = new ReportSectionRenderedEvent();
+                sectionEvent.begin();
+                long written = out.getCount();
+                addProjectSection(document, projects.get(i), true);
+                if (sectionEvent.shouldCommit()) {
+                    // iText flushes finished pages as it goes, so this is only roughly the size of the section
+                    sectionEvent.report = ReportType.EXECUTIVE_OVERVIEW.getKey();
+                    sectionEvent.index = i;
+                    sectionEvent.bytes = out.getCount() - written;
+                    sectionEvent.commit();
                 }
-                infoTable.addCell(key);
-                infoTable.addCell(value);
             }
+            return pdf.getNumberOfPages();
+        }
+    }
 
-            reportDiv.add(infoTable);
+    /**
+     * Adds the report title and generation time.
+     *
+     * @param document The document to add to
+     * @param multiple Whether the report covers more than one project
+     * @param timestamp The generation time
+     */
+    public static void addTitle(Document document, boolean multiple, String timestamp) {
+        document.add(new Paragraph(multiple ? "RAPORT ZARZĄDCZY PORTFELA PROJEKTÓW" : "RAPORT ZARZĄDCZY PROJEKTU")
+                .setFontSize(20).setBold()
+                .setTextAlignment(TextAlignment.CENTER).setMarginBottom(10));
+
+        document.add(new Paragraph("Wygenerowano: " + timestamp)
+                .setFontSize(10).setItalic()
+                .setTextAlignment(TextAlignment.CENTER).setMarginBottom(20));
+    }
 
-            reportDiv.add(new Paragraph("Zadania w projekcie:")
-                    .setFontSize(12).setBold().setMarginBottom(4));
-            reportDiv.add(new Paragraph(projectData.getTaskTitles()));
+    /**
+     * Adds a summary table with one row per project and the totals of the portfolio.
+     *
+     * @param document The document to add to
+     * @param projects The projects of the report
+     */
+    public static void addPortfolioSummary(Document document, List<ExecutiveOverviewData> projects) {
+        if (projects.isEmpty()) {
+            // Create a Div to keep the message together
+            Div messageDiv = new Div();
+            messageDiv.setKeepTogether(true);
+            messageDiv.add(new Paragraph("Brak danych dla wybranych projektów."));
+            document.add(messageDiv);
+            return;
+        }
+
+        document.add(new Paragraph("Podsumowanie portfela")
+                .setFontSize(16).setBold().setMarginBottom(10));
 
-            // Add the complete report div to the document
-            document.add(reportDiv);
+        String[] headers = {"Projekt", "Status", "Menedżer", "Postęp", "% ukończonych zadań",
+                "Liczba zadań", "Opóźnione zadania", "Opóźnione kamienie"};
+        Table summaryTable = new Table(UnitValue.createPercentArray(new float[]{3, 2, 2, 1, 1, 1, 1, 1}))
+                .useAllAvailableWidth().setFontSize(9).setMarginBottom(20);
+        for (String header : headers) {
+            summaryTable.addHeaderCell(new Cell().add(new Paragraph(header)).setBold()
+                    .setBackgroundColor(ColorConstants.LIGHT_GRAY));
         }
 
-        System.out.println("Raport zapisany jako: " + file.getAbsolutePath());
+        long totalTasks = 0;
+        long overdueTasks = 0;
+        long overdueMilestones = 0;
+        double progressSum = 0;
+        double completionRateSum = 0;
+        for (ExecutiveOverviewData project : projects) {
+            summaryTable.addCell(new Paragraph(project.getProject()));
+            summaryTable.addCell(new Paragraph(project.getProjectStatus()));
+            summaryTable.addCell(new Paragraph(project.getProjectManager()));
+            summaryTable.addCell(new Paragraph(project.getProjectProgress() + "%"));
+            summaryTable.addCell(new Paragraph(project.getTaskCompletionRate() + "%"));
+            summaryTable.addCell(new Paragraph(project.getTotalTasks()));
+            summaryTable.addCell(new Paragraph(project.getOverdueTasks()));
+            summaryTable.addCell(new Paragraph(project.getOverdueMilestones()));
+
+            totalTasks += Math.round(Double.parseDouble(project.getTotalTasks()));
+            overdueTasks += Math.round(Double.parseDouble(project.getOverdueTasks()));
+            overdueMilestones += Math.round(Double.parseDouble(project.getOverdueMilestones()));
+            progressSum += Double.parseDouble(project.getProjectProgress());
+            completionRateSum += Double.parseDouble(project.getTaskCompletionRate());
+        }
+
+        // Progress and completion rate are averages over the projects, counts are sums
+        String[] totals = {
+                "Razem (" + projects.size() + ")", "", "",
+                String.format("%.2f%%", progressSum / projects.size()),
+                String.format("%.2f%%", completionRateSum / projects.size()),
+                String.valueOf(totalTasks),
+                String.valueOf(overdueTasks),
+                String.valueOf(overdueMilestones)
+        };
+        for (String total : totals) {
+            summaryTable.addFooterCell(new Cell().add(new Paragraph(total)).setBold()
+                    .setBackgroundColor(ColorConstants.LIGHT_GRAY));
+        }
+
+        document.add(summaryTable);
+    }
+
+    /**
+     * Adds the statistics of all projects of the portfolio.
+     *
+     * @param document The document to add to
+     * @param statistics The statistics, or null for a report of a single project
+     */
+    public static void addStatistics(Document document, DistributionStatistics statistics) {
+        if (statistics != null) {
+            StatisticsSection.addStatistics(document, statistics, "Projekty", "Zespół");
+        }
+    }
+
+    /**
+     * Adds the overview of a single project.
+     *
+     * @param document The document to add to
+     * @param projectData The overview data
+     * @param multiple Whether the report covers more than one project
+     */
+    public static void addProjectSection(Document document, ExecutiveOverviewData projectData, boolean multiple) {
+        // Create a Div to keep all report content together
+        Div reportDiv = new Div();
+        reportDiv.setKeepTogether(true);
+
+        // Add project header if multiple projects
+        if (multiple) {
+            reportDiv.add(new Paragraph("Projekt: " + projectData.getProject())
+                    .setFontSize(16)
+                    .setBold()
+                    .setMarginTop(0)
+                    .setMarginBottom(10));
+        }
+
+        Table infoTable = new Table(UnitValue.createPercentArray(new float[]{1, 2}))
+                .useAllAvailableWidth().setMarginBottom(20);
+
+        // Define table rows with data from the overview DTO
+        String[][] rows = {
+                {"Projekt", projectData.getProject()},
+                {"Status", projectData.getProjectStatus()},
+                {"Postęp projektu", projectData.getProjectProgress() + "%"},
+                {"Menedżer projektu", projectData.getProjectManager()},
+                {"Liczba zespołów", projectData.getTeamsInvolved()},
+                {"Liczba pracowników", projectData.getEmployeesAssigned()},
+                {"Liczba kamieni milowych", projectData.getMilestones()},
+                {"Liczba zadań", projectData.getTotalTasks()},
+                {"Zadania zakończone", projectData.getTasksDone()},
+                {"Zadania anulowane", projectData.getTasksCanceled()},
+                {"% ukończonych zadań", projectData.getTaskCompletionRate() + "%"},
+                {"Średni postęp kamieni", projectData.getAvgMilestoneProgress() + "%"},
+                {"Opóźnione kamienie milowe", projectData.getOverdueMilestones()},
+                {"Opóźnione zadania", projectData.getOverdueTasks()},
+                {"Zespoły", projectData.getInvolvedTeams()},
+                {"Liderzy zespołów", projectData.getTeamLeaders()}
+        };
+
+        for (int i = 0; i < rows.length; i++) {
+            Cell key = new Cell().add(new Paragraph(rows[i][0])).setBold();
+            Cell value = new Cell().add(new Paragraph(rows[i][1]));
+            if (i % 2 == 0) {
+                key.setBackgroundColor(ColorConstants.LIGHT_GRAY);
+                value.setBackgroundColor(ColorConstants.LIGHT_GRAY);
+            }
+            infoTable.addCell(key);
+            infoTable.addCell(value);
+        }
+
+        reportDiv.add(infoTable);
+
+        reportDiv.add(new Paragraph("Zadania w projekcie:")
+                .setFontSize(12).setBold().setMarginBottom(4));
+        reportDiv.add(new Paragraph(projectData.getTaskTitles()));
+
+        // Add the complete report div to the document
+        document.add(reportDiv);
     }
 }
@@ -0,0 +1,287 @@
+package org.example;
+
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.utils.PdfMerger;
+import com.itextpdf.layout.Document;
+import org.example.cache.ReportCache;
+import org.example.metrics.CountingOutputStream;
+import org.example.metrics.ReportMetrics;
+import org.example.metrics.ReportSectionRenderedEvent;
+import org.example.metrics.ReportUsage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Renders the sections of a multi-entity report in parallel and merges them into one PDF.
+ * <p>
+ * Each section is laid out into its own in-memory document on a worker pool; the main thread
+ * appends finished sections to the output with {@link PdfMerger} in the original order.
+ * Only a bounded window of sections is rendered ahead, so memory does not grow with the
+ * number of entities.
+ * <p>
+ * Sections share the parsed font program. Every section still carries its own font subset,
+ * the writer's smart mode stores identical subsets and other resources only once.
+ * Per-section overhead (document setup, subsetting, merging) is a few milliseconds,
+ * so the parallel path pays off only for larger reports on multi-core machines.
+ * <p>
+ * With a {@link ReportCache} and section keys, sections already rendered for the same data are
+ * copied from the cache instead of being laid out again, so rerunning a large report costs
+ * roughly the merge plus the sections whose data changed.
+ */
+public class ParallelSectionRenderer {
+
+    // Reports with at least this many sections are rendered in parallel (-Dpz.report.parallelThreshold)
+    public static final int PARALLEL_THRESHOLD = Integer.getInteger("pz.report.parallelThreshold", 20);
+
+    private static final int MIN_WORKERS = 4;
+
+    private static final int WORKERS = Runtime.getRuntime().availableProcessors();
+
+    private static final ExecutorService RENDER_POOL = Executors.newFixedThreadPool(WORKERS, runnable -> {
+        Thread thread = new Thread(runnable, "report-render");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Functional interface for laying out one section into its own document.
+     */
+    @FunctionalInterface
+    public interface SectionWriter<T> {
+        void write(Document document, PdfFont font, T item, int index) throws IOException;
+    }
+
+    /**
+     * Functional interface for naming the cache entry of a section.
+     * A null key means the section must always be rendered.
+     */
+    @FunctionalInterface
+    public interface SectionKey<T> {
+        String keyFor(T item, int index);
+    }
+
+    /**
+     * Checks whether a report with the given number of sections should be rendered in parallel.
+     *
+     * @param sections The number of sections in the report
+     * @return True if the report is large enough and there are enough processors
+     */
+    public static boolean shouldRenderInParallel(int sections) {
+        return sections >= PARALLEL_THRESHOLD && WORKERS >= MIN_WORKERS;
+    }
+
+    /**
+     * Renders every item as a separate section and writes the merged PDF to the stream.
+     * The stream is left open.
+     *
+     * @param type The report type, recorded in the section events
+     * @param items The entities to render, in output order
+     * @param sectionWriter Lays out a single section
+     * @param out The stream receiving the merged PDF
+     * @return The number of pages of the merged PDF
+     * @throws IOException If rendering or writing fails
+     */
+    public static <T> int render(ReportType type, List<T> items, SectionWriter<T> sectionWriter, OutputStream out) throws IOException {
+        return render(type, items, sectionWriter, null, null, out);
+    }
+
+    /**
+     * Renders every item as a separate section and writes the merged PDF to the stream,
+     * reusing sections stored in the cache. Newly rendered sections with a key are stored.
+     * The stream is left open.
+     *
+     * @param type The report type, recorded in the section events
+     * @param items The entities to render, in output order
+     * @param sectionWriter Lays out a single section
+     * @param cache The cache of rendered sections, or null
+     * @param sectionKey Names the cache entry of each section, or null
+     * @param out The stream receiving the merged PDF
+     * @return The number of pages of the merged PDF
+     * @throws IOException If rendering or writing fails
+     */
+    public static <T> int render(ReportType type, List<T> items, SectionWriter<T> sectionWriter, ReportCache cache,
+                                 SectionKey<T> sectionKey, OutputStream out) throws IOException {
+        int window = WORKERS * 2;
+        ReportBufferPool buffers = ReportBufferPool.shared();
+        Deque<Future<ReportBuffer>> pending = new ArrayDeque<>();
+        // Keys of the pending sections that still have to be stored, empty for cached or unkeyed ones
+        Deque<String> storeKeys = new ArrayDeque<>();
+        boolean cached = cache != null && cache.isEnabled() && sectionKey != null;
+
+        try (PdfWriter writer = new PdfWriter(out);
+             PdfDocument merged = new PdfDocument(writer)) {
+
+            writer.setCloseStream(false);
+            writer.setSmartMode(true);
+            PdfMerger merger = new PdfMerger(merged);
+
+            int next = 0;
+            while (next < items.size() || !pending.isEmpty()) {
+                // Keep the window of sections rendered ahead full, as far as other reports leave
+                // buffers free; only a report holding none waits for one
+                while (next < items.size() && pending.size() < window) {
+                    ReportBuffer buffer = pending.isEmpty() ? buffers.acquire() : buffers.tryAcquire();
+                    if (buffer == null) {
+                        break;
+                    }
+                    T item = items.get(next);
+                    String key = cached ? sectionKey.keyFor(item, next) : null;
+                    ReportSectionRenderedEvent event = new ReportSectionRenderedEvent();
+                    event.begin();
+                    boolean hit = key != null && cache.copyTo(key, buffer);
+                    if (key != null) {
+                        ReportMetrics.recordSectionCache(hit);
+                    }
+                    if (hit) {
+                        if (event.shouldCommit()) {
+                            event.report = type.getKey();
+                            event.index = next;
+                            event.cached = true;
+                            event.bytes = buffer.size();
+                            event.commit();
+                        }
+                        pending.add(CompletableFuture.completedFuture(buffer));
+                        storeKeys.add("");
+                    } else {
+                        pending.add(submit(type, item, next, sectionWriter, buffer));
+                        storeKeys.add(key != null ? key : "");
+                    }
+                    next++;
+                }
+
+                // Taken off the window only once finished, so a failure discards it with the rest
+                ReportBuffer section = pending.peek().get();
+                pending.poll();
+                String storeKey = storeKeys.poll();
+                try {
+                    if (!storeKey.isEmpty()) {
+                        cache.put(storeKey, section);
+                    }
+                    try (PdfDocument source = new PdfDocument(new PdfReader(section.toInputStream()))) {
+                        merger.merge(source, 1, source.getNumberOfPages());
+                    }
+                } finally {
+                    section.release();
+                }
+            }
+            return merged.getNumberOfPages();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Przerwano generowanie raportu", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } finally {
+            for (Future<ReportBuffer> future : pending) {
+                discard(future);
+            }
+        }
+    }
+
+    /**
+     * Schedules a section on the render pool. The buffer is released if rendering fails, or if
+     * the section is {@linkplain #discard discarded} before it is finished.
+     */
+    static <T> Future<ReportBuffer> submit(ReportType type, T item, int index, SectionWriter<T> sectionWriter, ReportBuffer buffer) {
+        CompletableFuture<ReportBuffer> section = new CompletableFuture<>();
+        Callable<Void> task = () -> {
+            if (section.isCancelled()) {
+                buffer.release();
+                return null;
+            }
+            try {
+                renderSection(type, item, index, sectionWriter, buffer);
+                // Cancelled meanwhile: nobody will take the buffer
+                if (!section.complete(buffer)) {
+                    buffer.release();
+                }
+            } catch (Throwable e) {
+                buffer.release();
+                section.completeExceptionally(e);
+            }
+            return null;
+        };
+        // Worker CPU time and allocations count towards the report being generated on the calling thread
+        ReportUsage usage = ReportUsage.current();
+        RENDER_POOL.submit(usage != null ? usage.track(task) : task);
+        return section;
+    }
+
+    /**
+     * Drops a section that will not be written, returning its buffer to the pool now or, if it is
+     * still being rendered, when the worker finishes.
+     *
+     * @param section A section from {@link #submit} or a completed cached one
+     */
+    static void discard(Future<ReportBuffer> section) {
+        if (!section.cancel(false) && section.state() == Future.State.SUCCESS) {
+            section.resultNow().release();
+        }
+    }
+
+    /**
+     * Renders a single section into the given sink as a standalone PDF document.
+     *
+     * @param type The report type, recorded in the section event
+     * @param item The entity to render
+     * @param index The position of the entity in the report
+     * @param sectionWriter Lays out the section
+     * @param out The sink receiving the section PDF
+     * @throws IOException If rendering fails
+     */
+    public static <T> void renderSection(ReportType type, T item, int index, SectionWriter<T> sectionWriter,
+                                         OutputStream out) throws IOException {
+        ReportSectionRenderedEvent event = new ReportSectionRenderedEvent();
+        event.begin();
+        CountingOutputStream counted = new CountingOutputStream(out);
+        PdfFont font = ReportFonts.createFont();
+
+        try (PdfWriter writer = new PdfWriter(counted);
+             PdfDocument pdf = new PdfDocument(writer);
+             Document document = new Document(pdf)) {
+
+            writer.setCloseStream(false);
+            document.setFont(font);
+            sectionWriter.write(document, font, item, index);
+        }
+
+        if (event.shouldCommit()) {
+            event.report = type.getKey();
+            event.index = index;
+            event.bytes = counted.getCount();
+            event.commit();
+        }
+    }
+
+    /**
+     * Gets the number of render worker threads.
+     *
+     * @return The size of the render pool
+     */
+    static int getWorkers() {
+        return WORKERS;
+    }
+
+    static IOException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        return new IOException(cause);
+    }
+}
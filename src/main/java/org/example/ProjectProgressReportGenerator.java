@@ -1,26 +1,35 @@
 package org.example;
 
-import com.itextpdf.io.font.FontProgram;
-import com.itextpdf.io.font.FontProgramFactory;
-import com.itextpdf.io.font.PdfEncodings;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.font.PdfFont;
-import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.*;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
+import org.example.cache.ReportCache;
+import org.example.cache.SectionKeys;
+import org.example.data.ChangeTracker;
+import org.example.data.ProjectProgressData;
+import org.example.data.ReportDataSource;
+import org.example.data.ReportDataSources;
+import org.example.metrics.CountingOutputStream;
+import org.example.metrics.ReportGeneratedEvent;
+import org.example.metrics.ReportMetrics;
+import org.example.metrics.ReportSectionRenderedEvent;
+import org.example.metrics.ReportUsage;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.sql.*;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
-import java.util.Optional;
 
 public class ProjectProgressReportGenerator {
 
@@ -49,154 +58,263 @@ public class ProjectProgressReportGenerator {
                 ? new File(selectedDirectory, fileName) 
                 : new File(System.getProperty("user.home"), "Documents/" + fileName);
 
-        InputStream fontStream = ProjectProgressReportGenerator.class.getResourceAsStream("/fonts/DejaVuSans.ttf");
-        FontProgram fontProgram = FontProgramFactory.createFont(fontStream.readAllBytes());
-        PdfFont font = PdfFontFactory.createFont(fontProgram, PdfEncodings.IDENTITY_H, PdfFontFactory.EmbeddingStrategy.PREFER_EMBEDDED);
-
-        StringBuilder queryBuilder = new StringBuilder("""
-        SELECT
-            project,
-            manager,
-            status,
-            overall_progress,
-            total_milestones,
-            milestone_names,
-            total_tasks,
-            task_titles,
-            completed_tasks,
-            canceled_tasks,
-            avg_milestone_progress,
-            involved_teams,
-            team_leaders
-        FROM vw_ProjectProgress
-        WHERE project_id = ?
-        """);
-
-        // Add filters if provided
-        if (projectStatus != null && !projectStatus.isEmpty()) {
-            queryBuilder.append(" AND status = ?");
+        try (OutputStream out = new FileOutputStream(file)) {
+            generateMultipleFilteredReport(projectIds, out, projectStatus, managerId);
         }
 
-        if (managerId != null) {
-            queryBuilder.append(" AND manager_id = ?");
-        }
-
-        String query = queryBuilder.toString();
+        System.out.println("Raport zapisany jako: " + file.getAbsolutePath());
+    }
 
-        try (Connection conn = DatabaseConnector.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query);
-             PdfWriter writer = new PdfWriter(file);
-             PdfDocument pdf = new PdfDocument(writer);
-             Document document = new Document(pdf)) {
+    /**
+     * Generates a project progress report into the given channel.
+     * The channel is left open.
+     *
+     * @param projectIds The IDs of the projects
+     * @param channel The channel receiving the PDF bytes
+     * @param projectStatus Filter by project status, or null
+     * @param managerId Filter by manager ID, or null
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static void generateMultipleFilteredReport(List<Integer> projectIds, WritableByteChannel channel,
+                                                    String projectStatus, Integer managerId) throws SQLException, IOException {
+        OutputStream out = Channels.newOutputStream(channel);
+        generateMultipleFilteredReport(projectIds, out, projectStatus, managerId);
+        out.flush();
+    }
 
-            document.setFont(font);
+    /**
+     * Generates a project progress report into the given stream.
+     * The stream is left open, so the caller decides where the bytes end up.
+     * Large selections are rendered in parallel, see {@link ParallelSectionRenderer#shouldRenderInParallel(int)}.
+     *
+     * @param projectIds The IDs of the projects
+     * @param out The stream receiving the PDF bytes
+     * @param projectStatus Filter by project status, or null
+     * @param managerId Filter by manager ID, or null
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static void generateMultipleFilteredReport(List<Integer> projectIds, OutputStream out,
+                                                    String projectStatus, Integer managerId) throws SQLException, IOException {
+        generateMultipleFilteredReport(projectIds, out, projectStatus, managerId, ParallelSectionRenderer.shouldRenderInParallel(projectIds.size()));
+    }
 
-            // Add title and timestamp
-            document.add(new Paragraph(projectIds.size() > 1 ? "RAPORT POSTĘPU PROJEKTÓW" : "RAPORT POSTĘPU PROJEKTU")
-                    .setFontSize(20).setBold()
-                    .setTextAlignment(TextAlignment.CENTER).setMarginBottom(10));
+    /**
+     * Generates a project progress report into the given stream.
+     * In parallel mode every project is laid out on a worker thread and the sections are merged in selection order.
+     * Large reports reuse the sections of projects whose data has not changed since they were last rendered.
+     *
+     * @param projectIds The IDs of the projects
+     * @param out The stream receiving the PDF bytes
+     * @param projectStatus Filter by project status, or null
+     * @param managerId Filter by manager ID, or null
+     * @param parallel Whether to render the projects in parallel
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static void generateMultipleFilteredReport(List<Integer> projectIds, OutputStream out,
+                                                    String projectStatus, Integer managerId,
+                                                    boolean parallel) throws SQLException, IOException {
+        ReportGeneratedEvent event = new ReportGeneratedEvent();
+        event.begin();
+        event.filterShape = ReportMetrics.filterShape("ids", projectStatus != null && !projectStatus.isEmpty(), "status",
+                managerId != null, "manager");
+        event.requestedEntities = projectIds.size();
+        boolean multiple = projectIds.size() > 1;
+
+        try (ReportUsage usage = ReportUsage.start()) {
+            ReportDataSource dataSource = ReportDataSources.getDefault();
+            List<ProjectProgressData> projects = dataSource.fetchProjects(projectIds, projectStatus, managerId);
+
+            SectionKeys sectionKeys = null;
+            ReportCache cache = ReportCache.shared();
+            if (cache.isEnabled() && projects.size() >= ParallelSectionRenderer.PARALLEL_THRESHOLD) {
+                List<Integer> fetchedIds = projects.stream().map(ProjectProgressData::getProjectId).toList();
+                sectionKeys = SectionKeys.create(cache, ChangeTracker.Entity.PROJECT,
+                        dataSource.entityVersions(ChangeTracker.Entity.PROJECT, fetchedIds), "project");
+            }
 
-            document.add(new Paragraph("Wygenerowano: " + timestamp)
-                    .setFontSize(10).setItalic()
-                    .setTextAlignment(TextAlignment.CENTER).setMarginBottom(20));
+            renderReport(projects, multiple, out, parallel, sectionKeys, event, usage);
+        }
+    }
 
-            boolean hasData = false;
+    /**
+     * Lays out a progress report of already fetched projects into the given stream.
+     * The stream is left open.
+     *
+     * @param projects The rows to render, in output order
+     * @param multiple Whether the report was requested for more than one project
+     * @param out The stream receiving the PDF bytes
+     * @param parallel Whether to render the projects in parallel
+     * @throws IOException If an I/O error occurs
+     */
+    public static void renderReport(List<ProjectProgressData> projects, boolean multiple, OutputStream out, boolean parallel) throws IOException {
+        ReportGeneratedEvent event = new ReportGeneratedEvent();
+        event.begin();
+        event.requestedEntities = projects.size();
+        try (ReportUsage usage = ReportUsage.start()) {
+            renderReport(projects, multiple, out, parallel, null, event, usage);
+        }
+    }
 
-            // Process each project
-            for (int i = 0; i < projectIds.size(); i++) {
-                int projectId = projectIds.get(i);
-                int paramIndex = 1;
+    private static void renderReport(List<ProjectProgressData> projects, boolean multiple, OutputStream out, boolean parallel,
+                                     SectionKeys sectionKeys, ReportGeneratedEvent event, ReportUsage usage) throws IOException {
+        long start = System.nanoTime();
+        CountingOutputStream counted = new CountingOutputStream(out);
+        int pages = layOut(projects, multiple, counted, parallel, sectionKeys);
+        ReportMetrics.recordRender(ReportType.PROJECT_PROGRESS, System.nanoTime() - start, projects.size(), counted.getCount(), pages);
+        usage.finish(ReportType.PROJECT_PROGRESS, event.filterShape, projects.size(), counted.getCount());
+
+        if (event.shouldCommit()) {
+            event.report = ReportType.PROJECT_PROGRESS.getKey();
+            event.entities = projects.size();
+            event.pages = pages;
+            event.bytes = counted.getCount();
+            event.parallel = (parallel || sectionKeys != null) && projects.size() > 1;
+            event.cpuTime = usage.getCpuNanos();
+            event.allocated = usage.getAllocatedBytes();
+            event.commit();
+        }
+    }
 
-                // Set project ID parameter
-                stmt.setInt(paramIndex++, projectId);
+    private static int layOut(List<ProjectProgressData> projects, boolean multiple, CountingOutputStream out, boolean parallel,
+                              SectionKeys sectionKeys) throws IOException {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
 
-                // Set additional filter parameters if provided
-                if (projectStatus != null && !projectStatus.isEmpty()) {
-                    stmt.setString(paramIndex++, projectStatus);
+        if ((parallel || sectionKeys != null) && projects.size() > 1) {
+            // The first section carries the title and generation time, so it is never taken from the cache
+            return ParallelSectionRenderer.render(ReportType.PROJECT_PROGRESS, projects, (document, font, project, index) -> {
+                if (index == 0) {
+                    addTitle(document, multiple, timestamp);
                 }
+                addProjectSection(document, font, project, multiple);
+            }, sectionKeys == null ? null : ReportCache.shared(),
+               sectionKeys == null ? null : (project, index) -> index == 0 ? null : sectionKeys.keyFor(project.getProjectId()), out);
+        }
 
-                if (managerId != null) {
-                    stmt.setInt(paramIndex++, managerId);
-                }
+        PdfFont font = ReportFonts.createFont();
+
+        try (PdfWriter writer = new PdfWriter(out);
+             PdfDocument pdf = new PdfDocument(writer);
+             Document document = new Document(pdf)) {
+
+            writer.setCloseStream(false);
+            document.setFont(font);
 
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        hasData = true;
-
-                        // Add a page break before each project (except the first one)
-                        if (i > 0) {
-                            document.add(new AreaBreak());
-                        }
-
-                        // Create a Div to keep all project content together
-                        Div projectDiv = new Div();
-                        projectDiv.setKeepTogether(true);
-
-                        // Add project header if multiple projects
-                        if (projectIds.size() > 1) {
-                            projectDiv.add(new Paragraph("Projekt: " + rs.getString("project"))
-                                    .setFontSize(16)
-                                    .setBold()
-                                    .setMarginTop(0)
-                                    .setMarginBottom(10));
-                        }
-
-                        // Create project info table
-                        Table infoTable = new Table(UnitValue.createPercentArray(new float[]{1, 2}))
-                                .useAllAvailableWidth().setMarginBottom(20);
-
-                        String[][] rows = {
-                                {"Projekt", rs.getString("project")},
-                                {"Menedżer", rs.getString("manager")},
-                                {"Status", rs.getString("status")},
-                                {"Progres całkowity", rs.getString("overall_progress") + "%"},
-                                {"Liczba kamieni milowych", rs.getString("total_milestones")},
-                                {"Średni postęp kamieni", rs.getString("avg_milestone_progress") + "%"},
-                                {"Liczba zadań", rs.getString("total_tasks")},
-                                {"Ukończone zadania", rs.getString("completed_tasks")},
-                                {"Anulowane zadania", rs.getString("canceled_tasks")},
-                                {"Zespoły", Optional.ofNullable(rs.getString("involved_teams")).orElse("Brak")},
-                                {"Liderzy zespołów", Optional.ofNullable(rs.getString("team_leaders")).orElse("Brak")}
-                        };
-
-                        for (int j = 0; j < rows.length; j++) {
-                            Cell key = new Cell().add(new Paragraph(rows[j][0]).setFont(font)).setBold();
-                            Cell value = new Cell().add(new Paragraph(rows[j][1]).setFont(font));
-                            if (j % 2 == 0) {
-                                key.setBackgroundColor(ColorConstants.LIGHT_GRAY);
-                                value.setBackgroundColor(ColorConstants.LIGHT_GRAY);
-                            }
-                            infoTable.addCell(key);
-                            infoTable.addCell(value);
-                        }
-
-                        projectDiv.add(infoTable);
-
-                        projectDiv.add(new Paragraph("Kamienie milowe:")
-                                .setFontSize(12).setBold().setMarginBottom(4));
-                        projectDiv.add(new Paragraph(Optional.ofNullable(rs.getString("milestone_names")).orElse("Brak"))
-                                .setFont(font).setMarginBottom(15));
-
-                        projectDiv.add(new Paragraph("Zadania w projekcie:")
-                                .setFontSize(12).setBold().setMarginBottom(4));
-                        projectDiv.add(new Paragraph(Optional.ofNullable(rs.getString("task_titles")).orElse("Brak"))
-                                .setFont(font));
-
-                        // Add the complete project div to the document
-                        document.add(projectDiv);
-                    }
+            addTitle(document, multiple, timestamp);
+
+            // Process each project
+            for (int i = 0; i < projects.size(); i++) {
+                // Add a page break before each project (except the first one)
+                if (i > 0) {
+                    document.add(new AreaBreak());
+                }
+                ReportSectionRenderedEvent sectionEvent = new ReportSectionRenderedEvent();
+                sectionEvent.begin();
+                long written = out.getCount();
+                addProjectSection(document, font, projects.get(i), multiple);
+                if (sectionEvent.shouldCommit()) {
+                    // iText flushes finished pages as it goes, so this is only roughly the size of the section
+                    sectionEvent.report = ReportType.PROJECT_PROGRESS.getKey();
+                    sectionEvent.index = i;
+                    sectionEvent.bytes = out.getCount() - written;
+                    sectionEvent.commit();
                 }
             }
 
-            if (!hasData) {
+            if (projects.isEmpty()) {
                 // Create a Div to keep the message together
                 Div messageDiv = new Div();
                 messageDiv.setKeepTogether(true);
                 messageDiv.add(new Paragraph("Brak danych dla wybranych projektów.").setFont(font));
                 document.add(messageDiv);
             }
+            return pdf.getNumberOfPages();
         }
+    }
 
-        System.out.println("Raport zapisany jako: " + file.getAbsolutePath());
+    /**
+     * Adds the report title and generation time.
+     *
+     * @param document The document to add to
+     * @param multiple Whether the report covers more than one project
+     * @param timestamp The generation time
+     */
+    public static void addTitle(Document document, boolean multiple, String timestamp) {
+        document.add(new Paragraph(multiple ? "RAPORT POSTĘPU PROJEKTÓW" : "RAPORT POSTĘPU PROJEKTU")
+                .setFontSize(20).setBold()
+                .setTextAlignment(TextAlignment.CENTER).setMarginBottom(10));
+
+        document.add(new Paragraph("Wygenerowano: " + timestamp)
+                .setFontSize(10).setItalic()
+                .setTextAlignment(TextAlignment.CENTER).setMarginBottom(20));
+    }
+
+    /**
+     * Adds the section of a single project.
+     *
+     * @param document The document to add to
+     * @param font The document font
+     * @param project The project data
+     * @param multiple Whether the report covers more than one project
+     */
+    public static void addProjectSection(Document document, PdfFont font, ProjectProgressData project, boolean multiple) {
+        // Create a Div to keep all project content together
+        Div projectDiv = new Div();
+        projectDiv.setKeepTogether(true);
+
+        // Add project header if multiple projects
+        if (multiple) {
+            projectDiv.add(new Paragraph("Projekt: " + project.getProject())
+                    .setFontSize(16)
+                    .setBold()
+                    .setMarginTop(0)
+                    .setMarginBottom(10));
+        }
+
+        // Create project info table
+        Table infoTable = new Table(UnitValue.createPercentArray(new float[]{1, 2}))
+                .useAllAvailableWidth().setMarginBottom(20);
+
+        String[][] rows = {
+                {"Projekt", project.getProject()},
+                {"Menedżer", project.getManager()},
+                {"Status", project.getStatus()},
+                {"Progres całkowity", project.getOverallProgress() + "%"},
+                {"Liczba kamieni milowych", project.getTotalMilestones()},
+                {"Średni postęp kamieni", project.getAvgMilestoneProgress() + "%"},
+                {"Liczba zadań", project.getTotalTasks()},
+                {"Ukończone zadania", project.getCompletedTasks()},
+                {"Anulowane zadania", project.getCanceledTasks()},
+                {"Zespoły", project.getInvolvedTeams()},
+                {"Liderzy zespołów", project.getTeamLeaders()}
+        };
+
+        for (int j = 0; j < rows.length; j++) {
+            Cell key = new Cell().add(new Paragraph(rows[j][0]).setFont(font)).setBold();
+            Cell value = new Cell().add(new Paragraph(rows[j][1]).setFont(font));
+            if (j % 2 == 0) {
+                key.setBackgroundColor(ColorConstants.LIGHT_GRAY);
+                value.setBackgroundColor(ColorConstants.LIGHT_GRAY);
+            }
+            infoTable.addCell(key);
+            infoTable.addCell(value);
+        }
+
+        projectDiv.add(infoTable);
+
+        projectDiv.add(new Paragraph("Kamienie milowe:")
+                .setFontSize(12).setBold().setMarginBottom(4));
+        projectDiv.add(new Paragraph(project.getMilestoneNames())
+                .setFont(font).setMarginBottom(15));
+
+        projectDiv.add(new Paragraph("Zadania w projekcie:")
+                .setFontSize(12).setBold().setMarginBottom(4));
+        projectDiv.add(new Paragraph(project.getTaskTitles())
+                .setFont(font));
+
+        // Add the complete project div to the document
+        document.add(projectDiv);
     }
 }
@@ -0,0 +1,147 @@
+package org.example;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * In-memory sink for a generated report.
+ * Unlike ByteArrayOutputStream the collected bytes can be handed on without copying,
+ * and the backing array is reused when the buffer comes from a {@link ReportBufferPool}.
+ * Instances are not thread-safe.
+ */
+public class ReportBuffer extends OutputStream {
+
+    private final ReportBufferPool pool;
+    private byte[] data;
+    private int count;
+
+    /**
+     * Creates a standalone buffer that is not returned to any pool.
+     *
+     * @param initialCapacity The initial size of the backing array
+     */
+    public ReportBuffer(int initialCapacity) {
+        this(null, initialCapacity);
+    }
+
+    ReportBuffer(ReportBufferPool pool, int initialCapacity) {
+        this.pool = pool;
+        this.data = new byte[initialCapacity];
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(count + 1);
+        data[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(count + len);
+        System.arraycopy(b, off, data, count, len);
+        count += len;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) {
+            data = Arrays.copyOf(data, Math.max(minCapacity, data.length * 2));
+        }
+    }
+
+    /**
+     * Gets the number of bytes written so far.
+     *
+     * @return The size of the report in bytes
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns a read-only view of the written bytes. No data is copied,
+     * so the view is valid only until the buffer is reset or released.
+     *
+     * @return A read-only ByteBuffer over the report bytes
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(data, 0, count).asReadOnlyBuffer();
+    }
+
+    /**
+     * Copies the written bytes into a new array.
+     *
+     * @return The report bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(data, count);
+    }
+
+    /**
+     * Returns a stream reading the written bytes, without copying them.
+     *
+     * @return An input stream over the report bytes
+     */
+    public InputStream toInputStream() {
+        return new ByteArrayInputStream(data, 0, count);
+    }
+
+    /**
+     * Writes the collected bytes to the given stream.
+     *
+     * @param out The target stream
+     * @throws IOException If an I/O error occurs
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(data, 0, count);
+    }
+
+    /**
+     * Writes the collected bytes to the given channel.
+     *
+     * @param channel The target channel
+     * @throws IOException If an I/O error occurs
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data, 0, count);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Discards the written bytes but keeps the backing array.
+     */
+    public void reset() {
+        count = 0;
+    }
+
+    /**
+     * Returns the buffer to the pool it came from. The buffer must not be used afterwards.
+     */
+    public void release() {
+        reset();
+        if (pool != null) {
+            pool.release(this);
+        }
+    }
+
+    // Closing must not discard the content: PDF writers close their stream when done
+    @Override
+    public void close() {
+    }
+
+    int capacity() {
+        return data.length;
+    }
+
+    void shrinkTo(int capacity) {
+        if (data.length > capacity) {
+            data = new byte[capacity];
+        }
+    }
+}
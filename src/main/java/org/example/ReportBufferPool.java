@@ -0,0 +1,97 @@
+package org.example;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A bounded pool of reusable {@link ReportBuffer}s.
+ * At most {@code maxBuffers} buffers are handed out at once, so the pool also limits how many
+ * generated reports are held in memory at the same time: {@link #acquire()} waits until a
+ * buffer is released.
+ * <p>
+ * The {@link #shared()} pool holds the sections of all reports rendered on the render pool, so
+ * their backing arrays are reused from one report to the next. A report that already holds
+ * buffers must take further ones with {@link #tryAcquire()} and hand on what it holds when none is
+ * free; waiting in {@link #acquire()} while holding buffers could deadlock with other reports.
+ */
+public class ReportBufferPool {
+
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    private static final ReportBufferPool SHARED = new ReportBufferPool(
+            Runtime.getRuntime().availableProcessors() * 2, 8 * 1024 * 1024);
+
+    private final Deque<ReportBuffer> idle = new ArrayDeque<>();
+    private final int maxBuffers;
+    private final int maxRetainedCapacity;
+    private int created;
+
+    /**
+     * Creates a pool.
+     *
+     * @param maxBuffers Maximum number of buffers in use at the same time
+     * @param maxRetainedCapacity Backing arrays larger than this are dropped on release
+     */
+    public ReportBufferPool(int maxBuffers, int maxRetainedCapacity) {
+        if (maxBuffers < 1) {
+            throw new IllegalArgumentException("maxBuffers musi być większe od 0");
+        }
+        this.maxBuffers = maxBuffers;
+        this.maxRetainedCapacity = maxRetainedCapacity;
+    }
+
+    /**
+     * Gets the pool of report sections shared by the application, sized to twice the number of
+     * processors.
+     *
+     * @return The shared pool
+     */
+    public static ReportBufferPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Takes an empty buffer from the pool, waiting while all buffers are in use.
+     *
+     * @return An empty buffer; call {@link ReportBuffer#release()} when done with it
+     * @throws InterruptedException If the thread is interrupted while waiting
+     */
+    public synchronized ReportBuffer acquire() throws InterruptedException {
+        while (idle.isEmpty() && created >= maxBuffers) {
+            wait();
+        }
+        if (!idle.isEmpty()) {
+            return idle.pop();
+        }
+        created++;
+        return new ReportBuffer(this, INITIAL_CAPACITY);
+    }
+
+    /**
+     * Takes an empty buffer from the pool if one is free, without waiting.
+     *
+     * @return An empty buffer, or null if all buffers are in use
+     */
+    public synchronized ReportBuffer tryAcquire() {
+        if (!idle.isEmpty()) {
+            return idle.pop();
+        }
+        if (created >= maxBuffers) {
+            return null;
+        }
+        created++;
+        return new ReportBuffer(this, INITIAL_CAPACITY);
+    }
+
+    synchronized void release(ReportBuffer buffer) {
+        if (buffer.capacity() > maxRetainedCapacity) {
+            buffer.shrinkTo(INITIAL_CAPACITY);
+        }
+        idle.push(buffer);
+        notifyAll();
+    }
+
+    public int getMaxBuffers() {
+        return maxBuffers;
+    }
+}
@@ -0,0 +1,64 @@
+package org.example;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import org.example.metrics.ReportMetrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Shared access to the report font.
+ * The font file is parsed once; every document gets its own {@link PdfFont},
+ * because a PdfFont is bound to the document it was first used in.
+ */
+public class ReportFonts {
+
+    private static final String FONT_PATH = "/fonts/DejaVuSans.ttf";
+
+    private static volatile FontProgram fontProgram;
+
+    /**
+     * Returns the parsed font program, loading it on first use.
+     *
+     * @return The parsed DejaVuSans font program
+     * @throws IOException If the font resource cannot be read
+     */
+    public static FontProgram getFontProgram() throws IOException {
+        FontProgram program = fontProgram;
+        if (program == null) {
+            synchronized (ReportFonts.class) {
+                program = fontProgram;
+                if (program == null) {
+                    long start = System.nanoTime();
+                    try (InputStream fontStream = ReportFonts.class.getResourceAsStream(FONT_PATH)) {
+                        if (fontStream == null) {
+                            throw new IOException("Font not found: " + FONT_PATH);
+                        }
+                        program = FontProgramFactory.createFont(fontStream.readAllBytes());
+                    }
+                    ReportMetrics.recordFontLoad(System.nanoTime() - start);
+                    fontProgram = program;
+                }
+            }
+        }
+        return program;
+    }
+
+    /**
+     * Creates a new font instance for a single document.
+     *
+     * @return A PdfFont backed by the shared font program
+     * @throws IOException If the font resource cannot be read
+     */
+    public static PdfFont createFont() throws IOException {
+        FontProgram program = getFontProgram();
+        long start = System.nanoTime();
+        PdfFont font = PdfFontFactory.createFont(program, PdfEncodings.IDENTITY_H, PdfFontFactory.EmbeddingStrategy.PREFER_EMBEDDED);
+        ReportMetrics.recordFontCreate(System.nanoTime() - start);
+        return font;
+    }
+}
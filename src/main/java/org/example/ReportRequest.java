@@ -0,0 +1,275 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * A single report to generate: its type together with the selected entities and filters.
+ * Instances are immutable and are created through the factory methods for each report type.
+ */
+public class ReportRequest {
+
+    private final ReportType type;
+    private final List<Integer> ids;
+    private final String projectStatus;
+    private final Integer managerId;
+    private final boolean showOverdueTasks;
+    private final boolean showOverdueMilestones;
+    private final Double minRate;
+    private final Double maxRate;
+    private final LocalDate from;
+    private final LocalDate to;
+
+    private ReportRequest(ReportType type, List<Integer> ids, String projectStatus, Integer managerId,
+                          boolean showOverdueTasks, boolean showOverdueMilestones,
+                          Double minRate, Double maxRate) {
+        this(type, ids, projectStatus, managerId, showOverdueTasks, showOverdueMilestones, minRate, maxRate, null, null);
+    }
+
+    private ReportRequest(ReportType type, List<Integer> ids, String projectStatus, Integer managerId,
+                          boolean showOverdueTasks, boolean showOverdueMilestones,
+                          Double minRate, Double maxRate, LocalDate from, LocalDate to) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Nie wybrano żadnych identyfikatorów");
+        }
+        this.type = type;
+        this.ids = List.copyOf(ids);
+        this.projectStatus = (projectStatus != null && !projectStatus.isEmpty()) ? projectStatus : null;
+        this.managerId = managerId;
+        this.showOverdueTasks = showOverdueTasks;
+        this.showOverdueMilestones = showOverdueMilestones;
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Data początkowa nie może być późniejsza niż końcowa");
+        }
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Creates a request for an employee performance report.
+     *
+     * @param userIds The IDs of the employees
+     * @param minPerformance Minimum completion rate, or null
+     * @param maxPerformance Maximum completion rate, or null
+     * @return The report request
+     */
+    public static ReportRequest employeePerformance(List<Integer> userIds, Double minPerformance, Double maxPerformance) {
+        return new ReportRequest(ReportType.EMPLOYEE_PERFORMANCE, userIds, null, null, false, false, minPerformance, maxPerformance);
+    }
+
+    /**
+     * Creates a request for an employee performance report counting only the tasks created in a period.
+     *
+     * @param userIds The IDs of the employees
+     * @param minPerformance Minimum completion rate in the period, or null
+     * @param maxPerformance Maximum completion rate in the period, or null
+     * @param from First day of the period, or null
+     * @param to Last day of the period (inclusive), or null
+     * @return The report request
+     */
+    public static ReportRequest employeePerformance(List<Integer> userIds, Double minPerformance, Double maxPerformance,
+                                                    LocalDate from, LocalDate to) {
+        return new ReportRequest(ReportType.EMPLOYEE_PERFORMANCE, userIds, null, null, false, false,
+                minPerformance, maxPerformance, from, to);
+    }
+
+    /**
+     * Creates a request for a project progress report.
+     *
+     * @param projectIds The IDs of the projects
+     * @param projectStatus Filter by project status, or null
+     * @param managerId Filter by manager ID, or null
+     * @return The report request
+     */
+    public static ReportRequest projectProgress(List<Integer> projectIds, String projectStatus, Integer managerId) {
+        return new ReportRequest(ReportType.PROJECT_PROGRESS, projectIds, projectStatus, managerId, false, false, null, null);
+    }
+
+    /**
+     * Creates a request for an executive overview report.
+     *
+     * @param projectId The ID of the project
+     * @param projectStatus Filter by project status, or null
+     * @param managerId Filter by manager ID, or null
+     * @param showOverdueTasks Show only projects with overdue tasks
+     * @param showOverdueMilestones Show only projects with overdue milestones
+     * @param minCompletionRate Minimum task completion rate, or null
+     * @param maxCompletionRate Maximum task completion rate, or null
+     * @return The report request
+     */
+    public static ReportRequest executiveOverview(int projectId, String projectStatus, Integer managerId,
+                                                  boolean showOverdueTasks, boolean showOverdueMilestones,
+                                                  Double minCompletionRate, Double maxCompletionRate) {
+        return new ReportRequest(ReportType.EXECUTIVE_OVERVIEW, List.of(projectId), projectStatus, managerId,
+                showOverdueTasks, showOverdueMilestones, minCompletionRate, maxCompletionRate);
+    }
+
+    /**
+     * Creates a request for an executive report covering several projects.
+     * A single project gives the same report as {@link #executiveOverview(int, String, Integer, boolean, boolean, Double, Double)}.
+     *
+     * @param projectIds The IDs of the projects
+     * @param projectStatus Filter by project status, or null
+     * @param managerId Filter by manager ID, or null
+     * @param showOverdueTasks Show only projects with overdue tasks
+     * @param showOverdueMilestones Show only projects with overdue milestones
+     * @param minCompletionRate Minimum task completion rate, or null
+     * @param maxCompletionRate Maximum task completion rate, or null
+     * @return The report request
+     */
+    public static ReportRequest executiveOverview(List<Integer> projectIds, String projectStatus, Integer managerId,
+                                                  boolean showOverdueTasks, boolean showOverdueMilestones,
+                                                  Double minCompletionRate, Double maxCompletionRate) {
+        return new ReportRequest(ReportType.EXECUTIVE_OVERVIEW, projectIds, projectStatus, managerId,
+                showOverdueTasks, showOverdueMilestones, minCompletionRate, maxCompletionRate);
+    }
+
+    /**
+     * Generates the requested report into the given stream. The stream is left open.
+     *
+     * @param out The stream receiving the PDF bytes
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public void generate(OutputStream out) throws SQLException, IOException {
+        switch (type) {
+            case EMPLOYEE_PERFORMANCE:
+                EmployeePerformanceReportGenerator.generateMultipleEmployeeReport(ids, out, minRate, maxRate, from, to);
+                break;
+            case PROJECT_PROGRESS:
+                ProjectProgressReportGenerator.generateMultipleFilteredReport(ids, out, projectStatus, managerId);
+                break;
+            case EXECUTIVE_OVERVIEW:
+                if (ids.size() == 1) {
+                    ExecutiveOverviewReportGenerator.generateFilteredReport(ids.get(0), out, projectStatus, managerId,
+                            showOverdueTasks, showOverdueMilestones, minRate, maxRate);
+                } else {
+                    ExecutiveOverviewReportGenerator.generateMultipleFilteredReport(ids, out, projectStatus, managerId,
+                            showOverdueTasks, showOverdueMilestones, minRate, maxRate);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Generates the requested report into the given channel. The channel is left open.
+     *
+     * @param channel The channel receiving the PDF bytes
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public void generate(WritableByteChannel channel) throws SQLException, IOException {
+        OutputStream out = Channels.newOutputStream(channel);
+        generate(out);
+        out.flush();
+    }
+
+    /**
+     * Generates the requested report into a buffer taken from the given pool.
+     * Waits while all buffers of the pool are in use.
+     *
+     * @param pool The pool to take the buffer from
+     * @return The filled buffer; the caller must release it
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     * @throws InterruptedException If interrupted while waiting for a buffer
+     */
+    public ReportBuffer generate(ReportBufferPool pool) throws SQLException, IOException, InterruptedException {
+        ReportBuffer buffer = pool.acquire();
+        try {
+            generate(buffer);
+            return buffer;
+        } catch (SQLException | IOException | RuntimeException e) {
+            buffer.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Builds a key identifying the output of this request for the given data version.
+     * Rate bounds of 0 and 100 select the same rows as no bound, so they are treated alike.
+     *
+     * @param dataVersion The data version token
+     * @return A hex-encoded SHA-256 key
+     */
+    public String cacheKey(String dataVersion) {
+        StringBuilder key = new StringBuilder(type.getKey())
+                .append("|ids=").append(ids)
+                .append("|status=").append(projectStatus)
+                .append("|managerId=").append(managerId)
+                .append("|overdueTasks=").append(showOverdueTasks)
+                .append("|overdueMilestones=").append(showOverdueMilestones)
+                .append("|min=").append(normalizeBound(minRate, 0))
+                .append("|max=").append(normalizeBound(maxRate, 100));
+        // Only period requests carry the dates, so the keys of all-time reports stay as they were
+        if (from != null || to != null) {
+            key.append("|from=").append(from).append("|to=").append(to);
+        }
+        key.append("|version=").append(dataVersion);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String normalizeBound(Double value, double neutral) {
+        if (value == null || value == neutral) {
+            return "-";
+        }
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
+    public ReportType getType() {
+        return type;
+    }
+
+    public List<Integer> getIds() {
+        return ids;
+    }
+
+    public String getProjectStatus() {
+        return projectStatus;
+    }
+
+    public Integer getManagerId() {
+        return managerId;
+    }
+
+    public boolean isShowOverdueTasks() {
+        return showOverdueTasks;
+    }
+
+    public boolean isShowOverdueMilestones() {
+        return showOverdueMilestones;
+    }
+
+    public Double getMinRate() {
+        return minRate;
+    }
+
+    public Double getMaxRate() {
+        return maxRate;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+}
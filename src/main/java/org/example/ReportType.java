@@ -0,0 +1,43 @@
+package org.example;
+
+/**
+ * Types of reports the application can generate.
+ */
+public enum ReportType {
+    EMPLOYEE_PERFORMANCE("employee", "Raport_Wydajności_"),
+    PROJECT_PROGRESS("project", "Raport_postepu_projektu_"),
+    EXECUTIVE_OVERVIEW("executive", "Raport_zarzadczy_"),
+    PROJECT_SUMMARY("projectSummary", "Zestawienie_projektow_"),
+    EMPLOYEE_SUMMARY("employeeSummary", "Zestawienie_pracownikow_"),
+    PROJECT_TREND("projectTrend", "Trend_projektow_"),
+    EMPLOYEE_TREND("employeeTrend", "Trend_pracownikow_"),
+    TEAM_ROLLUP("teamRollup", "Raport_zespolow_"),
+    PROJECT_RANKING("projectRanking", "Ranking_projektow_"),
+    EMPLOYEE_RANKING("employeeRanking", "Ranking_pracownikow_");
+
+    private final String key;
+    private final String filePrefix;
+
+    ReportType(String key, String filePrefix) {
+        this.key = key;
+        this.filePrefix = filePrefix;
+    }
+
+    /**
+     * Gets the short name used in URLs and cache keys.
+     *
+     * @return The short name of the report type
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the prefix of the default file name, followed by the generation time.
+     *
+     * @return The default file name prefix
+     */
+    public String getFilePrefix() {
+        return filePrefix;
+    }
+}
@@ -0,0 +1,108 @@
+package org.example;
+
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import org.example.aggregate.BucketHistogram;
+import org.example.aggregate.Distribution;
+import org.example.aggregate.DistributionStatistics;
+import org.example.aggregate.QuantileSketch;
+
+import java.util.Map;
+
+/**
+ * Statistics section of the reports covering many employees or projects: completion rate
+ * percentiles, a histogram of overdue task counts and the spread of the completion rates per team.
+ */
+public class StatisticsSection {
+
+    private static final double[] PERCENTILES = {0, 0.1, 0.25, 0.5, 0.75, 0.9, 1};
+    private static final String[] PERCENTILE_HEADERS = {"Min", "P10", "P25", "Mediana", "P75", "P90", "Max"};
+
+    private static final double[] SPREAD = {0, 0.25, 0.5, 0.75, 1};
+    private static final String[] TEAM_HEADERS = {"Liczba", "Min", "P25", "Mediana", "P75", "Max",
+            "Rozstęp P25–P75", "Z opóźnieniami"};
+    private static final float[] TEAM_WIDTHS = {4, 2, 2, 2, 2, 2, 2, 2, 2};
+
+    /**
+     * Adds the statistics section.
+     *
+     * @param document The document to add to
+     * @param statistics The statistics of the report rows
+     * @param members What the rows are, e.g. "Pracownicy"
+     * @param teamHeader The header of the team column, e.g. "Zespół"
+     */
+    public static void addStatistics(Document document, DistributionStatistics statistics, String members, String teamHeader) {
+        Distribution overall = statistics.getOverall();
+        if (overall.getCount() == 0) {
+            return;
+        }
+
+        document.add(new Paragraph("Statystyki").setFontSize(16).setBold().setMarginBottom(10));
+
+        document.add(subtitle("Rozkład % ukończonych zadań (" + overall.getCount() + ")"));
+        Table percentiles = new Table(UnitValue.createPercentArray(PERCENTILE_HEADERS.length))
+                .useAllAvailableWidth().setFontSize(9).setMarginBottom(15);
+        for (String header : PERCENTILE_HEADERS) {
+            percentiles.addHeaderCell(header(header));
+        }
+        for (double value : overall.getCompletionRates().quantiles(PERCENTILES)) {
+            percentiles.addCell(number(String.format("%.2f%%", value)));
+        }
+        document.add(percentiles);
+
+        document.add(subtitle("Opóźnione zadania"));
+        BucketHistogram histogram = overall.getOverdueTasks();
+        Table buckets = new Table(UnitValue.createPercentArray(new float[]{2, 1, 1}))
+                .setWidth(UnitValue.createPercentValue(60)).setFontSize(9).setMarginBottom(4);
+        buckets.addHeaderCell(header("Liczba opóźnionych zadań"));
+        buckets.addHeaderCell(header(members));
+        buckets.addHeaderCell(header("Udział"));
+        for (int i = 0; i < histogram.getBucketCount(); i++) {
+            buckets.addCell(new Cell().add(new Paragraph(histogram.getLabel(i))));
+            buckets.addCell(number(String.valueOf(histogram.getCount(i))));
+            buckets.addCell(number(String.format("%.2f%%", histogram.getCount(i) * 100.0 / histogram.getTotal())));
+        }
+        document.add(buckets);
+        document.add(new Paragraph(String.format("Łącznie opóźnionych zadań: %d, średnio %.2f",
+                overall.getOverdueSum(), (double) overall.getOverdueSum() / overall.getCount()))
+                .setFontSize(9).setMarginBottom(15));
+
+        document.add(subtitle("Rozrzut % ukończonych zadań w zespołach"));
+        Table teams = new Table(UnitValue.createPercentArray(TEAM_WIDTHS))
+                .useAllAvailableWidth().setFontSize(9).setMarginBottom(20);
+        teams.addHeaderCell(header(teamHeader));
+        for (String header : TEAM_HEADERS) {
+            teams.addHeaderCell(header(header));
+        }
+        for (Map.Entry<String, Distribution> entry : statistics.getTeams().entrySet()) {
+            Distribution team = entry.getValue();
+            QuantileSketch rates = team.getCompletionRates();
+            double[] spread = rates.quantiles(SPREAD);
+            teams.addCell(new Cell().add(new Paragraph(entry.getKey())));
+            teams.addCell(number(String.valueOf(team.getCount())));
+            for (double value : spread) {
+                teams.addCell(number(String.format("%.2f", value)));
+            }
+            teams.addCell(number(String.format("%.2f", spread[3] - spread[1])));
+            teams.addCell(number(String.valueOf(team.getWithOverdue())));
+        }
+        document.add(teams);
+    }
+
+    private static Paragraph subtitle(String text) {
+        return new Paragraph(text).setFontSize(12).setBold().setMarginBottom(6);
+    }
+
+    private static Cell header(String text) {
+        return new Cell().add(new Paragraph(text)).setBold().setBackgroundColor(ColorConstants.LIGHT_GRAY);
+    }
+
+    private static Cell number(String text) {
+        return new Cell().add(new Paragraph(text)).setTextAlignment(TextAlignment.RIGHT);
+    }
+}
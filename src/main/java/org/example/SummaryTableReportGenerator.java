@@ -0,0 +1,427 @@
+package org.example;
+
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import org.example.data.EmployeePerformanceData;
+import org.example.data.ExecutiveOverviewData;
+import org.example.data.ReportDataSources;
+import org.example.data.RowHandler;
+import org.example.data.SummaryColumn;
+import org.example.metrics.CountingOutputStream;
+import org.example.metrics.ReportGeneratedEvent;
+import org.example.metrics.ReportMetrics;
+import org.example.metrics.ReportUsage;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Compact company-wide summary with one table row per project or employee.
+ * <p>
+ * The rows are streamed from the data source straight into an iText large table: the table is
+ * added to the document before the first row and flushed every {@link #FLUSH_ROWS} rows, so
+ * finished pages are written out and memory stays bounded however many rows there are.
+ * The table can be sorted by any {@link SummaryColumn} of its kind; sorting happens in the query.
+ * A ranking is the same table limited to the rows with the highest or lowest values of one column,
+ * selected by the data source without reading the rest into memory.
+ */
+public class SummaryTableReportGenerator {
+
+    // Rows laid out between flushes of the large table
+    static final int FLUSH_ROWS = 100;
+
+    /**
+     * How the totals row combines a column.
+     */
+    private enum Total {
+        NONE, SUM, AVERAGE
+    }
+
+    /**
+     * Functional interface for streaming the rows of the table.
+     */
+    @FunctionalInterface
+    private interface RowSource<T> {
+        void forEach(RowHandler<T> handler) throws SQLException, IOException;
+    }
+
+    /**
+     * Turns a row into the texts of its cells and the numbers the totals row is computed from,
+     * so that totals never depend on how a value is displayed.
+     */
+    @FunctionalInterface
+    private interface RowCells<T> {
+        /**
+         * @param row The row
+         * @param figures Receives the value of every column with a total; left NaN if the value is missing
+         * @return The texts of the cells
+         */
+        String[] apply(T row, double[] figures);
+    }
+
+    private static final String[] PROJECT_HEADERS = {"Projekt", "Status", "Menedżer",
+            SummaryColumn.PROJECT_PROGRESS.getLabel(), SummaryColumn.PROJECT_COMPLETION_RATE.getLabel(),
+            SummaryColumn.PROJECT_TOTAL_TASKS.getLabel(), SummaryColumn.PROJECT_EMPLOYEES.getLabel(),
+            SummaryColumn.PROJECT_OVERDUE_TASKS.getLabel(), SummaryColumn.PROJECT_OVERDUE_MILESTONES.getLabel()};
+    private static final float[] PROJECT_WIDTHS = {4, 2, 3, 1.5f, 1.5f, 1.5f, 1.5f, 1.5f, 1.5f};
+    private static final Total[] PROJECT_TOTALS = {Total.NONE, Total.NONE, Total.NONE,
+            Total.AVERAGE, Total.AVERAGE, Total.SUM, Total.SUM, Total.SUM, Total.SUM};
+
+    private static final String[] EMPLOYEE_HEADERS = {"Pracownik", "Lider zespołu",
+            SummaryColumn.EMPLOYEE_TOTAL_TASKS.getLabel(), SummaryColumn.EMPLOYEE_COMPLETED.getLabel(),
+            SummaryColumn.EMPLOYEE_CANCELED.getLabel(), SummaryColumn.EMPLOYEE_COMPLETION_RATE.getLabel()};
+    private static final float[] EMPLOYEE_WIDTHS = {4, 4, 1.5f, 1.5f, 1.5f, 1.5f};
+    private static final Total[] EMPLOYEE_TOTALS = {Total.NONE, Total.NONE,
+            Total.SUM, Total.SUM, Total.SUM, Total.AVERAGE};
+
+    /**
+     * Generates the summary of all projects and saves it to a file.
+     *
+     * @param sortBy A project column to sort by, or null to sort by project ID
+     * @param descending Whether the largest values come first
+     * @param customFileName Custom file name for the report
+     * @param selectedDirectory Directory to save the report
+     * @return The number of projects in the summary
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static int generateProjectSummary(SummaryColumn sortBy, boolean descending,
+                                             String customFileName, File selectedDirectory) throws SQLException, IOException {
+        File file = outputFile(ReportType.PROJECT_SUMMARY, customFileName, selectedDirectory);
+        int count;
+        try (OutputStream out = new FileOutputStream(file)) {
+            count = generateProjectSummary(sortBy, descending, out);
+        }
+        System.out.println("Raport zapisany jako: " + file.getAbsolutePath());
+        return count;
+    }
+
+    /**
+     * Generates the summary of all projects into the given stream. The stream is left open.
+     *
+     * @param sortBy A project column to sort by, or null to sort by project ID
+     * @param descending Whether the largest values come first
+     * @param out The stream receiving the PDF bytes
+     * @return The number of projects in the summary
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static int generateProjectSummary(SummaryColumn sortBy, boolean descending, OutputStream out) throws SQLException, IOException {
+        return generate(ReportType.PROJECT_SUMMARY, "ZESTAWIENIE PROJEKTÓW", sortOrder(sortBy, descending),
+                sortBy != null ? "sorted" : "all", sortBy, PROJECT_HEADERS, PROJECT_WIDTHS, PROJECT_TOTALS,
+                handler -> ReportDataSources.getDefault().forEachExecutiveOverviewSorted(sortBy, descending, handler),
+                SummaryTableReportGenerator::projectCells, out);
+    }
+
+    /**
+     * Generates the summary of all employees and saves it to a file.
+     *
+     * @param sortBy An employee column to sort by, or null to sort by user ID
+     * @param descending Whether the largest values come first
+     * @param customFileName Custom file name for the report
+     * @param selectedDirectory Directory to save the report
+     * @return The number of employees in the summary
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static int generateEmployeeSummary(SummaryColumn sortBy, boolean descending,
+                                              String customFileName, File selectedDirectory) throws SQLException, IOException {
+        File file = outputFile(ReportType.EMPLOYEE_SUMMARY, customFileName, selectedDirectory);
+        int count;
+        try (OutputStream out = new FileOutputStream(file)) {
+            count = generateEmployeeSummary(sortBy, descending, out);
+        }
+        System.out.println("Raport zapisany jako: " + file.getAbsolutePath());
+        return count;
+    }
+
+    /**
+     * Generates the summary of all employees into the given stream. The stream is left open.
+     *
+     * @param sortBy An employee column to sort by, or null to sort by user ID
+     * @param descending Whether the largest values come first
+     * @param out The stream receiving the PDF bytes
+     * @return The number of employees in the summary
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static int generateEmployeeSummary(SummaryColumn sortBy, boolean descending, OutputStream out) throws SQLException, IOException {
+        return generate(ReportType.EMPLOYEE_SUMMARY, "ZESTAWIENIE PRACOWNIKÓW", sortOrder(sortBy, descending),
+                sortBy != null ? "sorted" : "all", sortBy, EMPLOYEE_HEADERS, EMPLOYEE_WIDTHS, EMPLOYEE_TOTALS,
+                handler -> ReportDataSources.getDefault().forEachEmployeeSorted(sortBy, descending, handler),
+                SummaryTableReportGenerator::employeeCells, out);
+    }
+
+    /**
+     * Generates the ranking of the projects with the highest or lowest values of a column and saves it to a file.
+     *
+     * @param column The project column to rank by
+     * @param highest True for the highest values, false for the lowest
+     * @param limit How many projects to include
+     * @param customFileName Custom file name for the report
+     * @param selectedDirectory Directory to save the report
+     * @return The number of projects in the ranking
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static int generateProjectRanking(SummaryColumn column, boolean highest, int limit,
+                                             String customFileName, File selectedDirectory) throws SQLException, IOException {
+        File file = outputFile(ReportType.PROJECT_RANKING, customFileName, selectedDirectory);
+        int count;
+        try (OutputStream out = new FileOutputStream(file)) {
+            count = generateProjectRanking(column, highest, limit, out);
+        }
+        System.out.println("Raport zapisany jako: " + file.getAbsolutePath());
+        return count;
+    }
+
+    /**
+     * Generates the ranking of the projects with the highest or lowest values of a column into the
+     * given stream. Only the selected projects are read, not all of them. The stream is left open.
+     *
+     * @param column The project column to rank by
+     * @param highest True for the highest values, false for the lowest
+     * @param limit How many projects to include
+     * @param out The stream receiving the PDF bytes
+     * @return The number of projects in the ranking
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static int generateProjectRanking(SummaryColumn column, boolean highest, int limit,
+                                             OutputStream out) throws SQLException, IOException {
+        return generate(ReportType.PROJECT_RANKING, "RANKING PROJEKTÓW", rankingOrder(column, highest, limit),
+                "top", column, PROJECT_HEADERS, PROJECT_WIDTHS, PROJECT_TOTALS,
+                handler -> ReportDataSources.getDefault().forEachExecutiveOverviewTop(column, highest, limit, handler),
+                SummaryTableReportGenerator::projectCells, out);
+    }
+
+    /**
+     * Generates the ranking of the employees with the highest or lowest values of a column and saves it to a file.
+     *
+     * @param column The employee column to rank by
+     * @param highest True for the highest values, false for the lowest
+     * @param limit How many employees to include
+     * @param customFileName Custom file name for the report
+     * @param selectedDirectory Directory to save the report
+     * @return The number of employees in the ranking
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static int generateEmployeeRanking(SummaryColumn column, boolean highest, int limit,
+                                              String customFileName, File selectedDirectory) throws SQLException, IOException {
+        File file = outputFile(ReportType.EMPLOYEE_RANKING, customFileName, selectedDirectory);
+        int count;
+        try (OutputStream out = new FileOutputStream(file)) {
+            count = generateEmployeeRanking(column, highest, limit, out);
+        }
+        System.out.println("Raport zapisany jako: " + file.getAbsolutePath());
+        return count;
+    }
+
+    /**
+     * Generates the ranking of the employees with the highest or lowest values of a column into the
+     * given stream. Only the selected employees are read, not all of them. The stream is left open.
+     *
+     * @param column The employee column to rank by
+     * @param highest True for the highest values, false for the lowest
+     * @param limit How many employees to include
+     * @param out The stream receiving the PDF bytes
+     * @return The number of employees in the ranking
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static int generateEmployeeRanking(SummaryColumn column, boolean highest, int limit,
+                                              OutputStream out) throws SQLException, IOException {
+        return generate(ReportType.EMPLOYEE_RANKING, "RANKING PRACOWNIKÓW", rankingOrder(column, highest, limit),
+                "top", column, EMPLOYEE_HEADERS, EMPLOYEE_WIDTHS, EMPLOYEE_TOTALS,
+                handler -> ReportDataSources.getDefault().forEachEmployeeTop(column, highest, limit, handler),
+                SummaryTableReportGenerator::employeeCells, out);
+    }
+
+    private static String sortOrder(SummaryColumn sortBy, boolean descending) {
+        String order = sortBy != null ? sortBy.getLabel() : "identyfikator";
+        return "Sortowanie: " + order + (descending ? ", malejąco" : ", rosnąco");
+    }
+
+    private static String rankingOrder(SummaryColumn column, boolean highest, int limit) {
+        if (column == null) {
+            throw new IllegalArgumentException("Nie wybrano kolumny rankingu");
+        }
+        return limit + (highest ? " najwyższych" : " najniższych") + " wartości: " + column.getLabel();
+    }
+
+    private static String[] projectCells(ExecutiveOverviewData project, double[] figures) {
+        String[] cells = {project.getProject(), project.getProjectStatus(), project.getProjectManager(),
+                project.getProjectProgress(), project.getTaskCompletionRate(), project.getTotalTasks(),
+                project.getEmployeesAssigned(), project.getOverdueTasks(), project.getOverdueMilestones()};
+        // The overview keeps the numbers as the database returned them, not as displayed text
+        for (int i = 3; i < cells.length; i++) {
+            figures[i] = figure(cells[i]);
+        }
+        return cells;
+    }
+
+    private static String[] employeeCells(EmployeePerformanceData employee, double[] figures) {
+        figures[2] = employee.getTotalTasks();
+        figures[3] = employee.getCompleted();
+        figures[4] = employee.getCanceled();
+        figures[5] = employee.getCompletionRate();
+        return new String[]{employee.getEmployee(), employee.getTeamLeader(),
+                String.valueOf(employee.getTotalTasks()), String.valueOf(employee.getCompleted()),
+                String.valueOf(employee.getCanceled()), String.format("%.2f", employee.getCompletionRate())};
+    }
+
+    private static double figure(String value) {
+        if (value == null || value.isEmpty()) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static <T> int generate(ReportType type, String title, String order, String filterShape, SummaryColumn sortBy,
+                                    String[] headers, float[] widths, Total[] totals,
+                                    RowSource<T> source, RowCells<T> cells,
+                                    OutputStream out) throws SQLException, IOException {
+        ReportGeneratedEvent event = new ReportGeneratedEvent();
+        event.begin();
+        event.filterShape = filterShape;
+
+        try (ReportUsage usage = ReportUsage.start()) {
+            long start = System.nanoTime();
+            CountingOutputStream counted = new CountingOutputStream(out);
+            int[] rows = new int[1];
+            int pages = layOut(title, order, sortBy, headers, widths, totals, source, cells, counted, rows);
+
+            // Rows are laid out while they are read, so the layout time includes the query
+            ReportMetrics.recordRender(type, System.nanoTime() - start, rows[0], counted.getCount(), pages);
+            usage.finish(type, event.filterShape, rows[0], counted.getCount());
+
+            if (event.shouldCommit()) {
+                event.report = type.getKey();
+                event.requestedEntities = rows[0];
+                event.entities = rows[0];
+                event.pages = pages;
+                event.bytes = counted.getCount();
+                event.cpuTime = usage.getCpuNanos();
+                event.allocated = usage.getAllocatedBytes();
+                event.commit();
+            }
+            return rows[0];
+        }
+    }
+
+    private static <T> int layOut(String title, String order, SummaryColumn sortBy,
+                                  String[] headers, float[] widths, Total[] totals,
+                                  RowSource<T> source, RowCells<T> cells,
+                                  OutputStream out, int[] rows) throws SQLException, IOException {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+        PdfFont font = ReportFonts.createFont();
+
+        try (PdfWriter writer = new PdfWriter(out);
+             PdfDocument pdf = new PdfDocument(writer);
+             Document document = new Document(pdf, PageSize.A4.rotate())) {
+
+            writer.setCloseStream(false);
+            document.setFont(font);
+
+            document.add(new Paragraph(title)
+                    .setFontSize(20).setBold()
+                    .setTextAlignment(TextAlignment.CENTER).setMarginBottom(10));
+            document.add(new Paragraph("Wygenerowano: " + timestamp)
+                    .setFontSize(10).setItalic()
+                    .setTextAlignment(TextAlignment.CENTER).setMarginBottom(4));
+            document.add(new Paragraph(order)
+                    .setFontSize(10).setTextAlignment(TextAlignment.CENTER).setMarginBottom(20));
+
+            // Large table: the header repeats on every page and finished rows are written out on flush
+            Table table = new Table(UnitValue.createPercentArray(widths), true)
+                    .useAllAvailableWidth().setFontSize(9);
+            for (String header : headers) {
+                boolean sorted = sortBy != null && header.equals(sortBy.getLabel());
+                table.addHeaderCell(new Cell().add(new Paragraph(header)).setBold()
+                        .setBackgroundColor(sorted ? ColorConstants.GRAY : ColorConstants.LIGHT_GRAY));
+            }
+            document.add(table);
+
+            double[] sums = new double[headers.length];
+            int[] counts = new int[headers.length];
+            double[] figures = new double[headers.length];
+            source.forEach(row -> {
+                Arrays.fill(figures, Double.NaN);
+                String[] values = cells.apply(row, figures);
+                for (int i = 0; i < values.length; i++) {
+                    Cell cell = new Cell().add(new Paragraph(values[i] != null ? values[i] : ""));
+                    if (totals[i] != Total.NONE) {
+                        cell.setTextAlignment(TextAlignment.RIGHT);
+                        if (!Double.isNaN(figures[i])) {
+                            sums[i] += figures[i];
+                            counts[i]++;
+                        }
+                    }
+                    if (rows[0] % 2 == 1) {
+                        cell.setBackgroundColor(ColorConstants.LIGHT_GRAY, 0.4f);
+                    }
+                    table.addCell(cell);
+                }
+                if (++rows[0] % FLUSH_ROWS == 0) {
+                    table.flush();
+                }
+            });
+
+            if (rows[0] == 0) {
+                table.addCell(new Cell(1, headers.length).add(new Paragraph("Brak danych.")));
+            } else {
+                // Counts are summed, percentages averaged over the rows that have a value
+                for (int i = 0; i < headers.length; i++) {
+                    String value;
+                    if (i == 0) {
+                        value = "Razem (" + rows[0] + ")";
+                    } else if (totals[i] == Total.SUM) {
+                        value = String.format("%.0f", sums[i]);
+                    } else if (totals[i] == Total.AVERAGE) {
+                        value = counts[i] > 0 ? String.format("%.2f", sums[i] / counts[i]) : "";
+                    } else {
+                        value = "";
+                    }
+                    Cell cell = new Cell().add(new Paragraph(value)).setBold().setBackgroundColor(ColorConstants.LIGHT_GRAY);
+                    if (totals[i] != Total.NONE) {
+                        cell.setTextAlignment(TextAlignment.RIGHT);
+                    }
+                    table.addCell(cell);
+                }
+            }
+            table.complete();
+            return pdf.getNumberOfPages();
+        }
+    }
+
+    private static File outputFile(ReportType type, String customFileName, File selectedDirectory) {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+        String fileName = (customFileName != null && !customFileName.isEmpty())
+                ? customFileName + ".pdf"
+                : type.getFilePrefix() + timestamp + ".pdf";
+
+        return (selectedDirectory != null)
+                ? new File(selectedDirectory, fileName)
+                : new File(System.getProperty("user.home"), "Documents/" + fileName);
+    }
+}
@@ -0,0 +1,210 @@
+package org.example;
+
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import org.example.aggregate.OrgAggregator;
+import org.example.aggregate.OrgRollup;
+import org.example.aggregate.RollupTotals;
+import org.example.metrics.CountingOutputStream;
+import org.example.metrics.ReportGeneratedEvent;
+import org.example.metrics.ReportMetrics;
+import org.example.metrics.ReportUsage;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Team rollup report: the organisation totals and, for every team, its totals, its work on each
+ * of its projects and the figures of each member.
+ * <p>
+ * All levels come from one {@link OrgAggregator} pass over the tasks, so the report costs a single
+ * scan of Tasks and TaskAssignments however many teams, projects and members it shows.
+ */
+public class TeamRollupReportGenerator {
+
+    private static final String[] HEADERS = {"Nazwa", "Zadania", "Do zrobienia", "W trakcie", "Ukończone",
+            "Anulowane", "Opóźnione", "% ukończonych", "Średni postęp", "Udział w projekcie"};
+    private static final float[] WIDTHS = {5, 1.5f, 1.5f, 1.5f, 1.5f, 1.5f, 1.5f, 2, 2, 2};
+
+    /**
+     * Generates the team rollup report and saves it to a file.
+     *
+     * @param customFileName Custom file name for the report
+     * @param selectedDirectory Directory to save the report
+     * @return The number of teams in the report
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static int generateReport(String customFileName, File selectedDirectory) throws SQLException, IOException {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+        String fileName = (customFileName != null && !customFileName.isEmpty())
+                ? customFileName + ".pdf"
+                : ReportType.TEAM_ROLLUP.getFilePrefix() + timestamp + ".pdf";
+        File file = (selectedDirectory != null)
+                ? new File(selectedDirectory, fileName)
+                : new File(System.getProperty("user.home"), "Documents/" + fileName);
+
+        int count;
+        try (OutputStream out = new FileOutputStream(file)) {
+            count = generateReport(out);
+        }
+        System.out.println("Raport zapisany jako: " + file.getAbsolutePath());
+        return count;
+    }
+
+    /**
+     * Generates the team rollup report into the given stream. The stream is left open.
+     *
+     * @param out The stream receiving the PDF bytes
+     * @return The number of teams in the report
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static int generateReport(OutputStream out) throws SQLException, IOException {
+        ReportGeneratedEvent event = new ReportGeneratedEvent();
+        event.begin();
+        event.filterShape = "all";
+
+        try (ReportUsage usage = ReportUsage.start()) {
+            OrgRollup rollup;
+            try (Connection conn = DatabaseConnector.getReadConnection()) {
+                rollup = OrgAggregator.aggregate(conn, ReportType.TEAM_ROLLUP);
+            }
+            List<Integer> teamIds = rollup.getTeamIds();
+
+            long start = System.nanoTime();
+            CountingOutputStream counted = new CountingOutputStream(out);
+            int pages = layOut(rollup, teamIds, counted);
+
+            ReportMetrics.recordRender(ReportType.TEAM_ROLLUP, System.nanoTime() - start, teamIds.size(),
+                    counted.getCount(), pages);
+            usage.finish(ReportType.TEAM_ROLLUP, event.filterShape, teamIds.size(), counted.getCount());
+
+            if (event.shouldCommit()) {
+                event.report = ReportType.TEAM_ROLLUP.getKey();
+                event.requestedEntities = teamIds.size();
+                event.entities = teamIds.size();
+                event.pages = pages;
+                event.bytes = counted.getCount();
+                event.cpuTime = usage.getCpuNanos();
+                event.allocated = usage.getAllocatedBytes();
+                event.commit();
+            }
+            return teamIds.size();
+        }
+    }
+
+    private static int layOut(OrgRollup rollup, List<Integer> teamIds, OutputStream out) throws IOException {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+        PdfFont font = ReportFonts.createFont();
+
+        try (PdfWriter writer = new PdfWriter(out);
+             PdfDocument pdf = new PdfDocument(writer);
+             Document document = new Document(pdf, PageSize.A4.rotate())) {
+
+            writer.setCloseStream(false);
+            document.setFont(font);
+
+            document.add(new Paragraph("RAPORT ZESPOŁÓW")
+                    .setFontSize(20).setBold()
+                    .setTextAlignment(TextAlignment.CENTER).setMarginBottom(10));
+            document.add(new Paragraph("Wygenerowano: " + timestamp)
+                    .setFontSize(10).setItalic()
+                    .setTextAlignment(TextAlignment.CENTER).setMarginBottom(20));
+
+            RollupTotals organisation = rollup.getOrganisation();
+            document.add(new Paragraph("Organizacja").setFontSize(14).setBold().setMarginBottom(6));
+            Table summary = createTable();
+            addRow(summary, "Wszystkie zadania", organisation, null, true);
+            document.add(summary);
+            document.add(new Paragraph("Kamienie milowe: " + organisation.getMilestones()
+                    + ", opóźnione: " + organisation.getOverdueMilestones())
+                    .setFontSize(10).setMarginBottom(20));
+
+            for (int teamId : teamIds) {
+                document.add(new Paragraph("Zespół: " + rollup.getTeamName(teamId))
+                        .setFontSize(14).setBold().setMarginTop(10).setMarginBottom(6));
+                Table table = createTable();
+                addRow(table, "Zespół łącznie", rollup.getTeam(teamId), null, true);
+
+                List<Integer> projectIds = rollup.getProjectIds(teamId);
+                if (!projectIds.isEmpty()) {
+                    addGroup(table, "Projekty zespołu");
+                    for (int projectId : projectIds) {
+                        addRow(table, rollup.getProjectName(projectId), rollup.getTeamInProject(teamId, projectId),
+                                rollup.getProject(projectId), false);
+                    }
+                }
+
+                List<Integer> memberIds = rollup.getMemberIds(teamId);
+                if (!memberIds.isEmpty()) {
+                    addGroup(table, "Członkowie zespołu");
+                    for (int userId : memberIds) {
+                        addRow(table, rollup.getUserName(userId), rollup.getUser(userId), null, false);
+                    }
+                }
+                document.add(table);
+            }
+            return pdf.getNumberOfPages();
+        }
+    }
+
+    private static Table createTable() {
+        Table table = new Table(UnitValue.createPercentArray(WIDTHS)).useAllAvailableWidth().setFontSize(8);
+        for (String header : HEADERS) {
+            table.addHeaderCell(new Cell().add(new Paragraph(header)).setBold()
+                    .setBackgroundColor(ColorConstants.LIGHT_GRAY));
+        }
+        return table;
+    }
+
+    private static void addGroup(Table table, String title) {
+        table.addCell(new Cell(1, HEADERS.length).add(new Paragraph(title)).setItalic()
+                .setBackgroundColor(ColorConstants.LIGHT_GRAY, 0.4f));
+    }
+
+    /**
+     * Adds one row of figures.
+     *
+     * @param table The table to add to
+     * @param name The name in the first column
+     * @param totals The figures of the row
+     * @param project The figures of the whole project, for the team's share in it, or null
+     * @param bold Whether the row is a total
+     */
+    private static void addRow(Table table, String name, RollupTotals totals, RollupTotals project, boolean bold) {
+        String share = project != null && project.getTotalTasks() > 0
+                ? String.format("%.2f", totals.getTotalTasks() * 100.0 / project.getTotalTasks()) : "";
+        String[] values = {name, String.valueOf(totals.getTotalTasks()), String.valueOf(totals.getTodo()),
+                String.valueOf(totals.getInProgress()), String.valueOf(totals.getDone()),
+                String.valueOf(totals.getCanceled()), String.valueOf(totals.getOverdue()),
+                String.format("%.2f", totals.getCompletionRate()), String.format("%.2f", totals.getAverageProgress()),
+                share};
+        for (int i = 0; i < values.length; i++) {
+            Cell cell = new Cell().add(new Paragraph(values[i]));
+            if (i > 0) {
+                cell.setTextAlignment(TextAlignment.RIGHT);
+            }
+            if (bold) {
+                cell.setBold();
+            }
+            table.addCell(cell);
+        }
+    }
+}
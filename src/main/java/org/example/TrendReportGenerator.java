@@ -0,0 +1,356 @@
+package org.example;
+
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import org.example.data.ChangeTracker;
+import org.example.data.DailySnapshotData;
+import org.example.data.DailySnapshots;
+import org.example.metrics.CountingOutputStream;
+import org.example.metrics.ReportGeneratedEvent;
+import org.example.metrics.ReportMetrics;
+import org.example.metrics.ReportUsage;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Period-over-period trend report of projects or employees, built only from the daily snapshots.
+ * <p>
+ * The current period is the given number of days ending with the end day, the previous period
+ * the same number of days before it. For every entity the last snapshot up to the end of each
+ * period is compared, and the tasks completed in a period are the growth of the completed count
+ * since the end of the period before. Only snapshot rows are read, so the cost depends on the
+ * number of days and entities, not on the number of tasks. Days without a snapshot are skipped:
+ * the last earlier snapshot of the period stands in for them.
+ */
+public class TrendReportGenerator {
+
+    // Rows laid out between flushes of the large table
+    static final int FLUSH_ROWS = 100;
+
+    private static final String MISSING = "–";
+
+    private static final String[] PROJECT_HEADERS = {"Projekt", "Postęp", "Zmiana postępu",
+            "Ukończone (bieżący okres)", "Ukończone (poprzedni okres)", "Zmiana",
+            "Otwarte zadania", "Zmiana", "Opóźnione zadania", "Zmiana", "Opóźnione kamienie", "Zmiana"};
+    private static final float[] PROJECT_WIDTHS = {3.5f, 1.1f, 1.1f, 1.4f, 1.4f, 1.1f, 1.1f, 1.1f, 1.4f, 1.1f, 1.4f, 1.1f};
+
+    private static final String[] EMPLOYEE_HEADERS = {"Pracownik", "Średni postęp zadań", "Zmiana postępu",
+            "Ukończone (bieżący okres)", "Ukończone (poprzedni okres)", "Zmiana",
+            "Otwarte zadania", "Zmiana", "Opóźnione zadania", "Zmiana"};
+    private static final float[] EMPLOYEE_WIDTHS = {4, 1.5f, 1.2f, 1.5f, 1.5f, 1.2f, 1.2f, 1.2f, 1.2f, 1.2f};
+
+    /**
+     * Snapshots of one entity at the ends of the compared periods.
+     */
+    private static class Trend {
+        // Snapshot of the day before the previous period, the baseline of its completed count
+        DailySnapshotData base;
+        // Last snapshot up to the end of the previous period
+        DailySnapshotData previous;
+        // Last snapshot up to the end of the current period
+        DailySnapshotData current;
+    }
+
+    /**
+     * Generates the trend report of all projects and saves it to a file.
+     *
+     * @param end The last day of the current period
+     * @param days The length of each period in days
+     * @param customFileName Custom file name for the report
+     * @param selectedDirectory Directory to save the report
+     * @return The number of projects in the report
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static int generateProjectTrend(LocalDate end, int days,
+                                           String customFileName, File selectedDirectory) throws SQLException, IOException {
+        File file = outputFile(ReportType.PROJECT_TREND, customFileName, selectedDirectory);
+        int count;
+        try (OutputStream out = new FileOutputStream(file)) {
+            count = generateProjectTrend(end, days, out);
+        }
+        System.out.println("Raport zapisany jako: " + file.getAbsolutePath());
+        return count;
+    }
+
+    /**
+     * Generates the trend report of all projects into the given stream. The stream is left open.
+     *
+     * @param end The last day of the current period
+     * @param days The length of each period in days
+     * @param out The stream receiving the PDF bytes
+     * @return The number of projects in the report
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static int generateProjectTrend(LocalDate end, int days, OutputStream out) throws SQLException, IOException {
+        return generate(ReportType.PROJECT_TREND, ChangeTracker.Entity.PROJECT, "TREND PROJEKTÓW", end, days, out);
+    }
+
+    /**
+     * Generates the trend report of all employees and saves it to a file.
+     *
+     * @param end The last day of the current period
+     * @param days The length of each period in days
+     * @param customFileName Custom file name for the report
+     * @param selectedDirectory Directory to save the report
+     * @return The number of employees in the report
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static int generateEmployeeTrend(LocalDate end, int days,
+                                            String customFileName, File selectedDirectory) throws SQLException, IOException {
+        File file = outputFile(ReportType.EMPLOYEE_TREND, customFileName, selectedDirectory);
+        int count;
+        try (OutputStream out = new FileOutputStream(file)) {
+            count = generateEmployeeTrend(end, days, out);
+        }
+        System.out.println("Raport zapisany jako: " + file.getAbsolutePath());
+        return count;
+    }
+
+    /**
+     * Generates the trend report of all employees into the given stream. The stream is left open.
+     *
+     * @param end The last day of the current period
+     * @param days The length of each period in days
+     * @param out The stream receiving the PDF bytes
+     * @return The number of employees in the report
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public static int generateEmployeeTrend(LocalDate end, int days, OutputStream out) throws SQLException, IOException {
+        return generate(ReportType.EMPLOYEE_TREND, ChangeTracker.Entity.USER, "TREND PRACOWNIKÓW", end, days, out);
+    }
+
+    private static int generate(ReportType type, ChangeTracker.Entity entity, String title,
+                                LocalDate end, int days, OutputStream out) throws SQLException, IOException {
+        if (days <= 0) {
+            throw new IllegalArgumentException("Długość okresu musi być dodatnia");
+        }
+        LocalDate previousEnd = end.minusDays(days);
+        LocalDate baseDay = previousEnd.minusDays(days);
+
+        ReportGeneratedEvent event = new ReportGeneratedEvent();
+        event.begin();
+        event.filterShape = "range";
+
+        try (ReportUsage usage = ReportUsage.start()) {
+            Map<Integer, Trend> trends = new TreeMap<>();
+            Set<LocalDate> currentDays = new TreeSet<>();
+            Set<LocalDate> previousDays = new TreeSet<>();
+
+            // Rows come ordered by day, so the last one kept per period is the newest
+            try (Connection conn = DatabaseConnector.getReadConnection()) {
+                DailySnapshots.forEachSnapshot(conn, entity, baseDay, end, row -> {
+                    Trend trend = trends.computeIfAbsent(row.getEntityId(), id -> new Trend());
+                    if (!row.getSnapshotDate().isAfter(baseDay)) {
+                        trend.base = row;
+                    } else if (!row.getSnapshotDate().isAfter(previousEnd)) {
+                        trend.previous = row;
+                        previousDays.add(row.getSnapshotDate());
+                    } else {
+                        trend.current = row;
+                        currentDays.add(row.getSnapshotDate());
+                    }
+                });
+            }
+            // Entities without a snapshot in the current period no longer exist
+            trends.values().removeIf(trend -> trend.current == null);
+
+            long start = System.nanoTime();
+            CountingOutputStream counted = new CountingOutputStream(out);
+            int pages = layOut(title, entity == ChangeTracker.Entity.PROJECT, end, days,
+                    trends, currentDays.size(), previousDays.size(), counted);
+
+            ReportMetrics.recordRender(type, System.nanoTime() - start, trends.size(), counted.getCount(), pages);
+            usage.finish(type, event.filterShape, trends.size(), counted.getCount());
+
+            if (event.shouldCommit()) {
+                event.report = type.getKey();
+                event.requestedEntities = trends.size();
+                event.entities = trends.size();
+                event.pages = pages;
+                event.bytes = counted.getCount();
+                event.cpuTime = usage.getCpuNanos();
+                event.allocated = usage.getAllocatedBytes();
+                event.commit();
+            }
+            return trends.size();
+        }
+    }
+
+    private static int layOut(String title, boolean projects, LocalDate end, int days, Map<Integer, Trend> trends,
+                              int currentDays, int previousDays, OutputStream out) throws IOException {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+        PdfFont font = ReportFonts.createFont();
+
+        try (PdfWriter writer = new PdfWriter(out);
+             PdfDocument pdf = new PdfDocument(writer);
+             Document document = new Document(pdf, PageSize.A4.rotate())) {
+
+            writer.setCloseStream(false);
+            document.setFont(font);
+
+            document.add(new Paragraph(title)
+                    .setFontSize(20).setBold()
+                    .setTextAlignment(TextAlignment.CENTER).setMarginBottom(10));
+            document.add(new Paragraph("Wygenerowano: " + timestamp)
+                    .setFontSize(10).setItalic()
+                    .setTextAlignment(TextAlignment.CENTER).setMarginBottom(4));
+            LocalDate previousEnd = end.minusDays(days);
+            document.add(new Paragraph("Okres bieżący: " + previousEnd.plusDays(1) + " – " + end
+                    + ", poprzedni: " + previousEnd.minusDays(days - 1) + " – " + previousEnd)
+                    .setFontSize(10).setTextAlignment(TextAlignment.CENTER).setMarginBottom(4));
+            document.add(new Paragraph("Dni z migawkami: " + currentDays + " z " + days + " (bieżący), "
+                    + previousDays + " z " + days + " (poprzedni)")
+                    .setFontSize(10).setTextAlignment(TextAlignment.CENTER).setMarginBottom(20));
+
+            if (trends.isEmpty()) {
+                document.add(new Paragraph("Brak migawek w wybranym okresie."));
+                return pdf.getNumberOfPages();
+            }
+
+            addTotals(document, trends);
+
+            String[] headers = projects ? PROJECT_HEADERS : EMPLOYEE_HEADERS;
+            Table table = new Table(UnitValue.createPercentArray(projects ? PROJECT_WIDTHS : EMPLOYEE_WIDTHS), true)
+                    .useAllAvailableWidth().setFontSize(9);
+            for (String header : headers) {
+                table.addHeaderCell(new Cell().add(new Paragraph(header)).setBold()
+                        .setBackgroundColor(ColorConstants.LIGHT_GRAY));
+            }
+            document.add(table);
+
+            int rows = 0;
+            for (Trend trend : trends.values()) {
+                String[] values = cells(trend, projects);
+                for (int i = 0; i < values.length; i++) {
+                    Cell cell = new Cell().add(new Paragraph(values[i]));
+                    if (i > 0) {
+                        cell.setTextAlignment(TextAlignment.RIGHT);
+                    }
+                    if (rows % 2 == 1) {
+                        cell.setBackgroundColor(ColorConstants.LIGHT_GRAY, 0.4f);
+                    }
+                    table.addCell(cell);
+                }
+                if (++rows % FLUSH_ROWS == 0) {
+                    table.flush();
+                }
+            }
+            table.complete();
+            return pdf.getNumberOfPages();
+        }
+    }
+
+    /**
+     * Adds the period-over-period totals over all entities.
+     *
+     * @param document The document to add to
+     * @param trends The trends of all entities in the report
+     */
+    private static void addTotals(Document document, Map<Integer, Trend> trends) {
+        int doneCurrent = 0;
+        int donePrevious = 0;
+        int overdueCurrent = 0;
+        int overduePrevious = 0;
+        double progress = 0;
+        for (Trend trend : trends.values()) {
+            if (trend.previous != null) {
+                doneCurrent += trend.current.getTasksDone() - trend.previous.getTasksDone();
+                overduePrevious += trend.previous.getOverdueTasks();
+                if (trend.base != null) {
+                    donePrevious += trend.previous.getTasksDone() - trend.base.getTasksDone();
+                }
+            }
+            overdueCurrent += trend.current.getOverdueTasks();
+            progress += trend.current.getProgress();
+        }
+
+        document.add(new Paragraph("Podsumowanie").setFontSize(14).setBold().setMarginBottom(6));
+        document.add(new Paragraph("Zadania ukończone w okresie: " + doneCurrent
+                + " (poprzedni okres: " + donePrevious + ", zmiana: " + formatChange(doneCurrent, donePrevious) + ")"));
+        document.add(new Paragraph("Opóźnione zadania na koniec okresu: " + overdueCurrent
+                + " (poprzedni okres: " + overduePrevious + ", zmiana: " + formatChange(overdueCurrent, overduePrevious) + ")"));
+        document.add(new Paragraph(String.format("Średni postęp: %.2f%%", progress / trends.size()))
+                .setMarginBottom(20));
+    }
+
+    private static String[] cells(Trend trend, boolean projects) {
+        DailySnapshotData current = trend.current;
+        DailySnapshotData previous = trend.previous;
+        Integer doneCurrent = previous != null ? current.getTasksDone() - previous.getTasksDone() : null;
+        Integer donePrevious = previous != null && trend.base != null
+                ? previous.getTasksDone() - trend.base.getTasksDone() : null;
+        int openCurrent = current.getTasksTodo() + current.getTasksInProgress();
+
+        String[] common = {
+                current.getName(),
+                String.format("%.2f", current.getProgress()),
+                previous != null ? String.format("%+.2f", current.getProgress() - previous.getProgress()) : MISSING,
+                doneCurrent != null ? String.valueOf(doneCurrent) : MISSING,
+                donePrevious != null ? String.valueOf(donePrevious) : MISSING,
+                doneCurrent != null && donePrevious != null ? String.format("%+d", doneCurrent - donePrevious) : MISSING,
+                String.valueOf(openCurrent),
+                previous != null ? String.format("%+d", openCurrent - previous.getTasksTodo() - previous.getTasksInProgress()) : MISSING,
+                String.valueOf(current.getOverdueTasks()),
+                previous != null ? String.format("%+d", current.getOverdueTasks() - previous.getOverdueTasks()) : MISSING
+        };
+        if (!projects) {
+            return common;
+        }
+        String[] values = new String[common.length + 2];
+        System.arraycopy(common, 0, values, 0, common.length);
+        values[common.length] = String.valueOf(current.getOverdueMilestones());
+        values[common.length + 1] = previous != null
+                ? String.format("%+d", current.getOverdueMilestones() - previous.getOverdueMilestones()) : MISSING;
+        return values;
+    }
+
+    /**
+     * Formats the relative change between two periods.
+     *
+     * @param current The value in the current period
+     * @param previous The value in the previous period
+     * @return E.g. "+12,5%", or "–" when the previous value is 0
+     */
+    static String formatChange(int current, int previous) {
+        if (previous == 0) {
+            return MISSING;
+        }
+        return String.format("%+.1f%%", (current - previous) * 100.0 / previous);
+    }
+
+    private static File outputFile(ReportType type, String customFileName, File selectedDirectory) {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+        String fileName = (customFileName != null && !customFileName.isEmpty())
+                ? customFileName + ".pdf"
+                : type.getFilePrefix() + timestamp + ".pdf";
+
+        return (selectedDirectory != null)
+                ? new File(selectedDirectory, fileName)
+                : new File(System.getProperty("user.home"), "Documents/" + fileName);
+    }
+}
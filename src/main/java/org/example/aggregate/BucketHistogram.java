@@ -0,0 +1,101 @@
+package org.example.aggregate;
+
+import java.util.Arrays;
+
+/**
+ * Counts of whole non-negative values, such as task counts, over fixed buckets.
+ * The buckets do not depend on the data, so histograms of separate parts of a stream
+ * merge by adding their counts.
+ */
+public class BucketHistogram {
+
+    // Bucket upper bounds of task counts: 0, 1, 2-3, 4-7, 8-15, 16-31 and 32 or more
+    public static final long[] TASK_COUNT_BOUNDS = {0, 1, 3, 7, 15, 31};
+
+    private final long[] bounds;
+    private final long[] counts;
+    private long total;
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @param bounds The inclusive upper bounds of the buckets, ascending; values above the last one
+     *               go into an extra open-ended bucket
+     */
+    public BucketHistogram(long[] bounds) {
+        this.bounds = bounds.clone();
+        this.counts = new long[bounds.length + 1];
+    }
+
+    /**
+     * Counts one value. Negative values are counted in the first bucket.
+     *
+     * @param value The value
+     */
+    public void add(long value) {
+        int bucket = 0;
+        while (bucket < bounds.length && value > bounds[bucket]) {
+            bucket++;
+        }
+        counts[bucket]++;
+        total++;
+    }
+
+    /**
+     * Adds the counts of another histogram to this one.
+     *
+     * @param other The histogram to add
+     * @throws IllegalArgumentException If the histograms have different buckets
+     */
+    public void merge(BucketHistogram other) {
+        if (!Arrays.equals(bounds, other.bounds)) {
+            throw new IllegalArgumentException("Histogramy mają różne przedziały");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+    }
+
+    /**
+     * Gets the number of buckets, including the open-ended one.
+     *
+     * @return The number of buckets
+     */
+    public int getBucketCount() {
+        return counts.length;
+    }
+
+    /**
+     * Gets the number of values in a bucket.
+     *
+     * @param bucket The bucket index
+     * @return The number of values
+     */
+    public long getCount(int bucket) {
+        return counts[bucket];
+    }
+
+    /**
+     * Gets the number of values counted.
+     *
+     * @return The number of values in all buckets
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Describes the range of a bucket.
+     *
+     * @param bucket The bucket index
+     * @return E.g. "0", "2–3" or "32 i więcej"
+     */
+    public String getLabel(int bucket) {
+        long lower = bucket == 0 ? 0 : bounds[bucket - 1] + 1;
+        if (bucket == bounds.length) {
+            return lower + " i więcej";
+        }
+        return lower == bounds[bucket] ? String.valueOf(lower) : lower + "–" + bounds[bucket];
+    }
+}
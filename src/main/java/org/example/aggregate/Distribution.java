@@ -0,0 +1,80 @@
+package org.example.aggregate;
+
+/**
+ * Distribution of the completion rates and overdue task counts of a group of employees or projects.
+ * Distributions of disjoint groups merge into the distribution of their union.
+ */
+public class Distribution {
+
+    private final QuantileSketch completionRates = new QuantileSketch();
+    private final BucketHistogram overdueTasks = new BucketHistogram(BucketHistogram.TASK_COUNT_BOUNDS);
+    private long overdueSum;
+
+    /**
+     * Adds one employee or project.
+     *
+     * @param completionRate The percentage of completed tasks
+     * @param overdue The number of overdue tasks
+     */
+    public void add(double completionRate, long overdue) {
+        completionRates.add(completionRate);
+        overdueTasks.add(overdue);
+        overdueSum += overdue;
+    }
+
+    /**
+     * Adds the members of another distribution to this one. The other distribution is not changed.
+     *
+     * @param other The distribution to add
+     */
+    public void merge(Distribution other) {
+        completionRates.merge(other.completionRates);
+        overdueTasks.merge(other.overdueTasks);
+        overdueSum += other.overdueSum;
+    }
+
+    /**
+     * Gets the number of employees or projects added.
+     *
+     * @return The number of members
+     */
+    public long getCount() {
+        return overdueTasks.getTotal();
+    }
+
+    /**
+     * Gets the sketch of the completion rates.
+     *
+     * @return The sketch
+     */
+    public QuantileSketch getCompletionRates() {
+        return completionRates;
+    }
+
+    /**
+     * Gets the histogram of the overdue task counts.
+     *
+     * @return The histogram
+     */
+    public BucketHistogram getOverdueTasks() {
+        return overdueTasks;
+    }
+
+    /**
+     * Gets the number of overdue tasks of all members.
+     *
+     * @return The sum of the overdue task counts
+     */
+    public long getOverdueSum() {
+        return overdueSum;
+    }
+
+    /**
+     * Gets the number of members with at least one overdue task.
+     *
+     * @return The count of the non-zero buckets
+     */
+    public long getWithOverdue() {
+        return overdueTasks.getTotal() - overdueTasks.getCount(0);
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.aggregate;
+
+import org.example.data.EmployeePerformanceData;
+import org.example.data.ExecutiveOverviewData;
+import org.example.data.SummaryColumn;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Completion rate percentiles, overdue task histogram and per-team spread of a set of employees
+ * or projects, collected in one pass over the rows.
+ * <p>
+ * Every row goes into fixed-size sketches and histograms, so nothing is sorted and no row is kept;
+ * the statistics of separate partitions of the rows can be combined with {@link #merge}.
+ */
+public class DistributionStatistics {
+
+    // Group of the rows without a team
+    public static final String NO_TEAM = "Brak";
+
+    private final Distribution overall = new Distribution();
+    private final Map<String, Distribution> teams = new TreeMap<>();
+
+    /**
+     * Collects the statistics of employees, grouped by team leader.
+     *
+     * @param employees The employee rows
+     * @return The statistics
+     */
+    public static DistributionStatistics ofEmployees(Iterable<EmployeePerformanceData> employees) {
+        DistributionStatistics statistics = new DistributionStatistics();
+        for (EmployeePerformanceData employee : employees) {
+            statistics.team(employee.getTeamLeader()).add(employee.getCompletionRate(), employee.getOverdueTasks());
+        }
+        // Every employee is in exactly one group, so the groups add up to the whole
+        for (Distribution team : statistics.teams.values()) {
+            statistics.overall.merge(team);
+        }
+        return statistics;
+    }
+
+    /**
+     * Collects the statistics of projects, grouped by involved team.
+     * A project with several teams counts in each of their groups, but once overall.
+     *
+     * @param projects The project rows
+     * @return The statistics
+     */
+    public static DistributionStatistics ofProjects(Iterable<ExecutiveOverviewData> projects) {
+        DistributionStatistics statistics = new DistributionStatistics();
+        for (ExecutiveOverviewData project : projects) {
+            double completionRate = SummaryColumn.PROJECT_COMPLETION_RATE.valueOf(project);
+            long overdue = Math.round(SummaryColumn.PROJECT_OVERDUE_TASKS.valueOf(project));
+            statistics.overall.add(completionRate, overdue);
+            for (String team : project.getInvolvedTeams().split(", ")) {
+                statistics.team(team).add(completionRate, overdue);
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Adds the statistics of another, disjoint set of rows to this one.
+     *
+     * @param other The statistics to add
+     */
+    public void merge(DistributionStatistics other) {
+        overall.merge(other.overall);
+        for (Map.Entry<String, Distribution> entry : other.teams.entrySet()) {
+            team(entry.getKey()).merge(entry.getValue());
+        }
+    }
+
+    /**
+     * Gets the distribution of all rows.
+     *
+     * @return The overall distribution
+     */
+    public Distribution getOverall() {
+        return overall;
+    }
+
+    /**
+     * Gets the distributions of the teams.
+     *
+     * @return The distributions by team name, in name order
+     */
+    public Map<String, Distribution> getTeams() {
+        return Collections.unmodifiableMap(teams);
+    }
+
+    private Distribution team(String name) {
+        String key = name == null || name.isBlank() ? NO_TEAM : name;
+        return teams.computeIfAbsent(key, k -> new Distribution());
+    }
+}
@@ -0,0 +1,208 @@
+package org.example.aggregate;
+
+import org.example.ReportType;
+import org.example.metrics.ReportMetrics;
+import org.example.metrics.ReportQueryTimer;
+import org.example.metrics.ReportUsage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Single-pass aggregation of the organisation's tasks into user, team, team-in-project, project
+ * and organisation rollups.
+ * <p>
+ * Instead of one view per level, each re-joining Tasks, TaskAssignments and Milestones, the raw
+ * task rows are streamed once in task ID order and cut into {@link TaskChunk}s of primitive arrays.
+ * The chunks are added up on a worker pool, each worker into its own {@link RollupAccumulator}, and
+ * the accumulators are summed when the stream ends. At most two chunks per worker are in flight,
+ * so memory depends on the number of entities, not on the number of tasks. On a single processor
+ * the chunks are added up on the reading thread.
+ * <p>
+ * Settings: {@code -Dpz.aggregate.workers} (default: number of processors).
+ */
+public class OrgAggregator {
+
+    private static final int WORKERS = Math.max(1,
+            Integer.getInteger("pz.aggregate.workers", Runtime.getRuntime().availableProcessors()));
+
+    private static final ExecutorService AGGREGATE_POOL = Executors.newFixedThreadPool(WORKERS, runnable -> {
+        Thread thread = new Thread(runnable, "org-aggregate");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Tasks drive the join, so the rows come in primary key order without sorting and the
+    // assignees of a task are adjacent
+    private static final String TASK_QUERY =
+            "SELECT t.id, m.project_id, t.status, t.progress, " +
+            "(t.deadline < CURDATE() AND t.status NOT IN ('zrobione', 'anulowane')) AS overdue, ta.user_id " +
+            "FROM Tasks t STRAIGHT_JOIN Milestones m ON m.id = t.milestone_id " +
+            "LEFT JOIN TaskAssignments ta ON ta.task_id = t.id " +
+            "ORDER BY t.id";
+
+    private static final String MILESTONE_QUERY =
+            "SELECT project_id, (deadline < CURDATE() AND progress < 100) AS overdue FROM Milestones";
+
+    /**
+     * Computes the rollups of the whole organisation in one pass over the tasks.
+     *
+     * @param conn The database connection
+     * @param type The report type the queries are recorded under
+     * @return The rollups of every level
+     * @throws SQLException If a database error occurs, a worker fails or the aggregation is interrupted
+     */
+    public static OrgRollup aggregate(Connection conn, ReportType type) throws SQLException {
+        long start = System.nanoTime();
+        OrgStructure structure = OrgStructure.load(conn);
+        ReportMetrics.recordQuery(type, "structure", System.nanoTime() - start,
+                structure.teamNames.length + structure.userNames.length + structure.projectNames.length);
+
+        RollupAccumulator totals = aggregateTasks(conn, structure, type);
+
+        start = System.nanoTime();
+        int rows = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(MILESTONE_QUERY);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                totals.addMilestone(rs.getInt("project_id"), rs.getBoolean("overdue"), structure);
+                rows++;
+            }
+        }
+        ReportMetrics.recordQuery(type, "milestones", System.nanoTime() - start, rows);
+
+        return new OrgRollup(structure, totals);
+    }
+
+    private static RollupAccumulator aggregateTasks(Connection conn, OrgStructure structure, ReportType type) throws SQLException {
+        RollupAccumulator main = new RollupAccumulator(structure);
+        boolean parallel = WORKERS > 1;
+
+        // Workers take a free accumulator, so there are never more accumulators than workers
+        List<RollupAccumulator> accumulators = new ArrayList<>();
+        ConcurrentLinkedQueue<RollupAccumulator> free = new ConcurrentLinkedQueue<>();
+        Semaphore inFlight = new Semaphore(WORKERS * 2);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        ReportUsage usage = ReportUsage.current();
+
+        try (PreparedStatement stmt = conn.prepareStatement(TASK_QUERY)) {
+            // Stream the rows instead of buffering every task in the driver
+            stmt.setFetchSize(Integer.MIN_VALUE);
+
+            // Database time only: adding up chunks and waiting for workers is excluded
+            ReportQueryTimer timer = new ReportQueryTimer();
+            TaskChunk chunk = new TaskChunk();
+            int lastTask = -1;
+            try {
+                try (ResultSet rs = stmt.executeQuery()) {
+                    // A failed chunk makes the result useless, so stop reading at once
+                    while (failure.get() == null && rs.next()) {
+                        timer.countRow();
+                        int task = rs.getInt("id");
+                        if (task != lastTask) {
+                            if (chunk.isFull()) {
+                                timer.pause();
+                                dispatch(chunk, structure, main, parallel, accumulators, free, inFlight, failure, usage);
+                                timer.resume();
+                                chunk = new TaskChunk();
+                            }
+                            int progress = rs.getInt("progress");
+                            if (rs.wasNull()) {
+                                progress = -1;
+                            }
+                            chunk.addTask(rs.getInt("project_id"), TaskChunk.statusCode(rs.getString("status")),
+                                    progress, rs.getBoolean("overdue"));
+                            lastTask = task;
+                        }
+                        int user = rs.getInt("user_id");
+                        if (!rs.wasNull()) {
+                            chunk.addAssignee(user);
+                        }
+                    }
+                    if (failure.get() != null) {
+                        // Otherwise closing a streaming result set reads the remaining rows
+                        cancel(stmt);
+                    }
+                } catch (SQLException e) {
+                    if (failure.get() == null) {
+                        throw e;
+                    }
+                    // Closing the cancelled stream; the worker's failure is reported below
+                    failure.get().addSuppressed(e);
+                }
+                timer.pause();
+                if (chunk.size > 0 && failure.get() == null) {
+                    dispatch(chunk, structure, main, parallel, accumulators, free, inFlight, failure, usage);
+                }
+            } finally {
+                // All permits back means every submitted chunk has been added up; also wait when
+                // the read failed, so no worker still uses the accumulators after we return
+                if (parallel) {
+                    inFlight.acquireUninterruptibly(WORKERS * 2);
+                }
+            }
+            timer.resume();
+            timer.finish(type, "tasks", 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Przerwano agregację danych", e);
+        }
+
+        if (failure.get() != null) {
+            throw new SQLException("Błąd agregacji danych", failure.get());
+        }
+        for (RollupAccumulator accumulator : accumulators) {
+            main.merge(accumulator);
+        }
+        return main;
+    }
+
+    private static void cancel(PreparedStatement stmt) {
+        try {
+            stmt.cancel();
+        } catch (SQLException e) {
+            // The driver then reads the rest of the stream on close
+            System.err.println("Nie można przerwać zapytania agregacji: " + e.getMessage());
+        }
+    }
+
+    private static void dispatch(TaskChunk chunk, OrgStructure structure, RollupAccumulator main, boolean parallel,
+                                 List<RollupAccumulator> accumulators, ConcurrentLinkedQueue<RollupAccumulator> free,
+                                 Semaphore inFlight, AtomicReference<Throwable> failure,
+                                 ReportUsage usage) throws InterruptedException {
+        if (!parallel) {
+            main.addChunk(chunk, structure);
+            return;
+        }
+        inFlight.acquire();
+        Callable<Void> task = () -> {
+            try {
+                RollupAccumulator accumulator = free.poll();
+                if (accumulator == null) {
+                    accumulator = new RollupAccumulator(structure);
+                    synchronized (accumulators) {
+                        accumulators.add(accumulator);
+                    }
+                }
+                accumulator.addChunk(chunk, structure);
+                free.add(accumulator);
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                inFlight.release();
+            }
+            return null;
+        };
+        AGGREGATE_POOL.submit(usage != null ? usage.track(task) : task);
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.aggregate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of one aggregation pass: the figures of every user, team, team within a project,
+ * project and of the whole organisation, computed from the same rows.
+ * <p>
+ * A task counts once for each of its assignees, once for each team among them and once for
+ * its project. The work of a team within a project covers only the projects the team is
+ * assigned to in ProjectTeams; tasks its members do elsewhere count for the team only.
+ */
+public class OrgRollup {
+
+    /**
+     * Team ID of the users without a team.
+     */
+    public static final int NO_TEAM = OrgStructure.NO_TEAM;
+
+    private final OrgStructure structure;
+    private final RollupAccumulator totals;
+
+    OrgRollup(OrgStructure structure, RollupAccumulator totals) {
+        this.structure = structure;
+        this.totals = totals;
+    }
+
+    public RollupTotals getOrganisation() {
+        return new RollupTotals(totals.organisation, 0);
+    }
+
+    /**
+     * Gets the figures of a project.
+     *
+     * @param projectId The project ID
+     * @return The figures, or null for an unknown project
+     */
+    public RollupTotals getProject(int projectId) {
+        return structure.isProject(projectId) ? new RollupTotals(totals.projects, projectId) : null;
+    }
+
+    /**
+     * Gets the figures of a team, counting every task of its members once.
+     *
+     * @param teamId The team ID, or {@link #NO_TEAM}
+     * @return The figures, or null for an unknown team
+     */
+    public RollupTotals getTeam(int teamId) {
+        return isTeam(teamId) ? new RollupTotals(totals.teams, teamId) : null;
+    }
+
+    /**
+     * Gets the figures of a team's work on one project.
+     *
+     * @param teamId The team ID
+     * @param projectId The project ID
+     * @return The figures, or null if the team is not assigned to the project
+     */
+    public RollupTotals getTeamInProject(int teamId, int projectId) {
+        int cell = isTeam(teamId) ? structure.cell(teamId, projectId) : -1;
+        return cell >= 0 ? new RollupTotals(totals.cells, cell) : null;
+    }
+
+    /**
+     * Gets the figures of a user.
+     *
+     * @param userId The user ID
+     * @return The figures, or null for an unknown user
+     */
+    public RollupTotals getUser(int userId) {
+        return structure.isUser(userId) ? new RollupTotals(totals.users, userId) : null;
+    }
+
+    /**
+     * Lists the teams that have members or projects, in ID order with {@link #NO_TEAM} last.
+     *
+     * @return The team IDs
+     */
+    public List<Integer> getTeamIds() {
+        List<Integer> ids = new ArrayList<>();
+        for (int team = 1; team < structure.teamNames.length; team++) {
+            if (structure.teamNames[team] != null
+                    && (structure.members[team].length > 0 || structure.teamProjects[team].length > 0)) {
+                ids.add(team);
+            }
+        }
+        if (structure.members[NO_TEAM].length > 0) {
+            ids.add(NO_TEAM);
+        }
+        return ids;
+    }
+
+    /**
+     * Lists the members of a team.
+     *
+     * @param teamId The team ID, or {@link #NO_TEAM}
+     * @return The user IDs in ID order
+     */
+    public List<Integer> getMemberIds(int teamId) {
+        List<Integer> ids = new ArrayList<>();
+        if (isTeam(teamId)) {
+            for (int user : structure.members[teamId]) {
+                ids.add(user);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Lists the projects a team is assigned to.
+     *
+     * @param teamId The team ID
+     * @return The project IDs in ID order
+     */
+    public List<Integer> getProjectIds(int teamId) {
+        List<Integer> ids = new ArrayList<>();
+        if (isTeam(teamId)) {
+            for (int project : structure.teamProjects[teamId]) {
+                ids.add(project);
+            }
+        }
+        return ids;
+    }
+
+    public String getTeamName(int teamId) {
+        return isTeam(teamId) ? structure.teamNames[teamId] : "";
+    }
+
+    public String getUserName(int userId) {
+        return structure.isUser(userId) ? structure.userNames[userId] : "";
+    }
+
+    public String getProjectName(int projectId) {
+        return structure.isProject(projectId) ? structure.projectNames[projectId] : "";
+    }
+
+    private boolean isTeam(int teamId) {
+        return teamId >= 0 && teamId < structure.teamNames.length && structure.teamNames[teamId] != null;
+    }
+}
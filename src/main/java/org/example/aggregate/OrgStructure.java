@@ -0,0 +1,163 @@
+package org.example.aggregate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The organisation the rollups are computed for: names of teams, users and projects, the team of
+ * every user and the projects every team is assigned to in ProjectTeams.
+ * <p>
+ * Everything is kept in arrays indexed by the entity ID, so the aggregation looks up a user's team
+ * or a team's project without boxing. Team ID 0 stands for the users without a team.
+ */
+class OrgStructure {
+
+    static final int NO_TEAM = 0;
+
+    final String[] teamNames;
+    final String[] userNames;
+    final String[] projectNames;
+    // User ID -> team ID, NO_TEAM for users without a team
+    final int[] teamOf;
+    // Team ID -> sorted IDs of the projects the team is assigned to
+    final int[][] teamProjects;
+    // Team ID -> index of its first team-in-project cell
+    final int[] cellOffset;
+    final int cellCount;
+    // Team ID -> user IDs of the members, in ID order
+    final int[][] members;
+
+    private OrgStructure(String[] teamNames, String[] userNames, String[] projectNames, int[] teamOf, int[][] teamProjects) {
+        this.teamNames = teamNames;
+        this.userNames = userNames;
+        this.projectNames = projectNames;
+        this.teamOf = teamOf;
+        this.teamProjects = teamProjects;
+
+        this.cellOffset = new int[teamProjects.length];
+        int cells = 0;
+        for (int team = 0; team < teamProjects.length; team++) {
+            cellOffset[team] = cells;
+            cells += teamProjects[team].length;
+        }
+        this.cellCount = cells;
+
+        int[] memberCounts = new int[teamNames.length];
+        for (int user = 0; user < teamOf.length; user++) {
+            if (userNames[user] != null) {
+                memberCounts[teamOf[user]]++;
+            }
+        }
+        this.members = new int[teamNames.length][];
+        for (int team = 0; team < teamNames.length; team++) {
+            members[team] = new int[memberCounts[team]];
+            memberCounts[team] = 0;
+        }
+        for (int user = 0; user < teamOf.length; user++) {
+            if (userNames[user] != null) {
+                members[teamOf[user]][memberCounts[teamOf[user]]++] = user;
+            }
+        }
+    }
+
+    /**
+     * Loads the structure of the organisation.
+     *
+     * @param conn The database connection
+     * @return The structure
+     * @throws SQLException If a database error occurs
+     */
+    static OrgStructure load(Connection conn) throws SQLException {
+        String[] teamNames = new String[maxId(conn, "Teams") + 1];
+        teamNames[NO_TEAM] = "Bez zespołu";
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT id, name FROM Teams WHERE id <= ?")) {
+            stmt.setInt(1, teamNames.length - 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    teamNames[rs.getInt("id")] = rs.getString("name") != null ? rs.getString("name") : "";
+                }
+            }
+        }
+
+        String[] userNames = new String[maxId(conn, "Users") + 1];
+        int[] teamOf = new int[userNames.length];
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT id, team_id, CONCAT(first_name, ' ', last_name) AS name FROM Users WHERE id <= ?")) {
+            stmt.setInt(1, userNames.length - 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt("id");
+                    int team = rs.getInt("team_id");
+                    userNames[id] = rs.getString("name") != null ? rs.getString("name") : "";
+                    // Teams created after the team list was read count as no team
+                    teamOf[id] = team < teamNames.length && teamNames[team] != null ? team : NO_TEAM;
+                }
+            }
+        }
+
+        String[] projectNames = new String[maxId(conn, "Projects") + 1];
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT id, name FROM Projects WHERE id <= ?")) {
+            stmt.setInt(1, projectNames.length - 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    projectNames[rs.getInt("id")] = rs.getString("name") != null ? rs.getString("name") : "";
+                }
+            }
+        }
+
+        List<List<Integer>> projectsPerTeam = new ArrayList<>();
+        for (int i = 0; i < teamNames.length; i++) {
+            projectsPerTeam.add(new ArrayList<>());
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT team_id, project_id FROM ProjectTeams ORDER BY team_id, project_id");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                int team = rs.getInt("team_id");
+                int project = rs.getInt("project_id");
+                if (team < teamNames.length && project < projectNames.length) {
+                    projectsPerTeam.get(team).add(project);
+                }
+            }
+        }
+        int[][] teamProjects = new int[teamNames.length][];
+        for (int team = 0; team < teamNames.length; team++) {
+            teamProjects[team] = projectsPerTeam.get(team).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        return new OrgStructure(teamNames, userNames, projectNames, teamOf, teamProjects);
+    }
+
+    /**
+     * Finds the cell of a team's work on a project.
+     *
+     * @param team The team ID
+     * @param project The project ID
+     * @return The cell index, or -1 if the team is not assigned to the project
+     */
+    int cell(int team, int project) {
+        int position = Arrays.binarySearch(teamProjects[team], project);
+        return position >= 0 ? cellOffset[team] + position : -1;
+    }
+
+    boolean isProject(int project) {
+        return project >= 0 && project < projectNames.length && projectNames[project] != null;
+    }
+
+    boolean isUser(int user) {
+        return user >= 0 && user < userNames.length && userNames[user] != null;
+    }
+
+    private static int maxId(Connection conn, String table) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT COALESCE(MAX(id), 0) FROM " + table);
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package org.example.aggregate;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch (KLL) of a stream of values.
+ * <p>
+ * Values are kept in a stack of levels; a value on level h stands for 2<sup>h</sup> values of the
+ * stream. When the levels hold more values than their capacities allow, a full level is sorted and
+ * every other value moves one level up, so the sketch keeps O(k) values however long the stream is.
+ * Up to about k values the quantiles are exact. Sketches of separate parts of a stream merge into a
+ * sketch of the whole stream with the same error bound, so partitions can be summarised on their
+ * own and combined. With the default k of 400 the rank error stays below 0.5 %, for a single
+ * sketch as well as for merged ones.
+ */
+public class QuantileSketch {
+
+    public static final int DEFAULT_K = 400;
+
+    // Capacities shrink by this factor per level below the top one
+    private static final double SHRINK = 2.0 / 3.0;
+    private static final int MIN_CAPACITY = 2;
+
+    private final int k;
+    private double[][] levels;
+    private int[] sizes;
+    // Number of compactions per level, to alternate which half of the pairs moves up
+    private int[] compactions;
+    private int retained;
+    private int capacity;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    /**
+     * Creates an empty sketch with the default accuracy.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param k The accuracy parameter; the rank error falls roughly as 1/k
+     * @throws IllegalArgumentException If k is smaller than 8
+     */
+    public QuantileSketch(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("Parametr dokładności musi wynosić co najmniej 8");
+        }
+        this.k = k;
+        this.levels = new double[][]{new double[16]};
+        this.sizes = new int[1];
+        this.compactions = new int[1];
+        this.capacity = levelCapacity(0);
+    }
+
+    /**
+     * Adds a value to the sketch. NaN values are ignored.
+     *
+     * @param value The value
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        count++;
+        if (count == 1 || value < min) {
+            min = value;
+        }
+        if (count == 1 || value > max) {
+            max = value;
+        }
+        append(0, value);
+        if (retained >= capacity) {
+            compress();
+        }
+    }
+
+    /**
+     * Adds the values of another sketch to this one. The other sketch is not changed.
+     *
+     * @param other The sketch to add
+     */
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        while (levels.length < other.levels.length) {
+            grow();
+        }
+        for (int h = 0; h < other.levels.length; h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+        }
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        count += other.count;
+        while (retained >= capacity) {
+            compress();
+        }
+    }
+
+    /**
+     * Gets the number of values added.
+     *
+     * @return The number of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the smallest value added.
+     *
+     * @return The minimum, or NaN if the sketch is empty
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Gets the largest value added.
+     *
+     * @return The maximum, or NaN if the sketch is empty
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Estimates a quantile.
+     *
+     * @param fraction The fraction of values at or below the quantile, from 0 to 1
+     * @return The estimated quantile, or NaN if the sketch is empty
+     */
+    public double quantile(double fraction) {
+        return quantiles(fraction)[0];
+    }
+
+    /**
+     * Estimates several quantiles at once.
+     *
+     * @param fractions The fractions of values at or below each quantile, from 0 to 1
+     * @return The estimated quantiles in the order of the fractions, NaN if the sketch is empty
+     */
+    public double[] quantiles(double... fractions) {
+        double[] result = new double[fractions.length];
+        if (count == 0) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+
+        // Merge the sorted levels into one weighted sequence; the weights add up to the count
+        double[][] sorted = new double[levels.length][];
+        for (int h = 0; h < levels.length; h++) {
+            sorted[h] = Arrays.copyOf(levels[h], sizes[h]);
+            Arrays.sort(sorted[h]);
+        }
+        int[] heads = new int[levels.length];
+        double[] values = new double[retained];
+        long[] cumulative = new long[retained];
+        long weight = 0;
+        for (int i = 0; i < retained; i++) {
+            int next = -1;
+            for (int h = 0; h < sorted.length; h++) {
+                if (heads[h] < sorted[h].length && (next < 0 || sorted[h][heads[h]] < sorted[next][heads[next]])) {
+                    next = h;
+                }
+            }
+            values[i] = sorted[next][heads[next]++];
+            weight += 1L << next;
+            cumulative[i] = weight;
+        }
+
+        for (int q = 0; q < fractions.length; q++) {
+            if (fractions[q] <= 0) {
+                result[q] = min;
+            } else if (fractions[q] >= 1) {
+                result[q] = max;
+            } else {
+                long rank = (long) Math.ceil(fractions[q] * count);
+                int index = Arrays.binarySearch(cumulative, rank);
+                result[q] = values[index >= 0 ? index : -index - 1];
+            }
+        }
+        return result;
+    }
+
+    private void append(int level, double value) {
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+        }
+        levels[level][sizes[level]++] = value;
+        retained++;
+    }
+
+    /**
+     * Compacts full levels from the bottom up until the sketch is within its capacity again.
+     */
+    private void compress() {
+        for (int h = 0; h < levels.length; h++) {
+            if (sizes[h] >= levelCapacity(h)) {
+                if (h + 1 == levels.length) {
+                    grow();
+                }
+                compact(h);
+                if (retained < capacity) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorts a level and moves every other value of it one level up. With an odd number of values
+     * the smallest one stays.
+     */
+    private void compact(int level) {
+        double[] values = levels[level];
+        int size = sizes[level];
+        Arrays.sort(values, 0, size);
+        int first = size & 1;
+        int offset = compactions[level]++ & 1;
+        for (int i = first + offset; i < size; i += 2) {
+            append(level + 1, values[i]);
+        }
+        retained -= size - first;
+        sizes[level] = first;
+    }
+
+    private void grow() {
+        int height = levels.length + 1;
+        levels = Arrays.copyOf(levels, height);
+        levels[height - 1] = new double[16];
+        sizes = Arrays.copyOf(sizes, height);
+        compactions = Arrays.copyOf(compactions, height);
+        capacity = 0;
+        for (int h = 0; h < height; h++) {
+            capacity += levelCapacity(h);
+        }
+    }
+
+    private int levelCapacity(int level) {
+        int depth = levels.length - level - 1;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(SHRINK, depth)));
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.aggregate;
+
+import java.util.Arrays;
+
+/**
+ * Counters of every rollup level in flat long arrays, one row of {@link #FIELDS} values per entity.
+ * Each aggregation worker fills its own accumulator; they are summed with {@link #merge} at the end.
+ */
+class RollupAccumulator {
+
+    static final int TOTAL = 0;
+    // Fields 1-4 are the status counters, indexed by the status codes of TaskChunk
+    static final int TODO = TaskChunk.STATUS_TODO;
+    static final int IN_PROGRESS = TaskChunk.STATUS_IN_PROGRESS;
+    static final int DONE = TaskChunk.STATUS_DONE;
+    static final int CANCELED = TaskChunk.STATUS_CANCELED;
+    static final int OVERDUE = 5;
+    static final int PROGRESS_SUM = 6;
+    static final int PROGRESS_COUNT = 7;
+    static final int MILESTONES = 8;
+    static final int OVERDUE_MILESTONES = 9;
+    static final int FIELDS = 10;
+
+    final long[] users;
+    final long[] teams;
+    final long[] cells;
+    final long[] projects;
+    final long[] organisation = new long[FIELDS];
+
+    // Teams of the current task, to count a task once per team however many members work on it
+    private int[] taskTeams = new int[8];
+
+    RollupAccumulator(OrgStructure structure) {
+        this.users = new long[structure.userNames.length * FIELDS];
+        this.teams = new long[structure.teamNames.length * FIELDS];
+        this.cells = new long[structure.cellCount * FIELDS];
+        this.projects = new long[structure.projectNames.length * FIELDS];
+    }
+
+    /**
+     * Adds every task of a chunk to the user, team, team-in-project, project and organisation counters.
+     *
+     * @param chunk The tasks
+     * @param structure The organisation the tasks belong to
+     */
+    void addChunk(TaskChunk chunk, OrgStructure structure) {
+        int start = 0;
+        for (int i = 0; i < chunk.size; i++) {
+            int end = chunk.assigneeEnd[i];
+            int project = chunk.projects[i];
+            byte status = chunk.statuses[i];
+            int progress = chunk.progress[i];
+            boolean overdue = chunk.overdue[i];
+
+            add(organisation, 0, status, progress, overdue);
+            if (structure.isProject(project)) {
+                add(projects, project, status, progress, overdue);
+            }
+
+            int teamCount = 0;
+            for (int j = start; j < end; j++) {
+                int user = chunk.assignees[j];
+                if (!structure.isUser(user)) {
+                    continue;
+                }
+                add(users, user, status, progress, overdue);
+                int team = structure.teamOf[user];
+                if (!contains(taskTeams, teamCount, team)) {
+                    if (teamCount == taskTeams.length) {
+                        taskTeams = Arrays.copyOf(taskTeams, teamCount * 2);
+                    }
+                    taskTeams[teamCount++] = team;
+                    add(teams, team, status, progress, overdue);
+                    int cell = structure.cell(team, project);
+                    if (cell >= 0) {
+                        add(cells, cell, status, progress, overdue);
+                    }
+                }
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Adds a milestone to the project and organisation counters.
+     *
+     * @param project The project ID
+     * @param overdue Whether the milestone is past its deadline and not finished
+     * @param structure The organisation the milestone belongs to
+     */
+    void addMilestone(int project, boolean overdue, OrgStructure structure) {
+        organisation[MILESTONES]++;
+        if (overdue) {
+            organisation[OVERDUE_MILESTONES]++;
+        }
+        if (structure.isProject(project)) {
+            int base = project * FIELDS;
+            projects[base + MILESTONES]++;
+            if (overdue) {
+                projects[base + OVERDUE_MILESTONES]++;
+            }
+        }
+    }
+
+    /**
+     * Adds the counters of another accumulator over the same structure to this one.
+     *
+     * @param other The accumulator to add
+     */
+    void merge(RollupAccumulator other) {
+        sum(users, other.users);
+        sum(teams, other.teams);
+        sum(cells, other.cells);
+        sum(projects, other.projects);
+        sum(organisation, other.organisation);
+    }
+
+    private static void add(long[] values, int entity, byte status, int progress, boolean overdue) {
+        int base = entity * FIELDS;
+        values[base + TOTAL]++;
+        if (status != TaskChunk.STATUS_UNKNOWN) {
+            values[base + status]++;
+        }
+        if (overdue) {
+            values[base + OVERDUE]++;
+        }
+        // Canceled tasks do not count towards the average progress
+        if (progress >= 0 && status != TaskChunk.STATUS_CANCELED) {
+            values[base + PROGRESS_SUM] += progress;
+            values[base + PROGRESS_COUNT]++;
+        }
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void sum(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i];
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.aggregate;
+
+/**
+ * Task and milestone figures of one user, team, team within a project, project or the whole
+ * organisation. Milestones are counted for projects and the organisation only.
+ */
+public class RollupTotals {
+    private final long totalTasks;
+    private final long todo;
+    private final long inProgress;
+    private final long done;
+    private final long canceled;
+    private final long overdue;
+    private final long progressSum;
+    private final long progressCount;
+    private final long milestones;
+    private final long overdueMilestones;
+
+    RollupTotals(long[] values, int entity) {
+        int base = entity * RollupAccumulator.FIELDS;
+        this.totalTasks = values[base + RollupAccumulator.TOTAL];
+        this.todo = values[base + RollupAccumulator.TODO];
+        this.inProgress = values[base + RollupAccumulator.IN_PROGRESS];
+        this.done = values[base + RollupAccumulator.DONE];
+        this.canceled = values[base + RollupAccumulator.CANCELED];
+        this.overdue = values[base + RollupAccumulator.OVERDUE];
+        this.progressSum = values[base + RollupAccumulator.PROGRESS_SUM];
+        this.progressCount = values[base + RollupAccumulator.PROGRESS_COUNT];
+        this.milestones = values[base + RollupAccumulator.MILESTONES];
+        this.overdueMilestones = values[base + RollupAccumulator.OVERDUE_MILESTONES];
+    }
+
+    public long getTotalTasks() {
+        return totalTasks;
+    }
+
+    public long getTodo() {
+        return todo;
+    }
+
+    public long getInProgress() {
+        return inProgress;
+    }
+
+    public long getDone() {
+        return done;
+    }
+
+    public long getCanceled() {
+        return canceled;
+    }
+
+    public long getOverdue() {
+        return overdue;
+    }
+
+    public long getMilestones() {
+        return milestones;
+    }
+
+    public long getOverdueMilestones() {
+        return overdueMilestones;
+    }
+
+    /**
+     * Gets the share of completed tasks.
+     *
+     * @return The percentage of completed tasks, 0 without tasks
+     */
+    public double getCompletionRate() {
+        return totalTasks > 0 ? done * 100.0 / totalTasks : 0;
+    }
+
+    /**
+     * Gets the average progress of the tasks that are not canceled.
+     *
+     * @return The average progress, 0 without such tasks
+     */
+    public double getAverageProgress() {
+        return progressCount > 0 ? (double) progressSum / progressCount : 0;
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.aggregate;
+
+import java.util.Arrays;
+
+/**
+ * A batch of task rows in primitive arrays, handed from the thread reading the database to an
+ * aggregation worker. The assignees of a task are never split across chunks.
+ */
+class TaskChunk {
+
+    static final int CAPACITY = 4096;
+
+    // Status codes, equal to the field indexes of the status counters in RollupAccumulator
+    static final byte STATUS_UNKNOWN = 0;
+    static final byte STATUS_TODO = 1;
+    static final byte STATUS_IN_PROGRESS = 2;
+    static final byte STATUS_DONE = 3;
+    static final byte STATUS_CANCELED = 4;
+
+    final int[] projects = new int[CAPACITY];
+    final byte[] statuses = new byte[CAPACITY];
+    // Task progress, -1 if not set
+    final byte[] progress = new byte[CAPACITY];
+    final boolean[] overdue = new boolean[CAPACITY];
+    // Exclusive end of each task's assignees in the assignees array
+    final int[] assigneeEnd = new int[CAPACITY];
+    int[] assignees = new int[CAPACITY];
+    int size;
+    int assigneeCount;
+
+    boolean isFull() {
+        return size == CAPACITY;
+    }
+
+    /**
+     * Appends a task without assignees.
+     */
+    void addTask(int project, byte status, int taskProgress, boolean taskOverdue) {
+        projects[size] = project;
+        statuses[size] = status;
+        progress[size] = (byte) taskProgress;
+        overdue[size] = taskOverdue;
+        assigneeEnd[size] = assigneeCount;
+        size++;
+    }
+
+    /**
+     * Adds an assignee to the last appended task.
+     */
+    void addAssignee(int user) {
+        if (assigneeCount == assignees.length) {
+            assignees = Arrays.copyOf(assignees, assignees.length * 2);
+        }
+        assignees[assigneeCount++] = user;
+        assigneeEnd[size - 1] = assigneeCount;
+    }
+
+    static byte statusCode(String status) {
+        if (status == null) {
+            return STATUS_UNKNOWN;
+        }
+        switch (status) {
+            case "doZrobienia":
+                return STATUS_TODO;
+            case "wTrakcie":
+                return STATUS_IN_PROGRESS;
+            case "zrobione":
+                return STATUS_DONE;
+            case "anulowane":
+                return STATUS_CANCELED;
+            default:
+                return STATUS_UNKNOWN;
+        }
+    }
+}
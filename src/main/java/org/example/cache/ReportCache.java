@@ -0,0 +1,372 @@
+package org.example.cache;
+
+import org.example.ReportBuffer;
+import org.example.ReportRequest;
+import org.example.data.ReportDataSources;
+import org.example.metrics.ReportMetrics;
+import org.example.metrics.ReportUsage;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Disk cache of generated reports.
+ * <p>
+ * Reports are stored under a key built from the report type, its normalised parameters and the
+ * current data version (see {@link ReportRequest#cacheKey(String)}), so a change in the data
+ * simply leads to a different key. A hit copies the stored file without running any query or
+ * layout. Rendered sections of multi-entity reports are kept here as well, see {@link SectionKeys}.
+ * The total size is bounded; least recently used files are removed first, and the
+ * file modification time keeps that order between runs.
+ * <p>
+ * A hit returns the stored bytes unchanged, so the "Wygenerowano" time printed in the report is
+ * the time the first copy was generated, possibly hours earlier on the same day. The data shown
+ * is still current: any change since then leads to a different key.
+ * <p>
+ * Hits and misses per report type are recorded in {@link ReportMetrics}.
+ * <p>
+ * Settings: {@code -Dpz.cache.enabled} (default true), {@code -Dpz.cache.dir}
+ * (default {@code ~/.pzreports/cache}), {@code -Dpz.cache.maxBytes} (default 512 MB).
+ */
+public class ReportCache {
+
+    private static final String EXTENSION = ".pdf";
+
+    private static ReportCache shared;
+
+    private final Path directory;
+    private final long maxBytes;
+    // Access-ordered: the first entry is the least recently used one
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private long hits;
+    private long misses;
+
+    /**
+     * Opens a cache in the given directory, picking up files stored by earlier runs.
+     *
+     * @param directory The directory holding cached reports
+     * @param maxBytes The maximum total size of cached reports
+     * @throws IOException If the directory cannot be created or read
+     */
+    public ReportCache(Path directory, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+
+        Files.createDirectories(directory);
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.filter(path -> path.getFileName().toString().endsWith(EXTENSION)).forEach(files::add);
+        }
+        files.sort(Comparator.comparing(ReportCache::lastModified));
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long size = Files.size(file);
+            entries.put(name.substring(0, name.length() - EXTENSION.length()), size);
+            totalBytes += size;
+        }
+        evict();
+    }
+
+    // Disabled cache: every request is generated
+    private ReportCache() {
+        this.directory = null;
+        this.maxBytes = 0;
+    }
+
+    /**
+     * Gets the cache configured through system properties.
+     * If the cache is disabled or its directory cannot be used, the returned cache generates every report.
+     *
+     * @return The shared cache
+     */
+    public static synchronized ReportCache shared() {
+        if (shared == null) {
+            if (!Boolean.parseBoolean(System.getProperty("pz.cache.enabled", "true"))) {
+                shared = new ReportCache();
+            } else {
+                Path dir = Path.of(System.getProperty("pz.cache.dir",
+                        new File(System.getProperty("user.home"), ".pzreports/cache").getPath()));
+                long maxBytes = Long.getLong("pz.cache.maxBytes", 512L * 1024 * 1024);
+                try {
+                    shared = new ReportCache(dir, maxBytes);
+                } catch (IOException e) {
+                    System.err.println("Nie można użyć katalogu cache " + dir + ": " + e.getMessage());
+                    shared = new ReportCache();
+                }
+            }
+        }
+        return shared;
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Writes the requested report to the stream, from the cache when the data has not changed.
+     * The stream is left open.
+     *
+     * @param request The report to generate
+     * @param out The stream receiving the PDF bytes
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public void generate(ReportRequest request, OutputStream out) throws SQLException, IOException {
+        long start = System.nanoTime();
+        // A cache hit generates nothing, so the usage of an earlier report must not be shown for it
+        ReportUsage.clearLast();
+        String result = generateCached(request, out);
+        ReportMetrics.recordRequest(request.getType(), result, System.nanoTime() - start);
+    }
+
+    // Returns how the request was answered: "hit", "miss" or "off"
+    private String generateCached(ReportRequest request, OutputStream out) throws SQLException, IOException {
+        if (!isEnabled()) {
+            request.generate(out);
+            return "off";
+        }
+
+        String dataVersion;
+        try {
+            dataVersion = ReportDataSources.getDefault().versionToken();
+        } catch (SQLException e) {
+            System.err.println("Nie można odczytać wersji danych, raport bez cache: " + e.getMessage());
+            request.generate(out);
+            return "off";
+        }
+        if (dataVersion == null) {
+            request.generate(out);
+            return "off";
+        }
+
+        String key = request.cacheKey(dataVersion);
+        if (copyTo(key, out)) {
+            return "hit";
+        }
+
+        // Write to the caller and to a temporary file at the same time; keep the file only on success
+        Path temp = Files.createTempFile(directory, "report", ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp)) {
+                request.generate(new TeeOutputStream(out, file));
+            }
+            store(key, temp);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return "miss";
+    }
+
+    /**
+     * Generates the requested report into a file, named like the files of the report generators.
+     *
+     * @param request The report to generate
+     * @param customFileName Custom file name without extension, or null
+     * @param selectedDirectory Directory to save the report, or null for the Documents folder
+     * @return The written file
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    public File generateToFile(ReportRequest request, String customFileName, File selectedDirectory) throws SQLException, IOException {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+        String fileName = (customFileName != null && !customFileName.isEmpty())
+                ? customFileName + ".pdf"
+                : request.getType().getFilePrefix() + timestamp + ".pdf";
+
+        File file = (selectedDirectory != null)
+                ? new File(selectedDirectory, fileName)
+                : new File(System.getProperty("user.home"), "Documents/" + fileName);
+
+        try (OutputStream out = new FileOutputStream(file)) {
+            generate(request, out);
+        }
+
+        System.out.println("Raport zapisany jako: " + file.getAbsolutePath());
+        return file;
+    }
+
+    /**
+     * Copies a cached entry to the stream.
+     *
+     * @param key The cache key
+     * @param out The target stream
+     * @return True on a hit, false if the key is not cached
+     * @throws IOException If an I/O error occurs
+     */
+    public boolean copyTo(String key, OutputStream out) throws IOException {
+        Path file;
+        synchronized (this) {
+            if (entries.get(key) == null) {
+                misses++;
+                return false;
+            }
+            file = fileFor(key);
+        }
+
+        InputStream in;
+        try {
+            in = Files.newInputStream(file);
+        } catch (NoSuchFileException e) {
+            // Removed by another process in the meantime; the caller generates the report
+            synchronized (this) {
+                misses++;
+                Long size = entries.remove(key);
+                if (size != null) {
+                    totalBytes -= size;
+                }
+            }
+            return false;
+        }
+
+        try (in) {
+            synchronized (this) {
+                hits++;
+            }
+            try {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (NoSuchFileException e) {
+                // Removed after it was opened; the open stream still reads it
+            }
+            in.transferTo(out);
+            return true;
+        }
+    }
+
+    /**
+     * Moves a finished file into the cache under the given key.
+     *
+     * @param key The cache key
+     * @param source The file to move; it must be in the cache directory
+     * @throws IOException If the file cannot be moved
+     */
+    public void store(String key, Path source) throws IOException {
+        long size = Files.size(source);
+        if (size > maxBytes) {
+            return;
+        }
+        Files.move(source, fileFor(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        synchronized (this) {
+            Long previous = entries.put(key, size);
+            totalBytes += size - (previous != null ? previous : 0);
+            evict();
+        }
+    }
+
+    /**
+     * Stores the contents of a buffer under the given key.
+     *
+     * @param key The cache key
+     * @param data The bytes to store; the buffer is not released
+     * @throws IOException If the file cannot be written
+     */
+    public void put(String key, ReportBuffer data) throws IOException {
+        Path temp = Files.createTempFile(directory, "entry", ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp)) {
+                data.writeTo(file);
+            }
+            store(key, temp);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private synchronized void evict() {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            try {
+                Files.deleteIfExists(fileFor(eldest.getKey()));
+            } catch (IOException e) {
+                // A file still open for reading may not be deletable yet, it will be retried next time
+                continue;
+            }
+            totalBytes -= eldest.getValue();
+            it.remove();
+        }
+    }
+
+    /**
+     * Gets the directory of the cache, for storing temporary files next to the entries.
+     *
+     * @return The cache directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private Path fileFor(String key) {
+        return directory.resolve(key + EXTENSION);
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    /**
+     * Writes the same bytes to two streams.
+     */
+    private static class TeeOutputStream extends OutputStream {
+        private final OutputStream first;
+        private final OutputStream second;
+
+        TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            first.write(b, off, len);
+            second.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.cache;
+
+import org.example.data.ChangeTracker;
+
+import java.util.Map;
+
+/**
+ * Cache keys of rendered report sections.
+ * A key combines the entity ID with its newest data version (the DataChanges log for MySQL), so a
+ * section is rendered again only after the data of its project or user has changed.
+ */
+public class SectionKeys {
+
+    private final String prefix;
+    private final Map<Integer, Long> versions;
+
+    private SectionKeys(String prefix, Map<Integer, Long> versions) {
+        this.prefix = prefix;
+        this.versions = versions;
+    }
+
+    /**
+     * Creates the section keys from the versions of the given entities.
+     *
+     * @param cache The cache the sections will be stored in
+     * @param entity The kind of entity each section shows
+     * @param versions Map of entity ID to its version, or null if the data source does not track changes
+     * @param layout Name of the section layout; sections with different layouts never share a key
+     * @return The section keys, or null if the cache is disabled or there are no versions
+     */
+    public static SectionKeys create(ReportCache cache, ChangeTracker.Entity entity,
+                                     Map<Integer, Long> versions, String layout) {
+        if (!cache.isEnabled() || versions == null) {
+            return null;
+        }
+        return new SectionKeys("section-" + entity.getColumnValue() + "-" + layout + "-", versions);
+    }
+
+    /**
+     * Gets the cache key of the section of an entity.
+     *
+     * @param id The entity ID
+     * @return The cache key, or null if the entity was not part of the loaded IDs
+     */
+    public String keyFor(int id) {
+        Long version = versions.get(id);
+        return version != null ? prefix + id + "-v" + version : null;
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read access to the DataChanges log, which the schema triggers fill with a new version
+ * every time the report data of a project or a user changes.
+ * <p>
+ * Versions are taken when a row is written, not when its transaction commits, so a long
+ * transaction may commit a version lower than one already read. Callers keeping a watermark
+ * for a long time should occasionally re-read from an older version.
+ */
+public class ChangeTracker {
+
+    private static final int QUERY_CHUNK_SIZE = 1000;
+
+    /**
+     * Kinds of entities tracked in the change log, with their names in the entity_type column.
+     */
+    public enum Entity {
+        PROJECT("projekt"),
+        USER("uzytkownik");
+
+        private final String columnValue;
+
+        Entity(String columnValue) {
+            this.columnValue = columnValue;
+        }
+
+        public String getColumnValue() {
+            return columnValue;
+        }
+    }
+
+    /**
+     * Reads the newest data version.
+     *
+     * @param conn The database connection
+     * @return The newest version, 0 if nothing was logged yet
+     * @throws SQLException If a database error occurs
+     */
+    public static long currentVersion(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT COALESCE(MAX(version), 0) FROM DataChanges");
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Lists the projects and users changed after the given version.
+     *
+     * @param conn The database connection
+     * @param version The last version already known to the caller
+     * @return The changed entities and the version to continue from
+     * @throws SQLException If a database error occurs
+     */
+    public static DataChangeSet changesSince(Connection conn, long version) throws SQLException {
+        Set<Integer> projectIds = new LinkedHashSet<>();
+        Set<Integer> userIds = new LinkedHashSet<>();
+        long toVersion = version;
+
+        String query = "SELECT entity_type, entity_id, MAX(version) AS version FROM DataChanges " +
+                "WHERE version > ? GROUP BY entity_type, entity_id ORDER BY version";
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setLong(1, version);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (Entity.PROJECT.getColumnValue().equals(rs.getString("entity_type"))) {
+                        projectIds.add(rs.getInt("entity_id"));
+                    } else {
+                        userIds.add(rs.getInt("entity_id"));
+                    }
+                    toVersion = Math.max(toVersion, rs.getLong("version"));
+                }
+            }
+        }
+        return new DataChangeSet(version, toVersion, projectIds, userIds);
+    }
+
+    /**
+     * Reads the newest version of each given project or user.
+     * Entities never changed since the log was created get version 0.
+     *
+     * @param conn The database connection
+     * @param entity The kind of the entities
+     * @param ids The entity IDs
+     * @return Map of entity ID to its newest version
+     * @throws SQLException If a database error occurs
+     */
+    public static Map<Integer, Long> entityVersions(Connection conn, Entity entity, Collection<Integer> ids) throws SQLException {
+        Map<Integer, Long> versions = new HashMap<>();
+        for (Integer id : ids) {
+            versions.put(id, 0L);
+        }
+        if (ids.isEmpty()) {
+            return versions;
+        }
+
+        // Query in chunks to keep the IN list at a reasonable size
+        List<Integer> idList = new ArrayList<>(versions.keySet());
+        for (int from = 0; from < idList.size(); from += QUERY_CHUNK_SIZE) {
+            List<Integer> chunk = idList.subList(from, Math.min(from + QUERY_CHUNK_SIZE, idList.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            String query = "SELECT entity_id, MAX(version) FROM DataChanges " +
+                    "WHERE entity_type = ? AND entity_id IN (" + placeholders + ") GROUP BY entity_id";
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setString(1, entity.getColumnValue());
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setInt(i + 2, chunk.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        versions.put(rs.getInt(1), rs.getLong(2));
+                    }
+                }
+            }
+        }
+        return versions;
+    }
+}
@@ -0,0 +1,323 @@
+package org.example.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only view of a columnar snapshot file, mapped into memory.
+ * <p>
+ * File layout (big-endian): the column data of every table, then the directory, then the offset of
+ * the directory as the last eight bytes. The directory holds the magic number, the format version,
+ * the creation time, the date the overdue figures were computed for, the change log versions the
+ * file covers, and for each table its name, row count and columns (name, type, offset of the data). Column data is one of:
+ * <ul>
+ *     <li>{@link #INT}: one int per row, {@link #NULL_INT} for null</li>
+ *     <li>{@link #DOUBLE}: one double per row</li>
+ *     <li>{@link #STRING}: a dictionary (entry count, entry count + 1 byte offsets, UTF-8 bytes)
+ *     followed by one dictionary code per row, -1 for null</li>
+ * </ul>
+ * Values are read straight from the mapping; strings are decoded once per dictionary entry.
+ * <p>
+ * A full snapshot holds every row. A delta segment holds only the rows of the users and projects
+ * changed since an earlier snapshot, listed in its {@link #CHANGED_USERS} and {@link #CHANGED_PROJECTS}
+ * tables; a changed entity without rows was deleted. Written by {@link ColumnarSnapshotWriter} and
+ * {@link SnapshotDeltaSync}, read together by {@link SnapshotChain}.
+ */
+public class ColumnarSnapshot {
+
+    static final int MAGIC = 0x505A534E;
+    static final int FORMAT_VERSION = 2;
+
+    static final byte INT = 1;
+    static final byte DOUBLE = 2;
+    static final byte STRING = 3;
+
+    static final int NULL_INT = Integer.MIN_VALUE;
+
+    // Start version of a full snapshot, and the version of a snapshot taken without the change log
+    static final long FULL = -1;
+    static final long UNKNOWN_VERSION = -1;
+
+    static final String EMPLOYEES = "employees";
+    static final String PROJECTS = "projects";
+    static final String EXECUTIVE_OVERVIEWS = "executive_overviews";
+    static final String ASSIGNMENTS = "assignments";
+    static final String CHANGED_USERS = "changed_users";
+    static final String CHANGED_PROJECTS = "changed_projects";
+
+    private final ByteBuffer buffer;
+    private final long createdAt;
+    private final int dataDay;
+    private final long fromVersion;
+    private final long version;
+    private final Map<String, Table> tables = new HashMap<>();
+
+    private ColumnarSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        int limit = buffer.limit();
+        if (limit < 8) {
+            throw new IOException("Nieprawidłowy plik migawki");
+        }
+        long directory = buffer.getLong(limit - 8);
+        if (directory < 0 || directory > limit - 8) {
+            throw new IOException("Nieprawidłowy plik migawki");
+        }
+        ByteBuffer in = buffer.duplicate().position((int) directory);
+        if (in.getInt() != MAGIC) {
+            throw new IOException("Nieprawidłowy plik migawki");
+        }
+        int version = in.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Nieobsługiwana wersja pliku migawki: " + version);
+        }
+        this.createdAt = in.getLong();
+        this.dataDay = in.getInt();
+        this.fromVersion = in.getLong();
+        this.version = in.getLong();
+        int tableCount = in.getInt();
+        for (int t = 0; t < tableCount; t++) {
+            String name = readName(in);
+            int rows = in.getInt();
+            int columnCount = in.getInt();
+            Table table = new Table(rows);
+            for (int c = 0; c < columnCount; c++) {
+                String column = readName(in);
+                byte type = in.get();
+                int offset = (int) in.getLong();
+                table.columns.put(column, type == STRING ? new StringColumn(offset, rows) : new Column(type, offset));
+            }
+            tables.put(name, table);
+        }
+    }
+
+    /**
+     * Maps a snapshot file into memory.
+     *
+     * @param file The snapshot file
+     * @return The snapshot
+     * @throws IOException If the file cannot be read or is not a snapshot
+     */
+    public static ColumnarSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Plik migawki jest większy niż 2 GB: " + file);
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ColumnarSnapshot(buffer);
+        }
+    }
+
+    /**
+     * Gets the time the snapshot was written.
+     *
+     * @return Milliseconds since the epoch
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Gets the day the overdue figures of the snapshot were computed for.
+     *
+     * @return The epoch day of the database date at export time
+     */
+    public int getDataDay() {
+        return dataDay;
+    }
+
+    /**
+     * Gets the change log version after which the rows of a delta segment were read.
+     *
+     * @return The version, or {@link #FULL} for a full snapshot
+     */
+    public long getFromVersion() {
+        return fromVersion;
+    }
+
+    /**
+     * Gets the newest change log version included in the snapshot.
+     *
+     * @return The version, or {@link #UNKNOWN_VERSION} if the database had no change log
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks whether the snapshot is a delta segment.
+     *
+     * @return True for a delta segment, false for a full snapshot
+     */
+    public boolean isDelta() {
+        return fromVersion != FULL;
+    }
+
+    /**
+     * Gets a table of the snapshot.
+     *
+     * @param name The table name
+     * @return The table
+     * @throws IllegalStateException If the snapshot has no such table
+     */
+    Table table(String name) {
+        Table table = tables.get(name);
+        if (table == null) {
+            throw new IllegalStateException("Brak tabeli " + name + " w migawce");
+        }
+        return table;
+    }
+
+    private static String readName(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The columns of one table.
+     */
+    class Table {
+        final int rows;
+        // In file order, so that a copy of the table keeps the layout
+        private final Map<String, Column> columns = new LinkedHashMap<>();
+
+        private Table(int rows) {
+            this.rows = rows;
+        }
+
+        Column column(String name) {
+            Column column = columns.get(name);
+            if (column == null) {
+                throw new IllegalStateException("Brak kolumny " + name + " w migawce");
+            }
+            return column;
+        }
+
+        Set<String> columnNames() {
+            return columns.keySet();
+        }
+
+        StringColumn strings(String name) {
+            Column column = column(name);
+            if (!(column instanceof StringColumn)) {
+                throw new IllegalStateException("Kolumna " + name + " migawki nie jest tekstowa");
+            }
+            return (StringColumn) column;
+        }
+
+        /**
+         * Finds the first row with the given value in an ascending int column.
+         *
+         * @param column The sorted column
+         * @param value The value to find
+         * @return The row, or -1 if no row has the value
+         */
+        int find(Column column, int value) {
+            int low = 0;
+            int high = rows;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (column.getInt(middle) < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low < rows && column.getInt(low) == value ? low : -1;
+        }
+    }
+
+    /**
+     * A column of ints or doubles.
+     */
+    class Column {
+        final byte type;
+        final int offset;
+
+        private Column(byte type, int offset) {
+            this.type = type;
+            this.offset = offset;
+        }
+
+        int getInt(int row) {
+            return buffer.getInt(offset + row * 4);
+        }
+
+        double getDouble(int row) {
+            return buffer.getDouble(offset + row * 8);
+        }
+
+        /**
+         * Reads a value as a number, for sorting and ranking.
+         *
+         * @param row The row
+         * @return The value; null and non-numeric text count as 0
+         */
+        double getNumber(int row) {
+            if (type == DOUBLE) {
+                return getDouble(row);
+            }
+            int value = getInt(row);
+            return value == NULL_INT ? 0 : value;
+        }
+    }
+
+    /**
+     * A dictionary-encoded column of strings.
+     */
+    class StringColumn extends Column {
+        private final int entries;
+        private final int bytesStart;
+        private final int codesStart;
+        // Decoded dictionary entries; a race only decodes an entry twice
+        private final String[] decoded;
+
+        private StringColumn(int offset, int rows) {
+            super(STRING, offset);
+            this.entries = buffer.getInt(offset);
+            this.bytesStart = offset + 4 + (entries + 1) * 4;
+            this.codesStart = bytesStart + buffer.getInt(offset + 4 + entries * 4);
+            this.decoded = new String[entries];
+        }
+
+        String get(int row) {
+            int code = buffer.getInt(codesStart + row * 4);
+            if (code < 0) {
+                return null;
+            }
+            String value = decoded[code];
+            if (value == null) {
+                int start = buffer.getInt(offset + 4 + code * 4);
+                int end = buffer.getInt(offset + 4 + (code + 1) * 4);
+                byte[] bytes = new byte[end - start];
+                buffer.get(bytesStart + start, bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+                decoded[code] = value;
+            }
+            return value;
+        }
+
+        @Override
+        double getNumber(int row) {
+            String value = get(row);
+            if (value == null) {
+                return 0;
+            }
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,505 @@
+package org.example.data;
+
+import org.example.DatabaseConnector;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports the rows the reports are built from into a {@link ColumnarSnapshot} file, so that
+ * {@link MappedSnapshotDataSource} can generate reports without the database.
+ * <p>
+ * The snapshot holds the employee, project progress and executive overview rows of the views, plus
+ * one row per task assignment for the reports of a period. Run it periodically, e.g. from cron:
+ * {@code java -cp ... org.example.data.ColumnarSnapshotWriter /path/to/reports.snapshot}, or export
+ * once and keep the file current with {@link SnapshotDeltaSync}.
+ * The file is written next to the target and moved over it when complete, so readers never see
+ * a partly written snapshot.
+ */
+public class ColumnarSnapshotWriter {
+
+    // Rows for the reports of a period; grouped by user, in task order like the period query reads them
+    private static final String ASSIGNMENT_QUERY =
+            "SELECT ta.user_id, t.title, t.status, t.created_at, t.deadline " +
+            "FROM TaskAssignments ta JOIN Tasks t ON t.id = ta.task_id " +
+            "WHERE t.created_at IS NOT NULL ORDER BY ta.user_id, t.id";
+
+    private static final int QUERY_CHUNK_SIZE = 1000;
+
+    // MySQL error code for a missing table
+    private static final int ER_NO_SUCH_TABLE = 1146;
+
+    private final Map<String, TableBuilder> tables = new LinkedHashMap<>();
+    private final long fromVersion;
+    private long version = ColumnarSnapshot.UNKNOWN_VERSION;
+    private long createdAt = System.currentTimeMillis();
+    private int dataDay;
+
+    private ColumnarSnapshotWriter(long fromVersion) {
+        this.fromVersion = fromVersion;
+    }
+
+    /**
+     * Exports the current database into a snapshot file.
+     * Delta segments of an earlier snapshot in the same place are removed.
+     *
+     * @param file The snapshot file to write or replace
+     * @return The number of rows written
+     * @throws SQLException If a database error occurs
+     * @throws IOException If the file cannot be written
+     */
+    public static int export(Path file) throws SQLException, IOException {
+        ColumnarSnapshotWriter writer = new ColumnarSnapshotWriter(ColumnarSnapshot.FULL);
+        try (Connection conn = DatabaseConnector.getReadConnection()) {
+            // Read before the rows, so that changes made during the export are read again by the next sync
+            writer.version = currentVersion(conn);
+            writer.addRows(conn, null, null);
+        }
+        writer.write(file);
+        SnapshotChain.deleteDeltas(file, writer.createdAt);
+        return writer.rows();
+    }
+
+    /**
+     * Exports the rows of the given users and projects into a delta segment.
+     *
+     * @param conn The database connection
+     * @param file The segment file to write
+     * @param fromVersion The change log version after which the changes were read
+     * @param version The newest change log version included
+     * @param createdAt The time of the segment, later than the snapshot it follows
+     * @param userIds The changed users
+     * @param projectIds The changed projects
+     * @return The number of rows written
+     * @throws SQLException If a database error occurs
+     * @throws IOException If the file cannot be written
+     */
+    static int exportDelta(Connection conn, Path file, long fromVersion, long version, long createdAt,
+                           Collection<Integer> userIds, Collection<Integer> projectIds) throws SQLException, IOException {
+        ColumnarSnapshotWriter writer = new ColumnarSnapshotWriter(fromVersion);
+        writer.version = version;
+        writer.createdAt = createdAt;
+        List<Integer> users = userIds.stream().sorted().distinct().toList();
+        List<Integer> projects = projectIds.stream().sorted().distinct().toList();
+        writer.addRows(conn, users, projects);
+
+        // The changed entities; those without rows above were deleted
+        TableBuilder changedUsers = writer.table(ColumnarSnapshot.CHANGED_USERS).ints("user_id");
+        for (int userId : users) {
+            changedUsers.addInt("user_id", userId);
+        }
+        TableBuilder changedProjects = writer.table(ColumnarSnapshot.CHANGED_PROJECTS).ints("project_id");
+        for (int projectId : projects) {
+            changedProjects.addInt("project_id", projectId);
+        }
+
+        writer.write(file);
+        return writer.rows();
+    }
+
+    /**
+     * Writes the rows of a snapshot and its delta segments into one full snapshot.
+     * The result has the time and versions of the newest part, so the merged segments are skipped
+     * when the file is read again.
+     *
+     * @param chain The snapshot and segments to merge
+     * @param file The snapshot file to replace
+     * @throws IOException If the file cannot be written
+     */
+    static void writeCompacted(SnapshotChain chain, Path file) throws IOException {
+        ColumnarSnapshotWriter writer = new ColumnarSnapshotWriter(ColumnarSnapshot.FULL);
+        writer.version = chain.getVersion();
+        writer.createdAt = chain.getCreatedAt();
+        writer.dataDay = chain.getDataDay();
+        for (String name : SnapshotChain.TABLES) {
+            SnapshotChain.Table source = chain.table(name);
+            TableBuilder target = writer.table(name);
+            for (String column : source.columnNames()) {
+                SnapshotChain.Column values = source.column(column);
+                target.declare(values.type(), column);
+                for (int row = 0; row < source.rows; row++) {
+                    switch (values.type()) {
+                        case ColumnarSnapshot.INT -> target.addInt(column, values.getInt(row));
+                        case ColumnarSnapshot.DOUBLE -> target.addDouble(column, values.getDouble(row));
+                        default -> target.addString(column, ((SnapshotChain.StringColumn) values).get(row));
+                    }
+                }
+            }
+        }
+        writer.write(file);
+    }
+
+    /**
+     * Reads the rows of the given users and projects, every table in ID order.
+     *
+     * @param conn The database connection
+     * @param userIds The sorted user IDs, or null for all users
+     * @param projectIds The sorted project IDs, or null for all projects
+     */
+    private void addRows(Connection conn, List<Integer> userIds, List<Integer> projectIds) throws SQLException, IOException {
+        // The overdue figures of the views are relative to the database date
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT CURDATE()");
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            dataDay = (int) rs.getDate(1).toLocalDate().toEpochDay();
+        }
+
+        List<EmployeePerformanceData> employeeRows = new ArrayList<>();
+        JdbcReportDataSource.forEachEmployee(conn, userIds, null, null, employeeRows::add);
+        employeeRows.sort(Comparator.comparingInt(EmployeePerformanceData::getUserId));
+        TableBuilder employees = table(ColumnarSnapshot.EMPLOYEES)
+                .ints("user_id", "total_tasks", "completed", "canceled", "overdue_tasks")
+                .strings("employee", "team_leader", "completed_tasks_titles", "pending_tasks_titles")
+                .doubles("completion_rate");
+        for (EmployeePerformanceData employee : employeeRows) {
+            employees.addInt("user_id", employee.getUserId());
+            employees.addString("employee", employee.getEmployee());
+            employees.addString("team_leader", employee.getTeamLeader());
+            employees.addInt("total_tasks", employee.getTotalTasks());
+            employees.addInt("completed", employee.getCompleted());
+            employees.addInt("canceled", employee.getCanceled());
+            employees.addInt("overdue_tasks", employee.getOverdueTasks());
+            employees.addString("completed_tasks_titles", employee.getCompletedTasksTitles());
+            employees.addString("pending_tasks_titles", employee.getPendingTasksTitles());
+            employees.addDouble("completion_rate", employee.getCompletionRate());
+        }
+
+        // The queries have no fixed order; the snapshot keeps every table in ID order
+        List<ProjectProgressData> projectRows = new ArrayList<>();
+        JdbcReportDataSource.forEachProject(conn, projectIds, null, null, projectRows::add);
+        projectRows.sort(Comparator.comparingInt(ProjectProgressData::getProjectId));
+        TableBuilder projects = table(ColumnarSnapshot.PROJECTS)
+                .ints("project_id", "manager_id")
+                .strings("project", "manager", "status", "overall_progress", "total_milestones", "milestone_names",
+                        "total_tasks", "task_titles", "completed_tasks", "canceled_tasks", "avg_milestone_progress",
+                        "involved_teams", "team_leaders");
+        for (ProjectProgressData project : projectRows) {
+            projects.addInt("project_id", project.getProjectId());
+            projects.addInt("manager_id", project.getManagerId());
+            projects.addString("project", project.getProject());
+            projects.addString("manager", project.getManager());
+            projects.addString("status", project.getStatus());
+            projects.addString("overall_progress", project.getOverallProgress());
+            projects.addString("total_milestones", project.getTotalMilestones());
+            projects.addString("milestone_names", project.getMilestoneNames());
+            projects.addString("total_tasks", project.getTotalTasks());
+            projects.addString("task_titles", project.getTaskTitles());
+            projects.addString("completed_tasks", project.getCompletedTasks());
+            projects.addString("canceled_tasks", project.getCanceledTasks());
+            projects.addString("avg_milestone_progress", project.getAvgMilestoneProgress());
+            projects.addString("involved_teams", project.getInvolvedTeams());
+            projects.addString("team_leaders", project.getTeamLeaders());
+        }
+
+        List<ExecutiveOverviewData> overviewRows = new ArrayList<>();
+        JdbcReportDataSource.forEachExecutiveOverview(conn, projectIds, null, null, false, false, null, null,
+                overviewRows::add);
+        overviewRows.sort(Comparator.comparingInt(ExecutiveOverviewData::getProjectId));
+        TableBuilder overviews = table(ColumnarSnapshot.EXECUTIVE_OVERVIEWS)
+                .ints("project_id", "manager_id")
+                .strings("project", "project_status", "project_progress", "project_manager", "teams_involved",
+                        "employees_assigned", "milestones", "total_tasks", "tasks_done", "tasks_canceled",
+                        "task_completion_rate", "avg_milestone_progress", "overdue_milestones", "overdue_tasks",
+                        "involved_teams", "team_leaders", "task_titles");
+        for (ExecutiveOverviewData overview : overviewRows) {
+            overviews.addInt("project_id", overview.getProjectId());
+            overviews.addInt("manager_id", overview.getManagerId());
+            overviews.addString("project", overview.getProject());
+            overviews.addString("project_status", overview.getProjectStatus());
+            overviews.addString("project_progress", overview.getProjectProgress());
+            overviews.addString("project_manager", overview.getProjectManager());
+            overviews.addString("teams_involved", overview.getTeamsInvolved());
+            overviews.addString("employees_assigned", overview.getEmployeesAssigned());
+            overviews.addString("milestones", overview.getMilestones());
+            overviews.addString("total_tasks", overview.getTotalTasks());
+            overviews.addString("tasks_done", overview.getTasksDone());
+            overviews.addString("tasks_canceled", overview.getTasksCanceled());
+            // Kept as null: a project without tasks never matches the completion rate filters
+            overviews.addString("task_completion_rate", overview.getTaskCompletionRateOrNull());
+            overviews.addString("avg_milestone_progress", overview.getAvgMilestoneProgress());
+            overviews.addString("overdue_milestones", overview.getOverdueMilestones());
+            overviews.addString("overdue_tasks", overview.getOverdueTasks());
+            overviews.addString("involved_teams", overview.getInvolvedTeams());
+            overviews.addString("team_leaders", overview.getTeamLeaders());
+            overviews.addString("task_titles", overview.getTaskTitles());
+        }
+
+        TableBuilder assignments = table(ColumnarSnapshot.ASSIGNMENTS)
+                .ints("user_id", "created_day", "deadline_day")
+                .strings("title", "status");
+        if (userIds == null) {
+            addAssignments(conn, assignments, List.of());
+            return;
+        }
+        // Query in chunks to keep the IN list at a reasonable size; sorted chunks keep the user order
+        for (int from = 0; from < userIds.size(); from += QUERY_CHUNK_SIZE) {
+            addAssignments(conn, assignments, userIds.subList(from, Math.min(from + QUERY_CHUNK_SIZE, userIds.size())));
+        }
+    }
+
+    // Reads the assignments of the given users, or of all users for an empty list
+    private static void addAssignments(Connection conn, TableBuilder assignments, List<Integer> userIds) throws SQLException {
+        String query = ASSIGNMENT_QUERY;
+        if (!userIds.isEmpty()) {
+            query = query.replace(" ORDER BY", " AND ta.user_id IN ("
+                    + String.join(", ", Collections.nCopies(userIds.size(), "?")) + ") ORDER BY");
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            for (int i = 0; i < userIds.size(); i++) {
+                stmt.setInt(i + 1, userIds.get(i));
+            }
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp created = rs.getTimestamp("created_at");
+                    Date deadline = rs.getDate("deadline");
+                    assignments.addInt("user_id", rs.getInt("user_id"));
+                    assignments.addInt("created_day", (int) created.toLocalDateTime().toLocalDate().toEpochDay());
+                    assignments.addInt("deadline_day", deadline != null
+                            ? (int) deadline.toLocalDate().toEpochDay() : ColumnarSnapshot.NULL_INT);
+                    assignments.addString("title", rs.getString("title"));
+                    assignments.addString("status", rs.getString("status"));
+                }
+            }
+        }
+    }
+
+    // The newest change log version, or UNKNOWN_VERSION on a database created before the change log
+    private static long currentVersion(Connection conn) throws SQLException {
+        try {
+            return ChangeTracker.currentVersion(conn);
+        } catch (SQLException e) {
+            if (e.getErrorCode() != ER_NO_SUCH_TABLE) {
+                throw e;
+            }
+            return ColumnarSnapshot.UNKNOWN_VERSION;
+        }
+    }
+
+    private int rows() {
+        int rows = 0;
+        for (TableBuilder table : tables.values()) {
+            rows += table.rows();
+        }
+        return rows;
+    }
+
+    private TableBuilder table(String name) {
+        TableBuilder table = new TableBuilder();
+        tables.put(name, table);
+        return table;
+    }
+
+    private void write(Path file) throws IOException {
+        Path target = file.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "snapshot", ".tmp");
+        try {
+            // DataOutputStream counts up to 2 GB, which is also the most a mapping can hold
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                Map<String, long[]> offsets = new LinkedHashMap<>();
+                for (Map.Entry<String, TableBuilder> table : tables.entrySet()) {
+                    long[] columnOffsets = new long[table.getValue().columns.size()];
+                    int c = 0;
+                    for (ColumnBuilder column : table.getValue().columns.values()) {
+                        columnOffsets[c++] = out.size();
+                        column.write(out, table.getValue().rows());
+                    }
+                    offsets.put(table.getKey(), columnOffsets);
+                }
+                if (out.size() == Integer.MAX_VALUE) {
+                    throw new IOException("Migawka przekracza 2 GB i nie może zostać zmapowana");
+                }
+
+                long directory = out.size();
+                out.writeInt(ColumnarSnapshot.MAGIC);
+                out.writeInt(ColumnarSnapshot.FORMAT_VERSION);
+                out.writeLong(createdAt);
+                out.writeInt(dataDay);
+                out.writeLong(fromVersion);
+                out.writeLong(version);
+                out.writeInt(tables.size());
+                for (Map.Entry<String, TableBuilder> table : tables.entrySet()) {
+                    writeName(out, table.getKey());
+                    out.writeInt(table.getValue().rows());
+                    out.writeInt(table.getValue().columns.size());
+                    int c = 0;
+                    for (Map.Entry<String, ColumnBuilder> column : table.getValue().columns.entrySet()) {
+                        writeName(out, column.getKey());
+                        out.writeByte(column.getValue().type);
+                        out.writeLong(offsets.get(table.getKey())[c++]);
+                    }
+                }
+                out.writeLong(directory);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeName(DataOutputStream out, String name) throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Declared columns of a table being exported. Every row sets every column once.
+     */
+    private static class TableBuilder {
+        private final Map<String, ColumnBuilder> columns = new LinkedHashMap<>();
+
+        TableBuilder ints(String... names) {
+            return declare(ColumnarSnapshot.INT, names);
+        }
+
+        TableBuilder doubles(String... names) {
+            return declare(ColumnarSnapshot.DOUBLE, names);
+        }
+
+        TableBuilder strings(String... names) {
+            return declare(ColumnarSnapshot.STRING, names);
+        }
+
+        TableBuilder declare(byte type, String... names) {
+            for (String name : names) {
+                columns.put(name, new ColumnBuilder(type));
+            }
+            return this;
+        }
+
+        void addInt(String name, int value) {
+            column(name).addInt(value);
+        }
+
+        void addDouble(String name, double value) {
+            column(name).addDouble(value);
+        }
+
+        void addString(String name, String value) {
+            column(name).addString(value);
+        }
+
+        int rows() {
+            return columns.isEmpty() ? 0 : columns.values().iterator().next().size;
+        }
+
+        private ColumnBuilder column(String name) {
+            ColumnBuilder column = columns.get(name);
+            if (column == null) {
+                throw new IllegalArgumentException("Nie zadeklarowano kolumny " + name);
+            }
+            return column;
+        }
+    }
+
+    /**
+     * Values of one column; strings are dictionary-encoded as they arrive.
+     */
+    private static class ColumnBuilder {
+        private final byte type;
+        private int[] ints = new int[256];
+        private double[] doubles;
+        private Map<String, Integer> dictionary;
+        private List<String> entries;
+        private int size;
+
+        ColumnBuilder(byte type) {
+            this.type = type;
+            if (type == ColumnarSnapshot.DOUBLE) {
+                doubles = new double[256];
+            } else if (type == ColumnarSnapshot.STRING) {
+                dictionary = new HashMap<>();
+                entries = new ArrayList<>();
+            }
+        }
+
+        void addInt(int value) {
+            if (size == ints.length) {
+                ints = Arrays.copyOf(ints, size * 2);
+            }
+            ints[size++] = value;
+        }
+
+        void addDouble(double value) {
+            if (size == doubles.length) {
+                doubles = Arrays.copyOf(doubles, size * 2);
+            }
+            doubles[size++] = value;
+        }
+
+        void addString(String value) {
+            if (value == null) {
+                addInt(-1);
+                return;
+            }
+            Integer code = dictionary.get(value);
+            if (code == null) {
+                code = entries.size();
+                dictionary.put(value, code);
+                entries.add(value);
+            }
+            addInt(code);
+        }
+
+        void write(DataOutputStream out, int rows) throws IOException {
+            if (size != rows) {
+                throw new IllegalStateException("Kolumna ma " + size + " wartości zamiast " + rows);
+            }
+            if (type == ColumnarSnapshot.STRING) {
+                List<byte[]> encoded = new ArrayList<>(entries.size());
+                for (String entry : entries) {
+                    encoded.add(entry.getBytes(StandardCharsets.UTF_8));
+                }
+                out.writeInt(encoded.size());
+                int offset = 0;
+                out.writeInt(0);
+                for (byte[] bytes : encoded) {
+                    offset += bytes.length;
+                    out.writeInt(offset);
+                }
+                for (byte[] bytes : encoded) {
+                    out.write(bytes);
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                if (type == ColumnarSnapshot.DOUBLE) {
+                    out.writeDouble(doubles[i]);
+                } else {
+                    out.writeInt(ints[i]);
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws SQLException, IOException {
+        if (args.length != 1) {
+            System.err.println("Użycie: ColumnarSnapshotWriter <plik migawki>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        int rows = export(Path.of(args[0]));
+        System.out.printf("Zapisano migawkę %s: %d wierszy w %.1f s%n", args[0], rows, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.data;
+
+import java.time.LocalDate;
+
+/**
+ * Rollup of one project or one user on one day, as written by the daily snapshot job.
+ * For users the milestone counts are always 0 and the progress is the average progress
+ * of the assigned tasks.
+ */
+public class DailySnapshotData {
+    private final LocalDate snapshotDate;
+    private final int entityId;
+    private final String name;
+    private final double progress;
+    private final int totalTasks;
+    private final int tasksTodo;
+    private final int tasksInProgress;
+    private final int tasksDone;
+    private final int tasksCanceled;
+    private final int overdueTasks;
+    private final int milestones;
+    private final int overdueMilestones;
+
+    public DailySnapshotData(LocalDate snapshotDate, int entityId, String name, double progress,
+                             int totalTasks, int tasksTodo, int tasksInProgress, int tasksDone,
+                             int tasksCanceled, int overdueTasks, int milestones, int overdueMilestones) {
+        this.snapshotDate = snapshotDate;
+        this.entityId = entityId;
+        this.name = name;
+        this.progress = progress;
+        this.totalTasks = totalTasks;
+        this.tasksTodo = tasksTodo;
+        this.tasksInProgress = tasksInProgress;
+        this.tasksDone = tasksDone;
+        this.tasksCanceled = tasksCanceled;
+        this.overdueTasks = overdueTasks;
+        this.milestones = milestones;
+        this.overdueMilestones = overdueMilestones;
+    }
+
+    public LocalDate getSnapshotDate() {
+        return snapshotDate;
+    }
+
+    public int getEntityId() {
+        return entityId;
+    }
+
+    public String getName() {
+        return name != null && !name.isBlank() ? name : "#" + entityId;
+    }
+
+    public double getProgress() {
+        return progress;
+    }
+
+    public int getTotalTasks() {
+        return totalTasks;
+    }
+
+    public int getTasksTodo() {
+        return tasksTodo;
+    }
+
+    public int getTasksInProgress() {
+        return tasksInProgress;
+    }
+
+    public int getTasksDone() {
+        return tasksDone;
+    }
+
+    public int getTasksCanceled() {
+        return tasksCanceled;
+    }
+
+    public int getOverdueTasks() {
+        return overdueTasks;
+    }
+
+    public int getMilestones() {
+        return milestones;
+    }
+
+    public int getOverdueMilestones() {
+        return overdueMilestones;
+    }
+}
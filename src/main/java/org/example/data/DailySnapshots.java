@@ -0,0 +1,145 @@
+package org.example.data;
+
+import org.example.ReportType;
+import org.example.metrics.ReportQueryTimer;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Writes and reads the daily rollups in ProjectDailySnapshots and UserDailySnapshots.
+ * <p>
+ * A snapshot holds the task counts by status, the progress and the overdue counts of every
+ * project and user on one day. Rows are only ever inserted: writing a day that already has a
+ * row for an entity keeps the existing row, so a day is recorded once and later changes to the
+ * tasks never rewrite the history. Trend reports read only these tables, so their cost depends
+ * on the number of days and entities, not on the number of tasks.
+ */
+public class DailySnapshots {
+
+    // Task counts per project from one pass over Tasks, milestones counted separately to avoid the fan-out
+    private static final String INSERT_PROJECTS =
+            "INSERT IGNORE INTO ProjectDailySnapshots (snapshot_date, project_id, name, status, progress, " +
+            "total_tasks, tasks_todo, tasks_in_progress, tasks_done, tasks_canceled, overdue_tasks, " +
+            "milestones, overdue_milestones) " +
+            "SELECT ?, p.id, p.name, p.status, COALESCE(p.progress, 0), " +
+            "COALESCE(t.total_tasks, 0), COALESCE(t.tasks_todo, 0), COALESCE(t.tasks_in_progress, 0), " +
+            "COALESCE(t.tasks_done, 0), COALESCE(t.tasks_canceled, 0), COALESCE(t.overdue_tasks, 0), " +
+            "COALESCE(ms.milestones, 0), COALESCE(ms.overdue_milestones, 0) " +
+            "FROM Projects p " +
+            "LEFT JOIN (SELECT m.project_id, COUNT(*) AS total_tasks, " +
+            "SUM(tk.status = 'doZrobienia') AS tasks_todo, SUM(tk.status = 'wTrakcie') AS tasks_in_progress, " +
+            "SUM(tk.status = 'zrobione') AS tasks_done, SUM(tk.status = 'anulowane') AS tasks_canceled, " +
+            "SUM(tk.deadline < ? AND tk.status NOT IN ('zrobione', 'anulowane')) AS overdue_tasks " +
+            "FROM Tasks tk JOIN Milestones m ON m.id = tk.milestone_id GROUP BY m.project_id) t " +
+            "ON t.project_id = p.id " +
+            "LEFT JOIN (SELECT project_id, COUNT(*) AS milestones, " +
+            "SUM(deadline < ? AND progress < 100) AS overdue_milestones " +
+            "FROM Milestones GROUP BY project_id) ms ON ms.project_id = p.id";
+
+    private static final String INSERT_USERS =
+            "INSERT IGNORE INTO UserDailySnapshots (snapshot_date, user_id, name, progress, " +
+            "total_tasks, tasks_todo, tasks_in_progress, tasks_done, tasks_canceled, overdue_tasks) " +
+            "SELECT ?, u.id, CONCAT(u.first_name, ' ', u.last_name), COALESCE(a.progress, 0), " +
+            "COALESCE(a.total_tasks, 0), COALESCE(a.tasks_todo, 0), COALESCE(a.tasks_in_progress, 0), " +
+            "COALESCE(a.tasks_done, 0), COALESCE(a.tasks_canceled, 0), COALESCE(a.overdue_tasks, 0) " +
+            "FROM Users u " +
+            "LEFT JOIN (SELECT ta.user_id, COUNT(*) AS total_tasks, " +
+            "SUM(tk.status = 'doZrobienia') AS tasks_todo, SUM(tk.status = 'wTrakcie') AS tasks_in_progress, " +
+            "SUM(tk.status = 'zrobione') AS tasks_done, SUM(tk.status = 'anulowane') AS tasks_canceled, " +
+            "SUM(tk.deadline < ? AND tk.status NOT IN ('zrobione', 'anulowane')) AS overdue_tasks, " +
+            "AVG(IF(tk.status = 'anulowane', NULL, tk.progress)) AS progress " +
+            "FROM TaskAssignments ta JOIN Tasks tk ON tk.id = ta.task_id GROUP BY ta.user_id) a " +
+            "ON a.user_id = u.id";
+
+    /**
+     * Records the current state of all projects and users as the snapshot of the given day.
+     * Entities already recorded for that day are left unchanged, so running the job twice
+     * on one day, or resuming it after a failure, adds only the missing rows.
+     *
+     * @param conn The database connection
+     * @param day The snapshot day; tasks and milestones with a deadline before it are overdue
+     * @return The number of project rows and of user rows written
+     * @throws SQLException If a database error occurs
+     */
+    public static int[] write(Connection conn, LocalDate day) throws SQLException {
+        Date date = Date.valueOf(day);
+        int projects;
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_PROJECTS)) {
+            stmt.setDate(1, date);
+            stmt.setDate(2, date);
+            stmt.setDate(3, date);
+            projects = stmt.executeUpdate();
+        }
+        int users;
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_USERS)) {
+            stmt.setDate(1, date);
+            stmt.setDate(2, date);
+            users = stmt.executeUpdate();
+        }
+        return new int[]{projects, users};
+    }
+
+    /**
+     * Streams the snapshots of projects or users between two days, ordered by day and then
+     * by entity ID, which is the order of the primary key.
+     *
+     * @param conn The database connection
+     * @param entity Whether to read project or user snapshots
+     * @param from The first day, inclusive
+     * @param to The last day, inclusive
+     * @param handler Receives every snapshot row as it is read
+     * @throws SQLException If a database error occurs
+     * @throws IOException If the handler fails
+     */
+    public static void forEachSnapshot(Connection conn, ChangeTracker.Entity entity, LocalDate from, LocalDate to,
+                                       RowHandler<DailySnapshotData> handler) throws SQLException, IOException {
+        boolean projects = entity == ChangeTracker.Entity.PROJECT;
+        String query = projects
+                ? "SELECT snapshot_date, project_id AS entity_id, name, progress, total_tasks, tasks_todo, " +
+                  "tasks_in_progress, tasks_done, tasks_canceled, overdue_tasks, milestones, overdue_milestones " +
+                  "FROM ProjectDailySnapshots WHERE snapshot_date BETWEEN ? AND ? ORDER BY snapshot_date, project_id"
+                : "SELECT snapshot_date, user_id AS entity_id, name, progress, total_tasks, tasks_todo, " +
+                  "tasks_in_progress, tasks_done, tasks_canceled, overdue_tasks, 0 AS milestones, 0 AS overdue_milestones " +
+                  "FROM UserDailySnapshots WHERE snapshot_date BETWEEN ? AND ? ORDER BY snapshot_date, user_id";
+        ReportType type = projects ? ReportType.PROJECT_TREND : ReportType.EMPLOYEE_TREND;
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            // Stream the rows instead of buffering the whole range in the driver
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(to));
+
+            // Database time only: the handler may process the row before the next one is read
+            ReportQueryTimer timer = new ReportQueryTimer();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    DailySnapshotData row = new DailySnapshotData(
+                            rs.getDate("snapshot_date").toLocalDate(),
+                            rs.getInt("entity_id"),
+                            rs.getString("name"),
+                            rs.getDouble("progress"),
+                            rs.getInt("total_tasks"),
+                            rs.getInt("tasks_todo"),
+                            rs.getInt("tasks_in_progress"),
+                            rs.getInt("tasks_done"),
+                            rs.getInt("tasks_canceled"),
+                            rs.getInt("overdue_tasks"),
+                            rs.getInt("milestones"),
+                            rs.getInt("overdue_milestones")
+                    );
+                    timer.countRow();
+                    timer.pause();
+                    handler.accept(row);
+                    timer.resume();
+                }
+            }
+            timer.finish(type, "range", 2);
+        }
+    }
+}
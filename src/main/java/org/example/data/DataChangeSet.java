@@ -0,0 +1,47 @@
+package org.example.data;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Projects and users whose report data changed after a given data version.
+ */
+public class DataChangeSet {
+    private final long fromVersion;
+    private final long toVersion;
+    private final Set<Integer> projectIds;
+    private final Set<Integer> userIds;
+
+    public DataChangeSet(long fromVersion, long toVersion, Set<Integer> projectIds, Set<Integer> userIds) {
+        this.fromVersion = fromVersion;
+        this.toVersion = toVersion;
+        this.projectIds = Collections.unmodifiableSet(projectIds);
+        this.userIds = Collections.unmodifiableSet(userIds);
+    }
+
+    /**
+     * @return The version the changes were read from (exclusive)
+     */
+    public long getFromVersion() {
+        return fromVersion;
+    }
+
+    /**
+     * @return The newest version included in this set; pass it to the next query
+     */
+    public long getToVersion() {
+        return toVersion;
+    }
+
+    public Set<Integer> getProjectIds() {
+        return projectIds;
+    }
+
+    public Set<Integer> getUserIds() {
+        return userIds;
+    }
+
+    public boolean isEmpty() {
+        return projectIds.isEmpty() && userIds.isEmpty();
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.data;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Token describing the current state of the data the reports are built from.
+ * Two equal tokens mean that a report generated for the same parameters would look the same.
+ */
+public class DataVersion {
+
+    // MySQL error code for a missing table
+    private static final int ER_NO_SUCH_TABLE = 1146;
+
+    private static volatile boolean legacyReported;
+
+    /**
+     * Reads the current data version token.
+     * The token includes the current date, because the overdue figures in the views depend on CURDATE().
+     * <p>
+     * A database created before the DataChanges log has no cheap way to notice updated rows (a
+     * checksum of the tables scans all of them on every request), so no token is returned for it
+     * and reports are not cached.
+     *
+     * @param conn The database connection
+     * @return The data version token, or null if the database has no DataChanges log
+     * @throws SQLException If a database error occurs
+     */
+    public static String currentToken(Connection conn) throws SQLException {
+        try {
+            return LocalDate.now() + "|" + ChangeTracker.currentVersion(conn);
+        } catch (SQLException e) {
+            if (e.getErrorCode() != ER_NO_SUCH_TABLE) {
+                throw e;
+            }
+            if (!legacyReported) {
+                legacyReported = true;
+                System.err.println("Baza danych bez tabeli DataChanges, raporty nie są zapisywane w cache");
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.data;
+
+/**
+ * Performance figures of a single employee, as shown in the employee performance report.
+ */
+public class EmployeePerformanceData {
+    private final int userId;
+    private final String employee;
+    private final String teamLeader;
+    private final int totalTasks;
+    private final int completed;
+    private final int canceled;
+    private final int overdueTasks;
+    private final String completedTasksTitles;
+    private final String pendingTasksTitles;
+    private final double completionRate;
+
+    public EmployeePerformanceData(int userId, String employee, String teamLeader,
+                                   int totalTasks, int completed, int canceled, int overdueTasks,
+                                   String completedTasksTitles, String pendingTasksTitles,
+                                   double completionRate) {
+        this.userId = userId;
+        this.employee = employee;
+        this.teamLeader = teamLeader;
+        this.totalTasks = totalTasks;
+        this.completed = completed;
+        this.canceled = canceled;
+        this.overdueTasks = overdueTasks;
+        this.completedTasksTitles = completedTasksTitles;
+        this.pendingTasksTitles = pendingTasksTitles;
+        this.completionRate = completionRate;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getEmployee() {
+        return employee != null ? employee : "";
+    }
+
+    public String getTeamLeader() {
+        return teamLeader != null ? teamLeader : "Brak";
+    }
+
+    public int getTotalTasks() {
+        return totalTasks;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public int getCanceled() {
+        return canceled;
+    }
+
+    public int getOverdueTasks() {
+        return overdueTasks;
+    }
+
+    public String getCompletedTasksTitles() {
+        return completedTasksTitles != null && !completedTasksTitles.isBlank() ? completedTasksTitles : "Brak";
+    }
+
+    public String getPendingTasksTitles() {
+        return pendingTasksTitles != null && !pendingTasksTitles.isBlank() ? pendingTasksTitles : "Brak";
+    }
+
+    public double getCompletionRate() {
+        return completionRate;
+    }
+}
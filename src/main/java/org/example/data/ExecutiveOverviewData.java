@@ -0,0 +1,140 @@
+package org.example.data;
+
+/**
+ * Overview figures of a single project, as shown in the executive overview report.
+ */
+public class ExecutiveOverviewData {
+    private final int projectId;
+    private final int managerId;
+    private final String project;
+    private final String projectStatus;
+    private final String projectProgress;
+    private final String projectManager;
+    private final String teamsInvolved;
+    private final String employeesAssigned;
+    private final String milestones;
+    private final String totalTasks;
+    private final String tasksDone;
+    private final String tasksCanceled;
+    private final String taskCompletionRate;
+    private final String avgMilestoneProgress;
+    private final String overdueMilestones;
+    private final String overdueTasks;
+    private final String involvedTeams;
+    private final String teamLeaders;
+    private final String taskTitles;
+
+    public ExecutiveOverviewData(int projectId, int managerId, String project, String projectStatus, String projectProgress,
+                                 String projectManager, String teamsInvolved, String employeesAssigned,
+                                 String milestones, String totalTasks, String tasksDone, String tasksCanceled,
+                                 String taskCompletionRate, String avgMilestoneProgress,
+                                 String overdueMilestones, String overdueTasks,
+                                 String involvedTeams, String teamLeaders, String taskTitles) {
+        this.projectId = projectId;
+        this.managerId = managerId;
+        this.project = project;
+        this.projectStatus = projectStatus;
+        this.projectProgress = projectProgress;
+        this.projectManager = projectManager;
+        this.teamsInvolved = teamsInvolved;
+        this.employeesAssigned = employeesAssigned;
+        this.milestones = milestones;
+        this.totalTasks = totalTasks;
+        this.tasksDone = tasksDone;
+        this.tasksCanceled = tasksCanceled;
+        this.taskCompletionRate = taskCompletionRate;
+        this.avgMilestoneProgress = avgMilestoneProgress;
+        this.overdueMilestones = overdueMilestones;
+        this.overdueTasks = overdueTasks;
+        this.involvedTeams = involvedTeams;
+        this.teamLeaders = teamLeaders;
+        this.taskTitles = taskTitles;
+    }
+
+    // Check if the project data is empty
+    public boolean isEmpty() {
+        return project == null || project.isEmpty();
+    }
+
+    public int getProjectId() {
+        return projectId;
+    }
+
+    public int getManagerId() {
+        return managerId;
+    }
+
+    // Get methods with null handling
+    public String getProject() {
+        return project != null ? project : "";
+    }
+
+    public String getProjectStatus() {
+        return projectStatus != null ? projectStatus : "";
+    }
+
+    public String getProjectProgress() {
+        return projectProgress != null ? projectProgress : "0";
+    }
+
+    public String getProjectManager() {
+        return projectManager != null ? projectManager : "";
+    }
+
+    public String getTeamsInvolved() {
+        return teamsInvolved != null ? teamsInvolved : "0";
+    }
+
+    public String getEmployeesAssigned() {
+        return employeesAssigned != null ? employeesAssigned : "0";
+    }
+
+    public String getMilestones() {
+        return milestones != null ? milestones : "0";
+    }
+
+    public String getTotalTasks() {
+        return totalTasks != null ? totalTasks : "0";
+    }
+
+    public String getTasksDone() {
+        return tasksDone != null ? tasksDone : "0";
+    }
+
+    public String getTasksCanceled() {
+        return tasksCanceled != null ? tasksCanceled : "0";
+    }
+
+    public String getTaskCompletionRate() {
+        return taskCompletionRate != null ? taskCompletionRate : "0";
+    }
+
+    // Raw value for filtering: projects without tasks have no completion rate
+    String getTaskCompletionRateOrNull() {
+        return taskCompletionRate;
+    }
+
+    public String getAvgMilestoneProgress() {
+        return avgMilestoneProgress != null ? avgMilestoneProgress : "0";
+    }
+
+    public String getOverdueMilestones() {
+        return overdueMilestones != null ? overdueMilestones : "0";
+    }
+
+    public String getOverdueTasks() {
+        return overdueTasks != null ? overdueTasks : "0";
+    }
+
+    public String getInvolvedTeams() {
+        return involvedTeams != null ? involvedTeams : "Brak";
+    }
+
+    public String getTeamLeaders() {
+        return teamLeaders != null ? teamLeaders : "Brak";
+    }
+
+    public String getTaskTitles() {
+        return taskTitles != null ? taskTitles : "Brak";
+    }
+}
@@ -0,0 +1,216 @@
+package org.example.data;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Report data held in memory, filtered the same way as the queries of {@link JdbcReportDataSource}.
+ * Used to measure and load-test report rendering without a database.
+ * <p>
+ * Every added row gets a new version, like the DataChanges log, so section caching behaves
+ * the same as with MySQL: replacing a row makes its section render again.
+ */
+public class InMemoryReportDataSource implements ReportDataSource {
+
+    private final Map<Integer, EmployeePerformanceData> employees = new LinkedHashMap<>();
+    private final Map<Integer, ProjectProgressData> projects = new LinkedHashMap<>();
+    private final Map<Integer, ExecutiveOverviewData> executiveOverviews = new LinkedHashMap<>();
+    private final Map<ChangeTracker.Entity, Map<Integer, Long>> versions = new HashMap<>();
+    private long version;
+
+    /**
+     * Adds or replaces the performance row of an employee.
+     *
+     * @param employee The row to add
+     */
+    public synchronized void addEmployee(EmployeePerformanceData employee) {
+        employees.put(employee.getUserId(), employee);
+        touch(ChangeTracker.Entity.USER, employee.getUserId());
+    }
+
+    /**
+     * Adds or replaces the progress row of a project.
+     *
+     * @param project The row to add
+     */
+    public synchronized void addProject(ProjectProgressData project) {
+        projects.put(project.getProjectId(), project);
+        touch(ChangeTracker.Entity.PROJECT, project.getProjectId());
+    }
+
+    /**
+     * Adds or replaces the overview row of a project.
+     *
+     * @param overview The row to add
+     */
+    public synchronized void addExecutiveOverview(ExecutiveOverviewData overview) {
+        executiveOverviews.put(overview.getProjectId(), overview);
+        touch(ChangeTracker.Entity.PROJECT, overview.getProjectId());
+    }
+
+    private void touch(ChangeTracker.Entity entity, int id) {
+        versions.computeIfAbsent(entity, e -> new HashMap<>()).put(id, ++version);
+    }
+
+    @Override
+    public void forEachEmployee(List<Integer> userIds, Double minPerformance, Double maxPerformance,
+                                RowHandler<EmployeePerformanceData> handler) throws IOException {
+        Set<Integer> selected = userIds != null ? new HashSet<>(userIds) : null;
+        for (EmployeePerformanceData employee : snapshot(employees)) {
+            if (selected != null && !selected.contains(employee.getUserId())) {
+                continue;
+            }
+            // Same range checks as the performance query
+            if (minPerformance != null && employee.getCompletionRate() < minPerformance) {
+                continue;
+            }
+            if (maxPerformance != null && employee.getCompletionRate() > maxPerformance) {
+                continue;
+            }
+            handler.accept(employee);
+        }
+    }
+
+    /**
+     * Not supported: the rows held in memory are already aggregated and carry no task dates.
+     */
+    @Override
+    public void forEachEmployeeInPeriod(List<Integer> userIds, LocalDate from, LocalDate to,
+                                        Double minPerformance, Double maxPerformance,
+                                        RowHandler<EmployeePerformanceData> handler) {
+        throw new UnsupportedOperationException("Dane w pamięci nie zawierają dat utworzenia zadań");
+    }
+
+    @Override
+    public void forEachProject(List<Integer> projectIds, String projectStatus, Integer managerId,
+                               RowHandler<ProjectProgressData> handler) throws IOException {
+        Set<Integer> selected = projectIds != null ? new HashSet<>(projectIds) : null;
+        for (ProjectProgressData project : snapshot(projects)) {
+            if (selected != null && !selected.contains(project.getProjectId())) {
+                continue;
+            }
+            if (projectStatus != null && !projectStatus.isEmpty() && !projectStatus.equals(project.getStatus())) {
+                continue;
+            }
+            if (managerId != null && managerId != project.getManagerId()) {
+                continue;
+            }
+            handler.accept(project);
+        }
+    }
+
+    @Override
+    public synchronized ExecutiveOverviewData fetchExecutiveOverview(int projectId, String projectStatus, Integer managerId,
+                                                                     boolean showOverdueTasks, boolean showOverdueMilestones,
+                                                                     Double minCompletionRate, Double maxCompletionRate) {
+        ExecutiveOverviewData overview = executiveOverviews.get(projectId);
+        if (overview == null) {
+            return null;
+        }
+        return matches(overview, projectStatus, managerId, showOverdueTasks, showOverdueMilestones,
+                minCompletionRate, maxCompletionRate) ? overview : null;
+    }
+
+    @Override
+    public void forEachExecutiveOverview(List<Integer> projectIds, String projectStatus, Integer managerId,
+                                         boolean showOverdueTasks, boolean showOverdueMilestones,
+                                         Double minCompletionRate, Double maxCompletionRate,
+                                         RowHandler<ExecutiveOverviewData> handler) throws IOException {
+        Set<Integer> selected = projectIds != null ? new HashSet<>(projectIds) : null;
+        for (ExecutiveOverviewData overview : snapshot(executiveOverviews)) {
+            if (selected != null && !selected.contains(overview.getProjectId())) {
+                continue;
+            }
+            if (matches(overview, projectStatus, managerId, showOverdueTasks, showOverdueMilestones,
+                    minCompletionRate, maxCompletionRate)) {
+                handler.accept(overview);
+            }
+        }
+    }
+
+    @Override
+    public void forEachEmployeeSorted(SummaryColumn sortBy, boolean descending,
+                                      RowHandler<EmployeePerformanceData> handler) throws IOException {
+        List<EmployeePerformanceData> rows = snapshot(employees);
+        if (sortBy == null) {
+            rows.sort(Comparator.comparingInt(EmployeePerformanceData::getUserId));
+            if (descending) {
+                Collections.reverse(rows);
+            }
+        } else {
+            rows.sort(sortBy.employeeOrder(descending));
+        }
+        for (EmployeePerformanceData employee : rows) {
+            handler.accept(employee);
+        }
+    }
+
+    @Override
+    public void forEachExecutiveOverviewSorted(SummaryColumn sortBy, boolean descending,
+                                               RowHandler<ExecutiveOverviewData> handler) throws IOException {
+        List<ExecutiveOverviewData> rows = snapshot(executiveOverviews);
+        if (sortBy == null) {
+            rows.sort(Comparator.comparingInt(ExecutiveOverviewData::getProjectId));
+            if (descending) {
+                Collections.reverse(rows);
+            }
+        } else {
+            rows.sort(sortBy.projectOrder(descending));
+        }
+        for (ExecutiveOverviewData overview : rows) {
+            handler.accept(overview);
+        }
+    }
+
+    // Same conditions as the overview query
+    static boolean matches(ExecutiveOverviewData overview, String projectStatus, Integer managerId,
+                                   boolean showOverdueTasks, boolean showOverdueMilestones,
+                                   Double minCompletionRate, Double maxCompletionRate) {
+        if (projectStatus != null && !projectStatus.isEmpty() && !projectStatus.equals(overview.getProjectStatus())) {
+            return false;
+        }
+        if (managerId != null && managerId != overview.getManagerId()) {
+            return false;
+        }
+        if (showOverdueTasks && Double.parseDouble(overview.getOverdueTasks()) <= 0) {
+            return false;
+        }
+        if (showOverdueMilestones && Double.parseDouble(overview.getOverdueMilestones()) <= 0) {
+            return false;
+        }
+
+        // Like the SQL comparison, a project without tasks has no rate and never matches the range
+        String rate = overview.getTaskCompletionRateOrNull();
+        if (rate == null) {
+            return false;
+        }
+        double completionRate = Double.parseDouble(rate);
+        double min = minCompletionRate != null ? minCompletionRate : (maxCompletionRate != null ? Double.NEGATIVE_INFINITY : 0);
+        double max = maxCompletionRate != null ? maxCompletionRate : (minCompletionRate != null ? Double.POSITIVE_INFINITY : 100);
+        return completionRate >= min && completionRate <= max;
+    }
+
+    @Override
+    public synchronized Map<Integer, Long> entityVersions(ChangeTracker.Entity entity, List<Integer> ids) {
+        Map<Integer, Long> known = versions.getOrDefault(entity, Map.of());
+        Map<Integer, Long> result = new HashMap<>();
+        for (Integer id : ids) {
+            result.put(id, known.getOrDefault(id, 0L));
+        }
+        return result;
+    }
+
+    // Copy the rows so handlers run without holding the lock
+    private synchronized <T> List<T> snapshot(Map<Integer, T> rows) {
+        return new ArrayList<>(rows.values());
+    }
+}
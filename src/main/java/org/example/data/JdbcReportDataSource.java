@@ -0,0 +1,914 @@
+package org.example.data;
+
+import org.example.DatabaseConnector;
+import org.example.ReportType;
+import org.example.metrics.ReportMetrics;
+import org.example.metrics.ReportQueryTimer;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Report data read from the MySQL views of database.sql.
+ * Every call opens its own connection; the static methods work on a connection held by the caller.
+ */
+public class JdbcReportDataSource implements ReportDataSource {
+
+    private static final int QUERY_CHUNK_SIZE = 1000;
+
+    // MySQL error code for a missing table
+    private static final int ER_NO_SUCH_TABLE = 1146;
+
+    @Override
+    public void forEachEmployee(List<Integer> userIds, Double minPerformance, Double maxPerformance,
+                                RowHandler<EmployeePerformanceData> handler) throws SQLException, IOException {
+        try (Connection conn = DatabaseConnector.getReadConnection()) {
+            forEachEmployee(conn, userIds, minPerformance, maxPerformance, handler);
+        }
+    }
+
+    @Override
+    public void forEachEmployeeInPeriod(List<Integer> userIds, LocalDate from, LocalDate to,
+                                        Double minPerformance, Double maxPerformance,
+                                        RowHandler<EmployeePerformanceData> handler) throws SQLException, IOException {
+        try (Connection conn = DatabaseConnector.getReadConnection()) {
+            forEachEmployeeInPeriod(conn, userIds, from, to, minPerformance, maxPerformance, handler);
+        }
+    }
+
+    @Override
+    public void forEachProject(List<Integer> projectIds, String projectStatus, Integer managerId,
+                               RowHandler<ProjectProgressData> handler) throws SQLException, IOException {
+        try (Connection conn = DatabaseConnector.getReadConnection()) {
+            forEachProject(conn, projectIds, projectStatus, managerId, handler);
+        }
+    }
+
+    @Override
+    public ExecutiveOverviewData fetchExecutiveOverview(int projectId, String projectStatus, Integer managerId,
+                                                        boolean showOverdueTasks, boolean showOverdueMilestones,
+                                                        Double minCompletionRate, Double maxCompletionRate) throws SQLException {
+        try (Connection conn = DatabaseConnector.getReadConnection()) {
+            return fetchExecutiveOverview(conn, projectId, projectStatus, managerId,
+                    showOverdueTasks, showOverdueMilestones, minCompletionRate, maxCompletionRate);
+        }
+    }
+
+    @Override
+    public void forEachExecutiveOverview(List<Integer> projectIds, String projectStatus, Integer managerId,
+                                         boolean showOverdueTasks, boolean showOverdueMilestones,
+                                         Double minCompletionRate, Double maxCompletionRate,
+                                         RowHandler<ExecutiveOverviewData> handler) throws SQLException, IOException {
+        try (Connection conn = DatabaseConnector.getReadConnection()) {
+            forEachExecutiveOverview(conn, projectIds, projectStatus, managerId, showOverdueTasks, showOverdueMilestones,
+                    minCompletionRate, maxCompletionRate, handler);
+        }
+    }
+
+    @Override
+    public void forEachEmployeeSorted(SummaryColumn sortBy, boolean descending,
+                                      RowHandler<EmployeePerformanceData> handler) throws SQLException, IOException {
+        try (Connection conn = DatabaseConnector.getReadConnection()) {
+            queryEmployees(conn, List.of(), null, null, orderBy("e", "user_id", sortBy, false, descending), handler);
+        }
+    }
+
+    @Override
+    public void forEachExecutiveOverviewSorted(SummaryColumn sortBy, boolean descending,
+                                               RowHandler<ExecutiveOverviewData> handler) throws SQLException, IOException {
+        try (Connection conn = DatabaseConnector.getReadConnection()) {
+            queryExecutiveOverviews(conn, List.of(), null, null, false, false, null, null,
+                    orderBy("v", "project_id", sortBy, true, descending), handler);
+        }
+    }
+
+    // Pushed down as ORDER BY ... LIMIT: the views are aggregates, so no index yields the order,
+    // but MySQL keeps only the first rows in a bounded sort buffer instead of sorting everything
+    @Override
+    public void forEachEmployeeTop(SummaryColumn column, boolean highest, int limit,
+                                   RowHandler<EmployeePerformanceData> handler) throws SQLException, IOException {
+        String orderBy = orderBy("e", "user_id", requireColumn(column), false, highest) + limit(limit);
+        try (Connection conn = DatabaseConnector.getReadConnection()) {
+            queryEmployees(conn, List.of(), null, null, orderBy, handler);
+        }
+    }
+
+    @Override
+    public void forEachExecutiveOverviewTop(SummaryColumn column, boolean highest, int limit,
+                                            RowHandler<ExecutiveOverviewData> handler) throws SQLException, IOException {
+        String orderBy = orderBy("v", "project_id", requireColumn(column), true, highest) + limit(limit);
+        try (Connection conn = DatabaseConnector.getReadConnection()) {
+            queryExecutiveOverviews(conn, List.of(), null, null, false, false, null, null, orderBy, handler);
+        }
+    }
+
+    private static SummaryColumn requireColumn(SummaryColumn column) {
+        if (column == null) {
+            throw new IllegalArgumentException("Nie wybrano kolumny rankingu");
+        }
+        return column;
+    }
+
+    private static String limit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Liczba wierszy musi być dodatnia");
+        }
+        return " LIMIT " + limit;
+    }
+
+    /**
+     * Describes the plan of a report query for the metrics.
+     *
+     * @param orderBy The ORDER BY clause, or null
+     * @return "ids" without sorting, "top" for a limited ranking, otherwise "sorted"
+     */
+    private static String queryShape(String orderBy) {
+        if (orderBy == null) {
+            return "ids";
+        }
+        return orderBy.contains(" LIMIT ") ? "top" : "sorted";
+    }
+
+    /**
+     * Builds the ORDER BY clause of a sorted summary query.
+     * Column names come only from {@link SummaryColumn}, so nothing from the request reaches the SQL text.
+     *
+     * @param alias The alias of the view in the query
+     * @param idColumn The ID column, used to break ties
+     * @param sortBy The column to sort by, or null to sort by ID
+     * @param projects Whether the query reads project rows
+     * @param descending Whether the largest values come first
+     * @return The ORDER BY clause
+     */
+    static String orderBy(String alias, String idColumn, SummaryColumn sortBy, boolean projects, boolean descending) {
+        String direction = descending ? " DESC" : "";
+        if (sortBy == null) {
+            return " ORDER BY " + alias + "." + idColumn + direction;
+        }
+        if (sortBy.isProjectColumn() != projects) {
+            throw new IllegalArgumentException("Kolumna " + sortBy + " nie dotyczy tego zestawienia");
+        }
+        return " ORDER BY " + alias + "." + sortBy.getColumn() + direction + ", " + alias + "." + idColumn;
+    }
+
+    /**
+     * Reads the entity versions from the DataChanges log.
+     *
+     * @param entity The kind of the entities
+     * @param ids The entity IDs
+     * @return Map of entity ID to its version, or null if the database has no change log
+     * @throws SQLException If a database error occurs
+     */
+    @Override
+    public Map<Integer, Long> entityVersions(ChangeTracker.Entity entity, List<Integer> ids) throws SQLException {
+        try (Connection conn = DatabaseConnector.getReadConnection()) {
+            return ChangeTracker.entityVersions(conn, entity, ids);
+        } catch (SQLException e) {
+            if (e.getErrorCode() == ER_NO_SUCH_TABLE) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Builds the query fetching performance rows for a number of employees at once.
+     *
+     * @param idCount Number of employee IDs bound to the IN list, or 0 for all employees
+     * @param minPerformance Minimum completion rate, or null
+     * @param maxPerformance Maximum completion rate, or null
+     * @return The SQL query
+     */
+    public static String buildEmployeeQuery(int idCount, Double minPerformance, Double maxPerformance) {
+        StringBuilder queryBuilder = new StringBuilder("""
+        SELECT
+            e.user_id,
+            e.employee,
+            u.team_leader_name AS team_leader,
+            e.total_tasks,
+            e.completed,
+            e.canceled,
+            e.overdue_tasks,
+            e.completed_tasks_titles,
+            e.pending_tasks_titles,
+            e.completion_rate
+        FROM vw_EmployeePerformance e
+        LEFT JOIN vw_UserCompleteDetails u ON e.user_id = u.user_id
+        WHERE e.user_id IS NOT NULL""");
+
+        if (idCount > 0) {
+            queryBuilder.append(" AND e.user_id IN (");
+            for (int i = 0; i < idCount; i++) {
+                queryBuilder.append(i == 0 ? "?" : ", ?");
+            }
+            queryBuilder.append(")");
+        }
+
+        // Add performance range filters if provided
+        if (minPerformance != null) {
+            queryBuilder.append(" AND e.completion_rate >= ?");
+        }
+        if (maxPerformance != null) {
+            queryBuilder.append(" AND e.completion_rate <= ?");
+        }
+
+        return queryBuilder.toString();
+    }
+
+    /**
+     * Streams the performance rows of the given employees to the handler as they are read,
+     * without holding the whole result in memory. Rows arrive in database order.
+     *
+     * @param conn The database connection
+     * @param userIds The IDs of the employees, or null for all employees
+     * @param minPerformance Minimum completion rate, or null
+     * @param maxPerformance Maximum completion rate, or null
+     * @param handler Receives each row
+     * @throws SQLException If a database error occurs
+     * @throws IOException If the handler fails
+     */
+    public static void forEachEmployee(Connection conn, List<Integer> userIds, Double minPerformance, Double maxPerformance,
+                                       RowHandler<EmployeePerformanceData> handler) throws SQLException, IOException {
+        if (userIds == null) {
+            queryEmployees(conn, List.of(), minPerformance, maxPerformance, null, handler);
+            return;
+        }
+
+        // Query in chunks to keep the IN list at a reasonable size
+        for (int from = 0; from < userIds.size(); from += QUERY_CHUNK_SIZE) {
+            List<Integer> chunk = userIds.subList(from, Math.min(from + QUERY_CHUNK_SIZE, userIds.size()));
+            queryEmployees(conn, chunk, minPerformance, maxPerformance, null, handler);
+        }
+    }
+
+    private static void queryEmployees(Connection conn, List<Integer> userIds, Double minPerformance, Double maxPerformance,
+                                       String orderBy, RowHandler<EmployeePerformanceData> handler) throws SQLException, IOException {
+        String query = buildEmployeeQuery(userIds.size(), minPerformance, maxPerformance);
+        if (orderBy != null) {
+            query += orderBy;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Let the MySQL driver stream rows instead of buffering the whole result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+
+            int paramIndex = 1;
+            for (int userId : userIds) {
+                stmt.setInt(paramIndex++, userId);
+            }
+
+            // Set performance range parameters if provided
+            if (minPerformance != null) {
+                stmt.setDouble(paramIndex++, minPerformance);
+            }
+            if (maxPerformance != null) {
+                stmt.setDouble(paramIndex++, maxPerformance);
+            }
+
+            // Database time only: the handler may lay out the row before the next one is read
+            ReportQueryTimer timer = new ReportQueryTimer();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    EmployeePerformanceData row = mapEmployeeRow(rs);
+                    timer.countRow();
+                    timer.pause();
+                    handler.accept(row);
+                    timer.resume();
+                }
+            }
+            String shape = ReportMetrics.filterShape(queryShape(orderBy),
+                    minPerformance != null, "min", maxPerformance != null, "max");
+            timer.finish(ReportType.EMPLOYEE_PERFORMANCE, shape, userIds.size());
+        }
+    }
+
+    /**
+     * Builds the query fetching performance rows of a number of employees for tasks created in a period.
+     * <p>
+     * The tasks are aggregated per user in a derived table that starts from the created_at range,
+     * so idx_tasks_created_at limits the scan to the period and TaskAssignments is joined through its
+     * primary key. Employees without tasks in the period get zero counts, like in vw_EmployeePerformance.
+     * The selected IDs are bound twice: once to narrow the aggregation and once for the employee rows.
+     *
+     * @param idCount Number of employee IDs bound to each IN list, or 0 for all employees
+     * @param hasFrom Whether the period has a start date
+     * @param hasTo Whether the period has an end date
+     * @param minPerformance Minimum completion rate, or null
+     * @param maxPerformance Maximum completion rate, or null
+     * @return The SQL query
+     */
+    public static String buildEmployeePeriodQuery(int idCount, boolean hasFrom, boolean hasTo,
+                                                  Double minPerformance, Double maxPerformance) {
+        StringBuilder inList = new StringBuilder();
+        for (int i = 0; i < idCount; i++) {
+            inList.append(i == 0 ? "?" : ", ?");
+        }
+
+        StringBuilder queryBuilder = new StringBuilder("""
+        SELECT
+            u.id AS user_id,
+            CONCAT(u.first_name, ' ', u.last_name) AS employee,
+            d.team_leader_name AS team_leader,
+            COALESCE(p.total_tasks, 0) AS total_tasks,
+            COALESCE(p.completed, 0) AS completed,
+            COALESCE(p.canceled, 0) AS canceled,
+            COALESCE(p.overdue_tasks, 0) AS overdue_tasks,
+            p.completed_tasks_titles,
+            p.pending_tasks_titles,
+            COALESCE(p.completed * 100.0 / NULLIF(p.total_tasks, 0), 0) AS completion_rate
+        FROM Users u
+        LEFT JOIN (
+            SELECT
+                ta.user_id,
+                COUNT(t.id) AS total_tasks,
+                SUM(CASE WHEN t.status = 'zrobione' THEN 1 ELSE 0 END) AS completed,
+                SUM(CASE WHEN t.status = 'anulowane' THEN 1 ELSE 0 END) AS canceled,
+                SUM(CASE WHEN t.deadline < CURDATE() AND t.status NOT IN ('zrobione', 'anulowane') THEN 1 ELSE 0 END) AS overdue_tasks,
+                GROUP_CONCAT(
+                    CASE WHEN t.status = 'zrobione'
+                         THEN CONCAT(t.title, ' (', DATE_FORMAT(t.created_at, '%Y-%m-%d'), ')')
+                    END SEPARATOR '\n'
+                ) AS completed_tasks_titles,
+                GROUP_CONCAT(
+                    CASE WHEN t.status != 'zrobione'
+                         THEN CONCAT(t.title, ' (', t.status, ', ', DATE_FORMAT(t.created_at, '%Y-%m-%d'), ')')
+                    END SEPARATOR '\n'
+                ) AS pending_tasks_titles
+            FROM Tasks t
+            JOIN TaskAssignments ta ON ta.task_id = t.id
+            WHERE t.created_at IS NOT NULL""");
+
+        if (hasFrom) {
+            queryBuilder.append(" AND t.created_at >= ?");
+        }
+        if (hasTo) {
+            queryBuilder.append(" AND t.created_at < ?");
+        }
+        if (idCount > 0) {
+            queryBuilder.append(" AND ta.user_id IN (").append(inList).append(")");
+        }
+        queryBuilder.append("""
+
+            GROUP BY ta.user_id
+        ) p ON p.user_id = u.id
+        LEFT JOIN vw_UserCompleteDetails d ON d.user_id = u.id
+        WHERE u.id IS NOT NULL""");
+
+        if (idCount > 0) {
+            queryBuilder.append(" AND u.id IN (").append(inList).append(")");
+        }
+
+        // Add performance range filters if provided
+        if (minPerformance != null) {
+            queryBuilder.append(" AND COALESCE(p.completed * 100.0 / NULLIF(p.total_tasks, 0), 0) >= ?");
+        }
+        if (maxPerformance != null) {
+            queryBuilder.append(" AND COALESCE(p.completed * 100.0 / NULLIF(p.total_tasks, 0), 0) <= ?");
+        }
+
+        return queryBuilder.toString();
+    }
+
+    /**
+     * Streams the performance rows of the given employees for tasks created in a period.
+     * Rows arrive in database order.
+     *
+     * @param conn The database connection
+     * @param userIds The IDs of the employees, or null for all employees
+     * @param from First day of the period, or null for no lower bound
+     * @param to Last day of the period (inclusive), or null for no upper bound
+     * @param minPerformance Minimum completion rate, or null
+     * @param maxPerformance Maximum completion rate, or null
+     * @param handler Receives each row
+     * @throws SQLException If a database error occurs
+     * @throws IOException If the handler fails
+     */
+    public static void forEachEmployeeInPeriod(Connection conn, List<Integer> userIds, LocalDate from, LocalDate to,
+                                               Double minPerformance, Double maxPerformance,
+                                               RowHandler<EmployeePerformanceData> handler) throws SQLException, IOException {
+        if (userIds == null) {
+            queryEmployeesInPeriod(conn, List.of(), from, to, minPerformance, maxPerformance, handler);
+            return;
+        }
+
+        // Query in chunks to keep the IN lists at a reasonable size
+        for (int offset = 0; offset < userIds.size(); offset += QUERY_CHUNK_SIZE) {
+            List<Integer> chunk = userIds.subList(offset, Math.min(offset + QUERY_CHUNK_SIZE, userIds.size()));
+            queryEmployeesInPeriod(conn, chunk, from, to, minPerformance, maxPerformance, handler);
+        }
+    }
+
+    private static void queryEmployeesInPeriod(Connection conn, List<Integer> userIds, LocalDate from, LocalDate to,
+                                               Double minPerformance, Double maxPerformance,
+                                               RowHandler<EmployeePerformanceData> handler) throws SQLException, IOException {
+        String query = buildEmployeePeriodQuery(userIds.size(), from != null, to != null, minPerformance, maxPerformance);
+
+        try (PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Let the MySQL driver stream rows instead of buffering the whole result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+
+            // created_at is a timestamp: the period runs from the start of the first day to the start of the day after the last
+            int paramIndex = 1;
+            if (from != null) {
+                stmt.setTimestamp(paramIndex++, Timestamp.valueOf(from.atStartOfDay()));
+            }
+            if (to != null) {
+                stmt.setTimestamp(paramIndex++, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            }
+            for (int userId : userIds) {
+                stmt.setInt(paramIndex++, userId);
+            }
+            for (int userId : userIds) {
+                stmt.setInt(paramIndex++, userId);
+            }
+
+            // Set performance range parameters if provided
+            if (minPerformance != null) {
+                stmt.setDouble(paramIndex++, minPerformance);
+            }
+            if (maxPerformance != null) {
+                stmt.setDouble(paramIndex++, maxPerformance);
+            }
+
+            // Database time only: the handler may lay out the row before the next one is read
+            ReportQueryTimer timer = new ReportQueryTimer();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    EmployeePerformanceData row = mapEmployeeRow(rs);
+                    timer.countRow();
+                    timer.pause();
+                    handler.accept(row);
+                    timer.resume();
+                }
+            }
+            String shape = ReportMetrics.filterShape("ids", from != null, "from", to != null, "to",
+                    minPerformance != null, "min", maxPerformance != null, "max");
+            timer.finish(ReportType.EMPLOYEE_PERFORMANCE, shape, userIds.size());
+        }
+    }
+
+    /**
+     * Maps the current row of the performance query.
+     *
+     * @param rs The result set positioned on a row
+     * @return The performance data of the row
+     * @throws SQLException If a database error occurs
+     */
+    public static EmployeePerformanceData mapEmployeeRow(ResultSet rs) throws SQLException {
+        return new EmployeePerformanceData(
+                rs.getInt("user_id"),
+                rs.getString("employee"),
+                rs.getString("team_leader"),
+                rs.getInt("total_tasks"),
+                rs.getInt("completed"),
+                rs.getInt("canceled"),
+                rs.getInt("overdue_tasks"),
+                rs.getString("completed_tasks_titles"),
+                rs.getString("pending_tasks_titles"),
+                rs.getDouble("completion_rate"));
+    }
+
+    /**
+     * Builds the query fetching progress rows for a number of projects at once.
+     *
+     * @param idCount Number of project IDs bound to the IN list, or 0 for all projects
+     * @param projectStatus Filter by project status, or null
+     * @param managerId Filter by manager ID, or null
+     * @return The SQL query
+     */
+    public static String buildProjectQuery(int idCount, String projectStatus, Integer managerId) {
+        StringBuilder queryBuilder = new StringBuilder("""
+        SELECT
+            project_id,
+            project,
+            manager_id,
+            manager,
+            status,
+            overall_progress,
+            total_milestones,
+            milestone_names,
+            total_tasks,
+            task_titles,
+            completed_tasks,
+            canceled_tasks,
+            avg_milestone_progress,
+            involved_teams,
+            team_leaders
+        FROM vw_ProjectProgress
+        WHERE project_id IS NOT NULL""");
+
+        if (idCount > 0) {
+            queryBuilder.append(" AND project_id IN (");
+            for (int i = 0; i < idCount; i++) {
+                queryBuilder.append(i == 0 ? "?" : ", ?");
+            }
+            queryBuilder.append(")");
+        }
+
+        // Add filters if provided
+        if (projectStatus != null && !projectStatus.isEmpty()) {
+            queryBuilder.append(" AND status = ?");
+        }
+
+        if (managerId != null) {
+            queryBuilder.append(" AND manager_id = ?");
+        }
+
+        return queryBuilder.toString();
+    }
+
+    /**
+     * Streams the progress rows of the given projects to the handler as they are read,
+     * without holding the whole result in memory. Rows arrive in database order.
+     *
+     * @param conn The database connection
+     * @param projectIds The IDs of the projects, or null for all projects
+     * @param projectStatus Filter by project status, or null
+     * @param managerId Filter by manager ID, or null
+     * @param handler Receives each row
+     * @throws SQLException If a database error occurs
+     * @throws IOException If the handler fails
+     */
+    public static void forEachProject(Connection conn, List<Integer> projectIds, String projectStatus, Integer managerId,
+                                      RowHandler<ProjectProgressData> handler) throws SQLException, IOException {
+        if (projectIds == null) {
+            queryProjects(conn, List.of(), projectStatus, managerId, handler);
+            return;
+        }
+
+        // Query in chunks to keep the IN list at a reasonable size
+        for (int from = 0; from < projectIds.size(); from += QUERY_CHUNK_SIZE) {
+            List<Integer> chunk = projectIds.subList(from, Math.min(from + QUERY_CHUNK_SIZE, projectIds.size()));
+            queryProjects(conn, chunk, projectStatus, managerId, handler);
+        }
+    }
+
+    private static void queryProjects(Connection conn, List<Integer> projectIds, String projectStatus, Integer managerId,
+                                      RowHandler<ProjectProgressData> handler) throws SQLException, IOException {
+        String query = buildProjectQuery(projectIds.size(), projectStatus, managerId);
+
+        try (PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Let the MySQL driver stream rows instead of buffering the whole result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+
+            int paramIndex = 1;
+            for (int projectId : projectIds) {
+                stmt.setInt(paramIndex++, projectId);
+            }
+
+            // Set additional filter parameters if provided
+            if (projectStatus != null && !projectStatus.isEmpty()) {
+                stmt.setString(paramIndex++, projectStatus);
+            }
+
+            if (managerId != null) {
+                stmt.setInt(paramIndex++, managerId);
+            }
+
+            // Database time only: the handler may lay out the row before the next one is read
+            ReportQueryTimer timer = new ReportQueryTimer();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ProjectProgressData row = mapProjectRow(rs);
+                    timer.countRow();
+                    timer.pause();
+                    handler.accept(row);
+                    timer.resume();
+                }
+            }
+            String shape = ReportMetrics.filterShape("ids", projectStatus != null && !projectStatus.isEmpty(), "status",
+                    managerId != null, "manager");
+            timer.finish(ReportType.PROJECT_PROGRESS, shape, projectIds.size());
+        }
+    }
+
+    /**
+     * Maps the current row of the progress query.
+     *
+     * @param rs The result set positioned on a row
+     * @return The progress data of the row
+     * @throws SQLException If a database error occurs
+     */
+    public static ProjectProgressData mapProjectRow(ResultSet rs) throws SQLException {
+        return new ProjectProgressData(
+                rs.getInt("project_id"),
+                rs.getInt("manager_id"),
+                rs.getString("project"),
+                rs.getString("manager"),
+                rs.getString("status"),
+                rs.getString("overall_progress"),
+                rs.getString("total_milestones"),
+                rs.getString("milestone_names"),
+                rs.getString("total_tasks"),
+                rs.getString("task_titles"),
+                rs.getString("completed_tasks"),
+                rs.getString("canceled_tasks"),
+                rs.getString("avg_milestone_progress"),
+                rs.getString("involved_teams"),
+                rs.getString("team_leaders"));
+    }
+
+    /**
+     * Builds the query fetching the overview row of a project, with the given filters.
+     *
+     * @param projectStatus Filter by project status, or null
+     * @param managerId Filter by manager ID, or null
+     * @param showOverdueTasks Show only projects with overdue tasks
+     * @param showOverdueMilestones Show only projects with overdue milestones
+     * @param minCompletionRate Minimum task completion rate, or null
+     * @param maxCompletionRate Maximum task completion rate, or null
+     * @return The SQL query
+     */
+    public static String buildExecutiveQuery(String projectStatus, Integer managerId,
+                                    boolean showOverdueTasks, boolean showOverdueMilestones,
+                                    Double minCompletionRate, Double maxCompletionRate) {
+        // Create a single optimized SQL query using the vw_ExecutiveOverview view
+        StringBuilder queryBuilder = new StringBuilder(
+            "SELECT v.*, p.manager_id FROM vw_ExecutiveOverview v JOIN Projects p ON v.project_id = p.id WHERE v.project_id = ?"
+        );
+
+        appendExecutiveFilters(queryBuilder, projectStatus, managerId, showOverdueTasks, showOverdueMilestones,
+                minCompletionRate, maxCompletionRate);
+        return queryBuilder.toString();
+    }
+
+    /**
+     * Builds the query fetching the overview rows of several projects, with the given filters.
+     *
+     * @param idCount Number of project IDs in the IN list, 0 for all projects
+     * @param projectStatus Filter by project status, or null
+     * @param managerId Filter by manager ID, or null
+     * @param showOverdueTasks Show only projects with overdue tasks
+     * @param showOverdueMilestones Show only projects with overdue milestones
+     * @param minCompletionRate Minimum task completion rate, or null
+     * @param maxCompletionRate Maximum task completion rate, or null
+     * @return The SQL query
+     */
+    public static String buildExecutiveQuery(int idCount, String projectStatus, Integer managerId,
+                                             boolean showOverdueTasks, boolean showOverdueMilestones,
+                                             Double minCompletionRate, Double maxCompletionRate) {
+        StringBuilder queryBuilder = new StringBuilder(
+            "SELECT v.*, p.manager_id FROM vw_ExecutiveOverview v JOIN Projects p ON v.project_id = p.id WHERE v.project_id IS NOT NULL"
+        );
+
+        if (idCount > 0) {
+            queryBuilder.append(" AND v.project_id IN (");
+            for (int i = 0; i < idCount; i++) {
+                queryBuilder.append(i == 0 ? "?" : ", ?");
+            }
+            queryBuilder.append(")");
+        }
+
+        appendExecutiveFilters(queryBuilder, projectStatus, managerId, showOverdueTasks, showOverdueMilestones,
+                minCompletionRate, maxCompletionRate);
+        return queryBuilder.toString();
+    }
+
+    private static void appendExecutiveFilters(StringBuilder queryBuilder, String projectStatus, Integer managerId,
+                                               boolean showOverdueTasks, boolean showOverdueMilestones,
+                                               Double minCompletionRate, Double maxCompletionRate) {
+        // Add dynamic WHERE conditions
+        if (projectStatus != null && !projectStatus.isEmpty()) {
+            queryBuilder.append(" AND v.project_status = ?");
+        } else {
+            queryBuilder.append(" AND (? IS NULL OR v.project_status = ?)");
+        }
+
+        if (managerId != null) {
+            queryBuilder.append(" AND p.manager_id = ?");
+        } else {
+            queryBuilder.append(" AND (? IS NULL OR p.manager_id = ?)");
+        }
+
+        if (showOverdueTasks) {
+            queryBuilder.append(" AND v.overdue_tasks > 0");
+        } else {
+            queryBuilder.append(" AND (v.overdue_tasks > 0 OR ? = FALSE)");
+        }
+
+        if (showOverdueMilestones) {
+            queryBuilder.append(" AND v.overdue_milestones > 0");
+        } else {
+            queryBuilder.append(" AND (v.overdue_milestones > 0 OR ? = FALSE)");
+        }
+
+        if (minCompletionRate != null || maxCompletionRate != null) {
+            if (minCompletionRate != null) {
+                queryBuilder.append(" AND v.task_completion_rate >= ?");
+            }
+            if (maxCompletionRate != null) {
+                queryBuilder.append(" AND v.task_completion_rate <= ?");
+            }
+        } else {
+            queryBuilder.append(" AND v.task_completion_rate BETWEEN ? AND ?");
+        }
+    }
+
+    /**
+     * Fetches the overview row of a project.
+     *
+     * @param conn The database connection
+     * @param projectId The ID of the project
+     * @param projectStatus Filter by project status, or null
+     * @param managerId Filter by manager ID, or null
+     * @param showOverdueTasks Show only projects with overdue tasks
+     * @param showOverdueMilestones Show only projects with overdue milestones
+     * @param minCompletionRate Minimum task completion rate, or null
+     * @param maxCompletionRate Maximum task completion rate, or null
+     * @return The overview data, or null if the project does not match the filters
+     * @throws SQLException If a database error occurs
+     */
+    public static ExecutiveOverviewData fetchExecutiveOverview(Connection conn, int projectId,
+                                                               String projectStatus, Integer managerId,
+                                                               boolean showOverdueTasks, boolean showOverdueMilestones,
+                                                               Double minCompletionRate, Double maxCompletionRate) throws SQLException {
+        String query = buildExecutiveQuery(projectStatus, managerId, showOverdueTasks, showOverdueMilestones,
+                minCompletionRate, maxCompletionRate);
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            int paramIndex = 1;
+
+            // Set project ID
+            stmt.setInt(paramIndex++, projectId);
+
+            bindExecutiveFilters(stmt, paramIndex, projectStatus, managerId, showOverdueTasks, showOverdueMilestones,
+                    minCompletionRate, maxCompletionRate);
+
+            ReportQueryTimer timer = new ReportQueryTimer();
+            ExecutiveOverviewData data = null;
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    data = mapExecutiveRow(rs);
+                    timer.countRow();
+                }
+            }
+            String shape = ReportMetrics.filterShape("id", projectStatus != null && !projectStatus.isEmpty(), "status",
+                    managerId != null, "manager", showOverdueTasks, "overdueTasks",
+                    showOverdueMilestones, "overdueMilestones", minCompletionRate != null, "min",
+                    maxCompletionRate != null, "max");
+            timer.finish(ReportType.EXECUTIVE_OVERVIEW, shape, 1);
+            return data;
+        }
+    }
+
+    /**
+     * Streams the overview rows of the given projects to the handler as they are read.
+     * Large selections are split into several queries.
+     *
+     * @param conn The database connection
+     * @param projectIds The IDs of the projects, or null for all projects
+     * @param projectStatus Filter by project status, or null
+     * @param managerId Filter by manager ID, or null
+     * @param showOverdueTasks Show only projects with overdue tasks
+     * @param showOverdueMilestones Show only projects with overdue milestones
+     * @param minCompletionRate Minimum task completion rate, or null
+     * @param maxCompletionRate Maximum task completion rate, or null
+     * @param handler Receives each row
+     * @throws SQLException If a database error occurs
+     * @throws IOException If the handler fails
+     */
+    public static void forEachExecutiveOverview(Connection conn, List<Integer> projectIds,
+                                                String projectStatus, Integer managerId,
+                                                boolean showOverdueTasks, boolean showOverdueMilestones,
+                                                Double minCompletionRate, Double maxCompletionRate,
+                                                RowHandler<ExecutiveOverviewData> handler) throws SQLException, IOException {
+        if (projectIds == null) {
+            queryExecutiveOverviews(conn, List.of(), projectStatus, managerId, showOverdueTasks, showOverdueMilestones,
+                    minCompletionRate, maxCompletionRate, null, handler);
+            return;
+        }
+
+        // Query in chunks to keep the IN list at a reasonable size
+        for (int from = 0; from < projectIds.size(); from += QUERY_CHUNK_SIZE) {
+            List<Integer> chunk = projectIds.subList(from, Math.min(from + QUERY_CHUNK_SIZE, projectIds.size()));
+            queryExecutiveOverviews(conn, chunk, projectStatus, managerId, showOverdueTasks, showOverdueMilestones,
+                    minCompletionRate, maxCompletionRate, null, handler);
+        }
+    }
+
+    private static void queryExecutiveOverviews(Connection conn, List<Integer> projectIds,
+                                                String projectStatus, Integer managerId,
+                                                boolean showOverdueTasks, boolean showOverdueMilestones,
+                                                Double minCompletionRate, Double maxCompletionRate,
+                                                String orderBy, RowHandler<ExecutiveOverviewData> handler) throws SQLException, IOException {
+        String query = buildExecutiveQuery(projectIds.size(), projectStatus, managerId, showOverdueTasks, showOverdueMilestones,
+                minCompletionRate, maxCompletionRate);
+        if (orderBy != null) {
+            query += orderBy;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Let the MySQL driver stream rows instead of buffering the whole result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+
+            int paramIndex = 1;
+            for (int projectId : projectIds) {
+                stmt.setInt(paramIndex++, projectId);
+            }
+            bindExecutiveFilters(stmt, paramIndex, projectStatus, managerId, showOverdueTasks, showOverdueMilestones,
+                    minCompletionRate, maxCompletionRate);
+
+            // Database time only: the handler may lay out the row before the next one is read
+            ReportQueryTimer timer = new ReportQueryTimer();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ExecutiveOverviewData row = mapExecutiveRow(rs);
+                    timer.countRow();
+                    timer.pause();
+                    handler.accept(row);
+                    timer.resume();
+                }
+            }
+            String shape = ReportMetrics.filterShape(queryShape(orderBy),
+                    projectStatus != null && !projectStatus.isEmpty(), "status",
+                    managerId != null, "manager", showOverdueTasks, "overdueTasks",
+                    showOverdueMilestones, "overdueMilestones", minCompletionRate != null, "min",
+                    maxCompletionRate != null, "max");
+            timer.finish(ReportType.EXECUTIVE_OVERVIEW, shape, projectIds.size());
+        }
+    }
+
+    // Binds the parameters of the filters added by appendExecutiveFilters, starting at the given index
+    private static void bindExecutiveFilters(PreparedStatement stmt, int paramIndex, String projectStatus, Integer managerId,
+                                             boolean showOverdueTasks, boolean showOverdueMilestones,
+                                             Double minCompletionRate, Double maxCompletionRate) throws SQLException {
+        // Set project status
+        if (projectStatus != null && !projectStatus.isEmpty()) {
+            stmt.setString(paramIndex++, projectStatus);
+        } else {
+            stmt.setNull(paramIndex++, Types.VARCHAR);
+            stmt.setString(paramIndex++, "");  // Dummy value, won't be used
+        }
+
+        // Set manager ID
+        if (managerId != null) {
+            stmt.setInt(paramIndex++, managerId);
+        } else {
+            stmt.setNull(paramIndex++, Types.INTEGER);
+            stmt.setInt(paramIndex++, 0);  // Dummy value, won't be used
+        }
+
+        // Set overdue tasks flag
+        if (!showOverdueTasks) {
+            stmt.setBoolean(paramIndex++, showOverdueTasks);
+        }
+
+        // Set overdue milestones flag
+        if (!showOverdueMilestones) {
+            stmt.setBoolean(paramIndex++, showOverdueMilestones);
+        }
+
+        // Set completion rate range
+        if (minCompletionRate != null || maxCompletionRate != null) {
+            if (minCompletionRate != null) {
+                stmt.setDouble(paramIndex++, minCompletionRate);
+            }
+            if (maxCompletionRate != null) {
+                stmt.setDouble(paramIndex++, maxCompletionRate);
+            }
+        } else {
+            stmt.setDouble(paramIndex++, 0);
+            stmt.setDouble(paramIndex++, 100);
+        }
+    }
+
+    /**
+     * Maps the current row of the overview query.
+     * NULL completion rate and milestone progress are shown as 0 by the DTO.
+     *
+     * @param rs The result set positioned on a row
+     * @return The overview data of the row
+     * @throws SQLException If a database error occurs
+     */
+    public static ExecutiveOverviewData mapExecutiveRow(ResultSet rs) throws SQLException {
+        return new ExecutiveOverviewData(
+                rs.getInt("project_id"),
+                rs.getInt("manager_id"),
+                rs.getString("project"),
+                rs.getString("project_status"),
+                rs.getString("project_progress"),
+                rs.getString("project_manager"),
+                rs.getString("teams_involved"),
+                rs.getString("employees_assigned"),
+                rs.getString("milestones"),
+                rs.getString("total_tasks"),
+                rs.getString("tasks_done"),
+                rs.getString("tasks_canceled"),
+                rs.getString("task_completion_rate"),
+                rs.getString("avg_milestone_progress"),
+                rs.getString("overdue_milestones"),
+                rs.getString("overdue_tasks"),
+                rs.getString("involved_teams"),
+                rs.getString("team_leaders"),
+                rs.getString("task_titles"));
+    }
+}
@@ -0,0 +1,384 @@
+package org.example.data;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Report data read from a {@link ColumnarSnapshot} file instead of MySQL, for generating reports
+ * offline. The file is mapped into memory, so a report costs no network round trip; only
+ * {@link ColumnarSnapshotWriter} and {@link SnapshotDeltaSync} touch the database.
+ * <p>
+ * Filters on IDs, completion rates, statuses and managers are checked on the columns before a row
+ * is built, and the rows of a period are aggregated from the task assignments of the snapshot, with
+ * the overdue figures as of the day the snapshot was taken. When the file is replaced, or
+ * {@link SnapshotDeltaSync} adds a delta segment, the files are mapped again on the next call.
+ * The version of a user or project is the time its rows were read, so cached sections are rendered
+ * again only for the entities a segment changed.
+ * <p>
+ * The application uses it instead of the database when {@code -Dpz.offline.file} names a snapshot,
+ * see {@link ReportDataSources}.
+ */
+public class MappedSnapshotDataSource implements ReportDataSource {
+
+    private final Path file;
+    private SnapshotChain snapshot;
+    private String state;
+
+    /**
+     * Maps a snapshot file and its delta segments.
+     *
+     * @param file The snapshot file written by {@link ColumnarSnapshotWriter}
+     * @throws IOException If the file cannot be read or is not a snapshot
+     */
+    public MappedSnapshotDataSource(Path file) throws IOException {
+        this.file = file;
+        this.state = SnapshotChain.state(file);
+        this.snapshot = SnapshotChain.open(file);
+    }
+
+    /**
+     * Gets the current snapshot, mapping the files again if the snapshot has been replaced or
+     * a delta segment added. If the new files cannot be read, the previous snapshot stays in use.
+     *
+     * @return The snapshot
+     */
+    synchronized SnapshotChain snapshot() {
+        try {
+            // Read before opening: files changed meanwhile are noticed on the next call
+            String current = SnapshotChain.state(file);
+            if (!current.equals(state)) {
+                snapshot = SnapshotChain.open(file);
+                state = current;
+                System.out.println("Wczytano nową migawkę danych: " + file);
+            }
+        } catch (IOException e) {
+            System.err.println("Nie można wczytać migawki " + file + ", używana jest poprzednia: " + e.getMessage());
+        }
+        return snapshot;
+    }
+
+    @Override
+    public void forEachEmployee(List<Integer> userIds, Double minPerformance, Double maxPerformance,
+                                RowHandler<EmployeePerformanceData> handler) throws IOException {
+        SnapshotChain.Table employees = snapshot().table(ColumnarSnapshot.EMPLOYEES);
+        SnapshotChain.Column rate = employees.column("completion_rate");
+        for (int row : rows(employees, userIds, "user_id")) {
+            // Same range checks as the performance query
+            if (minPerformance != null && rate.getDouble(row) < minPerformance) {
+                continue;
+            }
+            if (maxPerformance != null && rate.getDouble(row) > maxPerformance) {
+                continue;
+            }
+            handler.accept(employee(employees, row));
+        }
+    }
+
+    @Override
+    public void forEachEmployeeInPeriod(List<Integer> userIds, LocalDate from, LocalDate to,
+                                        Double minPerformance, Double maxPerformance,
+                                        RowHandler<EmployeePerformanceData> handler) throws IOException {
+        SnapshotChain current = snapshot();
+        SnapshotChain.Table employees = current.table(ColumnarSnapshot.EMPLOYEES);
+        SnapshotChain.Table assignments = current.table(ColumnarSnapshot.ASSIGNMENTS);
+        SnapshotChain.Column ids = employees.column("user_id");
+        SnapshotChain.Column assignee = assignments.column("user_id");
+        SnapshotChain.Column created = assignments.column("created_day");
+        SnapshotChain.Column deadline = assignments.column("deadline_day");
+        SnapshotChain.StringColumn titles = assignments.strings("title");
+        SnapshotChain.StringColumn statuses = assignments.strings("status");
+        long first = from != null ? from.toEpochDay() : Long.MIN_VALUE;
+        long last = to != null ? to.toEpochDay() : Long.MAX_VALUE;
+
+        for (int row : rows(employees, userIds, "user_id")) {
+            int userId = ids.getInt(row);
+            int total = 0;
+            int completed = 0;
+            int canceled = 0;
+            int overdue = 0;
+            StringBuilder completedTitles = new StringBuilder();
+            StringBuilder pendingTitles = new StringBuilder();
+
+            // The assignments are sorted by user, so those of one user are adjacent
+            int start = assignments.find(assignee, userId);
+            for (int a = start; a >= 0 && a < assignments.rows && assignee.getInt(a) == userId; a++) {
+                int day = created.getInt(a);
+                if (day < first || day > last) {
+                    continue;
+                }
+                String status = statuses.get(a);
+                String title = titles.get(a);
+                String date = LocalDate.ofEpochDay(day).toString();
+                total++;
+                if ("zrobione".equals(status)) {
+                    completed++;
+                    append(completedTitles, title == null ? null : title + " (" + date + ")");
+                } else {
+                    if ("anulowane".equals(status)) {
+                        canceled++;
+                    } else if (deadline.getInt(a) != ColumnarSnapshot.NULL_INT && deadline.getInt(a) < current.getDataDay()) {
+                        overdue++;
+                    }
+                    append(pendingTitles, title == null || status == null ? null : title + " (" + status + ", " + date + ")");
+                }
+            }
+
+            double completionRate = total > 0 ? completed * 100.0 / total : 0;
+            if (minPerformance != null && completionRate < minPerformance) {
+                continue;
+            }
+            if (maxPerformance != null && completionRate > maxPerformance) {
+                continue;
+            }
+            handler.accept(new EmployeePerformanceData(userId, employees.strings("employee").get(row),
+                    employees.strings("team_leader").get(row), total, completed, canceled, overdue,
+                    completedTitles.isEmpty() ? null : completedTitles.toString(),
+                    pendingTitles.isEmpty() ? null : pendingTitles.toString(), completionRate));
+        }
+    }
+
+    @Override
+    public void forEachProject(List<Integer> projectIds, String projectStatus, Integer managerId,
+                               RowHandler<ProjectProgressData> handler) throws IOException {
+        SnapshotChain.Table projects = snapshot().table(ColumnarSnapshot.PROJECTS);
+        SnapshotChain.StringColumn status = projects.strings("status");
+        SnapshotChain.Column manager = projects.column("manager_id");
+        for (int row : rows(projects, projectIds, "project_id")) {
+            if (projectStatus != null && !projectStatus.isEmpty() && !projectStatus.equals(status.get(row))) {
+                continue;
+            }
+            if (managerId != null && managerId != manager.getInt(row)) {
+                continue;
+            }
+            handler.accept(project(projects, row));
+        }
+    }
+
+    @Override
+    public ExecutiveOverviewData fetchExecutiveOverview(int projectId, String projectStatus, Integer managerId,
+                                                        boolean showOverdueTasks, boolean showOverdueMilestones,
+                                                        Double minCompletionRate, Double maxCompletionRate) {
+        SnapshotChain.Table overviews = snapshot().table(ColumnarSnapshot.EXECUTIVE_OVERVIEWS);
+        int row = overviews.find(overviews.column("project_id"), projectId);
+        if (row < 0) {
+            return null;
+        }
+        ExecutiveOverviewData overview = overview(overviews, row);
+        return InMemoryReportDataSource.matches(overview, projectStatus, managerId, showOverdueTasks,
+                showOverdueMilestones, minCompletionRate, maxCompletionRate) ? overview : null;
+    }
+
+    @Override
+    public void forEachExecutiveOverview(List<Integer> projectIds, String projectStatus, Integer managerId,
+                                         boolean showOverdueTasks, boolean showOverdueMilestones,
+                                         Double minCompletionRate, Double maxCompletionRate,
+                                         RowHandler<ExecutiveOverviewData> handler) throws IOException {
+        SnapshotChain.Table overviews = snapshot().table(ColumnarSnapshot.EXECUTIVE_OVERVIEWS);
+        SnapshotChain.StringColumn status = overviews.strings("project_status");
+        SnapshotChain.Column manager = overviews.column("manager_id");
+        for (int row : rows(overviews, projectIds, "project_id")) {
+            // The cheap column checks first; the rest needs the parsed figures of the row
+            if (projectStatus != null && !projectStatus.isEmpty() && !projectStatus.equals(status.get(row))) {
+                continue;
+            }
+            if (managerId != null && managerId != manager.getInt(row)) {
+                continue;
+            }
+            ExecutiveOverviewData overview = overview(overviews, row);
+            if (InMemoryReportDataSource.matches(overview, projectStatus, managerId, showOverdueTasks,
+                    showOverdueMilestones, minCompletionRate, maxCompletionRate)) {
+                handler.accept(overview);
+            }
+        }
+    }
+
+    @Override
+    public void forEachEmployeeSorted(SummaryColumn sortBy, boolean descending,
+                                      RowHandler<EmployeePerformanceData> handler) throws IOException {
+        SnapshotChain.Table employees = snapshot().table(ColumnarSnapshot.EMPLOYEES);
+        for (int row : sortedRows(employees, "user_id", sortBy, false, descending, employees.rows)) {
+            handler.accept(employee(employees, row));
+        }
+    }
+
+    @Override
+    public void forEachExecutiveOverviewSorted(SummaryColumn sortBy, boolean descending,
+                                               RowHandler<ExecutiveOverviewData> handler) throws IOException {
+        SnapshotChain.Table overviews = snapshot().table(ColumnarSnapshot.EXECUTIVE_OVERVIEWS);
+        for (int row : sortedRows(overviews, "project_id", sortBy, true, descending, overviews.rows)) {
+            handler.accept(overview(overviews, row));
+        }
+    }
+
+    // Ranked on the column values; only the selected rows are built
+    @Override
+    public void forEachEmployeeTop(SummaryColumn column, boolean highest, int limit,
+                                   RowHandler<EmployeePerformanceData> handler) throws IOException {
+        SnapshotChain.Table employees = snapshot().table(ColumnarSnapshot.EMPLOYEES);
+        for (int row : sortedRows(employees, "user_id", requireColumn(column), false, highest, limit)) {
+            handler.accept(employee(employees, row));
+        }
+    }
+
+    @Override
+    public void forEachExecutiveOverviewTop(SummaryColumn column, boolean highest, int limit,
+                                            RowHandler<ExecutiveOverviewData> handler) throws IOException {
+        SnapshotChain.Table overviews = snapshot().table(ColumnarSnapshot.EXECUTIVE_OVERVIEWS);
+        for (int row : sortedRows(overviews, "project_id", requireColumn(column), true, highest, limit)) {
+            handler.accept(overview(overviews, row));
+        }
+    }
+
+    @Override
+    public Map<Integer, Long> entityVersions(ChangeTracker.Entity entity, List<Integer> ids) {
+        SnapshotChain current = snapshot();
+        Map<Integer, Long> result = new HashMap<>();
+        for (Integer id : ids) {
+            result.put(id, current.entityCreatedAt(entity, id));
+        }
+        return result;
+    }
+
+    @Override
+    public String versionToken() {
+        SnapshotChain current = snapshot();
+        return "offline|" + LocalDate.ofEpochDay(current.getDataDay()) + "|" + current.getVersion() + "|" + current.getCreatedAt();
+    }
+
+    /**
+     * Finds the rows of the given IDs, in ID order.
+     *
+     * @param table A table sorted by its ID column
+     * @param ids The IDs, or null for all rows
+     * @param idColumn The ID column
+     * @return The row numbers
+     */
+    private static int[] rows(SnapshotChain.Table table, List<Integer> ids, String idColumn) {
+        if (ids == null) {
+            int[] all = new int[table.rows];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        SnapshotChain.Column column = table.column(idColumn);
+        return ids.stream().mapToInt(Integer::intValue).sorted().distinct()
+                .map(id -> table.find(column, id)).filter(row -> row >= 0).toArray();
+    }
+
+    /**
+     * Orders the rows by a summary column, like {@link SummaryColumn#employeeOrder} and
+     * {@link SummaryColumn#projectOrder}, and keeps the first ones.
+     */
+    private static List<Integer> sortedRows(SnapshotChain.Table table, String idColumn, SummaryColumn sortBy,
+                                            boolean projects, boolean descending, int limit) {
+        if (sortBy != null && sortBy.isProjectColumn() != projects) {
+            throw new IllegalArgumentException("Kolumna " + sortBy + " nie dotyczy tego zestawienia");
+        }
+        SnapshotChain.Column ids = table.column(idColumn);
+        Comparator<Integer> order;
+        if (sortBy == null) {
+            order = Comparator.comparingInt(ids::getInt);
+            if (descending) {
+                order = order.reversed();
+            }
+        } else {
+            SnapshotChain.Column values = table.column(sortBy.getColumn());
+            int sign = descending ? -1 : 1;
+            order = Comparator.comparingDouble((Integer row) -> sign * values.getNumber(row))
+                    .thenComparingInt(ids::getInt);
+        }
+
+        if (limit >= table.rows) {
+            List<Integer> rows = new ArrayList<>(table.rows);
+            for (int row = 0; row < table.rows; row++) {
+                rows.add(row);
+            }
+            rows.sort(order);
+            return rows;
+        }
+        TopKSelection<Integer> selection = new TopKSelection<>(limit, order);
+        for (int row = 0; row < table.rows; row++) {
+            selection.accept(row);
+        }
+        return selection.result();
+    }
+
+    private static SummaryColumn requireColumn(SummaryColumn column) {
+        if (column == null) {
+            throw new IllegalArgumentException("Nie wybrano kolumny rankingu");
+        }
+        return column;
+    }
+
+    private static void append(StringBuilder titles, String title) {
+        if (title == null) {
+            return;
+        }
+        if (!titles.isEmpty()) {
+            titles.append('\n');
+        }
+        titles.append(title);
+    }
+
+    private static EmployeePerformanceData employee(SnapshotChain.Table table, int row) {
+        return new EmployeePerformanceData(
+                table.column("user_id").getInt(row),
+                table.strings("employee").get(row),
+                table.strings("team_leader").get(row),
+                table.column("total_tasks").getInt(row),
+                table.column("completed").getInt(row),
+                table.column("canceled").getInt(row),
+                table.column("overdue_tasks").getInt(row),
+                table.strings("completed_tasks_titles").get(row),
+                table.strings("pending_tasks_titles").get(row),
+                table.column("completion_rate").getDouble(row));
+    }
+
+    private static ProjectProgressData project(SnapshotChain.Table table, int row) {
+        return new ProjectProgressData(
+                table.column("project_id").getInt(row),
+                table.column("manager_id").getInt(row),
+                table.strings("project").get(row),
+                table.strings("manager").get(row),
+                table.strings("status").get(row),
+                table.strings("overall_progress").get(row),
+                table.strings("total_milestones").get(row),
+                table.strings("milestone_names").get(row),
+                table.strings("total_tasks").get(row),
+                table.strings("task_titles").get(row),
+                table.strings("completed_tasks").get(row),
+                table.strings("canceled_tasks").get(row),
+                table.strings("avg_milestone_progress").get(row),
+                table.strings("involved_teams").get(row),
+                table.strings("team_leaders").get(row));
+    }
+
+    private static ExecutiveOverviewData overview(SnapshotChain.Table table, int row) {
+        return new ExecutiveOverviewData(
+                table.column("project_id").getInt(row),
+                table.column("manager_id").getInt(row),
+                table.strings("project").get(row),
+                table.strings("project_status").get(row),
+                table.strings("project_progress").get(row),
+                table.strings("project_manager").get(row),
+                table.strings("teams_involved").get(row),
+                table.strings("employees_assigned").get(row),
+                table.strings("milestones").get(row),
+                table.strings("total_tasks").get(row),
+                table.strings("tasks_done").get(row),
+                table.strings("tasks_canceled").get(row),
+                table.strings("task_completion_rate").get(row),
+                table.strings("avg_milestone_progress").get(row),
+                table.strings("overdue_milestones").get(row),
+                table.strings("overdue_tasks").get(row),
+                table.strings("involved_teams").get(row),
+                table.strings("team_leaders").get(row),
+                table.strings("task_titles").get(row));
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.data;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Collects the rows of a streamed query and puts them in the order of the requested IDs,
+ * for the {@code fetch*} methods of {@link ReportDataSource}.
+ */
+class OrderedRows {
+
+    /**
+     * Functional interface for a query streaming its rows to a handler.
+     */
+    @FunctionalInterface
+    interface Query<T> {
+        void forEach(RowHandler<T> handler) throws SQLException, IOException;
+    }
+
+    /**
+     * Runs the query and returns its rows in the order of the IDs. IDs without a row are skipped.
+     *
+     * @param ids The requested IDs, in output order
+     * @param idOf Gets the ID of a row
+     * @param query The query to run
+     * @return The rows
+     * @throws SQLException If a database error occurs
+     */
+    static <T> List<T> fetch(List<Integer> ids, ToIntFunction<T> idOf, Query<T> query) throws SQLException {
+        Map<Integer, T> byId = new HashMap<>();
+        try {
+            query.forEach(row -> byId.put(idOf.applyAsInt(row), row));
+        } catch (IOException e) {
+            // Collecting into a map does not perform any I/O
+            throw new IllegalStateException(e);
+        }
+
+        List<T> rows = new ArrayList<>();
+        for (int id : ids) {
+            T row = byId.get(id);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.data;
+
+/**
+ * Progress figures of a single project, as shown in the project progress report.
+ */
+public class ProjectProgressData {
+    private final int projectId;
+    private final int managerId;
+    private final String project;
+    private final String manager;
+    private final String status;
+    private final String overallProgress;
+    private final String totalMilestones;
+    private final String milestoneNames;
+    private final String totalTasks;
+    private final String taskTitles;
+    private final String completedTasks;
+    private final String canceledTasks;
+    private final String avgMilestoneProgress;
+    private final String involvedTeams;
+    private final String teamLeaders;
+
+    public ProjectProgressData(int projectId, int managerId, String project, String manager, String status,
+                               String overallProgress, String totalMilestones, String milestoneNames,
+                               String totalTasks, String taskTitles, String completedTasks,
+                               String canceledTasks, String avgMilestoneProgress,
+                               String involvedTeams, String teamLeaders) {
+        this.projectId = projectId;
+        this.managerId = managerId;
+        this.project = project;
+        this.manager = manager;
+        this.status = status;
+        this.overallProgress = overallProgress;
+        this.totalMilestones = totalMilestones;
+        this.milestoneNames = milestoneNames;
+        this.totalTasks = totalTasks;
+        this.taskTitles = taskTitles;
+        this.completedTasks = completedTasks;
+        this.canceledTasks = canceledTasks;
+        this.avgMilestoneProgress = avgMilestoneProgress;
+        this.involvedTeams = involvedTeams;
+        this.teamLeaders = teamLeaders;
+    }
+
+    public int getProjectId() {
+        return projectId;
+    }
+
+    public int getManagerId() {
+        return managerId;
+    }
+
+    public String getProject() {
+        return project;
+    }
+
+    public String getManager() {
+        return manager;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getOverallProgress() {
+        return overallProgress;
+    }
+
+    public String getTotalMilestones() {
+        return totalMilestones;
+    }
+
+    public String getMilestoneNames() {
+        return milestoneNames != null ? milestoneNames : "Brak";
+    }
+
+    public String getTotalTasks() {
+        return totalTasks;
+    }
+
+    public String getTaskTitles() {
+        return taskTitles != null ? taskTitles : "Brak";
+    }
+
+    public String getCompletedTasks() {
+        return completedTasks;
+    }
+
+    public String getCanceledTasks() {
+        return canceledTasks;
+    }
+
+    public String getAvgMilestoneProgress() {
+        return avgMilestoneProgress;
+    }
+
+    public String getInvolvedTeams() {
+        return involvedTeams != null ? involvedTeams : "Brak";
+    }
+
+    public String getTeamLeaders() {
+        return teamLeaders != null ? teamLeaders : "Brak";
+    }
+}
@@ -0,0 +1,267 @@
+package org.example.data;
+
+import org.example.DatabaseConnector;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Source of the rows the reports are built from.
+ * The generators only lay out what a data source returns, so rendering can be measured,
+ * parallelised and cached independently of where the rows come from.
+ *
+ * @see JdbcReportDataSource
+ * @see InMemoryReportDataSource
+ * @see ReportDataSources
+ */
+public interface ReportDataSource {
+
+    /**
+     * Streams the performance rows of the given employees to the handler as they are read.
+     *
+     * @param userIds The IDs of the employees, or null for all employees
+     * @param minPerformance Minimum completion rate, or null
+     * @param maxPerformance Maximum completion rate, or null
+     * @param handler Receives each row
+     * @throws SQLException If a database error occurs
+     * @throws IOException If the handler fails
+     */
+    void forEachEmployee(List<Integer> userIds, Double minPerformance, Double maxPerformance,
+                         RowHandler<EmployeePerformanceData> handler) throws SQLException, IOException;
+
+    /**
+     * Streams the performance rows of the given employees to the handler, counting only the tasks
+     * created in the given period.
+     *
+     * @param userIds The IDs of the employees, or null for all employees
+     * @param from First day of the period, or null for no lower bound
+     * @param to Last day of the period (inclusive), or null for no upper bound
+     * @param minPerformance Minimum completion rate in the period, or null
+     * @param maxPerformance Maximum completion rate in the period, or null
+     * @param handler Receives each row
+     * @throws SQLException If a database error occurs
+     * @throws IOException If the handler fails
+     */
+    void forEachEmployeeInPeriod(List<Integer> userIds, LocalDate from, LocalDate to,
+                                 Double minPerformance, Double maxPerformance,
+                                 RowHandler<EmployeePerformanceData> handler) throws SQLException, IOException;
+
+    /**
+     * Streams the progress rows of the given projects to the handler as they are read.
+     *
+     * @param projectIds The IDs of the projects, or null for all projects
+     * @param projectStatus Filter by project status, or null
+     * @param managerId Filter by manager ID, or null
+     * @param handler Receives each row
+     * @throws SQLException If a database error occurs
+     * @throws IOException If the handler fails
+     */
+    void forEachProject(List<Integer> projectIds, String projectStatus, Integer managerId,
+                        RowHandler<ProjectProgressData> handler) throws SQLException, IOException;
+
+    /**
+     * Fetches the overview row of a project.
+     *
+     * @param projectId The ID of the project
+     * @param projectStatus Filter by project status, or null
+     * @param managerId Filter by manager ID, or null
+     * @param showOverdueTasks Show only projects with overdue tasks
+     * @param showOverdueMilestones Show only projects with overdue milestones
+     * @param minCompletionRate Minimum task completion rate, or null
+     * @param maxCompletionRate Maximum task completion rate, or null
+     * @return The overview data, or null if the project does not match the filters
+     * @throws SQLException If a database error occurs
+     */
+    ExecutiveOverviewData fetchExecutiveOverview(int projectId, String projectStatus, Integer managerId,
+                                                 boolean showOverdueTasks, boolean showOverdueMilestones,
+                                                 Double minCompletionRate, Double maxCompletionRate) throws SQLException;
+
+    /**
+     * Streams the overview rows of the given projects to the handler as they are read.
+     * The filters are the same as for {@link #fetchExecutiveOverview}.
+     *
+     * @param projectIds The IDs of the projects, or null for all projects
+     * @param projectStatus Filter by project status, or null
+     * @param managerId Filter by manager ID, or null
+     * @param showOverdueTasks Show only projects with overdue tasks
+     * @param showOverdueMilestones Show only projects with overdue milestones
+     * @param minCompletionRate Minimum task completion rate, or null
+     * @param maxCompletionRate Maximum task completion rate, or null
+     * @param handler Receives each row
+     * @throws SQLException If a database error occurs
+     * @throws IOException If the handler fails
+     */
+    void forEachExecutiveOverview(List<Integer> projectIds, String projectStatus, Integer managerId,
+                                  boolean showOverdueTasks, boolean showOverdueMilestones,
+                                  Double minCompletionRate, Double maxCompletionRate,
+                                  RowHandler<ExecutiveOverviewData> handler) throws SQLException, IOException;
+
+    /**
+     * Streams the performance rows of all employees to the handler, sorted by a numeric column.
+     * Ties and a null column keep the order of the user IDs.
+     *
+     * @param sortBy An employee column, or null to sort by user ID
+     * @param descending Whether the largest values come first
+     * @param handler Receives each row
+     * @throws SQLException If a database error occurs
+     * @throws IOException If the handler fails
+     */
+    void forEachEmployeeSorted(SummaryColumn sortBy, boolean descending,
+                               RowHandler<EmployeePerformanceData> handler) throws SQLException, IOException;
+
+    /**
+     * Streams the overview rows of all projects to the handler, sorted by a numeric column.
+     * Ties and a null column keep the order of the project IDs.
+     *
+     * @param sortBy A project column, or null to sort by project ID
+     * @param descending Whether the largest values come first
+     * @param handler Receives each row
+     * @throws SQLException If a database error occurs
+     * @throws IOException If the handler fails
+     */
+    void forEachExecutiveOverviewSorted(SummaryColumn sortBy, boolean descending,
+                                        RowHandler<ExecutiveOverviewData> handler) throws SQLException, IOException;
+
+    /**
+     * Streams the employees with the highest or lowest values of a column, best ranked first,
+     * in the order of {@link #forEachEmployeeSorted}.
+     * The default streams all employees through a {@link TopKSelection}, in O(k) memory.
+     *
+     * @param column An employee column
+     * @param highest True for the highest values, false for the lowest
+     * @param limit How many employees to return
+     * @param handler Receives each of the selected rows
+     * @throws SQLException If a database error occurs
+     * @throws IOException If the handler fails
+     */
+    default void forEachEmployeeTop(SummaryColumn column, boolean highest, int limit,
+                                    RowHandler<EmployeePerformanceData> handler) throws SQLException, IOException {
+        TopKSelection<EmployeePerformanceData> selection = new TopKSelection<>(limit, column.employeeOrder(highest));
+        forEachEmployee(null, null, null, selection);
+        for (EmployeePerformanceData employee : selection.result()) {
+            handler.accept(employee);
+        }
+    }
+
+    /**
+     * Streams the projects with the highest or lowest values of a column, best ranked first,
+     * in the order of {@link #forEachExecutiveOverviewSorted}.
+     * The default streams all projects through a {@link TopKSelection}, in O(k) memory.
+     *
+     * @param column A project column
+     * @param highest True for the highest values, false for the lowest
+     * @param limit How many projects to return
+     * @param handler Receives each of the selected rows
+     * @throws SQLException If a database error occurs
+     * @throws IOException If the handler fails
+     */
+    default void forEachExecutiveOverviewTop(SummaryColumn column, boolean highest, int limit,
+                                             RowHandler<ExecutiveOverviewData> handler) throws SQLException, IOException {
+        TopKSelection<ExecutiveOverviewData> selection = new TopKSelection<>(limit, column.projectOrder(highest));
+        forEachExecutiveOverview(null, null, null, false, false, null, null, selection);
+        for (ExecutiveOverviewData overview : selection.result()) {
+            handler.accept(overview);
+        }
+    }
+
+    /**
+     * Reads the newest data version of each given project or user, for caching rendered sections.
+     *
+     * @param entity The kind of the entities
+     * @param ids The entity IDs
+     * @return Map of entity ID to its version, or null if this source does not track changes
+     * @throws SQLException If a database error occurs
+     */
+    default Map<Integer, Long> entityVersions(ChangeTracker.Entity entity, List<Integer> ids) throws SQLException {
+        return null;
+    }
+
+    /**
+     * Reads a token of the current state of the data, for caching whole reports.
+     * The default reads it from the database, see {@link DataVersion#currentToken}.
+     *
+     * @return The data version token, or null if the data has no version and must not be cached
+     * @throws SQLException If a database error occurs
+     */
+    default String versionToken() throws SQLException {
+        try (Connection conn = DatabaseConnector.getReadConnection()) {
+            return DataVersion.currentToken(conn);
+        }
+    }
+
+    /**
+     * Fetches the performance rows of the given employees, in the order of the IDs.
+     * Employees without data or outside the performance range are skipped.
+     *
+     * @param userIds The IDs of the employees
+     * @param minPerformance Minimum completion rate, or null
+     * @param maxPerformance Maximum completion rate, or null
+     * @return The performance rows
+     * @throws SQLException If a database error occurs
+     */
+    default List<EmployeePerformanceData> fetchEmployees(List<Integer> userIds, Double minPerformance,
+                                                         Double maxPerformance) throws SQLException {
+        return OrderedRows.fetch(userIds, EmployeePerformanceData::getUserId,
+                handler -> forEachEmployee(userIds, minPerformance, maxPerformance, handler));
+    }
+
+    /**
+     * Fetches the performance rows of the given employees for tasks created in a period, in the order of the IDs.
+     * Employees outside the performance range are skipped.
+     *
+     * @param userIds The IDs of the employees
+     * @param from First day of the period, or null for no lower bound
+     * @param to Last day of the period (inclusive), or null for no upper bound
+     * @param minPerformance Minimum completion rate in the period, or null
+     * @param maxPerformance Maximum completion rate in the period, or null
+     * @return The performance rows
+     * @throws SQLException If a database error occurs
+     */
+    default List<EmployeePerformanceData> fetchEmployeesInPeriod(List<Integer> userIds, LocalDate from, LocalDate to,
+                                                                 Double minPerformance, Double maxPerformance) throws SQLException {
+        return OrderedRows.fetch(userIds, EmployeePerformanceData::getUserId,
+                handler -> forEachEmployeeInPeriod(userIds, from, to, minPerformance, maxPerformance, handler));
+    }
+
+    /**
+     * Fetches the progress rows of the given projects, in the order of the IDs.
+     * Projects that do not match the filters are skipped.
+     *
+     * @param projectIds The IDs of the projects
+     * @param projectStatus Filter by project status, or null
+     * @param managerId Filter by manager ID, or null
+     * @return The progress rows
+     * @throws SQLException If a database error occurs
+     */
+    default List<ProjectProgressData> fetchProjects(List<Integer> projectIds, String projectStatus,
+                                                    Integer managerId) throws SQLException {
+        return OrderedRows.fetch(projectIds, ProjectProgressData::getProjectId,
+                handler -> forEachProject(projectIds, projectStatus, managerId, handler));
+    }
+
+    /**
+     * Fetches the overview rows of the given projects, in the order of the IDs.
+     * Projects that do not match the filters are skipped.
+     *
+     * @param projectIds The IDs of the projects
+     * @param projectStatus Filter by project status, or null
+     * @param managerId Filter by manager ID, or null
+     * @param showOverdueTasks Show only projects with overdue tasks
+     * @param showOverdueMilestones Show only projects with overdue milestones
+     * @param minCompletionRate Minimum task completion rate, or null
+     * @param maxCompletionRate Maximum task completion rate, or null
+     * @return The overview rows
+     * @throws SQLException If a database error occurs
+     */
+    default List<ExecutiveOverviewData> fetchExecutiveOverviews(List<Integer> projectIds, String projectStatus, Integer managerId,
+                                                                boolean showOverdueTasks, boolean showOverdueMilestones,
+                                                                Double minCompletionRate, Double maxCompletionRate) throws SQLException {
+        return OrderedRows.fetch(projectIds, ExecutiveOverviewData::getProjectId,
+                handler -> forEachExecutiveOverview(projectIds, projectStatus, managerId, showOverdueTasks,
+                        showOverdueMilestones, minCompletionRate, maxCompletionRate, handler));
+    }
+}
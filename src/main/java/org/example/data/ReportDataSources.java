@@ -0,0 +1,45 @@
+package org.example.data;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Holder of the data source used by the report generators.
+ * The application reads from MySQL, or from a snapshot file when {@code -Dpz.offline.file} names one
+ * (see {@link MappedSnapshotDataSource}); benchmarks and load tests can switch to another source.
+ */
+public class ReportDataSources {
+
+    private static volatile ReportDataSource defaultSource = createDefault();
+
+    public static ReportDataSource getDefault() {
+        return defaultSource;
+    }
+
+    /**
+     * Replaces the data source used by the report generators.
+     *
+     * @param dataSource The new data source
+     */
+    public static void setDefault(ReportDataSource dataSource) {
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Źródło danych nie może być null");
+        }
+        defaultSource = dataSource;
+    }
+
+    // The snapshot file if one is configured and readable, otherwise the database
+    private static ReportDataSource createDefault() {
+        String offlineFile = System.getProperty("pz.offline.file");
+        if (offlineFile != null && !offlineFile.isBlank()) {
+            try {
+                ReportDataSource source = new MappedSnapshotDataSource(Path.of(offlineFile));
+                System.out.println("Raporty generowane z migawki danych: " + offlineFile);
+                return source;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Nie można otworzyć migawki " + offlineFile + ", używana jest baza danych: " + e.getMessage());
+            }
+        }
+        return new JdbcReportDataSource();
+    }
+}
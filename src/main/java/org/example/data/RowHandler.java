@@ -0,0 +1,11 @@
+package org.example.data;
+
+import java.io.IOException;
+
+/**
+ * Functional interface for consuming report rows one at a time, as they are read.
+ */
+@FunctionalInterface
+public interface RowHandler<T> {
+    void accept(T row) throws IOException;
+}
@@ -0,0 +1,472 @@
+package org.example.data;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A full snapshot together with the delta segments written after it, read as one snapshot.
+ * <p>
+ * Segments are files next to the snapshot, named after it with {@code .delta.} and their time, so
+ * their names sort in the order they were written. A segment replaces all rows of the users and
+ * projects it lists as changed. It is applied if it is newer than the snapshot and starts no later
+ * than the version reached so far; older segments were already merged into the snapshot, and a
+ * segment starting later means that one is missing, so it and the following ones are left out.
+ * <p>
+ * The rows of every table are merged into ID order once, when the chain is opened; reads go
+ * through two int arrays per table to the part that holds the row. A chain opened with
+ * {@link #openHeaders(Path)} skips the merge and only answers questions about its parts.
+ */
+class SnapshotChain {
+
+    private static final String DELTA_INFIX = ".delta.";
+
+    // The tables with report rows, and the ID column that picks the part holding each row
+    static final List<String> TABLES = List.of(ColumnarSnapshot.EMPLOYEES, ColumnarSnapshot.PROJECTS,
+            ColumnarSnapshot.EXECUTIVE_OVERVIEWS, ColumnarSnapshot.ASSIGNMENTS);
+    private static final Map<String, String> ID_COLUMNS = Map.of(
+            ColumnarSnapshot.EMPLOYEES, "user_id",
+            ColumnarSnapshot.PROJECTS, "project_id",
+            ColumnarSnapshot.EXECUTIVE_OVERVIEWS, "project_id",
+            ColumnarSnapshot.ASSIGNMENTS, "user_id");
+
+    private final List<ColumnarSnapshot> parts;
+    private final Owners users;
+    private final Owners projects;
+    private final Map<String, Table> tables = new HashMap<>();
+
+    private SnapshotChain(List<ColumnarSnapshot> parts, boolean merge) {
+        this.parts = parts;
+        if (!merge) {
+            this.users = null;
+            this.projects = null;
+            return;
+        }
+        this.users = new Owners(parts, ColumnarSnapshot.CHANGED_USERS, "user_id");
+        this.projects = new Owners(parts, ColumnarSnapshot.CHANGED_PROJECTS, "project_id");
+        for (String name : TABLES) {
+            String idColumn = ID_COLUMNS.get(name);
+            tables.put(name, new Table(parts, name, idColumn, idColumn.equals("user_id") ? users : projects));
+        }
+    }
+
+    /**
+     * Opens a snapshot file with its delta segments.
+     *
+     * @param file The full snapshot file
+     * @return The snapshot and the segments that apply to it
+     * @throws IOException If a file cannot be read or is not a snapshot
+     */
+    static SnapshotChain open(Path file) throws IOException {
+        return new SnapshotChain(openParts(file), true);
+    }
+
+    /**
+     * Opens a snapshot file with its delta segments without merging their tables, which costs
+     * time in proportion to the rows. Only the versions, times, segment and row counts of the
+     * chain can be read, not its tables.
+     *
+     * @param file The full snapshot file
+     * @return The snapshot and the segments that apply to it
+     * @throws IOException If a file cannot be read or is not a snapshot
+     */
+    static SnapshotChain openHeaders(Path file) throws IOException {
+        return new SnapshotChain(openParts(file), false);
+    }
+
+    private static List<ColumnarSnapshot> openParts(Path file) throws IOException {
+        ColumnarSnapshot base = ColumnarSnapshot.open(file);
+        if (base.isDelta()) {
+            throw new IOException("Plik " + file + " jest segmentem zmian, a nie pełną migawką");
+        }
+        List<ColumnarSnapshot> parts = new ArrayList<>();
+        parts.add(base);
+        ColumnarSnapshot last = base;
+        for (Path delta : deltaFiles(file)) {
+            ColumnarSnapshot segment = ColumnarSnapshot.open(delta);
+            if (segment.getCreatedAt() <= last.getCreatedAt()) {
+                continue;
+            }
+            if (last.getVersion() == ColumnarSnapshot.UNKNOWN_VERSION || segment.getFromVersion() > last.getVersion()) {
+                System.err.println("Brak segmentu zmian przed " + delta + ", migawka kończy się na wersji " + last.getVersion());
+                break;
+            }
+            parts.add(segment);
+            last = segment;
+        }
+        return parts;
+    }
+
+    /**
+     * Describes the files of a snapshot, to notice when one was added, replaced or removed.
+     *
+     * @param file The full snapshot file
+     * @return Modification time of the snapshot and names of its segments
+     * @throws IOException If the files cannot be listed
+     */
+    static String state(Path file) throws IOException {
+        StringBuilder state = new StringBuilder(Files.getLastModifiedTime(file).toString());
+        for (Path delta : deltaFiles(file)) {
+            state.append('|').append(delta.getFileName());
+        }
+        return state.toString();
+    }
+
+    /**
+     * Gets the path of a new delta segment.
+     *
+     * @param file The full snapshot file
+     * @param createdAt The time of the segment
+     * @return The segment path
+     */
+    static Path deltaFile(Path file, long createdAt) {
+        return file.resolveSibling(file.getFileName() + DELTA_INFIX + String.format("%019d", createdAt));
+    }
+
+    /**
+     * Lists the delta segments of a snapshot file, oldest first.
+     *
+     * @param file The full snapshot file
+     * @return The segment files
+     * @throws IOException If the directory cannot be listed
+     */
+    static List<Path> deltaFiles(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        String prefix = file.getFileName() + DELTA_INFIX;
+        List<Path> deltas = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                path -> path.getFileName().toString().startsWith(prefix))) {
+            for (Path path : stream) {
+                deltas.add(path);
+            }
+        }
+        deltas.sort(null);
+        return deltas;
+    }
+
+    /**
+     * Removes the delta segments written up to the given time.
+     *
+     * @param file The full snapshot file
+     * @param createdAt The time of the newest segment to remove
+     * @throws IOException If a segment cannot be removed
+     */
+    static void deleteDeltas(Path file, long createdAt) throws IOException {
+        Path last = deltaFile(file, createdAt);
+        for (Path delta : deltaFiles(file)) {
+            if (delta.getFileName().compareTo(last.getFileName()) <= 0) {
+                Files.deleteIfExists(delta);
+            }
+        }
+    }
+
+    /**
+     * Gets the chain without its newest segment.
+     *
+     * @return The older parts of the chain
+     */
+    SnapshotChain withoutNewest() {
+        if (parts.size() < 2) {
+            throw new IllegalStateException("Migawka nie ma segmentów zmian");
+        }
+        return new SnapshotChain(parts.subList(0, parts.size() - 1), true);
+    }
+
+    /**
+     * Gets the number of delta segments applied to the snapshot.
+     *
+     * @return The number of segments
+     */
+    int getSegmentCount() {
+        return parts.size() - 1;
+    }
+
+    /**
+     * Gets the number of rows held by the delta segments, including those replaced by newer ones.
+     *
+     * @return The number of rows
+     */
+    long getSegmentRows() {
+        long rows = 0;
+        for (ColumnarSnapshot segment : parts.subList(1, parts.size())) {
+            rows += rows(segment);
+        }
+        return rows;
+    }
+
+    /**
+     * Gets the number of rows of the full snapshot, without the segments.
+     *
+     * @return The number of rows
+     */
+    long getSnapshotRows() {
+        return rows(parts.get(0));
+    }
+
+    private static long rows(ColumnarSnapshot part) {
+        long rows = 0;
+        for (String name : TABLES) {
+            rows += part.table(name).rows;
+        }
+        return rows;
+    }
+
+    long getCreatedAt() {
+        return newest().getCreatedAt();
+    }
+
+    int getDataDay() {
+        return newest().getDataDay();
+    }
+
+    long getVersion() {
+        return newest().getVersion();
+    }
+
+    /**
+     * Gets the version the next delta sync reads changes after: the version of the part before the
+     * newest one. Reading one sync back picks up changes whose transactions committed only after
+     * the newest segment was written.
+     *
+     * @return The change log version
+     */
+    long getResyncVersion() {
+        return parts.get(Math.max(parts.size() - 2, 0)).getVersion();
+    }
+
+    /**
+     * Gets the time of the part holding the rows of a user or project.
+     *
+     * @param entity The kind of the entity
+     * @param id The entity ID
+     * @return The time the rows were read, in milliseconds since the epoch
+     */
+    long entityCreatedAt(ChangeTracker.Entity entity, int id) {
+        if (users == null) {
+            throw new IllegalStateException("Tabele migawki nie zostały scalone");
+        }
+        Owners owners = entity == ChangeTracker.Entity.USER ? users : projects;
+        return parts.get(owners.owner(id)).getCreatedAt();
+    }
+
+    /**
+     * Gets a merged table.
+     *
+     * @param name The table name, one of {@link #TABLES}
+     * @return The table
+     * @throws IllegalStateException If there is no such table
+     */
+    Table table(String name) {
+        Table table = tables.get(name);
+        if (table == null && users == null) {
+            throw new IllegalStateException("Tabele migawki nie zostały scalone");
+        }
+        if (table == null) {
+            throw new IllegalStateException("Brak tabeli " + name + " w migawce");
+        }
+        return table;
+    }
+
+    private ColumnarSnapshot newest() {
+        return parts.get(parts.size() - 1);
+    }
+
+    /**
+     * The newest part that changed each user or each project.
+     */
+    private static class Owners {
+        // Sorted IDs changed by any segment, with the index of the newest part changing each
+        private final int[] ids;
+        private final int[] owners;
+
+        Owners(List<ColumnarSnapshot> parts, String table, String idColumn) {
+            Map<Integer, Integer> newest = new HashMap<>();
+            for (int p = 1; p < parts.size(); p++) {
+                ColumnarSnapshot.Table changed = parts.get(p).table(table);
+                ColumnarSnapshot.Column column = changed.column(idColumn);
+                for (int row = 0; row < changed.rows; row++) {
+                    newest.put(column.getInt(row), p);
+                }
+            }
+            ids = newest.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            owners = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                owners[i] = newest.get(ids[i]);
+            }
+        }
+
+        int owner(int id) {
+            int index = Arrays.binarySearch(ids, id);
+            return index >= 0 ? owners[index] : 0;
+        }
+    }
+
+    /**
+     * The rows of one table from all parts, each ID taken from the part that owns it.
+     */
+    static class Table {
+        final int rows;
+        private final ColumnarSnapshot.Table base;
+        private final Map<String, Column> columns = new HashMap<>();
+
+        Table(List<ColumnarSnapshot> parts, String name, String idColumn, Owners owners) {
+            ColumnarSnapshot.Table[] sources = new ColumnarSnapshot.Table[parts.size()];
+            for (int p = 0; p < sources.length; p++) {
+                sources[p] = parts.get(p).table(name);
+            }
+            base = sources[0];
+
+            int[] part = null;
+            int[] row = null;
+            int count = base.rows;
+            if (sources.length > 1) {
+                // Every part is in ID order: merge them, skipping the rows of IDs owned by a newer part
+                ColumnarSnapshot.Column[] ids = new ColumnarSnapshot.Column[sources.length];
+                int[] next = new int[sources.length];
+                int capacity = 0;
+                for (int p = 0; p < sources.length; p++) {
+                    ids[p] = sources[p].column(idColumn);
+                    capacity += sources[p].rows;
+                }
+                part = new int[capacity];
+                row = new int[capacity];
+                count = 0;
+                while (true) {
+                    int best = -1;
+                    int bestId = 0;
+                    for (int p = 0; p < sources.length; p++) {
+                        while (next[p] < sources[p].rows && owners.owner(ids[p].getInt(next[p])) != p) {
+                            next[p]++;
+                        }
+                        if (next[p] < sources[p].rows) {
+                            int id = ids[p].getInt(next[p]);
+                            if (best < 0 || id < bestId) {
+                                best = p;
+                                bestId = id;
+                            }
+                        }
+                    }
+                    if (best < 0) {
+                        break;
+                    }
+                    part[count] = best;
+                    row[count] = next[best]++;
+                    count++;
+                }
+                part = Arrays.copyOf(part, count);
+                row = Arrays.copyOf(row, count);
+            }
+            rows = count;
+
+            // Created up front, so that concurrent reports share them without locking
+            for (String column : base.columnNames()) {
+                ColumnarSnapshot.Column[] values = new ColumnarSnapshot.Column[sources.length];
+                for (int p = 0; p < sources.length; p++) {
+                    values[p] = sources[p].column(column);
+                }
+                columns.put(column, values[0].type == ColumnarSnapshot.STRING
+                        ? new StringColumn(values, part, row) : new Column(values, part, row));
+            }
+        }
+
+        Set<String> columnNames() {
+            return base.columnNames();
+        }
+
+        Column column(String name) {
+            Column column = columns.get(name);
+            if (column == null) {
+                throw new IllegalStateException("Brak kolumny " + name + " w migawce");
+            }
+            return column;
+        }
+
+        StringColumn strings(String name) {
+            Column column = column(name);
+            if (!(column instanceof StringColumn)) {
+                throw new IllegalStateException("Kolumna " + name + " migawki nie jest tekstowa");
+            }
+            return (StringColumn) column;
+        }
+
+        /**
+         * Finds the first row with the given value in an ascending int column.
+         *
+         * @param column The sorted column
+         * @param value The value to find
+         * @return The row, or -1 if no row has the value
+         */
+        int find(Column column, int value) {
+            int low = 0;
+            int high = rows;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (column.getInt(middle) < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low < rows && column.getInt(low) == value ? low : -1;
+        }
+    }
+
+    /**
+     * A column of a merged table. Without segments the rows are those of the snapshot.
+     */
+    static class Column {
+        final ColumnarSnapshot.Column[] values;
+        final int[] part;
+        final int[] row;
+
+        Column(ColumnarSnapshot.Column[] values, int[] part, int[] row) {
+            this.values = values;
+            this.part = part;
+            this.row = row;
+        }
+
+        byte type() {
+            return values[0].type;
+        }
+
+        int getInt(int r) {
+            return part == null ? values[0].getInt(r) : values[part[r]].getInt(row[r]);
+        }
+
+        double getDouble(int r) {
+            return part == null ? values[0].getDouble(r) : values[part[r]].getDouble(row[r]);
+        }
+
+        /**
+         * Reads a value as a number, for sorting and ranking.
+         *
+         * @param r The row
+         * @return The value; null and non-numeric text count as 0
+         */
+        double getNumber(int r) {
+            return part == null ? values[0].getNumber(r) : values[part[r]].getNumber(row[r]);
+        }
+    }
+
+    /**
+     * A text column of a merged table.
+     */
+    static class StringColumn extends Column {
+
+        StringColumn(ColumnarSnapshot.Column[] values, int[] part, int[] row) {
+            super(values, part, row);
+        }
+
+        String get(int r) {
+            ColumnarSnapshot.Column column = part == null ? values[0] : values[part[r]];
+            return ((ColumnarSnapshot.StringColumn) column).get(part == null ? r : row[r]);
+        }
+    }
+}
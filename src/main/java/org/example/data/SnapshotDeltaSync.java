@@ -0,0 +1,201 @@
+package org.example.data;
+
+import org.example.DatabaseConnector;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Keeps a {@link ColumnarSnapshot} file current without exporting the whole database again.
+ * <p>
+ * Each sync reads the users and projects logged in DataChanges after the version of the snapshot,
+ * and writes only their rows into a new delta segment next to the file, so a sync costs time in
+ * proportion to the changes. Rows that depend on the date are covered too: when the day changed
+ * since the last sync, the users and projects with a task or milestone deadline in the days that
+ * passed are read again, as their overdue figures may have changed.
+ * <p>
+ * When there are more than {@code -Dpz.offline.compactAfter} segments (default 8), or the
+ * segments hold more than a quarter of the rows of the snapshot, the older segments are merged
+ * into the snapshot on a background thread. The newest segment is kept, so the next sync can
+ * still read one sync back (see {@link SnapshotChain#getResyncVersion()}).
+ * <p>
+ * A transaction running across two syncs can still be missed; an occasional full export with
+ * {@link ColumnarSnapshotWriter} rebuilds everything. Run it from cron, e.g. every few minutes:
+ * {@code java -cp ... org.example.data.SnapshotDeltaSync /path/to/reports.snapshot}.
+ */
+public class SnapshotDeltaSync {
+
+    private static final int COMPACT_AFTER = Integer.getInteger("pz.offline.compactAfter", 8);
+
+    // Users whose tasks passed their deadline, and projects whose tasks or milestones did
+    private static final String OVERDUE_USERS_QUERY =
+            "SELECT DISTINCT ta.user_id FROM TaskAssignments ta JOIN Tasks t ON t.id = ta.task_id " +
+            "WHERE t.deadline >= ? AND t.deadline < ?";
+    private static final String OVERDUE_PROJECTS_QUERY =
+            "SELECT m.project_id FROM Milestones m WHERE m.deadline >= ? AND m.deadline < ? " +
+            "UNION SELECT m.project_id FROM Tasks t JOIN Milestones m ON m.id = t.milestone_id " +
+            "WHERE t.deadline >= ? AND t.deadline < ?";
+
+    // Serializes the writers of the full snapshot file: compaction and a sync starting from scratch
+    private static final Object SNAPSHOT_LOCK = new Object();
+
+    private static final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "snapshot-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // The compaction submitted last; the single compaction thread finishes the earlier ones first
+    private static volatile Future<?> lastCompaction;
+
+    /**
+     * Brings a snapshot file up to date. Without a snapshot, or for one taken from a database
+     * without the change log, the whole database is exported instead.
+     *
+     * @param file The snapshot file
+     * @return The number of rows written
+     * @throws SQLException If a database error occurs
+     * @throws IOException If a file cannot be read or written
+     */
+    public static synchronized int sync(Path file) throws SQLException, IOException {
+        // Only the headers are needed here, merging the tables would cost time per row
+        SnapshotChain chain = Files.exists(file) ? SnapshotChain.openHeaders(file) : null;
+        if (chain == null || chain.getVersion() == ColumnarSnapshot.UNKNOWN_VERSION) {
+            synchronized (SNAPSHOT_LOCK) {
+                return ColumnarSnapshotWriter.export(file);
+            }
+        }
+
+        int rows;
+        try (Connection conn = DatabaseConnector.getReadConnection()) {
+            DataChangeSet changes = ChangeTracker.changesSince(conn, chain.getResyncVersion());
+            Set<Integer> userIds = new TreeSet<>(changes.getUserIds());
+            Set<Integer> projectIds = new TreeSet<>(changes.getProjectIds());
+
+            int today = currentDay(conn);
+            if (today != chain.getDataDay()) {
+                addPassedDeadlines(conn, Math.min(today, chain.getDataDay()), Math.max(today, chain.getDataDay()),
+                        userIds, projectIds);
+            } else if (changes.getToVersion() <= chain.getVersion()) {
+                // Only changes the newest segment already has
+                return 0;
+            }
+
+            // A segment must be newer than the part it follows, even within the same millisecond
+            long createdAt = Math.max(System.currentTimeMillis(), chain.getCreatedAt() + 1);
+            rows = ColumnarSnapshotWriter.exportDelta(conn, SnapshotChain.deltaFile(file, createdAt),
+                    chain.getResyncVersion(), Math.max(changes.getToVersion(), chain.getVersion()), createdAt,
+                    userIds, projectIds);
+        }
+
+        SnapshotChain updated = SnapshotChain.openHeaders(file);
+        if (updated.getSegmentCount() > COMPACT_AFTER || updated.getSegmentRows() * 4 > updated.getSnapshotRows()) {
+            lastCompaction = compactor.submit(() -> compact(file));
+        }
+        return rows;
+    }
+
+    /**
+     * Merges all but the newest delta segment into the snapshot file.
+     *
+     * @param file The snapshot file
+     */
+    static void compact(Path file) {
+        synchronized (SNAPSHOT_LOCK) {
+            try {
+                SnapshotChain chain = SnapshotChain.open(file);
+                if (chain.getSegmentCount() < 2) {
+                    return;
+                }
+                long start = System.nanoTime();
+                SnapshotChain merged = chain.withoutNewest();
+                ColumnarSnapshotWriter.writeCompacted(merged, file);
+                SnapshotChain.deleteDeltas(file, merged.getCreatedAt());
+                System.out.printf("Scalono %d segmentów zmian migawki %s w %.1f s%n",
+                        merged.getSegmentCount(), file, (System.nanoTime() - start) / 1e9);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Nie można scalić segmentów zmian migawki " + file + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Waits for the compactions started by {@link #sync(Path)} so far to finish. Later syncs
+     * can still start new ones.
+     *
+     * @throws InterruptedException If the wait is interrupted
+     */
+    public static void awaitCompaction() throws InterruptedException {
+        Future<?> compaction = lastCompaction;
+        if (compaction == null) {
+            return;
+        }
+        try {
+            compaction.get();
+        } catch (ExecutionException e) {
+            // compact() reports its own failures, only errors get here
+            e.getCause().printStackTrace();
+        }
+    }
+
+    // The overdue figures of the views are relative to the database date
+    private static int currentDay(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT CURDATE()");
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return (int) rs.getDate(1).toLocalDate().toEpochDay();
+        }
+    }
+
+    // Adds the users and projects with a deadline in [fromDay, toDay), whose overdue figures changed
+    private static void addPassedDeadlines(Connection conn, int fromDay, int toDay,
+                                           Set<Integer> userIds, Set<Integer> projectIds) throws SQLException {
+        Date from = Date.valueOf(LocalDate.ofEpochDay(fromDay));
+        Date to = Date.valueOf(LocalDate.ofEpochDay(toDay));
+        try (PreparedStatement stmt = conn.prepareStatement(OVERDUE_USERS_QUERY)) {
+            stmt.setDate(1, from);
+            stmt.setDate(2, to);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    userIds.add(rs.getInt(1));
+                }
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(OVERDUE_PROJECTS_QUERY)) {
+            stmt.setDate(1, from);
+            stmt.setDate(2, to);
+            stmt.setDate(3, from);
+            stmt.setDate(4, to);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    projectIds.add(rs.getInt(1));
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws SQLException, IOException, InterruptedException {
+        if (args.length != 1) {
+            System.err.println("Użycie: SnapshotDeltaSync <plik migawki>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        int rows = sync(Path.of(args[0]));
+        System.out.printf("Zsynchronizowano migawkę %s: %d wierszy w %.1f s%n", args[0], rows, (System.nanoTime() - start) / 1e9);
+        awaitCompaction();
+    }
+}
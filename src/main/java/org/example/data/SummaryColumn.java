@@ -0,0 +1,147 @@
+package org.example.data;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Numeric columns a summary table can be sorted by.
+ * Each column belongs either to the project rows of vw_ExecutiveOverview or to the
+ * employee rows of vw_EmployeePerformance; only these view columns are ever put into ORDER BY.
+ */
+public enum SummaryColumn {
+    PROJECT_PROGRESS(true, "project_progress", "Postęp"),
+    PROJECT_COMPLETION_RATE(true, "task_completion_rate", "% ukończonych zadań"),
+    PROJECT_TOTAL_TASKS(true, "total_tasks", "Liczba zadań"),
+    PROJECT_EMPLOYEES(true, "employees_assigned", "Liczba pracowników"),
+    PROJECT_OVERDUE_TASKS(true, "overdue_tasks", "Opóźnione zadania"),
+    PROJECT_OVERDUE_MILESTONES(true, "overdue_milestones", "Opóźnione kamienie"),
+    EMPLOYEE_TOTAL_TASKS(false, "total_tasks", "Liczba zadań"),
+    EMPLOYEE_COMPLETED(false, "completed", "Ukończone zadania"),
+    EMPLOYEE_CANCELED(false, "canceled", "Anulowane zadania"),
+    EMPLOYEE_COMPLETION_RATE(false, "completion_rate", "% ukończonych zadań");
+
+    private final boolean project;
+    private final String column;
+    private final String label;
+
+    SummaryColumn(boolean project, String column, String label) {
+        this.project = project;
+        this.column = column;
+        this.label = label;
+    }
+
+    /**
+     * Checks whether the column belongs to the project rows.
+     *
+     * @return True for project columns, false for employee columns
+     */
+    public boolean isProjectColumn() {
+        return project;
+    }
+
+    /**
+     * Gets the name of the column in its view.
+     *
+     * @return The view column name
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Gets the column header shown in the report and the UI.
+     *
+     * @return The label
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Reads the value of this employee column from a row.
+     *
+     * @param employee The employee row
+     * @return The value
+     * @throws IllegalArgumentException If this is a project column
+     */
+    public double valueOf(EmployeePerformanceData employee) {
+        switch (this) {
+            case EMPLOYEE_TOTAL_TASKS:
+                return employee.getTotalTasks();
+            case EMPLOYEE_COMPLETED:
+                return employee.getCompleted();
+            case EMPLOYEE_CANCELED:
+                return employee.getCanceled();
+            case EMPLOYEE_COMPLETION_RATE:
+                return employee.getCompletionRate();
+            default:
+                throw new IllegalArgumentException("Kolumna " + this + " nie dotyczy tego zestawienia");
+        }
+    }
+
+    /**
+     * Reads the value of this project column from a row.
+     *
+     * @param overview The project row
+     * @return The value
+     * @throws IllegalArgumentException If this is an employee column
+     */
+    public double valueOf(ExecutiveOverviewData overview) {
+        switch (this) {
+            case PROJECT_PROGRESS:
+                return Double.parseDouble(overview.getProjectProgress());
+            case PROJECT_COMPLETION_RATE:
+                return Double.parseDouble(overview.getTaskCompletionRate());
+            case PROJECT_TOTAL_TASKS:
+                return Double.parseDouble(overview.getTotalTasks());
+            case PROJECT_EMPLOYEES:
+                return Double.parseDouble(overview.getEmployeesAssigned());
+            case PROJECT_OVERDUE_TASKS:
+                return Double.parseDouble(overview.getOverdueTasks());
+            case PROJECT_OVERDUE_MILESTONES:
+                return Double.parseDouble(overview.getOverdueMilestones());
+            default:
+                throw new IllegalArgumentException("Kolumna " + this + " nie dotyczy tego zestawienia");
+        }
+    }
+
+    /**
+     * Orders employee rows by this column like {@code ORDER BY column [DESC], user_id}.
+     *
+     * @param descending Whether the largest values come first
+     * @return The comparator
+     */
+    public Comparator<EmployeePerformanceData> employeeOrder(boolean descending) {
+        // Only the column is reversed, ties keep the ID order
+        int sign = descending ? -1 : 1;
+        return Comparator.comparingDouble((EmployeePerformanceData employee) -> sign * valueOf(employee))
+                .thenComparingInt(EmployeePerformanceData::getUserId);
+    }
+
+    /**
+     * Orders project rows by this column like {@code ORDER BY column [DESC], project_id}.
+     *
+     * @param descending Whether the largest values come first
+     * @return The comparator
+     */
+    public Comparator<ExecutiveOverviewData> projectOrder(boolean descending) {
+        int sign = descending ? -1 : 1;
+        return Comparator.comparingDouble((ExecutiveOverviewData overview) -> sign * valueOf(overview))
+                .thenComparingInt(ExecutiveOverviewData::getProjectId);
+    }
+
+    /**
+     * Gets the sortable columns of projects or employees.
+     *
+     * @param projects True for project columns, false for employee columns
+     * @return The columns in declaration order
+     */
+    public static SummaryColumn[] columns(boolean projects) {
+        return Arrays.stream(values()).filter(c -> c.project == projects).toArray(SummaryColumn[]::new);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.data;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the first k rows of a stream in a given order without sorting the whole stream.
+ * <p>
+ * The rows kept so far are held in a heap with the weakest on top; a new row replaces it only
+ * if it ranks higher. Each row costs O(log k) and memory stays O(k) however many rows are offered,
+ * so the selection can consume a streamed result of any size.
+ */
+public class TopKSelection<T> implements RowHandler<T> {
+
+    private final int limit;
+    private final Comparator<T> order;
+    private final PriorityQueue<T> heap;
+    private long offered;
+
+    /**
+     * Creates an empty selection.
+     *
+     * @param limit How many rows to keep
+     * @param order The ranking order, best row first
+     * @throws IllegalArgumentException If the limit is not positive
+     */
+    public TopKSelection(int limit, Comparator<T> order) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Liczba wierszy musi być dodatnia");
+        }
+        this.limit = limit;
+        this.order = order;
+        // Weakest kept row on top; the capacity grows only as far as the rows actually offered
+        this.heap = new PriorityQueue<>(Math.min(limit, 1024), order.reversed());
+    }
+
+    @Override
+    public void accept(T row) {
+        offered++;
+        if (heap.size() < limit) {
+            heap.add(row);
+        } else if (order.compare(row, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(row);
+        }
+    }
+
+    /**
+     * Gets the number of rows offered so far.
+     *
+     * @return The number of rows passed to {@link #accept}
+     */
+    public long getOffered() {
+        return offered;
+    }
+
+    /**
+     * Gets the selected rows.
+     *
+     * @return At most k rows, best first
+     */
+    public List<T> result() {
+        List<T> rows = new ArrayList<>(heap);
+        rows.sort(order);
+        return rows;
+    }
+}
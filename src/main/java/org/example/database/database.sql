@@ -31,6 +31,7 @@ CREATE TABLE `Users` (
                          `login` varchar(30) UNIQUE,
                          `password_hash` varchar(60),
                          `created_at` timestamp,
+                         `updated_at` timestamp DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
                          FOREIGN KEY (`team_id`) REFERENCES `Teams` (`id`) ON DELETE SET NULL ON UPDATE CASCADE,
                          FOREIGN KEY (`role_id`) REFERENCES `Roles` (`id`) ON DELETE SET NULL ON UPDATE CASCADE
 );
@@ -44,6 +45,7 @@ CREATE TABLE `Projects` (
                             `status` enum('planowany','wTrakcie','zakonczony','anulowany'),
                             `start_date` date NOT NULL,
                             `end_date` date,
+                            `updated_at` timestamp DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
                             FOREIGN KEY (`manager_id`) REFERENCES `Users` (`id`) ON DELETE CASCADE,
                             CHECK (end_date >= start_date)
 );
@@ -65,6 +67,7 @@ CREATE TABLE `Milestones` (
                               `progress` tinyint CHECK (progress BETWEEN 0 AND 100),
                               `description` text,
                               `deadline` date,
+                              `updated_at` timestamp DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
                               FOREIGN KEY (`project_id`) REFERENCES `Projects` (`id`) ON DELETE CASCADE
 );
 
@@ -80,6 +83,7 @@ CREATE TABLE `Tasks` (
                          `created_at` timestamp,
                          `deadline` date,
                          `canceled_by` int,
+                         `updated_at` timestamp DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
                          FOREIGN KEY (`milestone_id`) REFERENCES `Milestones` (`id`) ON DELETE CASCADE,
                          FOREIGN KEY (`canceled_by`) REFERENCES `Users` (`id`) ON DELETE RESTRICT
 );
@@ -90,6 +94,7 @@ CREATE TABLE `TaskAssignments` (
                                    `assigned_by` int,
                                    `user_id` int,
                                    `assigned_at` timestamp,
+                                   `updated_at` timestamp DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
                                    PRIMARY KEY (`task_id`, `user_id`),
                                    FOREIGN KEY (`task_id`) REFERENCES `Tasks` (`id`) ON DELETE CASCADE,
                                    FOREIGN KEY (`assigned_by`) REFERENCES `Users` (`id`) ON DELETE SET NULL ON UPDATE CASCADE,
@@ -121,6 +126,51 @@ CREATE TABLE `Notifications` (
                                  FOREIGN KEY (`report_id`) REFERENCES `Reports` (`id`) ON DELETE SET NULL ON UPDATE CASCADE
 );
 
+# dziennik zmian danych raportow, kazdy wiersz to nowa wersja dla projektu lub uzytkownika
+# wypelniany przez triggery sledzenia zmian, klienci pytaja o zmiany od znanej wersji
+CREATE TABLE `DataChanges` (
+                               `version` bigint PRIMARY KEY AUTO_INCREMENT,
+                               `entity_type` enum('projekt','uzytkownik') NOT NULL,
+                               `entity_id` int NOT NULL,
+                               `changed_at` timestamp DEFAULT CURRENT_TIMESTAMP
+);
+
+# dzienne migawki projektow do raportow trendow, wiersze sa tylko dopisywane
+# bez kluczy obcych, zeby historia zostala po usunieciu projektu
+CREATE TABLE `ProjectDailySnapshots` (
+                                         `snapshot_date` date NOT NULL,
+                                         `project_id` int NOT NULL,
+                                         `name` varchar(255),
+                                         `status` enum('planowany','wTrakcie','zakonczony','anulowany'),
+                                         `progress` decimal(5,2) NOT NULL DEFAULT 0,
+                                         `total_tasks` int NOT NULL DEFAULT 0,
+                                         `tasks_todo` int NOT NULL DEFAULT 0,
+                                         `tasks_in_progress` int NOT NULL DEFAULT 0,
+                                         `tasks_done` int NOT NULL DEFAULT 0,
+                                         `tasks_canceled` int NOT NULL DEFAULT 0,
+                                         `overdue_tasks` int NOT NULL DEFAULT 0,
+                                         `milestones` int NOT NULL DEFAULT 0,
+                                         `overdue_milestones` int NOT NULL DEFAULT 0,
+                                         `created_at` timestamp DEFAULT CURRENT_TIMESTAMP,
+                                         PRIMARY KEY (`snapshot_date`, `project_id`)
+);
+
+# dzienne migawki uzytkownikow (zadania przypisane), postep to sredni postep zadan
+CREATE TABLE `UserDailySnapshots` (
+                                      `snapshot_date` date NOT NULL,
+                                      `user_id` int NOT NULL,
+                                      `name` varchar(255),
+                                      `progress` decimal(5,2) NOT NULL DEFAULT 0,
+                                      `total_tasks` int NOT NULL DEFAULT 0,
+                                      `tasks_todo` int NOT NULL DEFAULT 0,
+                                      `tasks_in_progress` int NOT NULL DEFAULT 0,
+                                      `tasks_done` int NOT NULL DEFAULT 0,
+                                      `tasks_canceled` int NOT NULL DEFAULT 0,
+                                      `overdue_tasks` int NOT NULL DEFAULT 0,
+                                      `created_at` timestamp DEFAULT CURRENT_TIMESTAMP,
+                                      PRIMARY KEY (`snapshot_date`, `user_id`)
+);
+
 #============
 # indexy
 #============
@@ -131,6 +181,8 @@ CREATE INDEX idx_tasks_status_priority_deadline ON Tasks(status, priority, deadl
 CREATE INDEX idx_tasks_milestone ON Tasks(milestone_id);
 CREATE INDEX idx_tasks_canceled_by ON Tasks(canceled_by);
 CREATE INDEX idx_tasks_deadline ON Tasks(deadline);
+# zakres dat utworzenia zadan (raport wydajnosci za okres)
+CREATE INDEX idx_tasks_created_at ON Tasks(created_at);
 
 # indexy dla tabeli Users
 CREATE INDEX idx_users_team ON Users(team_id);
@@ -165,6 +217,9 @@ CREATE INDEX idx_projects_status_manager ON Projects(status, manager_id);
 CREATE INDEX idx_tasks_deadline_status ON Tasks(deadline, status);
 CREATE INDEX idx_milestones_project_deadline ON Milestones(project_id, deadline);
 
+# index dla dziennika zmian (najnowsza wersja projektu lub uzytkownika)
+CREATE INDEX idx_datachanges_entity_version ON DataChanges(entity_type, entity_id, version);
+
 #============
 # widoki
 #============
@@ -338,6 +393,7 @@ SELECT
     COUNT(tk.id) as total_tasks,
     SUM(CASE WHEN tk.status = 'zrobione' THEN 1 ELSE 0 END) as completed,
     SUM(CASE WHEN tk.status = 'anulowane' THEN 1 ELSE 0 END) as canceled,
+    SUM(CASE WHEN tk.deadline < CURDATE() AND tk.status NOT IN ('zrobione', 'anulowane') THEN 1 ELSE 0 END) as overdue_tasks,
     GROUP_CONCAT(
             CASE WHEN tk.status = 'zrobione'
                      THEN CONCAT(tk.title, ' (', DATE_FORMAT(tk.created_at, '%Y-%m-%d'), ')')
@@ -680,6 +736,255 @@ BEGIN
     END IF;
 END //
 DELIMITER ;
+
+#============
+# sledzenie zmian danych raportow
+#============
+# triggery dopisuja do DataChanges kazdy projekt i uzytkownik, ktorego raport moze sie zmienic.
+# kaskadowe usuniecia nie uruchamiaja triggerow, dlatego usuniecia sa logowane w BEFORE DELETE
+# razem z wierszami, ktore znikaja kaskadowo
+
+# procedura logujaca zmiane zespolu: jego czlonkow i projekty, w ktorych bierze udzial
+DELIMITER //
+CREATE PROCEDURE LogTeamChange(IN changed_team_id INT)
+BEGIN
+    INSERT INTO DataChanges (entity_type, entity_id)
+    SELECT 'uzytkownik', u.id FROM Users u WHERE u.team_id = changed_team_id;
+
+    INSERT INTO DataChanges (entity_type, entity_id)
+    SELECT 'projekt', pt.project_id FROM ProjectTeams pt WHERE pt.team_id = changed_team_id;
+END //
+
+# procedura logujaca zmiane zadania: jego projekt i przypisanych uzytkownikow
+CREATE PROCEDURE LogTaskChange(IN changed_task_id INT, IN changed_milestone_id INT)
+BEGIN
+    INSERT INTO DataChanges (entity_type, entity_id)
+    SELECT 'projekt', m.project_id FROM Milestones m WHERE m.id = changed_milestone_id;
+
+    INSERT INTO DataChanges (entity_type, entity_id)
+    SELECT 'uzytkownik', ta.user_id FROM TaskAssignments ta WHERE ta.task_id = changed_task_id;
+END //
+
+# procedura usuwajaca z dziennika wpisy, dla ktorych istnieje nowsza wersja tego samego projektu lub uzytkownika
+# wywolywana codziennie przez DailySnapshotJob po zapisaniu migawek
+CREATE PROCEDURE CompactDataChanges()
+BEGIN
+    DELETE d FROM DataChanges d
+        JOIN DataChanges newer
+        ON newer.entity_type = d.entity_type
+            AND newer.entity_id = d.entity_id
+            AND newer.version > d.version;
+END //
+
+CREATE TRIGGER TrackTaskInsert
+    AFTER INSERT ON Tasks
+    FOR EACH ROW
+BEGIN
+    CALL LogTaskChange(NEW.id, NEW.milestone_id);
+END //
+
+CREATE TRIGGER TrackTaskUpdate
+    AFTER UPDATE ON Tasks
+    FOR EACH ROW
+BEGIN
+    CALL LogTaskChange(NEW.id, NEW.milestone_id);
+    IF NOT (NEW.milestone_id <=> OLD.milestone_id) THEN
+        INSERT INTO DataChanges (entity_type, entity_id)
+        SELECT 'projekt', m.project_id FROM Milestones m WHERE m.id = OLD.milestone_id;
+    END IF;
+END //
+
+CREATE TRIGGER TrackTaskDelete
+    BEFORE DELETE ON Tasks
+    FOR EACH ROW
+BEGIN
+    CALL LogTaskChange(OLD.id, OLD.milestone_id);
+END //
+
+CREATE TRIGGER TrackMilestoneInsert
+    AFTER INSERT ON Milestones
+    FOR EACH ROW
+BEGIN
+    INSERT INTO DataChanges (entity_type, entity_id) VALUES ('projekt', NEW.project_id);
+END //
+
+CREATE TRIGGER TrackMilestoneUpdate
+    AFTER UPDATE ON Milestones
+    FOR EACH ROW
+BEGIN
+    INSERT INTO DataChanges (entity_type, entity_id) VALUES ('projekt', NEW.project_id);
+    IF NEW.project_id <> OLD.project_id THEN
+        INSERT INTO DataChanges (entity_type, entity_id) VALUES ('projekt', OLD.project_id);
+    END IF;
+END //
+
+CREATE TRIGGER TrackMilestoneDelete
+    BEFORE DELETE ON Milestones
+    FOR EACH ROW
+BEGIN
+    INSERT INTO DataChanges (entity_type, entity_id) VALUES ('projekt', OLD.project_id);
+
+    INSERT INTO DataChanges (entity_type, entity_id)
+    SELECT DISTINCT 'uzytkownik', ta.user_id
+    FROM Tasks t
+             JOIN TaskAssignments ta ON ta.task_id = t.id
+    WHERE t.milestone_id = OLD.id;
+END //
+
+CREATE TRIGGER TrackProjectInsert
+    AFTER INSERT ON Projects
+    FOR EACH ROW
+BEGIN
+    INSERT INTO DataChanges (entity_type, entity_id) VALUES ('projekt', NEW.id);
+END //
+
+CREATE TRIGGER TrackProjectUpdate
+    AFTER UPDATE ON Projects
+    FOR EACH ROW
+BEGIN
+    INSERT INTO DataChanges (entity_type, entity_id) VALUES ('projekt', NEW.id);
+END //
+
+CREATE TRIGGER TrackProjectDelete
+    BEFORE DELETE ON Projects
+    FOR EACH ROW
+BEGIN
+    INSERT INTO DataChanges (entity_type, entity_id) VALUES ('projekt', OLD.id);
+
+    INSERT INTO DataChanges (entity_type, entity_id)
+    SELECT DISTINCT 'uzytkownik', ta.user_id
+    FROM Milestones m
+             JOIN Tasks t ON t.milestone_id = m.id
+             JOIN TaskAssignments ta ON ta.task_id = t.id
+    WHERE m.project_id = OLD.id;
+END //
+
+CREATE TRIGGER TrackProjectTeamInsert
+    AFTER INSERT ON ProjectTeams
+    FOR EACH ROW
+BEGIN
+    INSERT INTO DataChanges (entity_type, entity_id) VALUES ('projekt', NEW.project_id);
+END //
+
+CREATE TRIGGER TrackProjectTeamUpdate
+    AFTER UPDATE ON ProjectTeams
+    FOR EACH ROW
+BEGIN
+    INSERT INTO DataChanges (entity_type, entity_id) VALUES ('projekt', NEW.project_id);
+    IF NEW.project_id <> OLD.project_id THEN
+        INSERT INTO DataChanges (entity_type, entity_id) VALUES ('projekt', OLD.project_id);
+    END IF;
+END //
+
+CREATE TRIGGER TrackProjectTeamDelete
+    AFTER DELETE ON ProjectTeams
+    FOR EACH ROW
+BEGIN
+    INSERT INTO DataChanges (entity_type, entity_id) VALUES ('projekt', OLD.project_id);
+END //
+
+CREATE TRIGGER TrackAssignmentInsert
+    AFTER INSERT ON TaskAssignments
+    FOR EACH ROW
+BEGIN
+    INSERT INTO DataChanges (entity_type, entity_id) VALUES ('uzytkownik', NEW.user_id);
+END //
+
+CREATE TRIGGER TrackAssignmentUpdate
+    AFTER UPDATE ON TaskAssignments
+    FOR EACH ROW
+BEGIN
+    INSERT INTO DataChanges (entity_type, entity_id) VALUES ('uzytkownik', NEW.user_id);
+    IF NEW.user_id <> OLD.user_id THEN
+        INSERT INTO DataChanges (entity_type, entity_id) VALUES ('uzytkownik', OLD.user_id);
+    END IF;
+END //
+
+CREATE TRIGGER TrackAssignmentDelete
+    AFTER DELETE ON TaskAssignments
+    FOR EACH ROW
+BEGIN
+    INSERT INTO DataChanges (entity_type, entity_id) VALUES ('uzytkownik', OLD.user_id);
+END //
+
+# zmiana uzytkownika wplywa tez na projekty, ktorymi zarzadza, oraz na caly jego zespol: projekty
+# zespolu (liderzy, liczba osob) i czlonkow zespolu, bo raport kazdego z nich pokazuje lidera zespolu
+CREATE TRIGGER TrackUserInsert
+    AFTER INSERT ON Users
+    FOR EACH ROW
+BEGIN
+    INSERT INTO DataChanges (entity_type, entity_id) VALUES ('uzytkownik', NEW.id);
+    CALL LogTeamChange(NEW.team_id);
+END //
+
+CREATE TRIGGER TrackUserUpdate
+    AFTER UPDATE ON Users
+    FOR EACH ROW
+BEGIN
+    INSERT INTO DataChanges (entity_type, entity_id) VALUES ('uzytkownik', NEW.id);
+
+    INSERT INTO DataChanges (entity_type, entity_id)
+    SELECT 'projekt', p.id FROM Projects p WHERE p.manager_id = NEW.id;
+
+    CALL LogTeamChange(NEW.team_id);
+    IF NOT (NEW.team_id <=> OLD.team_id) THEN
+        CALL LogTeamChange(OLD.team_id);
+    END IF;
+END //
+
+CREATE TRIGGER TrackUserDelete
+    BEFORE DELETE ON Users
+    FOR EACH ROW
+BEGIN
+    INSERT INTO DataChanges (entity_type, entity_id) VALUES ('uzytkownik', OLD.id);
+
+    CALL LogTeamChange(OLD.team_id);
+
+    # projekty managera sa usuwane kaskadowo razem z zadaniami
+    INSERT INTO DataChanges (entity_type, entity_id)
+    SELECT 'projekt', p.id FROM Projects p WHERE p.manager_id = OLD.id;
+
+    INSERT INTO DataChanges (entity_type, entity_id)
+    SELECT DISTINCT 'uzytkownik', ta.user_id
+    FROM Projects p
+             JOIN Milestones m ON m.project_id = p.id
+             JOIN Tasks t ON t.milestone_id = m.id
+             JOIN TaskAssignments ta ON ta.task_id = t.id
+    WHERE p.manager_id = OLD.id;
+END //
+
+CREATE TRIGGER TrackTeamUpdate
+    AFTER UPDATE ON Teams
+    FOR EACH ROW
+BEGIN
+    CALL LogTeamChange(NEW.id);
+END //
+
+CREATE TRIGGER TrackTeamDelete
+    BEFORE DELETE ON Teams
+    FOR EACH ROW
+BEGIN
+    CALL LogTeamChange(OLD.id);
+END //
+
+# zmiana nazwy roli moze zmienic liste liderow zespolow, widoczna w projektach i u czlonkow zespolow
+CREATE TRIGGER TrackRoleUpdate
+    AFTER UPDATE ON Roles
+    FOR EACH ROW
+BEGIN
+    INSERT INTO DataChanges (entity_type, entity_id)
+    SELECT DISTINCT 'projekt', pt.project_id
+    FROM Users u
+             JOIN ProjectTeams pt ON pt.team_id = u.team_id
+    WHERE u.role_id = NEW.id;
+
+    INSERT INTO DataChanges (entity_type, entity_id)
+    SELECT DISTINCT 'uzytkownik', member.id
+    FROM Users u
+             JOIN Users member ON member.team_id = u.team_id
+    WHERE u.role_id = NEW.id;
+END //
+DELIMITER ;
 #============
 #FUNKCJE
 #============
@@ -0,0 +1,8 @@
+package org.example.metrics;
+
+/**
+ * JMX view of a {@link Counter}.
+ */
+public interface CounterMXBean {
+    long getCount();
+}
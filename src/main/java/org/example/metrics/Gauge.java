@@ -0,0 +1,30 @@
+package org.example.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A value read when the metrics are scraped, e.g. a total kept by another class.
+ */
+public class Gauge implements Metric, GaugeMXBean {
+
+    private final DoubleSupplier supplier;
+
+    public Gauge(DoubleSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    @Override
+    public double getValue() {
+        return supplier.getAsDouble();
+    }
+
+    @Override
+    public String getType() {
+        return "gauge";
+    }
+
+    @Override
+    public void writeSamples(StringBuilder sb, String name, String labels) {
+        sb.append(name).append(Counter.braces(labels)).append(' ').append(getValue()).append('\n');
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.metrics;
+
+/**
+ * JMX view of a {@link Gauge}.
+ */
+public interface GaugeMXBean {
+    double getValue();
+}
@@ -0,0 +1,101 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of recorded values over fixed buckets, with count, sum and maximum.
+ * Recording is lock-free, so it can be called from the render workers.
+ */
+public class Histogram implements Metric, HistogramMXBean {
+
+    // Bucket bounds of durations in seconds
+    public static final double[] TIME_BOUNDS = {0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60};
+    // Bucket bounds of counts such as rows or pages
+    public static final double[] COUNT_BOUNDS = {1, 10, 100, 1000, 10_000, 100_000, 1_000_000};
+    // Bucket bounds of sizes in bytes, 1 KB to 1 GB
+    public static final double[] BYTE_BOUNDS = {1 << 10, 1 << 14, 1 << 17, 1 << 20, 1 << 22, 1 << 24, 1 << 27, 1 << 30};
+
+    private final double[] bounds;
+    private final LongAdder[] buckets;
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+    private final DoubleAccumulator max = new DoubleAccumulator(Math::max, 0);
+
+    public Histogram(double[] bounds) {
+        this.bounds = bounds;
+        this.buckets = new LongAdder[bounds.length];
+        for (int i = 0; i < bounds.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one value.
+     *
+     * @param value The value, in the unit of the bucket bounds
+     */
+    public void record(double value) {
+        for (int i = 0; i < bounds.length; i++) {
+            if (value <= bounds[i]) {
+                buckets[i].increment();
+                break;
+            }
+        }
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Records a duration into a histogram of seconds.
+     *
+     * @param nanos The duration in nanoseconds
+     */
+    public void recordNanos(long nanos) {
+        record(nanos / 1e9);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getSum() {
+        return sum.sum();
+    }
+
+    @Override
+    public double getMax() {
+        return max.get();
+    }
+
+    @Override
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : getSum() / n;
+    }
+
+    @Override
+    public String getType() {
+        return "histogram";
+    }
+
+    @Override
+    public void writeSamples(StringBuilder sb, String name, String labels) {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        // Buckets of the scrape format are cumulative
+        long cumulative = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            cumulative += buckets[i].sum();
+            sb.append(name).append("_bucket{").append(prefix).append("le=\"").append(bounds[i]).append("\"} ")
+                    .append(cumulative).append('\n');
+        }
+        long total = getCount();
+        sb.append(name).append("_bucket{").append(prefix).append("le=\"+Inf\"} ").append(total).append('\n');
+        sb.append(name).append("_sum").append(Counter.braces(labels)).append(' ').append(getSum()).append('\n');
+        sb.append(name).append("_count").append(Counter.braces(labels)).append(' ').append(total).append('\n');
+    }
+}
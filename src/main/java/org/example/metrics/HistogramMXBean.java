@@ -0,0 +1,14 @@
+package org.example.metrics;
+
+/**
+ * JMX view of a {@link Histogram}.
+ */
+public interface HistogramMXBean {
+    long getCount();
+
+    double getSum();
+
+    double getMax();
+
+    double getMean();
+}
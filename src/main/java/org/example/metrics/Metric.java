@@ -0,0 +1,23 @@
+package org.example.metrics;
+
+/**
+ * A metric of the registry, written in the plain-text scrape format.
+ */
+interface Metric {
+
+    /**
+     * Gets the metric type of the scrape format.
+     *
+     * @return "counter", "gauge" or "histogram"
+     */
+    String getType();
+
+    /**
+     * Appends the sample lines of one labelled series.
+     *
+     * @param sb The target
+     * @param name The metric name
+     * @param labels The formatted labels without braces, may be empty
+     */
+    void writeSamples(StringBuilder sb, String name, String labels);
+}
@@ -0,0 +1,23 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a query filling the lists and filters of the report dialogs.
+ */
+@Name("org.example.ReportDataLoad")
+@Label("Report Dialog Data Load")
+@Category({"PZ Reports"})
+@Description("Query loading the selection lists of a report dialog")
+public class ReportDataLoadEvent extends jdk.jfr.Event {
+
+    @Label("Loader")
+    @Description("The loading method, e.g. loadProjects")
+    public String loader;
+
+    @Label("Rows")
+    public int rows;
+}
@@ -0,0 +1,56 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event spanning the generation of one report, from fetching the data
+ * to the last byte of the PDF. The nested {@link ReportQueryEvent} and
+ * {@link ReportSectionRenderedEvent} events on the same thread show where the time went.
+ */
+@Name("org.example.ReportGenerated")
+@Label("Report Generated")
+@Category({"PZ Reports"})
+@Description("Generation of one PDF report")
+public class ReportGeneratedEvent extends jdk.jfr.Event {
+
+    @Label("Report Type")
+    public String report;
+
+    @Label("Filter Shape")
+    @Description("Filters used by the request, e.g. ids+min+max")
+    public String filterShape;
+
+    @Label("Requested Entities")
+    @Description("Number of employees or projects requested")
+    public int requestedEntities;
+
+    @Label("Entities")
+    @Description("Number of employees or projects in the report after filtering")
+    public int entities;
+
+    @Label("Pages")
+    public int pages;
+
+    @Label("PDF Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("CPU Time")
+    @Description("CPU time of the generating thread and the render workers, -1 if unavailable, e.g. on a virtual thread")
+    @Timespan(Timespan.NANOSECONDS)
+    public long cpuTime;
+
+    @Label("Allocated")
+    @Description("Bytes allocated by the generating thread and the render workers, -1 if unavailable, e.g. on a virtual thread")
+    @DataAmount
+    public long allocated;
+
+    @Label("Parallel")
+    @Description("Whether the sections were rendered in parallel or taken from the section cache")
+    public boolean parallel;
+}
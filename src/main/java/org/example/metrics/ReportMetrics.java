@@ -0,0 +1,265 @@
+package org.example.metrics;
+
+import org.example.DatabaseConnector;
+import org.example.ReportType;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the report metrics: database time per query shape, rows fetched, layout time,
+ * PDF bytes and pages, font loading and cache hits, labelled by report type.
+ * <p>
+ * Every metric is registered as an MXBean under {@code org.example:type=ReportMetrics} and
+ * included in {@link #scrape()}, which the HTTP server exposes at {@code /metrics} in the
+ * plain-text format understood by Prometheus.
+ */
+public class ReportMetrics {
+
+    private static final String JMX_DOMAIN = "org.example";
+
+    // Metric name -> formatted labels -> metric; looked up on every recording, so without a lock
+    private static final Map<String, Map<String, Metric>> metrics = new ConcurrentHashMap<>();
+    private static final Map<String, String> help = new ConcurrentHashMap<>();
+
+    static {
+        gauge("pz_db_connections", "Liczba otwartych połączeń z bazą danych",
+                DatabaseConnector::getConnectionCount);
+        gauge("pz_db_connection_wait_seconds", "Łączny czas oczekiwania na połączenie z bazą danych",
+                () -> DatabaseConnector.getConnectionWaitNanos() / 1e9);
+        gauge("pz_db_replica_reads", "Liczba odczytów raportów z repliki bazy danych",
+                DatabaseConnector::getReplicaReadCount);
+        gauge("pz_db_primary_reads", "Liczba odczytów raportów z bazy głównej",
+                DatabaseConnector::getPrimaryReadCount);
+        gauge("pz_db_replica_lag_seconds", "Opóźnienie repliki przy ostatnim sprawdzeniu, -1 gdy nieznane",
+                DatabaseConnector::getReplicaLagSeconds);
+    }
+
+    /**
+     * Records one report query.
+     *
+     * @param type The report type
+     * @param shape The filter combination of the query, e.g. "ids+min"
+     * @param nanos The time spent in the database, without processing the rows
+     * @param rows Number of rows fetched
+     */
+    public static void recordQuery(ReportType type, String shape, long nanos, int rows) {
+        histogram("pz_report_query_seconds", "Czas zapytań raportów w bazie danych", Histogram.TIME_BOUNDS,
+                "report", type.getKey(), "shape", shape).recordNanos(nanos);
+        histogram("pz_report_query_rows", "Liczba wierszy zwróconych przez zapytanie raportu", Histogram.COUNT_BOUNDS,
+                "report", type.getKey(), "shape", shape).record(rows);
+    }
+
+    /**
+     * Records the layout of one report document.
+     *
+     * @param type The report type
+     * @param nanos The layout and writing time
+     * @param entities Number of employees or projects in the report
+     * @param bytes Size of the written PDF
+     * @param pages Number of pages of the PDF
+     */
+    public static void recordRender(ReportType type, long nanos, int entities, long bytes, int pages) {
+        histogram("pz_report_layout_seconds", "Czas układania i zapisu dokumentu PDF", Histogram.TIME_BOUNDS,
+                "report", type.getKey()).recordNanos(nanos);
+        histogram("pz_report_entities", "Liczba pracowników lub projektów w raporcie", Histogram.COUNT_BOUNDS,
+                "report", type.getKey()).record(entities);
+        histogram("pz_report_bytes", "Rozmiar wygenerowanego PDF", Histogram.BYTE_BOUNDS,
+                "report", type.getKey()).record(bytes);
+        histogram("pz_report_pages", "Liczba stron wygenerowanego PDF", Histogram.COUNT_BOUNDS,
+                "report", type.getKey()).record(pages);
+    }
+
+    /**
+     * Records the CPU time and allocations of one report.
+     *
+     * @param type The report type
+     * @param filterShape The filters of the request, or null for already fetched data
+     * @param cpuNanos CPU time of the generating thread and the render workers, or -1 if unavailable
+     * @param allocatedBytes Bytes allocated by the generating thread and the render workers, or -1 if unavailable
+     */
+    public static void recordUsage(ReportType type, String filterShape, long cpuNanos, long allocatedBytes) {
+        String shape = filterShape != null ? filterShape : "prefetched";
+        // Unmeasured reports are left out rather than counted as free
+        if (cpuNanos >= 0) {
+            histogram("pz_report_cpu_seconds", "Czas procesora zużyty na raport", Histogram.TIME_BOUNDS,
+                    "report", type.getKey(), "shape", shape).recordNanos(cpuNanos);
+        }
+        if (allocatedBytes >= 0) {
+            histogram("pz_report_allocated_bytes", "Pamięć zaalokowana przy generowaniu raportu", Histogram.BYTE_BOUNDS,
+                    "report", type.getKey(), "shape", shape).record(allocatedBytes);
+        }
+    }
+
+    /**
+     * Records one report request answered through the report cache.
+     *
+     * @param type The report type
+     * @param cacheResult "hit", "miss" or "off"
+     * @param nanos Time until the whole PDF was written
+     */
+    public static void recordRequest(ReportType type, String cacheResult, long nanos) {
+        histogram("pz_report_request_seconds", "Czas obsługi żądania raportu", Histogram.TIME_BOUNDS,
+                "report", type.getKey(), "cache", cacheResult).recordNanos(nanos);
+    }
+
+    /**
+     * Records a lookup of a rendered section in the cache.
+     *
+     * @param hit Whether the section was found
+     */
+    public static void recordSectionCache(boolean hit) {
+        counter("pz_section_cache_requests_total", "Odczyty sekcji raportów z cache", "result", hit ? "hit" : "miss")
+                .increment();
+    }
+
+    /**
+     * Records loading the font file.
+     *
+     * @param nanos The time to read and parse the font
+     */
+    public static void recordFontLoad(long nanos) {
+        histogram("pz_font_load_seconds", "Czas wczytania pliku czcionki", Histogram.TIME_BOUNDS).recordNanos(nanos);
+    }
+
+    /**
+     * Records creating the font of one document.
+     *
+     * @param nanos The time to create the document font
+     */
+    public static void recordFontCreate(long nanos) {
+        histogram("pz_font_create_seconds", "Czas tworzenia czcionki dokumentu", Histogram.TIME_BOUNDS).recordNanos(nanos);
+    }
+
+    /**
+     * Describes which filters a request or query uses, e.g. "ids+min+max", so that metrics of
+     * different query plans are kept apart without labelling them with parameter values.
+     *
+     * @param base The base of the shape
+     * @param filters Pairs of whether a filter is used and its name
+     * @return The shape
+     */
+    public static String filterShape(String base, Object... filters) {
+        StringBuilder sb = new StringBuilder(base);
+        for (int i = 0; i + 1 < filters.length; i += 2) {
+            if ((Boolean) filters[i]) {
+                sb.append('+').append(filters[i + 1]);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Gets or creates a counter.
+     *
+     * @param name The metric name
+     * @param description The help text, used when the metric is first created
+     * @param labels Label names and values, alternating
+     * @return The counter
+     */
+    public static Counter counter(String name, String description, String... labels) {
+        return get(name, description, labels, Counter::new);
+    }
+
+    /**
+     * Gets or creates a histogram.
+     *
+     * @param name The metric name
+     * @param description The help text, used when the metric is first created
+     * @param bounds The bucket bounds, used when the metric is first created
+     * @param labels Label names and values, alternating
+     * @return The histogram
+     */
+    public static Histogram histogram(String name, String description, double[] bounds, String... labels) {
+        return get(name, description, labels, () -> new Histogram(bounds));
+    }
+
+    /**
+     * Registers a gauge read on every scrape.
+     *
+     * @param name The metric name
+     * @param description The help text
+     * @param supplier Supplies the current value
+     */
+    public static void gauge(String name, String description, DoubleSupplier supplier) {
+        get(name, description, new String[0], () -> new Gauge(supplier));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Metric> T get(String name, String description, String[] labels, Supplier<T> factory) {
+        String formatted = formatLabels(labels);
+        Map<String, Metric> series = metrics.computeIfAbsent(name, n -> {
+            help.put(n, description);
+            return new ConcurrentHashMap<>();
+        });
+        Metric metric = series.get(formatted);
+        if (metric == null) {
+            // Only the first caller creates and registers the metric
+            metric = series.computeIfAbsent(formatted, l -> {
+                T created = factory.get();
+                registerMBean(name, labels, created);
+                return created;
+            });
+        }
+        return (T) metric;
+    }
+
+    /**
+     * Writes all metrics in the plain-text scrape format, sorted by name and labels.
+     *
+     * @return The metrics, one sample per line
+     */
+    public static String scrape() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Map<String, Metric>> family : new TreeMap<>(metrics).entrySet()) {
+            Map<String, Metric> series = new TreeMap<>(family.getValue());
+            if (series.isEmpty()) {
+                continue;
+            }
+            String name = family.getKey();
+            sb.append("# HELP ").append(name).append(' ').append(help.get(name)).append('\n');
+            sb.append("# TYPE ").append(name).append(' ')
+                    .append(series.values().iterator().next().getType()).append('\n');
+            for (Map.Entry<String, Metric> sample : series.entrySet()) {
+                sample.getValue().writeSamples(sb, name, sample.getKey());
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String formatLabels(String[] labels) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i + 1 < labels.length; i += 2) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(labels[i]).append("=\"")
+                    .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        }
+        return sb.toString();
+    }
+
+    private static void registerMBean(String name, String[] labels, Metric metric) {
+        try {
+            StringBuilder objectName = new StringBuilder(JMX_DOMAIN).append(":type=ReportMetrics,name=").append(name);
+            for (int i = 0; i + 1 < labels.length; i += 2) {
+                objectName.append(',').append(labels[i]).append('=').append(ObjectName.quote(labels[i + 1]));
+            }
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName on = new ObjectName(objectName.toString());
+            if (!server.isRegistered(on)) {
+                server.registerMBean(metric, on);
+            }
+        } catch (JMException e) {
+            // Metrics still work through the scrape endpoint
+            System.err.println("Nie można zarejestrować metryki " + name + " w JMX: " + e.getMessage());
+        }
+    }
+}
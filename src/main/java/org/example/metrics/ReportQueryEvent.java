@@ -0,0 +1,37 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one report query. For streamed queries the event lasts until the
+ * last row was read and includes processing the rows; the database part alone is in
+ * {@link #databaseTime}.
+ */
+@Name("org.example.ReportQuery")
+@Label("Report Query")
+@Category({"PZ Reports"})
+@Description("Query fetching the data of a report")
+public class ReportQueryEvent extends jdk.jfr.Event {
+
+    @Label("Report Type")
+    public String report;
+
+    @Label("Filter Shape")
+    @Description("Filters used by the query, e.g. ids+status")
+    public String filterShape;
+
+    @Label("Parameters")
+    @Description("Number of ids bound to the IN list")
+    public int parameters;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Database Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long databaseTime;
+}
@@ -0,0 +1,67 @@
+package org.example.metrics;
+
+import org.example.ReportType;
+
+/**
+ * Times one report query for {@link ReportMetrics#recordQuery} and the {@link ReportQueryEvent}.
+ * <p>
+ * Rows of a streamed query are handed on while the query runs, so the time spent between
+ * {@link #pause()} and {@link #resume()} is left out of the database time.
+ */
+public class ReportQueryTimer {
+
+    private final ReportQueryEvent event = new ReportQueryEvent();
+    private final long start;
+    private long pausedAt;
+    private long pausedNanos;
+    private int rows;
+
+    /**
+     * Starts timing a query.
+     */
+    public ReportQueryTimer() {
+        event.begin();
+        start = System.nanoTime();
+    }
+
+    /**
+     * Counts a row read from the database.
+     */
+    public void countRow() {
+        rows++;
+    }
+
+    /**
+     * Stops the database time, e.g. while a row is handed on.
+     */
+    public void pause() {
+        pausedAt = System.nanoTime();
+    }
+
+    /**
+     * Continues the database time after {@link #pause()}.
+     */
+    public void resume() {
+        pausedNanos += System.nanoTime() - pausedAt;
+    }
+
+    /**
+     * Records the query in the metrics and commits its Flight Recorder event.
+     *
+     * @param type The report type
+     * @param shape The filter combination of the query, e.g. "ids+min"
+     * @param parameters Number of ids bound to the query
+     */
+    public void finish(ReportType type, String shape, int parameters) {
+        long databaseNanos = System.nanoTime() - start - pausedNanos;
+        ReportMetrics.recordQuery(type, shape, databaseNanos, rows);
+        if (event.shouldCommit()) {
+            event.report = type.getKey();
+            event.filterShape = shape;
+            event.parameters = parameters;
+            event.rows = rows;
+            event.databaseTime = databaseNanos;
+            event.commit();
+        }
+    }
+}
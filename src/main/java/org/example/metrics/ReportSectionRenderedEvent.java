@@ -0,0 +1,33 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for laying out the section of one employee or project.
+ */
+@Name("org.example.ReportSectionRendered")
+@Label("Report Section Rendered")
+@Category({"PZ Reports"})
+@Description("Layout of the section of one employee or project")
+public class ReportSectionRenderedEvent extends jdk.jfr.Event {
+
+    @Label("Report Type")
+    public String report;
+
+    @Label("Index")
+    @Description("Position of the section in the report")
+    public int index;
+
+    @Label("Cached")
+    @Description("Whether the section was copied from the section cache instead of laid out")
+    public boolean cached;
+
+    @Label("Size")
+    @Description("Size of the section PDF; for sequential reports the bytes written while the section was laid out")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,227 @@
+package org.example.metrics;
+
+import org.example.ReportType;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CPU time and allocated bytes of one report, summed over the thread generating it and the
+ * render workers laying out its sections.
+ * <p>
+ * The generating thread opens the usage with {@link #start()}; tasks submitted to other threads
+ * are wrapped with {@link #track(Callable)} so their share is added. When the report is written,
+ * {@link #finish} records the totals in {@link ReportMetrics} and keeps them for the thread, so
+ * the UI can show them in the status bar after a synchronous generation.
+ * <p>
+ * Figures come from {@link com.sun.management.ThreadMXBean}. The JVM does not account CPU time
+ * or allocations of virtual threads, such as the HTTP server's request threads, so a figure is
+ * -1 (unavailable) when any thread of the report is virtual or the JVM lacks the accounting,
+ * rather than a partial sum.
+ */
+public class ReportUsage implements AutoCloseable {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private static final ThreadLocal<ReportUsage> active = new ThreadLocal<>();
+    private static final ThreadLocal<ReportUsage> last = new ThreadLocal<>();
+
+    private final long startCpu;
+    private final long startAllocated;
+    private final LongAdder workerCpu = new LongAdder();
+    private final LongAdder workerAllocated = new LongAdder();
+    private volatile boolean workerCpuUnavailable;
+    private volatile boolean workerAllocatedUnavailable;
+
+    private ReportType type;
+    private int entities;
+    private long bytes;
+    private long cpuNanos;
+    private long allocatedBytes;
+
+    private ReportUsage() {
+        this.startCpu = threadCpuNanos();
+        this.startAllocated = threadAllocatedBytes();
+    }
+
+    /**
+     * Starts accounting a report on the current thread.
+     *
+     * @return The usage, to be finished when the report is written and closed afterwards
+     */
+    public static ReportUsage start() {
+        ReportUsage usage = new ReportUsage();
+        active.set(usage);
+        return usage;
+    }
+
+    /**
+     * Gets the report being accounted on the current thread.
+     *
+     * @return The usage, or null if no report is being generated
+     */
+    public static ReportUsage current() {
+        return active.get();
+    }
+
+    /**
+     * Gets the last report finished on the current thread.
+     *
+     * @return The usage, or null if none was finished since {@link #clearLast()}
+     */
+    public static ReportUsage last() {
+        return last.get();
+    }
+
+    public static void clearLast() {
+        last.remove();
+    }
+
+    /**
+     * Wraps a task running on another thread so that its CPU time and allocations are added to this report.
+     *
+     * @param task The task
+     * @return The wrapped task
+     */
+    public <V> Callable<V> track(Callable<V> task) {
+        return () -> {
+            long cpu = threadCpuNanos();
+            long allocated = threadAllocatedBytes();
+            try {
+                return task.call();
+            } finally {
+                long cpuEnd = threadCpuNanos();
+                long allocatedEnd = threadAllocatedBytes();
+                if (cpu < 0 || cpuEnd < 0) {
+                    workerCpuUnavailable = true;
+                } else {
+                    workerCpu.add(cpuEnd - cpu);
+                }
+                if (allocated < 0 || allocatedEnd < 0) {
+                    workerAllocatedUnavailable = true;
+                } else {
+                    workerAllocated.add(allocatedEnd - allocated);
+                }
+            }
+        };
+    }
+
+    /**
+     * Completes the accounting and records the totals.
+     * Must be called on the thread that started the usage, after the render workers finished.
+     *
+     * @param type The report type
+     * @param filterShape The filters of the request, e.g. "ids+min"
+     * @param entities Number of employees or projects in the report
+     * @param bytes Size of the written PDF
+     */
+    public void finish(ReportType type, String filterShape, int entities, long bytes) {
+        this.type = type;
+        this.entities = entities;
+        this.bytes = bytes;
+        this.cpuNanos = total(startCpu, threadCpuNanos(), workerCpu, workerCpuUnavailable);
+        this.allocatedBytes = total(startAllocated, threadAllocatedBytes(), workerAllocated, workerAllocatedUnavailable);
+        ReportMetrics.recordUsage(type, filterShape, cpuNanos, allocatedBytes);
+        last.set(this);
+    }
+
+    private static long total(long start, long end, LongAdder workers, boolean workersUnavailable) {
+        if (start < 0 || end < 0 || workersUnavailable) {
+            return -1;
+        }
+        return end - start + workers.sum();
+    }
+
+    @Override
+    public void close() {
+        if (active.get() == this) {
+            active.remove();
+        }
+    }
+
+    public ReportType getType() {
+        return type;
+    }
+
+    public int getEntities() {
+        return entities;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return The CPU time of the report, or -1 if it could not be measured
+     */
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    /**
+     * @return The bytes allocated for the report, or -1 if they could not be measured
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Describes the last report finished on the current thread for the status bar.
+     *
+     * @return E.g. " (12 pracowników, 340 KB, CPU 1,23 s, alokacje 85,1 MB)", or an empty string;
+     *         figures that could not be measured are shown as "n/d"
+     */
+    public static String describeLast() {
+        ReportUsage usage = last();
+        if (usage == null) {
+            return "";
+        }
+        String noun;
+        if (usage.type == ReportType.TEAM_ROLLUP) {
+            noun = "zespołów";
+        } else if (usage.type == ReportType.EMPLOYEE_PERFORMANCE || usage.type == ReportType.EMPLOYEE_SUMMARY
+                || usage.type == ReportType.EMPLOYEE_TREND || usage.type == ReportType.EMPLOYEE_RANKING) {
+            noun = "pracowników";
+        } else {
+            noun = "projektów";
+        }
+        String cpu = usage.cpuNanos >= 0 ? String.format("%.2f s", usage.cpuNanos / 1e9) : "n/d";
+        String allocated = usage.allocatedBytes >= 0 ? formatBytes(usage.allocatedBytes) : "n/d";
+        return String.format(" (%d %s, %s, CPU %s, alokacje %s)", usage.entities, noun,
+                formatBytes(usage.bytes), cpu, allocated);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes >= 1024 * 1024) {
+            return String.format("%.1f MB", bytes / (1024.0 * 1024));
+        }
+        return String.format("%d KB", Math.round(bytes / 1024.0));
+    }
+
+    // -1 on virtual threads and when the JVM does not account CPU time
+    private static long threadCpuNanos() {
+        if (THREADS == null || !THREADS.isCurrentThreadCpuTimeSupported() || Thread.currentThread().isVirtual()) {
+            return -1;
+        }
+        return THREADS.getCurrentThreadCpuTime();
+    }
+
+    // -1 on virtual threads and when the JVM does not account allocations
+    private static long threadAllocatedBytes() {
+        if (THREADS == null || !THREADS.isThreadAllocatedMemorySupported() || Thread.currentThread().isVirtual()) {
+            return -1;
+        }
+        return THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean) {
+            if (bean.isThreadAllocatedMemorySupported() && !bean.isThreadAllocatedMemoryEnabled()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return bean;
+        }
+        return null;
+    }
+}
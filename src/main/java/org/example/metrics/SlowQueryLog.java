@@ -0,0 +1,468 @@
+package org.example.metrics;
+
+import org.example.DatabaseConnector;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.regex.Pattern;
+
+/**
+ * Log of slow database queries.
+ * <p>
+ * Connections from {@link DatabaseConnector} are wrapped so that every statement is timed from
+ * execution until its result set is closed, counting only the time spent in the driver, not in
+ * the code processing the rows. A query over the threshold is written as one JSON line with its
+ * normalised SQL, the types of the bound parameters, the row count and, for SELECTs, the plan
+ * from {@code EXPLAIN FORMAT=JSON} run with the same parameters on a separate connection.
+ * The plan is captured and the line written on a background thread, so the slow request is
+ * not delayed further; when the background queue is full, entries are dropped.
+ * <p>
+ * Settings: {@code -Dpz.slowQuery.thresholdMs} (default 1000, negative disables the log),
+ * {@code -Dpz.slowQuery.file} (default ~/.pzreports/logs/slow-queries.%g.log, where %g is the
+ * number of the rotated file), {@code -Dpz.slowQuery.maxBytes} per file (default 10 MB),
+ * {@code -Dpz.slowQuery.files} (default 5) and {@code -Dpz.slowQuery.explain} (default true).
+ */
+public class SlowQueryLog {
+
+    private static final long THRESHOLD_NANOS = Long.getLong("pz.slowQuery.thresholdMs", 1000) * 1_000_000;
+    private static final boolean EXPLAIN = Boolean.parseBoolean(System.getProperty("pz.slowQuery.explain", "true"));
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+
+    private static final ThreadPoolExecutor WRITER = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(100), runnable -> {
+                Thread thread = new Thread(runnable, "slow-query-log");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    // Opened on the writer thread with the first slow query
+    private static FileHandler file;
+    private static boolean fileFailed;
+
+    /**
+     * Checks whether statements should be timed.
+     *
+     * @return False if the log is disabled with a negative threshold
+     */
+    public static boolean isEnabled() {
+        return THRESHOLD_NANOS >= 0;
+    }
+
+    /**
+     * Wraps a connection so that its statements are timed and slow ones logged.
+     *
+     * @param connection The connection to wrap
+     * @return A connection forwarding every call to the given one
+     */
+    public static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    /**
+     * Normalises SQL for grouping: literals become placeholders, whitespace is collapsed and
+     * lists of placeholders, such as the IN lists of the report queries, are shortened.
+     *
+     * @param sql The SQL text
+     * @return The normalised SQL
+     */
+    public static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return PLACEHOLDER_LIST.matcher(normalized).replaceAll("?, ...");
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = call(target, method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return wrapStatement(PreparedStatement.class, (Statement) result, (String) args[0]);
+                case "prepareCall":
+                    return wrapStatement(CallableStatement.class, (Statement) result, (String) args[0]);
+                case "createStatement":
+                    return wrapStatement(Statement.class, (Statement) result, null);
+                default:
+                    return result;
+            }
+        }
+
+        private static Object wrapStatement(Class<?> type, Statement statement, String sql) {
+            return Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler(statement, sql));
+        }
+    }
+
+    /**
+     * A parameter bound to a prepared statement, kept to replay it for EXPLAIN.
+     */
+    private record Parameter(Method setter, Object[] args) {
+
+        String typeName() {
+            String name = setter.getName().substring(3);
+            if (name.equals("Null") && args[1] instanceof Integer sqlType) {
+                try {
+                    return "NULL " + JDBCType.valueOf(sqlType).getName();
+                } catch (IllegalArgumentException e) {
+                    return "NULL";
+                }
+            }
+            return switch (name) {
+                case "Int" -> "INTEGER";
+                case "Long" -> "BIGINT";
+                case "Short" -> "SMALLINT";
+                case "String", "NString" -> "VARCHAR";
+                case "BigDecimal" -> "DECIMAL";
+                case "Object" -> args[1] == null ? "NULL" : args[1].getClass().getSimpleName().toUpperCase(Locale.ROOT);
+                default -> name.toUpperCase(Locale.ROOT);
+            };
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+        private final Map<Integer, Parameter> parameters = new TreeMap<>();
+        private Execution current;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            // setInt(1, ...), setString(2, ...) etc.; settings such as setFetchSize take a single argument
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters.put(index, new Parameter(method, args.clone()));
+                return call(target, method, args);
+            }
+
+            switch (name) {
+                case "clearParameters":
+                    parameters.clear();
+                    return call(target, method, args);
+                case "executeQuery":
+                case "execute":
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                case "executeBatch":
+                case "executeLargeBatch":
+                    return execute(method, args);
+                case "getResultSet":
+                    Object resultSet = call(target, method, args);
+                    return current == null || resultSet == null ? resultSet : wrapResultSet((ResultSet) resultSet, current);
+                case "close":
+                    finishCurrent();
+                    return call(target, method, args);
+                default:
+                    return call(target, method, args);
+            }
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finishCurrent();
+            String executed = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+            Execution execution = new Execution(executed, new ArrayList<>(parameters.values()));
+
+            long start = System.nanoTime();
+            Object result = call(target, method, args);
+            execution.nanos += System.nanoTime() - start;
+
+            if (result instanceof ResultSet resultSet) {
+                current = execution;
+                return wrapResultSet(resultSet, execution);
+            }
+            if (result instanceof Boolean hasResultSet && hasResultSet) {
+                // The rows are read through getResultSet
+                current = execution;
+                return result;
+            }
+            execution.rows = updateCount(result);
+            execution.finish();
+            return result;
+        }
+
+        private void finishCurrent() {
+            if (current != null) {
+                current.finish();
+                current = null;
+            }
+        }
+
+        private static long updateCount(Object result) {
+            if (result instanceof Number count) {
+                return count.longValue();
+            }
+            long rows = 0;
+            if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    rows += Math.max(count, 0);
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    rows += Math.max(count, 0);
+                }
+            }
+            return rows;
+        }
+
+        private static ResultSet wrapResultSet(ResultSet resultSet, Execution execution) {
+            return (ResultSet) Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    new ResultSetHandler(resultSet, execution));
+        }
+    }
+
+    private static class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final Execution execution;
+
+        ResultSetHandler(ResultSet target, Execution execution) {
+            this.target = target;
+            this.execution = execution;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next": {
+                    long start = System.nanoTime();
+                    Object hasRow = call(target, method, args);
+                    execution.nanos += System.nanoTime() - start;
+                    if ((Boolean) hasRow) {
+                        execution.rows++;
+                    }
+                    return hasRow;
+                }
+                case "close": {
+                    // Closing a streamed result set reads the rows that were not fetched
+                    long start = System.nanoTime();
+                    Object result = call(target, method, args);
+                    execution.nanos += System.nanoTime() - start;
+                    execution.finish();
+                    return result;
+                }
+                default:
+                    return call(target, method, args);
+            }
+        }
+    }
+
+    /**
+     * One execution of a statement, from execute until its result set is closed.
+     */
+    private static class Execution {
+        private final String sql;
+        private final List<Parameter> parameters;
+        private long nanos;
+        private long rows;
+        private boolean finished;
+
+        Execution(String sql, List<Parameter> parameters) {
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+
+        void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (sql != null && nanos >= THRESHOLD_NANOS) {
+                ReportMetrics.counter("pz_slow_queries_total", "Zapytania wolniejsze niż próg dziennika wolnych zapytań")
+                        .increment();
+                Instant time = Instant.now();
+                long duration = nanos;
+                long rowCount = rows;
+                WRITER.execute(() -> write(time, sql, parameters, duration, rowCount));
+            }
+        }
+    }
+
+    private static void write(Instant time, String sql, List<Parameter> parameters, long nanos, long rows) {
+        StringBuilder line = new StringBuilder(256);
+        line.append("{\"time\":").append(quote(time.toString()))
+            .append(",\"durationMs\":").append(String.format(Locale.ROOT, "%.1f", nanos / 1e6))
+            .append(",\"rows\":").append(rows)
+            .append(",\"sql\":").append(quote(normalize(sql)))
+            .append(",\"parameterTypes\":[");
+
+        // Consecutive parameters of the same type are grouped, e.g. the ids of an IN list
+        int i = 0;
+        while (i < parameters.size()) {
+            String type = parameters.get(i).typeName();
+            int run = 1;
+            while (i + run < parameters.size() && parameters.get(i + run).typeName().equals(type)) {
+                run++;
+            }
+            if (i > 0) {
+                line.append(',');
+            }
+            line.append(quote(run > 1 ? type + "*" + run : type));
+            i += run;
+        }
+        line.append(']');
+
+        if (EXPLAIN && isSelect(sql)) {
+            try {
+                String plan = explain(sql, parameters);
+                if (plan != null) {
+                    line.append(",\"plan\":").append(compactJson(plan));
+                }
+            } catch (Exception e) {
+                line.append(",\"explainError\":").append(quote(String.valueOf(e.getMessage())));
+            }
+        }
+        line.append('}');
+
+        FileHandler handler = file();
+        if (handler != null) {
+            handler.publish(new LogRecord(Level.WARNING, line.toString()));
+            handler.flush();
+        } else {
+            System.err.println("Wolne zapytanie: " + line);
+        }
+    }
+
+    private static boolean isSelect(String sql) {
+        String start = sql.stripLeading().toUpperCase(Locale.ROOT);
+        return start.startsWith("SELECT") || start.startsWith("WITH");
+    }
+
+    /**
+     * Runs EXPLAIN FORMAT=JSON for the query with the same parameters on a new connection.
+     * The statement is prepared on the unwrapped connection, so it is not timed itself.
+     *
+     * @return The plan as a JSON document, or null if the server returned none
+     */
+    private static String explain(String sql, List<Parameter> parameters) throws Exception {
+        try (Connection connection = DatabaseConnector.getReadConnection();
+             PreparedStatement stmt = connection.unwrap(Connection.class).prepareStatement("EXPLAIN FORMAT=JSON " + sql)) {
+            for (Parameter parameter : parameters) {
+                parameter.setter().invoke(stmt, parameter.args());
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static synchronized FileHandler file() {
+        if (file == null && !fileFailed) {
+            String pattern = System.getProperty("pz.slowQuery.file",
+                    new File(System.getProperty("user.home"), ".pzreports/logs/slow-queries.%g.log").getPath());
+            try {
+                Path parent = Path.of(pattern).toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                file = new FileHandler(pattern, Integer.getInteger("pz.slowQuery.maxBytes", 10 * 1024 * 1024),
+                        Integer.getInteger("pz.slowQuery.files", 5), true);
+                file.setEncoding(StandardCharsets.UTF_8.name());
+                file.setFormatter(new Formatter() {
+                    @Override
+                    public String format(LogRecord record) {
+                        return record.getMessage() + System.lineSeparator();
+                    }
+                });
+            } catch (IOException | SecurityException e) {
+                System.err.println("Nie można otworzyć dziennika wolnych zapytań " + pattern + ": " + e.getMessage());
+                fileFailed = true;
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Removes the whitespace between the tokens of a JSON document, so the plan fits on the log line.
+     */
+    private static String compactJson(String json) {
+        StringBuilder sb = new StringBuilder(json.length());
+        boolean inString = false;
+        for (int i = 0; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (inString) {
+                sb.append(c);
+                if (c == '\\') {
+                    sb.append(json.charAt(++i));
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (!Character.isWhitespace(c)) {
+                sb.append(c);
+                inString = c == '"';
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
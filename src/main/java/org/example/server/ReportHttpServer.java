@@ -0,0 +1,319 @@
+package org.example.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.DailySnapshotJob;
+import org.example.ReportRequest;
+import org.example.cache.ReportCache;
+import org.example.metrics.ReportMetrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * HTTP endpoint serving the reports to other tools without the desktop UI.
+ * <p>
+ * Every request runs on its own virtual thread. The PDF is written straight to the
+ * response body; repeated requests over unchanged data are answered from {@link ReportCache}. The number of reports generated at the same
+ * time is capped, because each generation holds its own database connection; requests
+ * over the limit get 429 right away.
+ * <p>
+ * Endpoints (GET):
+ * <ul>
+ *     <li>{@code /reports/employee?ids=1,2&min=0&max=100&from=2024-01-01&to=2024-03-31} - the dates are
+ *     optional and limit the report to tasks created in that period</li>
+ *     <li>{@code /reports/project?ids=1,2&status=wTrakcie&managerId=5}</li>
+ *     <li>{@code /reports/executive?id=1&status=wTrakcie&managerId=5&overdueTasks=true&overdueMilestones=false&min=0&max=100},
+ *     or {@code ids=1,2} instead of {@code id} for one report covering several projects</li>
+ *     <li>{@code /metrics} - {@link ReportMetrics} in the plain-text Prometheus format</li>
+ * </ul>
+ * Settings: {@code -Dpz.http.port} (default 8080), {@code -Dpz.http.maxConcurrent}
+ * (default: number of processors), {@code -Dpz.snapshot.enabled} (default true) for writing the daily
+ * snapshots with {@link DailySnapshotJob}. To run against a local MySQL loaded with database.sql
+ * use the {@code pz.db.*} properties of {@link org.example.DatabaseConnector}.
+ */
+public class ReportHttpServer {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Semaphore generationPermits;
+
+    /**
+     * Creates the server. It does not accept connections until {@link #start()} is called.
+     *
+     * @param address The address to bind to
+     * @param maxConcurrentGenerations How many reports may be generated at the same time
+     * @throws IOException If the socket cannot be bound
+     */
+    public ReportHttpServer(InetSocketAddress address, int maxConcurrentGenerations) throws IOException {
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.generationPermits = new Semaphore(maxConcurrentGenerations);
+
+        server.setExecutor(executor);
+        server.createContext("/reports/employee", exchange -> handle(exchange, ReportHttpServer::employeeRequest));
+        server.createContext("/reports/project", exchange -> handle(exchange, ReportHttpServer::projectRequest));
+        server.createContext("/reports/executive", exchange -> handle(exchange, ReportHttpServer::executiveRequest));
+        server.createContext("/metrics", ReportHttpServer::handleMetrics);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and waits up to the given delay for running ones.
+     *
+     * @param delaySeconds Maximum time to wait for running requests
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    private void handle(HttpExchange exchange, RequestParser parser) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                sendText(exchange, 405, "Dozwolona tylko metoda GET");
+                return;
+            }
+
+            ReportRequest request;
+            try {
+                request = parser.parse(parseQuery(exchange.getRequestURI().getRawQuery()));
+            } catch (IllegalArgumentException e) {
+                sendText(exchange, 400, e.getMessage());
+                return;
+            }
+
+            if (!generationPermits.tryAcquire()) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendText(exchange, 429, "Zbyt wiele jednoczesnych raportów, spróbuj ponownie");
+                return;
+            }
+
+            try {
+                exchange.getResponseHeaders().set("Content-Type", "application/pdf");
+                exchange.getResponseHeaders().set("Content-Disposition",
+                        "inline; filename=\"raport_" + request.getType().getKey() + ".pdf\"");
+                ResponseStream body = new ResponseStream(exchange);
+                ReportCache.shared().generate(request, body);
+                body.finish();
+            } catch (Exception e) {
+                e.printStackTrace();
+                // Headers go out with the first PDF bytes, so an early failure can still be reported
+                if (exchange.getResponseCode() == -1) {
+                    sendText(exchange, 500, "Błąd generowania PDF");
+                }
+            } finally {
+                generationPermits.release();
+            }
+        }
+    }
+
+    private static void handleMetrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                sendText(exchange, 405, "Dozwolona tylko metoda GET");
+                return;
+            }
+            byte[] bytes = ReportMetrics.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=UTF-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+    }
+
+    private static ReportRequest employeeRequest(Map<String, String> params) {
+        return ReportRequest.employeePerformance(
+                parseIds(params.get("ids")),
+                parseDouble(params, "min"),
+                parseDouble(params, "max"),
+                parseDate(params, "from"),
+                parseDate(params, "to"));
+    }
+
+    private static ReportRequest projectRequest(Map<String, String> params) {
+        return ReportRequest.projectProgress(
+                parseIds(params.get("ids")),
+                params.get("status"),
+                parseInteger(params, "managerId"));
+    }
+
+    private static ReportRequest executiveRequest(Map<String, String> params) {
+        List<Integer> projectIds;
+        if (params.containsKey("ids")) {
+            projectIds = parseIds(params.get("ids"));
+        } else {
+            Integer projectId = parseInteger(params, "id");
+            if (projectId == null) {
+                throw new IllegalArgumentException("Brak parametru id");
+            }
+            projectIds = List.of(projectId);
+        }
+        return ReportRequest.executiveOverview(
+                projectIds,
+                params.get("status"),
+                parseInteger(params, "managerId"),
+                Boolean.parseBoolean(params.get("overdueTasks")),
+                Boolean.parseBoolean(params.get("overdueMilestones")),
+                parseDouble(params, "min"),
+                parseDouble(params, "max"));
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                           URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static List<Integer> parseIds(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Brak parametru ids");
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (String part : value.split(",")) {
+            try {
+                ids.add(Integer.parseInt(part.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Niepoprawny identyfikator: " + part);
+            }
+        }
+        return ids;
+    }
+
+    private static Integer parseInteger(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Niepoprawna wartość parametru " + name + ": " + value);
+        }
+    }
+
+    private static LocalDate parseDate(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Niepoprawna data w parametrze " + name + " (oczekiwano RRRR-MM-DD): " + value);
+        }
+    }
+
+    private static Double parseDouble(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            double parsed = Double.parseDouble(value);
+            if (parsed < 0 || parsed > 100) {
+                throw new IllegalArgumentException("Wartość parametru " + name + " musi być między 0 a 100");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Niepoprawna wartość parametru " + name + ": " + value);
+        }
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    /**
+     * Functional interface for turning query parameters into a report request.
+     */
+    @FunctionalInterface
+    private interface RequestParser {
+        ReportRequest parse(Map<String, String> params);
+    }
+
+    /**
+     * Response body that sends the 200 headers only when the first bytes arrive,
+     * so errors raised before any output can still be answered with 500.
+     */
+    private static class ResponseStream extends OutputStream {
+        private final HttpExchange exchange;
+        private OutputStream body;
+
+        ResponseStream(HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        private OutputStream body() throws IOException {
+            if (body == null) {
+                exchange.sendResponseHeaders(200, 0);
+                body = exchange.getResponseBody();
+            }
+            return body;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            body().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            body().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (body != null) {
+                body.flush();
+            }
+        }
+
+        void finish() throws IOException {
+            body().flush();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("pz.http.port", 8080);
+        int maxConcurrent = Integer.getInteger("pz.http.maxConcurrent", Runtime.getRuntime().availableProcessors());
+
+        ReportHttpServer server = new ReportHttpServer(new InetSocketAddress(port), maxConcurrent);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(5)));
+        DailySnapshotJob.start();
+
+        System.out.println("Serwer raportów nasłuchuje na porcie " + port
+                + " (maks. " + maxConcurrent + " jednoczesnych raportów)");
+    }
+}
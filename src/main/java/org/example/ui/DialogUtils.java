@@ -1,6 +1,7 @@
 package org.example.ui;
 
 import javafx.scene.control.ChoiceDialog;
+import java.time.LocalDate;
 import java.util.Map;
 
 /**
@@ -49,6 +50,14 @@ public class DialogUtils {
         void accept(T t, Double minPerformance, Double maxPerformance);
     }
 
+    /**
+     * Functional interface for handling selection of a map with performance range and task period.
+     */
+    @FunctionalInterface
+    public interface PerformancePeriodMapConsumer<T> {
+        void accept(T t, Double minPerformance, Double maxPerformance, LocalDate from, LocalDate to);
+    }
+
     /**
      * Functional interface for handling selection of a project with filters.
      */
@@ -74,4 +83,22 @@ public class DialogUtils {
                    Boolean showOverdueTasks, Boolean showOverdueMilestones,
                    Double minCompletionRate, Double maxCompletionRate);
     }
-}
\ No newline at end of file
+
+    /**
+     * Functional interface for handling selection of multiple projects with executive report filters.
+     */
+    @FunctionalInterface
+    public interface ExecutiveMultiFilterConsumer<T> {
+        void accept(T selectedProjects, String status, Integer managerId,
+                   Boolean showOverdueTasks, Boolean showOverdueMilestones,
+                   Double minCompletionRate, Double maxCompletionRate);
+    }
+
+    /**
+     * Functional interface for handling selection of a ranking column, direction and size.
+     */
+    @FunctionalInterface
+    public interface RankingConsumer<T> {
+        void accept(T column, boolean highest, int limit);
+    }
+}
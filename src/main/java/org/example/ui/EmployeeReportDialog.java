@@ -10,14 +10,20 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import org.example.BulkReportExporter;
 import org.example.DatabaseConnector;
-import org.example.EmployeePerformanceReportGenerator;
+import org.example.ReportRequest;
+import org.example.cache.ReportCache;
+import org.example.metrics.ReportDataLoadEvent;
+import org.example.metrics.ReportUsage;
 
 import java.io.File;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -44,7 +50,7 @@ public class EmployeeReportDialog extends ReportUIBase {
             return;
         }
 
-        showMultiSelectionDialog("Wybierz pracowników", employeeMap, (selectedEmployees, minPerformance, maxPerformance) -> {
+        showMultiSelectionDialog("Wybierz pracowników", employeeMap, true, (selectedEmployees, minPerformance, maxPerformance, from, to) -> {
             try {
                 if (selectedEmployees.isEmpty()) {
                     statusLabel.setText("Nie wybrano pracowników.");
@@ -52,10 +58,11 @@ public class EmployeeReportDialog extends ReportUIBase {
                 }
 
                 List<Integer> userIds = selectedEmployees.values().stream().collect(Collectors.toList());
-                EmployeePerformanceReportGenerator.generateMultipleEmployeeReport(userIds, fileName, folder, minPerformance, maxPerformance);
+                ReportCache.shared().generateToFile(
+                    ReportRequest.employeePerformance(userIds, minPerformance, maxPerformance, from, to), fileName, folder);
 
                 String employeeNames = String.join(", ", selectedEmployees.keySet());
-                statusLabel.setText("Wygenerowano raport dla: " + employeeNames);
+                statusLabel.setText("Wygenerowano raport dla: " + employeeNames + ReportUsage.describeLast());
             } catch (Exception ex) {
                 ex.printStackTrace();
                 statusLabel.setText("Błąd generowania PDF");
@@ -63,6 +70,39 @@ public class EmployeeReportDialog extends ReportUIBase {
         });
     }
 
+    /**
+     * Exports a separate performance report for each selected employee into one ZIP archive.
+     * 
+     * @param fileName The output file name
+     * @param folder The output folder
+     * @param statusLabel The label to update with status messages
+     */
+    public void exportEmployeeReports(String fileName, File folder, Label statusLabel) {
+        Map<String, Integer> employeeMap = loadEmployees();
+        if (employeeMap.isEmpty()) {
+            statusLabel.setText("Brak pracowników.");
+            return;
+        }
+
+        showMultiSelectionDialog("Wybierz pracowników", employeeMap, false, (selectedEmployees, minPerformance, maxPerformance, from, to) -> {
+            if (selectedEmployees.isEmpty()) {
+                statusLabel.setText("Nie wybrano pracowników.");
+                return;
+            }
+
+            File file = archiveFile(fileName, folder, "Raporty_Wydajności_");
+            List<Integer> userIds = new ArrayList<>(selectedEmployees.values());
+            try {
+                int count = writeArchive(file, out ->
+                        BulkReportExporter.exportEmployees(userIds, minPerformance, maxPerformance, out));
+                statusLabel.setText("Wyeksportowano " + count + " raportów do: " + file.getName());
+            } catch (Exception ex) {
+                ex.printStackTrace();
+                statusLabel.setText("Błąd eksportu raportów");
+            }
+        });
+    }
+
     /**
      * Shows a dialog for selecting multiple employees with filtering options.
      * 
@@ -76,8 +116,10 @@ public class EmployeeReportDialog extends ReportUIBase {
      * @return A map of user IDs to their completion rates
      */
     private Map<Integer, Double> loadEmployeePerformanceData() {
+        ReportDataLoadEvent event = new ReportDataLoadEvent();
+        event.begin();
         Map<Integer, Double> performanceMap = new HashMap<>();
-        try (Connection conn = DatabaseConnector.getConnection();
+        try (Connection conn = DatabaseConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(
                  "SELECT user_id, completion_rate FROM vw_EmployeePerformance");
              ResultSet rs = stmt.executeQuery()) {
@@ -87,11 +129,12 @@ public class EmployeeReportDialog extends ReportUIBase {
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        commitLoadEvent(event, "loadEmployeePerformanceData", performanceMap.size());
         return performanceMap;
     }
 
-    private void showMultiSelectionDialog(String title, Map<String, Integer> options, 
-                                         DialogUtils.PerformanceMapConsumer<Map<String, Integer>> onSelected) {
+    private void showMultiSelectionDialog(String title, Map<String, Integer> options, boolean withPeriod,
+                                         DialogUtils.PerformancePeriodMapConsumer<Map<String, Integer>> onSelected) {
         // Create a new stage for the dialog
         Stage dialog = new Stage();
         dialog.initModality(Modality.APPLICATION_MODAL);
@@ -156,6 +199,36 @@ public class EmployeeReportDialog extends ReportUIBase {
             minPerformanceField, new Label("-"), maxPerformanceField
         );
 
+        // Create task period fields; empty dates count all tasks
+        Label periodLabel = new Label("Okres utworzenia zadań (puste = cały czas):");
+        DatePicker fromDatePicker = new DatePicker();
+        fromDatePicker.setPromptText("Od");
+        fromDatePicker.setPrefWidth(130);
+        DatePicker toDatePicker = new DatePicker();
+        toDatePicker.setPromptText("Do");
+        toDatePicker.setPrefWidth(130);
+
+        // Presets for monthly and quarterly reviews
+        Button lastMonthButton = new Button("Poprzedni miesiąc");
+        lastMonthButton.setOnAction(e -> {
+            LocalDate firstOfMonth = LocalDate.now().withDayOfMonth(1);
+            fromDatePicker.setValue(firstOfMonth.minusMonths(1));
+            toDatePicker.setValue(firstOfMonth.minusDays(1));
+        });
+        Button lastQuarterButton = new Button("Poprzedni kwartał");
+        lastQuarterButton.setOnAction(e -> {
+            LocalDate today = LocalDate.now();
+            LocalDate firstOfQuarter = today.withMonth((today.getMonthValue() - 1) / 3 * 3 + 1).withDayOfMonth(1);
+            fromDatePicker.setValue(firstOfQuarter.minusMonths(3));
+            toDatePicker.setValue(firstOfQuarter.minusDays(1));
+        });
+
+        HBox periodBox = new HBox(10);
+        periodBox.setAlignment(Pos.CENTER_LEFT);
+        periodBox.getChildren().addAll(
+            fromDatePicker, new Label("-"), toDatePicker, lastMonthButton, lastQuarterButton
+        );
+
         // Create role filter checkboxes
         List<String> roles = loadRoles();
         Map<String, CheckBox> roleCheckboxes = new HashMap<>();
@@ -349,12 +422,26 @@ public class EmployeeReportDialog extends ReportUIBase {
                 maxPerformanceField.setTooltip(new Tooltip("Wartość maksymalna nie może być mniejsza niż minimalna"));
             }
 
+            // Check if the period is valid
+            LocalDate from = withPeriod ? fromDatePicker.getValue() : null;
+            LocalDate to = withPeriod ? toDatePicker.getValue() : null;
+            if (from != null && to != null && from.isAfter(to)) {
+                hasValidationError = true;
+                fromDatePicker.setStyle("-fx-border-color: red;");
+                toDatePicker.setStyle("-fx-border-color: red;");
+                fromDatePicker.setTooltip(new Tooltip("Data początkowa nie może być późniejsza niż końcowa"));
+            } else {
+                fromDatePicker.setStyle("");
+                toDatePicker.setStyle("");
+                fromDatePicker.setTooltip(null);
+            }
+
             // If there are validation errors, don't proceed
             if (hasValidationError) {
                 return;
             }
 
-            onSelected.accept(selectedEmployees, minPerformance, maxPerformance);
+            onSelected.accept(selectedEmployees, minPerformance, maxPerformance, from, to);
             dialog.close();
         });
 
@@ -380,7 +467,12 @@ public class EmployeeReportDialog extends ReportUIBase {
                 new Label("Filtruj według roli:"),
                 roleFilterBox,
                 performanceRangeLabel,
-                performanceRangeBox,
+                performanceRangeBox
+        );
+        if (withPeriod) {
+            layout.getChildren().addAll(periodLabel, periodBox);
+        }
+        layout.getChildren().addAll(
                 new Label("Wybierz pracowników:"), 
                 listView, 
                 buttonPane
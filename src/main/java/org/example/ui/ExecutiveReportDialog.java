@@ -11,7 +11,10 @@ import javafx.scene.layout.*;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import org.example.DatabaseConnector;
-import org.example.ExecutiveOverviewReportGenerator;
+import org.example.ReportRequest;
+import org.example.cache.ReportCache;
+import org.example.metrics.ReportDataLoadEvent;
+import org.example.metrics.ReportUsage;
 
 import java.io.File;
 import java.sql.Connection;
@@ -19,8 +22,10 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.function.UnaryOperator;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -42,6 +47,8 @@ public class ExecutiveReportDialog extends ReportUIBase {
      */
     @Override
     protected Map<String, Integer> loadProjects() {
+        ReportDataLoadEvent event = new ReportDataLoadEvent();
+        event.begin();
         Map<String, Integer> map = new LinkedHashMap<>();
 
         // Clear all caches before populating
@@ -51,7 +58,7 @@ public class ExecutiveReportDialog extends ReportUIBase {
         overdueMilestonesCache.clear();
         taskCompletionRateCache.clear();
 
-        try (Connection conn = DatabaseConnector.getConnection()) {
+        try (Connection conn = DatabaseConnector.getReadConnection()) {
             // First load basic project data
             try (PreparedStatement stmt = conn.prepareStatement("SELECT id, name, manager_id, status FROM Projects");
                  ResultSet rs = stmt.executeQuery()) {
@@ -78,6 +85,7 @@ public class ExecutiveReportDialog extends ReportUIBase {
             e.printStackTrace();
         }
 
+        commitLoadEvent(event, "loadProjects", map.size());
         return map;
     }
 
@@ -95,16 +103,19 @@ public class ExecutiveReportDialog extends ReportUIBase {
             return;
         }
 
-        showExecutiveReportDialog("Wybierz projekt", projectMap, (name, id, status, managerId, 
-                                                                showOverdueTasks, showOverdueMilestones,
-                                                                minCompletionRate, maxCompletionRate) -> {
+        showExecutiveReportDialog("Wybierz projekty", projectMap, (selectedProjects, status, managerId,
+                                                                 showOverdueTasks, showOverdueMilestones,
+                                                                 minCompletionRate, maxCompletionRate) -> {
             try {
-                ExecutiveOverviewReportGenerator.generateFilteredReport(
-                    id, fileName, folder, status, managerId,
-                    showOverdueTasks, showOverdueMilestones,
-                    minCompletionRate, maxCompletionRate
+                // A single project keeps the one-project layout, several get a portfolio summary
+                ReportCache.shared().generateToFile(
+                    ReportRequest.executiveOverview(new ArrayList<>(selectedProjects.values()), status, managerId,
+                        showOverdueTasks, showOverdueMilestones,
+                        minCompletionRate, maxCompletionRate),
+                    fileName, folder
                 );
-                statusLabel.setText("Wygenerowano raport zarządczy dla: " + name);
+                String projectNames = String.join(", ", selectedProjects.keySet());
+                statusLabel.setText("Wygenerowano raport zarządczy dla: " + projectNames + ReportUsage.describeLast());
             } catch (Exception ex) {
                 ex.printStackTrace();
                 statusLabel.setText("Błąd generowania PDF");
@@ -113,14 +124,14 @@ public class ExecutiveReportDialog extends ReportUIBase {
     }
 
     /**
-     * Shows a dialog for selecting a project with additional executive report filtering options.
+     * Shows a dialog for selecting one or more projects with additional executive report filtering options.
      * 
      * @param title The dialog title
      * @param projects The projects to display
-     * @param onSelected Callback when a project is selected
+     * @param onSelected Callback with the selected projects, in list order
      */
     private void showExecutiveReportDialog(String title, Map<String, Integer> projects, 
-                                         DialogUtils.ExecutiveReportFilterConsumer<String, Integer> onSelected) {
+                                         DialogUtils.ExecutiveMultiFilterConsumer<Map<String, Integer>> onSelected) {
         // Create a new stage for the dialog
         Stage dialog = new Stage();
         dialog.initModality(Modality.APPLICATION_MODAL);
@@ -228,8 +239,13 @@ public class ExecutiveReportDialog extends ReportUIBase {
 
         // Create a list view
         ListView<String> listView = new ListView<>();
+        listView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         VBox.setVgrow(listView, Priority.ALWAYS);
 
+        // Button for selecting every project left by the filters
+        Button selectVisibleButton = new Button("Zaznacz widoczne");
+        selectVisibleButton.setOnAction(e -> listView.getSelectionModel().selectAll());
+
         // Create observable list and filtered list
         ObservableList<String> items = FXCollections.observableArrayList(projects.keySet());
         FilteredList<String> filteredItems = new FilteredList<>(items, p -> true);
@@ -363,8 +379,8 @@ public class ExecutiveReportDialog extends ReportUIBase {
 
         // Set button actions
         okButton.setOnAction(e -> {
-            String selectedProject = listView.getSelectionModel().getSelectedItem();
-            if (selectedProject != null) {
+            List<String> selectedNames = listView.getSelectionModel().getSelectedItems();
+            if (!selectedNames.isEmpty()) {
                 String selectedStatus = statusComboBox.getValue();
                 String selectedManager = managerComboBox.getValue();
 
@@ -438,7 +454,15 @@ public class ExecutiveReportDialog extends ReportUIBase {
                 boolean effectiveOverdueTasks = showOverdueAll || showOverdueTasks;
                 boolean effectiveOverdueMilestones = showOverdueAll || showOverdueMilestones;
 
-                onSelected.accept(selectedProject, projects.get(selectedProject), statusFilter, managerFilter,
+                // Keep the order of the list
+                Map<String, Integer> selectedProjects = new LinkedHashMap<>();
+                for (String name : filteredItems) {
+                    if (selectedNames.contains(name)) {
+                        selectedProjects.put(name, projects.get(name));
+                    }
+                }
+
+                onSelected.accept(selectedProjects, statusFilter, managerFilter,
                                  effectiveOverdueTasks, effectiveOverdueMilestones,
                                  minCompletionRate, maxCompletionRate);
             }
@@ -467,8 +491,9 @@ public class ExecutiveReportDialog extends ReportUIBase {
             overdueMilestonesCheckBox,
             completionRateLabel,
             completionRateBox,
-            new Label("Wybierz projekt:"), 
-            listView, 
+            new Label("Wybierz projekty (Ctrl lub Shift, aby zaznaczyć kilka):"),
+            listView,
+            selectVisibleButton,
             buttonBox
         );
 
@@ -6,6 +6,7 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import org.example.DailySnapshotJob;
 
 import java.io.File;
 import java.net.URL;
@@ -19,6 +20,8 @@ public class MainApplication extends Application {
     private EmployeeReportDialog employeeReportDialog;
     private ProjectReportDialog projectReportDialog;
     private ExecutiveReportDialog executiveReportDialog;
+    private SummaryReportDialog summaryReportDialog;
+    private TrendReportDialog trendReportDialog;
     
     @Override
     public void start(Stage primaryStage) {
@@ -28,6 +31,8 @@ public class MainApplication extends Application {
         employeeReportDialog = new EmployeeReportDialog();
         projectReportDialog = new ProjectReportDialog();
         executiveReportDialog = new ExecutiveReportDialog();
+        summaryReportDialog = new SummaryReportDialog();
+        trendReportDialog = new TrendReportDialog();
         
         Label statusLabel = new Label();
 
@@ -35,7 +40,16 @@ public class MainApplication extends Application {
         reportTypeBox.getItems().addAll(
                 "Raport wydajności pracownika",
                 "Raport postępu projektu",
-                "Raport zarządczy projektu"
+                "Raport zarządczy projektu",
+                "Eksport raportów pracowników (ZIP)",
+                "Eksport raportów projektów (ZIP)",
+                "Zestawienie projektów (tabela)",
+                "Zestawienie pracowników (tabela)",
+                "Ranking projektów",
+                "Ranking pracowników",
+                "Trend projektów",
+                "Trend pracowników",
+                "Raport zespołów"
         );
         reportTypeBox.setValue("Raport wydajności pracownika");
 
@@ -72,6 +86,24 @@ public class MainApplication extends Application {
 
             if (selectedType.equals("Raport wydajności pracownika")) {
                 employeeReportDialog.generateEmployeeReport(fileName, selectedDirectory, statusLabel);
+            } else if (selectedType.equals("Eksport raportów pracowników (ZIP)")) {
+                employeeReportDialog.exportEmployeeReports(fileName, selectedDirectory, statusLabel);
+            } else if (selectedType.equals("Eksport raportów projektów (ZIP)")) {
+                projectReportDialog.exportProjectReports(fileName, selectedDirectory, statusLabel);
+            } else if (selectedType.equals("Zestawienie projektów (tabela)")) {
+                summaryReportDialog.generateSummaryReport(true, fileName, selectedDirectory, statusLabel);
+            } else if (selectedType.equals("Zestawienie pracowników (tabela)")) {
+                summaryReportDialog.generateSummaryReport(false, fileName, selectedDirectory, statusLabel);
+            } else if (selectedType.equals("Ranking projektów")) {
+                summaryReportDialog.generateRankingReport(true, fileName, selectedDirectory, statusLabel);
+            } else if (selectedType.equals("Ranking pracowników")) {
+                summaryReportDialog.generateRankingReport(false, fileName, selectedDirectory, statusLabel);
+            } else if (selectedType.equals("Trend projektów")) {
+                trendReportDialog.generateTrendReport(true, fileName, selectedDirectory, statusLabel);
+            } else if (selectedType.equals("Trend pracowników")) {
+                trendReportDialog.generateTrendReport(false, fileName, selectedDirectory, statusLabel);
+            } else if (selectedType.equals("Raport zespołów")) {
+                summaryReportDialog.generateTeamRollupReport(fileName, selectedDirectory, statusLabel);
             } else if (selectedType.equals("Raport postępu projektu")) {
                 projectReportDialog.generateProjectReport(fileName, selectedDirectory, statusLabel);
             } else {
@@ -89,6 +121,14 @@ public class MainApplication extends Application {
 
         primaryStage.setScene(scene);
         primaryStage.show();
+
+        // The trend reports read the daily snapshots, so a desktop-only install writes them too
+        DailySnapshotJob.start();
+    }
+
+    @Override
+    public void stop() {
+        DailySnapshotJob.stop();
     }
 
     public static void main(String[] args) {
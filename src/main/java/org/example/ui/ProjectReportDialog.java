@@ -10,8 +10,12 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import org.example.BulkReportExporter;
 import org.example.DatabaseConnector;
-import org.example.ProjectProgressReportGenerator;
+import org.example.ReportRequest;
+import org.example.cache.ReportCache;
+import org.example.metrics.ReportDataLoadEvent;
+import org.example.metrics.ReportUsage;
 
 import java.io.File;
 import java.sql.Connection;
@@ -53,10 +57,11 @@ public class ProjectReportDialog extends ReportUIBase {
                 }
 
                 ArrayList<Integer> projectIds = new ArrayList<>(selectedProjects.values());
-                ProjectProgressReportGenerator.generateMultipleFilteredReport(projectIds, fileName, folder, status, managerId);
+                ReportCache.shared().generateToFile(
+                    ReportRequest.projectProgress(projectIds, status, managerId), fileName, folder);
 
                 String projectNames = String.join(", ", selectedProjects.keySet());
-                statusLabel.setText("Wygenerowano raport postępu dla: " + projectNames);
+                statusLabel.setText("Wygenerowano raport postępu dla: " + projectNames + ReportUsage.describeLast());
             } catch (Exception ex) {
                 ex.printStackTrace();
                 statusLabel.setText("Błąd generowania PDF");
@@ -64,6 +69,39 @@ public class ProjectReportDialog extends ReportUIBase {
         });
     }
 
+    /**
+     * Exports a separate progress report for each selected project into one ZIP archive.
+     * 
+     * @param fileName The output file name
+     * @param folder The output folder
+     * @param statusLabel The label to update with status messages
+     */
+    public void exportProjectReports(String fileName, File folder, Label statusLabel) {
+        Map<String, Integer> projectMap = loadProjects();
+        if (projectMap.isEmpty()) {
+            statusLabel.setText("Brak projektów.");
+            return;
+        }
+
+        showProjectMultiSelectionDialog("Wybierz projekty", projectMap, (selectedProjects, status, managerId) -> {
+            if (selectedProjects.isEmpty()) {
+                statusLabel.setText("Nie wybrano projektów.");
+                return;
+            }
+
+            File file = archiveFile(fileName, folder, "Raporty_postepu_projektow_");
+            ArrayList<Integer> projectIds = new ArrayList<>(selectedProjects.values());
+            try {
+                int count = writeArchive(file, out ->
+                        BulkReportExporter.exportProjects(projectIds, status, managerId, out));
+                statusLabel.setText("Wyeksportowano " + count + " raportów do: " + file.getName());
+            } catch (Exception ex) {
+                ex.printStackTrace();
+                statusLabel.setText("Błąd eksportu raportów");
+            }
+        });
+    }
+
     /**
      * Shows a dialog for selecting multiple projects with filtering options.
      * 
@@ -120,7 +158,9 @@ public class ProjectReportDialog extends ReportUIBase {
         // Load project statuses and manager IDs in advance to reduce database queries
         Map<Integer, String> projectStatuses = new HashMap<>();
         projectManagersCache.clear(); // Clear the cache before populating
-        try (Connection conn = DatabaseConnector.getConnection();
+        ReportDataLoadEvent loadEvent = new ReportDataLoadEvent();
+        loadEvent.begin();
+        try (Connection conn = DatabaseConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement("SELECT id, status, manager_id FROM Projects")) {
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
@@ -132,6 +172,7 @@ public class ProjectReportDialog extends ReportUIBase {
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        commitLoadEvent(loadEvent, "projectStatuses", projectStatuses.size());
 
         // Set up filtering based on search text, status, and manager
         Runnable updateFilter = () -> {
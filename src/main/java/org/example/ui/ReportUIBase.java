@@ -4,13 +4,20 @@ import javafx.scene.control.Label;
 import javafx.stage.DirectoryChooser;
 import javafx.stage.Stage;
 import org.example.DatabaseConnector;
+import org.example.metrics.ReportDataLoadEvent;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +28,14 @@ import java.util.Map;
 public class ReportUIBase {
     protected File selectedDirectory;
 
+    /**
+     * Functional interface for writing a ZIP archive of reports to a stream.
+     */
+    @FunctionalInterface
+    protected interface ArchiveWriter {
+        int write(OutputStream out) throws SQLException, IOException;
+    }
+
     /**
      * Initializes the selected directory to the user's Documents folder.
      */
@@ -69,8 +84,10 @@ public class ReportUIBase {
      * @return A map of employee names to their IDs
      */
     protected Map<String, Integer> loadEmployeesByRole(String role) {
+        ReportDataLoadEvent event = new ReportDataLoadEvent();
+        event.begin();
         Map<String, Integer> map = new LinkedHashMap<>();
-        try (Connection conn = DatabaseConnector.getConnection()) {
+        try (Connection conn = DatabaseConnector.getReadConnection()) {
             String sql = "SELECT u.id, CONCAT(u.first_name, ' ', u.last_name) AS name, r.name AS role " +
                          "FROM Users u JOIN Roles r ON u.role_id = r.id";
 
@@ -95,6 +112,7 @@ public class ReportUIBase {
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        commitLoadEvent(event, "loadEmployeesByRole", map.size());
         return map;
     }
 
@@ -104,14 +122,17 @@ public class ReportUIBase {
      * @return A map of project names to their IDs
      */
     protected Map<String, Integer> loadProjects() {
+        ReportDataLoadEvent event = new ReportDataLoadEvent();
+        event.begin();
         Map<String, Integer> map = new LinkedHashMap<>();
-        try (Connection conn = DatabaseConnector.getConnection();
+        try (Connection conn = DatabaseConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement("SELECT id, name FROM Projects");
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) map.put(rs.getString("name"), rs.getInt("id"));
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        commitLoadEvent(event, "loadProjects", map.size());
         return map;
     }
 
@@ -121,8 +142,10 @@ public class ReportUIBase {
      * @return A list of project statuses
      */
     protected List<String> loadProjectStatuses() {
+        ReportDataLoadEvent event = new ReportDataLoadEvent();
+        event.begin();
         List<String> statuses = new ArrayList<>();
-        try (Connection conn = DatabaseConnector.getConnection();
+        try (Connection conn = DatabaseConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement("SELECT DISTINCT status FROM Projects");
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
@@ -131,6 +154,7 @@ public class ReportUIBase {
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        commitLoadEvent(event, "loadProjectStatuses", statuses.size());
         return statuses;
     }
 
@@ -140,8 +164,10 @@ public class ReportUIBase {
      * @return A map of manager names to their IDs
      */
     protected Map<String, Integer> loadProjectManagers() {
+        ReportDataLoadEvent event = new ReportDataLoadEvent();
+        event.begin();
         Map<String, Integer> managers = new LinkedHashMap<>();
-        try (Connection conn = DatabaseConnector.getConnection();
+        try (Connection conn = DatabaseConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(
                  "SELECT u.id, CONCAT(u.first_name, ' ', u.last_name) AS name " +
                  "FROM Users u " +
@@ -154,6 +180,7 @@ public class ReportUIBase {
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        commitLoadEvent(event, "loadProjectManagers", managers.size());
         return managers;
     }
 
@@ -163,8 +190,10 @@ public class ReportUIBase {
      * @return A list of translated role names
      */
     protected List<String> loadRoles() {
+        ReportDataLoadEvent event = new ReportDataLoadEvent();
+        event.begin();
         List<String> roles = new ArrayList<>();
-        try (Connection conn = DatabaseConnector.getConnection();
+        try (Connection conn = DatabaseConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement("SELECT name FROM Roles");
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
@@ -175,9 +204,66 @@ public class ReportUIBase {
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        commitLoadEvent(event, "loadRoles", roles.size());
         return roles;
     }
 
+    /**
+     * Resolves the file of a ZIP archive of reports in the output folder.
+     *
+     * @param fileName The output file name without extension, or null for a name with a timestamp
+     * @param folder The output folder, or null for the Documents folder
+     * @param defaultPrefix The start of the file name used when none is given
+     * @return The archive file
+     */
+    protected static File archiveFile(String fileName, File folder, String defaultPrefix) {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+        String zipName = (fileName != null && !fileName.isEmpty())
+                ? fileName + ".zip"
+                : defaultPrefix + timestamp + ".zip";
+        return (folder != null)
+                ? new File(folder, zipName)
+                : new File(System.getProperty("user.home"), "Documents/" + zipName);
+    }
+
+    /**
+     * Writes a ZIP archive of reports to a file. If the export fails, the partly written file is
+     * deleted, so an incomplete archive is never left behind looking complete.
+     *
+     * @param file The archive file
+     * @param writer Writes the archive
+     * @return The number of exported reports
+     * @throws SQLException If a database error occurs
+     * @throws IOException If an I/O error occurs
+     */
+    protected static int writeArchive(File file, ArchiveWriter writer) throws SQLException, IOException {
+        boolean written = false;
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            int count = writer.write(out);
+            written = true;
+            return count;
+        } finally {
+            if (!written && file.exists() && !file.delete()) {
+                System.err.println("Nie można usunąć niekompletnego archiwum: " + file);
+            }
+        }
+    }
+
+    /**
+     * Commits the Flight Recorder event of a finished loader.
+     *
+     * @param event The event started when the loader began
+     * @param loader The name of the loader
+     * @param rows The number of loaded entries
+     */
+    protected static void commitLoadEvent(ReportDataLoadEvent event, String loader, int rows) {
+        if (event.shouldCommit()) {
+            event.loader = loader;
+            event.rows = rows;
+            event.commit();
+        }
+    }
+
     /**
      * Translates database role names to user-friendly format.
      * 
@@ -0,0 +1,195 @@
+package org.example.ui;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import org.example.SummaryTableReportGenerator;
+import org.example.TeamRollupReportGenerator;
+import org.example.data.SummaryColumn;
+import org.example.metrics.ReportUsage;
+
+import java.io.File;
+
+/**
+ * Dialog for the company-wide summary tables and rankings of projects and employees and the team rollup.
+ */
+public class SummaryReportDialog extends ReportUIBase {
+
+    private static final String BY_ID = "Identyfikator";
+
+    /**
+     * Generates the summary table of all projects or all employees.
+     *
+     * @param projects True for the project summary, false for the employee summary
+     * @param fileName The output file name
+     * @param folder The output folder
+     * @param statusLabel The label to update with status messages
+     */
+    public void generateSummaryReport(boolean projects, String fileName, File folder, Label statusLabel) {
+        showSortDialog(projects ? "Zestawienie projektów" : "Zestawienie pracowników", projects, (sortBy, descending) -> {
+            try {
+                int count = projects
+                        ? SummaryTableReportGenerator.generateProjectSummary(sortBy, descending, fileName, folder)
+                        : SummaryTableReportGenerator.generateEmployeeSummary(sortBy, descending, fileName, folder);
+                statusLabel.setText("Wygenerowano zestawienie (" + count + " wierszy)" + ReportUsage.describeLast());
+            } catch (Exception ex) {
+                ex.printStackTrace();
+                statusLabel.setText("Błąd generowania PDF");
+            }
+        });
+    }
+
+    /**
+     * Generates the ranking of the projects or employees with the highest or lowest values of a column.
+     *
+     * @param projects True for the project ranking, false for the employee ranking
+     * @param fileName The output file name
+     * @param folder The output folder
+     * @param statusLabel The label to update with status messages
+     */
+    public void generateRankingReport(boolean projects, String fileName, File folder, Label statusLabel) {
+        showRankingDialog(projects ? "Ranking projektów" : "Ranking pracowników", projects, (column, highest, limit) -> {
+            try {
+                int count = projects
+                        ? SummaryTableReportGenerator.generateProjectRanking(column, highest, limit, fileName, folder)
+                        : SummaryTableReportGenerator.generateEmployeeRanking(column, highest, limit, fileName, folder);
+                statusLabel.setText("Wygenerowano ranking (" + count + " wierszy)" + ReportUsage.describeLast());
+            } catch (Exception ex) {
+                ex.printStackTrace();
+                statusLabel.setText("Błąd generowania PDF");
+            }
+        });
+    }
+
+    /**
+     * Generates the team rollup report of the whole organisation.
+     *
+     * @param fileName The output file name
+     * @param folder The output folder
+     * @param statusLabel The label to update with status messages
+     */
+    public void generateTeamRollupReport(String fileName, File folder, Label statusLabel) {
+        try {
+            int count = TeamRollupReportGenerator.generateReport(fileName, folder);
+            statusLabel.setText("Wygenerowano raport zespołów (" + count + " zespołów)" + ReportUsage.describeLast());
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            statusLabel.setText("Błąd generowania PDF");
+        }
+    }
+
+    /**
+     * Shows a dialog for choosing the sort column and direction.
+     *
+     * @param title The dialog title
+     * @param projects Whether to offer the project columns
+     * @param onSelected Callback with the chosen column (null for ID) and whether to sort descending
+     */
+    private void showSortDialog(String title, boolean projects, DialogUtils.BiConsumer<SummaryColumn, Boolean> onSelected) {
+        Stage dialog = new Stage();
+        dialog.initModality(Modality.APPLICATION_MODAL);
+        dialog.setTitle(title);
+        dialog.setMinWidth(320);
+
+        // Column choice, identifier first
+        ComboBox<Object> sortComboBox = new ComboBox<>();
+        sortComboBox.getItems().add(BY_ID);
+        sortComboBox.getItems().addAll((Object[]) SummaryColumn.columns(projects));
+        sortComboBox.setValue(BY_ID);
+        sortComboBox.setPrefWidth(Double.MAX_VALUE);
+
+        CheckBox descendingCheckBox = new CheckBox("Malejąco");
+
+        Button okButton = new Button("OK");
+        Button cancelButton = new Button("Anuluj");
+
+        okButton.setOnAction(e -> {
+            Object selected = sortComboBox.getValue();
+            SummaryColumn sortBy = selected instanceof SummaryColumn ? (SummaryColumn) selected : null;
+            dialog.close();
+            onSelected.accept(sortBy, descendingCheckBox.isSelected());
+        });
+        cancelButton.setOnAction(e -> dialog.close());
+
+        HBox buttonBox = new HBox(10, okButton, cancelButton);
+        buttonBox.setAlignment(Pos.CENTER_RIGHT);
+
+        VBox layout = new VBox(10);
+        layout.setPadding(new Insets(10));
+        layout.getChildren().addAll(
+            new Label("Sortuj według:"),
+            sortComboBox,
+            descendingCheckBox,
+            buttonBox
+        );
+
+        dialog.setScene(new Scene(layout));
+        dialog.showAndWait();
+    }
+
+    /**
+     * Shows a dialog for choosing the ranking column, direction and number of rows.
+     *
+     * @param title The dialog title
+     * @param projects Whether to offer the project columns
+     * @param onSelected Callback with the chosen column, whether to take the highest values and the number of rows
+     */
+    private void showRankingDialog(String title, boolean projects, DialogUtils.RankingConsumer<SummaryColumn> onSelected) {
+        Stage dialog = new Stage();
+        dialog.initModality(Modality.APPLICATION_MODAL);
+        dialog.setTitle(title);
+        dialog.setMinWidth(320);
+
+        SummaryColumn[] columns = SummaryColumn.columns(projects);
+        ComboBox<SummaryColumn> columnComboBox = new ComboBox<>();
+        columnComboBox.getItems().addAll(columns);
+        columnComboBox.setValue(columns[0]);
+        columnComboBox.setPrefWidth(Double.MAX_VALUE);
+
+        ToggleGroup directionGroup = new ToggleGroup();
+        RadioButton highestButton = new RadioButton("Najwyższe wartości");
+        highestButton.setToggleGroup(directionGroup);
+        highestButton.setSelected(true);
+        RadioButton lowestButton = new RadioButton("Najniższe wartości");
+        lowestButton.setToggleGroup(directionGroup);
+
+        Spinner<Integer> limitSpinner = new Spinner<>(1, 1000, 20);
+        limitSpinner.setEditable(true);
+
+        Button okButton = new Button("OK");
+        Button cancelButton = new Button("Anuluj");
+
+        okButton.setOnAction(e -> {
+            SummaryColumn column = columnComboBox.getValue();
+            if (column == null) {
+                return;
+            }
+            dialog.close();
+            onSelected.accept(column, highestButton.isSelected(), limitSpinner.getValue());
+        });
+        cancelButton.setOnAction(e -> dialog.close());
+
+        HBox buttonBox = new HBox(10, okButton, cancelButton);
+        buttonBox.setAlignment(Pos.CENTER_RIGHT);
+
+        VBox layout = new VBox(10);
+        layout.setPadding(new Insets(10));
+        layout.getChildren().addAll(
+            new Label("Kolumna rankingu:"),
+            columnComboBox,
+            highestButton,
+            lowestButton,
+            new Label("Liczba wierszy:"),
+            limitSpinner,
+            buttonBox
+        );
+
+        dialog.setScene(new Scene(layout));
+        dialog.showAndWait();
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.ui;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import org.example.TrendReportGenerator;
+import org.example.metrics.ReportUsage;
+
+import java.io.File;
+import java.time.LocalDate;
+
+/**
+ * Dialog for the period-over-period trend reports of projects and employees.
+ */
+public class TrendReportDialog extends ReportUIBase {
+
+    private static final String[] PERIOD_LABELS = {"7 dni", "30 dni", "90 dni"};
+    private static final int[] PERIOD_DAYS = {7, 30, 90};
+
+    /**
+     * Generates the trend report of all projects or all employees.
+     *
+     * @param projects True for the project trend, false for the employee trend
+     * @param fileName The output file name
+     * @param folder The output folder
+     * @param statusLabel The label to update with status messages
+     */
+    public void generateTrendReport(boolean projects, String fileName, File folder, Label statusLabel) {
+        showPeriodDialog(projects ? "Trend projektów" : "Trend pracowników", (end, days) -> {
+            try {
+                int count = projects
+                        ? TrendReportGenerator.generateProjectTrend(end, days, fileName, folder)
+                        : TrendReportGenerator.generateEmployeeTrend(end, days, fileName, folder);
+                statusLabel.setText("Wygenerowano raport trendu (" + count + " wierszy)" + ReportUsage.describeLast());
+            } catch (Exception ex) {
+                ex.printStackTrace();
+                statusLabel.setText("Błąd generowania PDF");
+            }
+        });
+    }
+
+    /**
+     * Shows a dialog for choosing the end of the current period and the period length.
+     *
+     * @param title The dialog title
+     * @param onSelected Callback with the last day of the current period and the period length in days
+     */
+    private void showPeriodDialog(String title, DialogUtils.BiConsumer<LocalDate, Integer> onSelected) {
+        Stage dialog = new Stage();
+        dialog.initModality(Modality.APPLICATION_MODAL);
+        dialog.setTitle(title);
+        dialog.setMinWidth(320);
+
+        DatePicker endPicker = new DatePicker(LocalDate.now());
+        endPicker.setPrefWidth(Double.MAX_VALUE);
+
+        ComboBox<String> periodComboBox = new ComboBox<>();
+        periodComboBox.getItems().addAll(PERIOD_LABELS);
+        periodComboBox.setValue(PERIOD_LABELS[0]);
+        periodComboBox.setPrefWidth(Double.MAX_VALUE);
+
+        Button okButton = new Button("OK");
+        Button cancelButton = new Button("Anuluj");
+
+        okButton.setOnAction(e -> {
+            // An empty date means today
+            LocalDate end = endPicker.getValue() != null ? endPicker.getValue() : LocalDate.now();
+            int days = PERIOD_DAYS[periodComboBox.getSelectionModel().getSelectedIndex()];
+            dialog.close();
+            onSelected.accept(end, days);
+        });
+        cancelButton.setOnAction(e -> dialog.close());
+
+        HBox buttonBox = new HBox(10, okButton, cancelButton);
+        buttonBox.setAlignment(Pos.CENTER_RIGHT);
+
+        VBox layout = new VBox(10);
+        layout.setPadding(new Insets(10));
+        layout.getChildren().addAll(
+            new Label("Koniec okresu:"),
+            endPicker,
+            new Label("Długość okresu (porównywany z poprzednim):"),
+            periodComboBox,
+            buttonBox
+        );
+
+        dialog.setScene(new Scene(layout));
+        dialog.showAndWait();
+    }
+}
@@ -0,0 +1,60 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportRequestTest {
+
+    @Test
+    void equalRequestsHaveEqualKeys() {
+        String first = ReportRequest.employeePerformance(List.of(1, 2), 10.0, 90.0).cacheKey("v1");
+        String second = ReportRequest.employeePerformance(List.of(1, 2), 10.0, 90.0).cacheKey("v1");
+
+        assertEquals(first, second);
+        assertTrue(first.matches("[0-9a-f]{64}"));
+    }
+
+    @Test
+    void keyChangesWithTheDataVersion() {
+        ReportRequest request = ReportRequest.projectProgress(List.of(3), "aktywny", 7);
+
+        assertNotEquals(request.cacheKey("v1"), request.cacheKey("v2"));
+    }
+
+    @Test
+    void keyChangesWithEveryParameter() {
+        String base = ReportRequest.executiveOverview(List.of(1), null, null, false, false, null, null).cacheKey("v");
+
+        assertNotEquals(base, ReportRequest.executiveOverview(List.of(2), null, null, false, false, null, null).cacheKey("v"));
+        assertNotEquals(base, ReportRequest.executiveOverview(List.of(1), "aktywny", null, false, false, null, null).cacheKey("v"));
+        assertNotEquals(base, ReportRequest.executiveOverview(List.of(1), null, 4, false, false, null, null).cacheKey("v"));
+        assertNotEquals(base, ReportRequest.executiveOverview(List.of(1), null, null, true, false, null, null).cacheKey("v"));
+        assertNotEquals(base, ReportRequest.executiveOverview(List.of(1), null, null, false, true, null, null).cacheKey("v"));
+        assertNotEquals(base, ReportRequest.executiveOverview(List.of(1), null, null, false, false, 20.0, null).cacheKey("v"));
+        assertNotEquals(base, ReportRequest.projectProgress(List.of(1), null, null).cacheKey("v"));
+    }
+
+    @Test
+    void neutralBoundsGiveTheSameKeyAsNoBounds() {
+        String unbounded = ReportRequest.employeePerformance(List.of(1), null, null).cacheKey("v");
+
+        assertEquals(unbounded, ReportRequest.employeePerformance(List.of(1), 0.0, 100.0).cacheKey("v"));
+    }
+
+    @Test
+    void periodRequestsHaveTheirOwnKeys() {
+        String allTime = ReportRequest.employeePerformance(List.of(1), null, null).cacheKey("v");
+        String noPeriod = ReportRequest.employeePerformance(List.of(1), null, null, null, null).cacheKey("v");
+        String period = ReportRequest.employeePerformance(List.of(1), null, null,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31)).cacheKey("v");
+
+        assertEquals(allTime, noPeriod);
+        assertNotEquals(allTime, period);
+    }
+}
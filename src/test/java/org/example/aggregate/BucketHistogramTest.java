@@ -0,0 +1,61 @@
+package org.example.aggregate;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BucketHistogramTest {
+
+    @Test
+    void countsValuesIntoTheirBuckets() {
+        BucketHistogram histogram = new BucketHistogram(BucketHistogram.TASK_COUNT_BOUNDS);
+        for (long value : new long[]{0, 1, 2, 3, 4, 7, 8, 31, 32, 1000, -5}) {
+            histogram.add(value);
+        }
+
+        assertEquals(7, histogram.getBucketCount());
+        // 0 and the negative value, 1, 2-3, 4-7, 8-15, 16-31, 32 and more
+        long[] expected = {2, 1, 2, 2, 1, 1, 2};
+        for (int bucket = 0; bucket < expected.length; bucket++) {
+            assertEquals(expected[bucket], histogram.getCount(bucket), "bucket " + bucket);
+        }
+        assertEquals(11, histogram.getTotal());
+    }
+
+    @Test
+    void labelsTheBuckets() {
+        BucketHistogram histogram = new BucketHistogram(BucketHistogram.TASK_COUNT_BOUNDS);
+
+        assertEquals("0", histogram.getLabel(0));
+        assertEquals("1", histogram.getLabel(1));
+        assertEquals("2–3", histogram.getLabel(2));
+        assertEquals("16–31", histogram.getLabel(5));
+        assertEquals("32 i więcej", histogram.getLabel(6));
+    }
+
+    @Test
+    void mergeAddsTheCounts() {
+        BucketHistogram first = new BucketHistogram(BucketHistogram.TASK_COUNT_BOUNDS);
+        BucketHistogram second = new BucketHistogram(BucketHistogram.TASK_COUNT_BOUNDS);
+        first.add(0);
+        first.add(5);
+        second.add(5);
+        second.add(100);
+
+        first.merge(second);
+        assertEquals(1, first.getCount(0));
+        assertEquals(2, first.getCount(3));
+        assertEquals(1, first.getCount(6));
+        assertEquals(4, first.getTotal());
+        assertEquals(2, second.getTotal());
+    }
+
+    @Test
+    void rejectsMergingDifferentBuckets() {
+        BucketHistogram first = new BucketHistogram(BucketHistogram.TASK_COUNT_BOUNDS);
+        BucketHistogram second = new BucketHistogram(new long[]{0, 10});
+
+        assertThrows(IllegalArgumentException.class, () -> first.merge(second));
+    }
+}
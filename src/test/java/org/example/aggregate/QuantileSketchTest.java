@@ -0,0 +1,162 @@
+package org.example.aggregate;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTest {
+
+    private static final int VALUES = 1_000_000;
+    private static final double MAX_RANK_ERROR = 0.005;
+
+    @Test
+    void rankErrorOfASingleSketchIsBelowHalfAPercent() {
+        for (double[] values : new double[][]{uniform(1), completionRates(2)}) {
+            QuantileSketch sketch = new QuantileSketch();
+            for (double value : values) {
+                sketch.add(value);
+            }
+
+            assertEquals(VALUES, sketch.getCount());
+            assertRankError(sketch, values);
+        }
+    }
+
+    @Test
+    void rankErrorOfMergedSketchesIsBelowHalfAPercent() {
+        for (double[] values : new double[][]{uniform(3), completionRates(4)}) {
+            // Interleaved partitions, as the parallel workers see them
+            QuantileSketch merged = new QuantileSketch();
+            for (int part = 0; part < 16; part++) {
+                QuantileSketch sketch = new QuantileSketch();
+                for (int i = part; i < values.length; i += 16) {
+                    sketch.add(values[i]);
+                }
+                merged.merge(sketch);
+            }
+
+            assertEquals(VALUES, merged.getCount());
+            assertRankError(merged, values);
+        }
+    }
+
+    @Test
+    void isExactForFewValues() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int value = 100; value >= 1; value--) {
+            sketch.add(value);
+        }
+
+        assertEquals(50, sketch.quantile(0.5));
+        assertEquals(90, sketch.quantile(0.9));
+        assertEquals(1, sketch.quantile(0));
+        assertEquals(100, sketch.quantile(1));
+        assertEquals(1, sketch.getMin());
+        assertEquals(100, sketch.getMax());
+    }
+
+    @Test
+    void mergeKeepsTheExtremesAndLeavesTheOtherSketch() {
+        QuantileSketch low = new QuantileSketch();
+        QuantileSketch high = new QuantileSketch();
+        for (int i = 0; i < 10_000; i++) {
+            low.add(i);
+            high.add(100_000 + i);
+        }
+
+        low.merge(high);
+        assertEquals(20_000, low.getCount());
+        assertEquals(0, low.getMin());
+        assertEquals(109_999, low.getMax());
+        assertEquals(10_000, high.getCount());
+        assertEquals(100_000, high.getMin());
+    }
+
+    @Test
+    void mergeIntoAnEmptySketch() {
+        QuantileSketch empty = new QuantileSketch();
+        QuantileSketch other = new QuantileSketch();
+        other.add(7);
+        other.add(3);
+
+        empty.merge(other);
+        assertEquals(2, empty.getCount());
+        assertEquals(3, empty.getMin());
+        assertEquals(7, empty.getMax());
+    }
+
+    @Test
+    void emptySketchHasNoQuantiles() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(Double.NaN);
+
+        assertEquals(0, sketch.getCount());
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        assertTrue(Double.isNaN(sketch.getMin()));
+    }
+
+    @Test
+    void rejectsATooSmallK() {
+        assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(4));
+    }
+
+    private static double[] uniform(long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[VALUES];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextDouble();
+        }
+        return values;
+    }
+
+    // Percentages with two decimals and many repeated values, like the completion rates
+    private static double[] completionRates(long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[VALUES];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(4) == 0 ? 100 : Math.round(Math.abs(random.nextGaussian()) * 3000) / 100.0;
+        }
+        return values;
+    }
+
+    /**
+     * Checks every percentile: the estimate's range of ranks in the sorted values must be
+     * within the allowed error of the requested rank.
+     */
+    private static void assertRankError(QuantileSketch sketch, double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double[] fractions = new double[99];
+        for (int i = 0; i < fractions.length; i++) {
+            fractions[i] = (i + 1) / 100.0;
+        }
+        double[] estimates = sketch.quantiles(fractions);
+        for (int i = 0; i < fractions.length; i++) {
+            long below = lowerBound(sorted, estimates[i]);
+            long atOrBelow = lowerBound(sorted, Math.nextUp(estimates[i]));
+            double rank = fractions[i] * sorted.length;
+            double error = rank < below ? below - rank : rank > atOrBelow ? rank - atOrBelow : 0;
+            assertTrue(error / sorted.length < MAX_RANK_ERROR,
+                    "percentile " + (i + 1) + ": rank error " + error / sorted.length);
+        }
+    }
+
+    private static int lowerBound(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
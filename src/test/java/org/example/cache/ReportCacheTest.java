@@ -0,0 +1,95 @@
+package org.example.cache;
+
+import org.example.ReportBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() throws IOException {
+        ReportCache cache = new ReportCache(directory, 250);
+        cache.put("a", report(100, 'a'));
+        cache.put("b", report(100, 'b'));
+        // Reading a makes b the least recently used
+        assertTrue(cache.copyTo("a", new ByteArrayOutputStream()));
+        cache.put("c", report(100, 'c'));
+
+        assertFalse(cache.copyTo("b", new ByteArrayOutputStream()));
+        assertFalse(Files.exists(directory.resolve("b.pdf")));
+        assertTrue(cache.copyTo("a", new ByteArrayOutputStream()));
+        assertTrue(cache.copyTo("c", new ByteArrayOutputStream()));
+        assertEquals(200, cache.getTotalBytes());
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void returnsTheStoredBytes() throws IOException {
+        ReportCache cache = new ReportCache(directory, 1000);
+        ReportBuffer report = report(10, 'x');
+        cache.put("key", report);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(cache.copyTo("key", out));
+        assertArrayEquals(report.toByteArray(), out.toByteArray());
+    }
+
+    @Test
+    void doesNotStoreEntriesLargerThanTheCache() throws IOException {
+        ReportCache cache = new ReportCache(directory, 250);
+        cache.put("big", report(300, 'x'));
+
+        assertFalse(cache.copyTo("big", new ByteArrayOutputStream()));
+        assertEquals(0, cache.getTotalBytes());
+    }
+
+    @Test
+    void picksUpEntriesOfAnEarlierRunOldestFirst() throws IOException {
+        ReportCache first = new ReportCache(directory, 1000);
+        first.put("old", report(100, 'o'));
+        first.put("new", report(100, 'n'));
+        Files.setLastModifiedTime(directory.resolve("old.pdf"), FileTime.fromMillis(1_000_000));
+        Files.setLastModifiedTime(directory.resolve("new.pdf"), FileTime.fromMillis(2_000_000));
+
+        // A smaller cache keeps only the most recently used entry
+        ReportCache second = new ReportCache(directory, 150);
+        assertEquals(100, second.getTotalBytes());
+        assertTrue(second.copyTo("new", new ByteArrayOutputStream()));
+        assertFalse(second.copyTo("old", new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void countsAFileRemovedByAnotherProcessAsAMiss() throws IOException {
+        ReportCache cache = new ReportCache(directory, 1000);
+        cache.put("gone", report(100, 'g'));
+        Files.delete(directory.resolve("gone.pdf"));
+
+        assertFalse(cache.copyTo("gone", new ByteArrayOutputStream()));
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getTotalBytes());
+    }
+
+    private static ReportBuffer report(int size, char fill) {
+        ReportBuffer buffer = new ReportBuffer(size);
+        for (int i = 0; i < size; i++) {
+            buffer.write(fill);
+        }
+        return buffer;
+    }
+}
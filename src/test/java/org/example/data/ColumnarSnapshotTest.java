@@ -0,0 +1,153 @@
+package org.example.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsTheHeader() throws IOException {
+        Path file = directory.resolve("reports.snapshot");
+        new SnapshotFiles().createdAt(1_700_000_000_000L).dataDay(19_700).versions(ColumnarSnapshot.FULL, 42)
+                .write(file);
+
+        ColumnarSnapshot snapshot = ColumnarSnapshot.open(file);
+        assertEquals(1_700_000_000_000L, snapshot.getCreatedAt());
+        assertEquals(19_700, snapshot.getDataDay());
+        assertEquals(ColumnarSnapshot.FULL, snapshot.getFromVersion());
+        assertEquals(42, snapshot.getVersion());
+        assertFalse(snapshot.isDelta());
+    }
+
+    @Test
+    void recognisesADeltaSegment() throws IOException {
+        Path file = directory.resolve("reports.snapshot.delta");
+        new SnapshotFiles().versions(40, 42).write(file);
+
+        ColumnarSnapshot snapshot = ColumnarSnapshot.open(file);
+        assertTrue(snapshot.isDelta());
+        assertEquals(40, snapshot.getFromVersion());
+    }
+
+    @Test
+    void readsIntDoubleAndStringColumns() throws IOException {
+        Path file = directory.resolve("reports.snapshot");
+        SnapshotFiles files = new SnapshotFiles();
+        files.table(ColumnarSnapshot.EMPLOYEES)
+                .ints("user_id", 1, 2, 5)
+                .ints("team_id", 3, ColumnarSnapshot.NULL_INT, 3)
+                .doubles("completion_rate", 12.5, 0, 100)
+                .strings("employee", "Łucja Żak", null, "Łucja Żak")
+                .strings("progress", "45.50", "brak", null);
+        files.write(file);
+
+        ColumnarSnapshot.Table table = ColumnarSnapshot.open(file).table(ColumnarSnapshot.EMPLOYEES);
+        assertEquals(3, table.rows);
+        assertEquals(List.of("user_id", "team_id", "completion_rate", "employee", "progress"),
+                List.copyOf(table.columnNames()));
+
+        ColumnarSnapshot.Column ids = table.column("user_id");
+        assertEquals(5, ids.getInt(2));
+        assertEquals(12.5, table.column("completion_rate").getDouble(0));
+        assertEquals(ColumnarSnapshot.NULL_INT, table.column("team_id").getInt(1));
+
+        ColumnarSnapshot.StringColumn names = table.strings("employee");
+        assertEquals("Łucja Żak", names.get(0));
+        assertNull(names.get(1));
+        assertEquals("Łucja Żak", names.get(2));
+
+        // Numbers for sorting: null and text count as 0
+        assertEquals(0, table.column("team_id").getNumber(1));
+        assertEquals(45.5, table.column("progress").getNumber(0));
+        assertEquals(0, table.column("progress").getNumber(1));
+        assertEquals(0, table.column("progress").getNumber(2));
+
+        assertEquals(1, table.find(ids, 2));
+        assertEquals(-1, table.find(ids, 3));
+        assertEquals(-1, table.find(ids, 6));
+    }
+
+    @Test
+    void reportsMissingTablesAndColumns() throws IOException {
+        Path file = directory.resolve("reports.snapshot");
+        SnapshotFiles files = new SnapshotFiles();
+        files.table(ColumnarSnapshot.PROJECTS).ints("project_id", 1).doubles("progress", 10);
+        files.write(file);
+
+        ColumnarSnapshot snapshot = ColumnarSnapshot.open(file);
+        assertThrows(IllegalStateException.class, () -> snapshot.table(ColumnarSnapshot.EMPLOYEES));
+        assertThrows(IllegalStateException.class, () -> snapshot.table(ColumnarSnapshot.PROJECTS).column("name"));
+        assertThrows(IllegalStateException.class, () -> snapshot.table(ColumnarSnapshot.PROJECTS).strings("progress"));
+    }
+
+    @Test
+    void rejectsFilesThatAreNotSnapshots() throws IOException {
+        Path empty = directory.resolve("empty");
+        Files.write(empty, new byte[0]);
+        assertThrows(IOException.class, () -> ColumnarSnapshot.open(empty));
+
+        Path text = directory.resolve("text");
+        Files.writeString(text, "to nie jest migawka raportów");
+        assertThrows(IOException.class, () -> ColumnarSnapshot.open(text));
+    }
+
+    @Test
+    void rejectsAnotherFormatVersion() throws IOException {
+        Path file = directory.resolve("reports.snapshot");
+        new SnapshotFiles().write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        int directoryOffset = (int) ByteBuffer.wrap(bytes).getLong(bytes.length - 8);
+        ByteBuffer.wrap(bytes).putInt(directoryOffset + 4, ColumnarSnapshot.FORMAT_VERSION + 1);
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> ColumnarSnapshot.open(file));
+    }
+
+    @Test
+    void writerOutputReadsBackUnchanged() throws IOException {
+        Path source = directory.resolve("source.snapshot");
+        SnapshotFiles files = new SnapshotFiles().createdAt(1_000).dataDay(20_000).versions(ColumnarSnapshot.FULL, 7);
+        files.table(ColumnarSnapshot.EMPLOYEES)
+                .ints("user_id", 1, 2, 3)
+                .strings("employee", "Anna Nowak", "Jan Kowalski", null)
+                .doubles("completion_rate", 50, 66.67, 0);
+        files.table(ColumnarSnapshot.PROJECTS).ints("project_id", 4).strings("project", "Portal");
+        files.table(ColumnarSnapshot.EXECUTIVE_OVERVIEWS).ints("project_id", 4).strings("total_tasks", "12");
+        files.table(ColumnarSnapshot.ASSIGNMENTS).ints("user_id").strings("title");
+        files.write(source);
+
+        Path copy = directory.resolve("copy.snapshot");
+        ColumnarSnapshotWriter.writeCompacted(SnapshotChain.open(source), copy);
+
+        ColumnarSnapshot snapshot = ColumnarSnapshot.open(copy);
+        assertEquals(1_000, snapshot.getCreatedAt());
+        assertEquals(20_000, snapshot.getDataDay());
+        assertEquals(7, snapshot.getVersion());
+        assertFalse(snapshot.isDelta());
+
+        ColumnarSnapshot.Table employees = snapshot.table(ColumnarSnapshot.EMPLOYEES);
+        assertEquals(List.of("user_id", "employee", "completion_rate"), List.copyOf(employees.columnNames()));
+        assertEquals(3, employees.column("user_id").getInt(2));
+        assertEquals("Jan Kowalski", employees.strings("employee").get(1));
+        assertNull(employees.strings("employee").get(2));
+        assertEquals(66.67, employees.column("completion_rate").getDouble(1));
+        assertEquals("Portal", snapshot.table(ColumnarSnapshot.PROJECTS).strings("project").get(0));
+        assertEquals("12", snapshot.table(ColumnarSnapshot.EXECUTIVE_OVERVIEWS).strings("total_tasks").get(0));
+        assertEquals(0, snapshot.table(ColumnarSnapshot.ASSIGNMENTS).rows);
+    }
+}
@@ -0,0 +1,183 @@
+package org.example.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SnapshotChainTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+
+    /**
+     * A snapshot of users 1-3 and two segments: the first changes user 2, adds user 4 and deletes
+     * user 3, the second changes user 2 again.
+     */
+    @BeforeEach
+    void writeChain() throws IOException {
+        file = directory.resolve("reports.snapshot");
+
+        SnapshotFiles base = new SnapshotFiles().createdAt(1_000).dataDay(100).versions(ColumnarSnapshot.FULL, 10);
+        base.table(ColumnarSnapshot.EMPLOYEES).ints("user_id", 1, 2, 3).strings("employee", "A1", "B1", "C1");
+        base.table(ColumnarSnapshot.PROJECTS).ints("project_id", 1, 2).strings("project", "P1", "Q1");
+        base.table(ColumnarSnapshot.EXECUTIVE_OVERVIEWS).ints("project_id", 1, 2).strings("project", "P1", "Q1");
+        base.table(ColumnarSnapshot.ASSIGNMENTS).ints("user_id", 1, 1, 2, 3).strings("title", "a", "b", "c", "d");
+        base.write(file);
+
+        SnapshotFiles first = new SnapshotFiles().createdAt(2_000).dataDay(100).versions(10, 20);
+        first.table(ColumnarSnapshot.EMPLOYEES).ints("user_id", 2, 4).strings("employee", "B2", "D2");
+        emptyProjects(first);
+        first.table(ColumnarSnapshot.ASSIGNMENTS).ints("user_id", 2, 4).strings("title", "e", "f");
+        first.table(ColumnarSnapshot.CHANGED_USERS).ints("user_id", 2, 3, 4);
+        first.table(ColumnarSnapshot.CHANGED_PROJECTS).ints("project_id");
+        first.write(SnapshotChain.deltaFile(file, 2_000));
+
+        // Read one sync back, from the version of the snapshot
+        SnapshotFiles second = new SnapshotFiles().createdAt(3_000).dataDay(101).versions(10, 25);
+        second.table(ColumnarSnapshot.EMPLOYEES).ints("user_id", 2).strings("employee", "B3");
+        emptyProjects(second);
+        second.table(ColumnarSnapshot.ASSIGNMENTS).ints("user_id", 2, 2).strings("title", "g", "h");
+        second.table(ColumnarSnapshot.CHANGED_USERS).ints("user_id", 2);
+        second.table(ColumnarSnapshot.CHANGED_PROJECTS).ints("project_id");
+        second.write(SnapshotChain.deltaFile(file, 3_000));
+    }
+
+    @Test
+    void mergesTheNewestRowsOfEveryEntityInIdOrder() throws IOException {
+        SnapshotChain chain = SnapshotChain.open(file);
+
+        SnapshotChain.Table employees = chain.table(ColumnarSnapshot.EMPLOYEES);
+        assertEquals(List.of(1, 2, 4), ints(employees, "user_id"));
+        assertEquals(List.of("A1", "B3", "D2"), strings(employees, "employee"));
+
+        SnapshotChain.Table assignments = chain.table(ColumnarSnapshot.ASSIGNMENTS);
+        assertEquals(List.of(1, 1, 2, 2, 4), ints(assignments, "user_id"));
+        assertEquals(List.of("a", "b", "g", "h", "f"), strings(assignments, "title"));
+
+        assertEquals(List.of("P1", "Q1"), strings(chain.table(ColumnarSnapshot.PROJECTS), "project"));
+        assertEquals(1, employees.find(employees.column("user_id"), 2));
+        assertEquals(-1, employees.find(employees.column("user_id"), 3));
+    }
+
+    @Test
+    void describesTheParts() throws IOException {
+        for (SnapshotChain chain : List.of(SnapshotChain.open(file), SnapshotChain.openHeaders(file))) {
+            assertEquals(2, chain.getSegmentCount());
+            assertEquals(4 + 3, chain.getSegmentRows());
+            assertEquals(3 + 2 + 2 + 4, chain.getSnapshotRows());
+            assertEquals(25, chain.getVersion());
+            assertEquals(20, chain.getResyncVersion());
+            assertEquals(3_000, chain.getCreatedAt());
+            assertEquals(101, chain.getDataDay());
+        }
+    }
+
+    @Test
+    void findsThePartHoldingAnEntity() throws IOException {
+        SnapshotChain chain = SnapshotChain.open(file);
+
+        assertEquals(1_000, chain.entityCreatedAt(ChangeTracker.Entity.USER, 1));
+        assertEquals(3_000, chain.entityCreatedAt(ChangeTracker.Entity.USER, 2));
+        assertEquals(2_000, chain.entityCreatedAt(ChangeTracker.Entity.USER, 4));
+        assertEquals(1_000, chain.entityCreatedAt(ChangeTracker.Entity.PROJECT, 2));
+    }
+
+    @Test
+    void headersOnlyChainHasNoTables() throws IOException {
+        SnapshotChain chain = SnapshotChain.openHeaders(file);
+
+        assertThrows(IllegalStateException.class, () -> chain.table(ColumnarSnapshot.EMPLOYEES));
+        assertThrows(IllegalStateException.class, () -> chain.entityCreatedAt(ChangeTracker.Entity.USER, 1));
+    }
+
+    @Test
+    void skipsSegmentsAfterAMissingOne() throws IOException {
+        // Starts after version 30, but the chain only reaches 25
+        SnapshotFiles gap = new SnapshotFiles().createdAt(4_000).versions(30, 40);
+        gap.table(ColumnarSnapshot.EMPLOYEES).ints("user_id", 1).strings("employee", "A4");
+        emptyProjects(gap);
+        gap.table(ColumnarSnapshot.ASSIGNMENTS).ints("user_id").strings("title");
+        gap.table(ColumnarSnapshot.CHANGED_USERS).ints("user_id", 1);
+        gap.table(ColumnarSnapshot.CHANGED_PROJECTS).ints("project_id");
+        gap.write(SnapshotChain.deltaFile(file, 4_000));
+
+        SnapshotChain chain = SnapshotChain.open(file);
+        assertEquals(2, chain.getSegmentCount());
+        assertEquals(25, chain.getVersion());
+        assertEquals("A1", chain.table(ColumnarSnapshot.EMPLOYEES).strings("employee").get(0));
+    }
+
+    @Test
+    void skipsSegmentsOlderThanTheSnapshot() throws IOException {
+        SnapshotFiles stale = new SnapshotFiles().createdAt(500).versions(0, 5);
+        stale.table(ColumnarSnapshot.EMPLOYEES).ints("user_id", 1).strings("employee", "A0");
+        emptyProjects(stale);
+        stale.table(ColumnarSnapshot.ASSIGNMENTS).ints("user_id").strings("title");
+        stale.table(ColumnarSnapshot.CHANGED_USERS).ints("user_id", 1);
+        stale.table(ColumnarSnapshot.CHANGED_PROJECTS).ints("project_id");
+        stale.write(SnapshotChain.deltaFile(file, 500));
+
+        SnapshotChain chain = SnapshotChain.open(file);
+        assertEquals(2, chain.getSegmentCount());
+        assertEquals("A1", chain.table(ColumnarSnapshot.EMPLOYEES).strings("employee").get(0));
+    }
+
+    @Test
+    void rejectsASegmentAsTheSnapshot() {
+        assertThrows(IOException.class, () -> SnapshotChain.open(SnapshotChain.deltaFile(file, 2_000)));
+    }
+
+    @Test
+    void withoutNewestLeavesOutTheLastSegment() throws IOException {
+        SnapshotChain chain = SnapshotChain.open(file).withoutNewest();
+
+        assertEquals(1, chain.getSegmentCount());
+        assertEquals(20, chain.getVersion());
+        assertEquals(List.of("A1", "B2", "D2"), strings(chain.table(ColumnarSnapshot.EMPLOYEES), "employee"));
+    }
+
+    @Test
+    void compactionKeepsTheMergedRows() throws IOException {
+        SnapshotDeltaSync.compact(file);
+
+        SnapshotChain chain = SnapshotChain.open(file);
+        assertEquals(List.of(SnapshotChain.deltaFile(file, 3_000)), SnapshotChain.deltaFiles(file));
+        assertEquals(1, chain.getSegmentCount());
+        assertEquals(25, chain.getVersion());
+        assertEquals(20, chain.getResyncVersion());
+        assertEquals(List.of(1, 2, 4), ints(chain.table(ColumnarSnapshot.EMPLOYEES), "user_id"));
+        assertEquals(List.of("A1", "B3", "D2"), strings(chain.table(ColumnarSnapshot.EMPLOYEES), "employee"));
+        assertEquals(List.of("a", "b", "g", "h", "f"), strings(chain.table(ColumnarSnapshot.ASSIGNMENTS), "title"));
+    }
+
+    private static void emptyProjects(SnapshotFiles segment) {
+        segment.table(ColumnarSnapshot.PROJECTS).ints("project_id").strings("project");
+        segment.table(ColumnarSnapshot.EXECUTIVE_OVERVIEWS).ints("project_id").strings("project");
+    }
+
+    private static List<Integer> ints(SnapshotChain.Table table, String column) {
+        List<Integer> values = new ArrayList<>();
+        for (int row = 0; row < table.rows; row++) {
+            values.add(table.column(column).getInt(row));
+        }
+        return values;
+    }
+
+    private static List<String> strings(SnapshotChain.Table table, String column) {
+        List<String> values = new ArrayList<>();
+        for (int row = 0; row < table.rows; row++) {
+            values.add(table.strings(column).get(row));
+        }
+        return values;
+    }
+}
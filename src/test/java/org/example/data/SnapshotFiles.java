@@ -0,0 +1,161 @@
+package org.example.data;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes snapshot files for tests, following the layout described in {@link ColumnarSnapshot}
+ * rather than going through {@link ColumnarSnapshotWriter}, which reads from the database.
+ */
+class SnapshotFiles {
+
+    private final Map<String, Table> tables = new LinkedHashMap<>();
+    private long createdAt;
+    private int dataDay;
+    private long fromVersion = ColumnarSnapshot.FULL;
+    private long version = ColumnarSnapshot.UNKNOWN_VERSION;
+
+    SnapshotFiles createdAt(long createdAt) {
+        this.createdAt = createdAt;
+        return this;
+    }
+
+    SnapshotFiles dataDay(int dataDay) {
+        this.dataDay = dataDay;
+        return this;
+    }
+
+    SnapshotFiles versions(long fromVersion, long version) {
+        this.fromVersion = fromVersion;
+        this.version = version;
+        return this;
+    }
+
+    Table table(String name) {
+        return tables.computeIfAbsent(name, n -> new Table());
+    }
+
+    void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+            Map<Column, Integer> offsets = new HashMap<>();
+            for (Table table : tables.values()) {
+                for (Column column : table.columns.values()) {
+                    offsets.put(column, out.size());
+                    column.write(out);
+                }
+            }
+
+            int directory = out.size();
+            out.writeInt(ColumnarSnapshot.MAGIC);
+            out.writeInt(ColumnarSnapshot.FORMAT_VERSION);
+            out.writeLong(createdAt);
+            out.writeInt(dataDay);
+            out.writeLong(fromVersion);
+            out.writeLong(version);
+            out.writeInt(tables.size());
+            for (Map.Entry<String, Table> table : tables.entrySet()) {
+                writeName(out, table.getKey());
+                out.writeInt(table.getValue().rows());
+                out.writeInt(table.getValue().columns.size());
+                for (Map.Entry<String, Column> column : table.getValue().columns.entrySet()) {
+                    writeName(out, column.getKey());
+                    out.writeByte(column.getValue().type);
+                    out.writeLong(offsets.get(column.getValue()));
+                }
+            }
+            out.writeLong(directory);
+        }
+    }
+
+    private static void writeName(DataOutputStream out, String name) throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * The columns of one table; all columns must have the same number of values.
+     */
+    static class Table {
+        private final Map<String, Column> columns = new LinkedHashMap<>();
+
+        Table ints(String name, int... values) {
+            columns.put(name, new Column(ColumnarSnapshot.INT, values, null, null));
+            return this;
+        }
+
+        Table doubles(String name, double... values) {
+            columns.put(name, new Column(ColumnarSnapshot.DOUBLE, null, values, null));
+            return this;
+        }
+
+        Table strings(String name, String... values) {
+            columns.put(name, new Column(ColumnarSnapshot.STRING, null, null, values));
+            return this;
+        }
+
+        int rows() {
+            return columns.isEmpty() ? 0 : columns.values().iterator().next().size();
+        }
+    }
+
+    private static class Column {
+        private final byte type;
+        private final int[] ints;
+        private final double[] doubles;
+        private final String[] strings;
+
+        Column(byte type, int[] ints, double[] doubles, String[] strings) {
+            this.type = type;
+            this.ints = ints;
+            this.doubles = doubles;
+            this.strings = strings;
+        }
+
+        int size() {
+            return ints != null ? ints.length : doubles != null ? doubles.length : strings.length;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            if (type == ColumnarSnapshot.INT) {
+                for (int value : ints) {
+                    out.writeInt(value);
+                }
+            } else if (type == ColumnarSnapshot.DOUBLE) {
+                for (double value : doubles) {
+                    out.writeDouble(value);
+                }
+            } else {
+                Map<String, Integer> codes = new HashMap<>();
+                List<byte[]> entries = new ArrayList<>();
+                for (String value : strings) {
+                    if (value != null && !codes.containsKey(value)) {
+                        codes.put(value, entries.size());
+                        entries.add(value.getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+                out.writeInt(entries.size());
+                int offset = 0;
+                out.writeInt(0);
+                for (byte[] entry : entries) {
+                    offset += entry.length;
+                    out.writeInt(offset);
+                }
+                for (byte[] entry : entries) {
+                    out.write(entry);
+                }
+                for (String value : strings) {
+                    out.writeInt(value != null ? codes.get(value) : -1);
+                }
+            }
+        }
+    }
+}
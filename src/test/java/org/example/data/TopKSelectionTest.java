@@ -0,0 +1,77 @@
+package org.example.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopKSelectionTest {
+
+    @Test
+    void keepsTheHighestRowsOfALongStream() {
+        Random random = new Random(42);
+        List<Integer> all = new ArrayList<>();
+        TopKSelection<Integer> selection = new TopKSelection<>(20, Comparator.<Integer>reverseOrder());
+        for (int i = 0; i < 100_000; i++) {
+            int value = random.nextInt(1_000_000);
+            all.add(value);
+            selection.accept(value);
+        }
+
+        all.sort(Comparator.reverseOrder());
+        assertEquals(all.subList(0, 20), selection.result());
+        assertEquals(100_000, selection.getOffered());
+    }
+
+    @Test
+    void keepsTheLowestRowsInAscendingOrder() {
+        TopKSelection<Integer> selection = new TopKSelection<>(3, Comparator.<Integer>naturalOrder());
+        for (int value : new int[]{9, 4, 7, 1, 8, 4, 2}) {
+            selection.accept(value);
+        }
+
+        assertEquals(List.of(1, 2, 4), selection.result());
+    }
+
+    @Test
+    void keepsTheFirstOfEqualRows() {
+        // Rows that tie with the weakest kept row do not replace it
+        Comparator<int[]> byValue = Comparator.comparingInt(row -> -row[0]);
+        TopKSelection<int[]> selection = new TopKSelection<>(2, byValue);
+        selection.accept(new int[]{5, 1});
+        selection.accept(new int[]{3, 2});
+        selection.accept(new int[]{3, 3});
+
+        List<int[]> result = selection.result();
+        assertEquals(5, result.get(0)[0]);
+        assertEquals(2, result.get(1)[1]);
+    }
+
+    @Test
+    void returnsAllRowsWhenFewerThanTheLimit() {
+        TopKSelection<String> selection = new TopKSelection<>(10, Comparator.<String>naturalOrder());
+        selection.accept("b");
+        selection.accept("a");
+
+        assertEquals(List.of("a", "b"), selection.result());
+    }
+
+    @Test
+    void returnsNothingForAnEmptyStream() {
+        TopKSelection<String> selection = new TopKSelection<>(5, Comparator.<String>naturalOrder());
+
+        assertTrue(selection.result().isEmpty());
+        assertEquals(0, selection.getOffered());
+    }
+
+    @Test
+    void rejectsANonPositiveLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new TopKSelection<Integer>(0, Comparator.naturalOrder()));
+    }
+}